@@ -23,6 +23,8 @@ const __filename = fileURLToPath(import.meta.url);
 const __dirname = path.dirname(__filename);
 
 const MINECRAFT_VERSION = process.env.MINECRAFT_VERSION || '1.20';
+// BannerGenerator plugin preview endpoint (preview.enabled in plugins/BannerGenerator/config.yml)
+const BANNER_PREVIEW_URL = process.env.BANNER_PREVIEW_URL || 'http://127.0.0.1:8765';
 const assets: any = mcAssets(MINECRAFT_VERSION);
 
 // Build timeline history from shared database (replaces buildHistoryFromActivity)
@@ -826,6 +828,22 @@ export function createDashboardApp(botManager: BotManager) {
     }
   });
 
+  // Banner text previews, rendered by the BannerGenerator plugin and proxied so the UI needs no extra origin
+  app.get('/api/banners/preview', async (c) => {
+    try {
+      const query = new URL(c.req.url).search;
+      const res = await fetch(`${BANNER_PREVIEW_URL}/banner.png${query}`);
+      if (!res.ok) {
+        return c.text(await res.text(), res.status as any);
+      }
+      c.header('Content-Type', 'image/png');
+      c.header('Cache-Control', res.headers.get('Cache-Control') || 'public, max-age=300');
+      return c.body(Buffer.from(await res.arrayBuffer()));
+    } catch (error: any) {
+      return c.json({ error: `Banner preview endpoint unavailable: ${error.message}` }, 502);
+    }
+  });
+
   // ============================================================================
   // Static UI
   // ============================================================================
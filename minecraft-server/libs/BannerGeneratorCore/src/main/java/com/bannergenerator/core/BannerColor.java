@@ -0,0 +1,82 @@
+package com.bannergenerator.core;
+
+import java.util.Locale;
+
+/**
+ * The sixteen dye colours a banner can use, in the same order as Bukkit's {@code DyeColor}
+ * and vanilla's {@code DyeColor}, so ordinals and names map across platforms one-to-one.
+ */
+public enum BannerColor {
+    WHITE(0xF9FFFE),
+    ORANGE(0xF9801D),
+    MAGENTA(0xC74EBD),
+    LIGHT_BLUE(0x3AB3DA),
+    YELLOW(0xFED83D),
+    LIME(0x80C71F),
+    PINK(0xF38BAA),
+    GRAY(0x474F52),
+    LIGHT_GRAY(0x9D9D97),
+    CYAN(0x169C9C),
+    PURPLE(0x8932B8),
+    BLUE(0x3C44AA),
+    BROWN(0x835432),
+    GREEN(0x5E7C16),
+    RED(0xB02E26),
+    BLACK(0x1D1D21);
+
+    private static final BannerColor[] VALUES = values();
+
+    private final int rgb;
+
+    BannerColor(int rgb) {
+        this.rgb = rgb;
+    }
+
+    /**
+     * Texture colour used for swatches and rendering
+     */
+    public int rgb() {
+        return rgb;
+    }
+
+    /**
+     * Human readable name, e.g. "Light Blue"
+     */
+    public String displayName() {
+        return displayName(name());
+    }
+
+    public static BannerColor byOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * Looks a colour up by name, ignoring case
+     *
+     * @return The colour, or the fallback when the name is unknown
+     */
+    public static BannerColor byName(String name, BannerColor fallback) {
+        try {
+            return valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+
+    /**
+     * Turns an enum style name like "LIGHT_BLUE" into "Light Blue"
+     */
+    public static String displayName(String name) {
+        String[] words = name.toLowerCase(Locale.ROOT).split("_");
+        StringBuilder result = new StringBuilder();
+        for (String word : words) {
+            if (!word.isEmpty()) {
+                if (!result.isEmpty()) {
+                    result.append(' ');
+                }
+                result.append(Character.toUpperCase(word.charAt(0))).append(word.substring(1));
+            }
+        }
+        return result.toString();
+    }
+}
@@ -0,0 +1,94 @@
+package com.bannergenerator.core;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Works out where each letter of a banner wall goes, relative to the first banner.
+ * Coordinates follow Minecraft's axes (x east, y up, z south); the platform only has to add the origin.
+ */
+public final class BannerLayout {
+
+    private BannerLayout() {
+    }
+
+    /**
+     * Computes the position of every letter of a wall
+     *
+     * @param text Sanitized text, one banner per character
+     * @param face The side of the wall the banners hang on
+     * @param direction Direction the text runs in, as seen by someone reading it
+     * @return One slot per character, in text order
+     */
+    public static List<Slot> wall(String text, Facing face, Direction direction) {
+        Step step = direction.step(face);
+        // Wall banners are two blocks tall, so vertical text skips every other block
+        int stride = direction == Direction.DOWN ? 2 : 1;
+
+        List<Slot> slots = new ArrayList<>(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            int offset = i * stride;
+            slots.add(new Slot(step.dx() * offset, step.dy() * offset, step.dz() * offset, text.charAt(i)));
+        }
+        return slots;
+    }
+
+    /**
+     * Position of one letter relative to the first banner
+     */
+    public record Slot(int dx, int dy, int dz, char glyph) {
+    }
+
+    /**
+     * A unit step along the block grid
+     */
+    public record Step(int dx, int dy, int dz) {
+    }
+
+    /**
+     * The horizontal side of a block a wall banner hangs on
+     */
+    public enum Facing {
+        NORTH(0, -1),
+        EAST(1, 0),
+        SOUTH(0, 1),
+        WEST(-1, 0);
+
+        private final int dx;
+        private final int dz;
+
+        Facing(int dx, int dz) {
+            this.dx = dx;
+            this.dz = dz;
+        }
+
+        public Step step() {
+            return new Step(dx, 0, dz);
+        }
+
+        public Facing clockwise() {
+            return values()[(ordinal() + 1) & 3];
+        }
+
+        public Facing opposite() {
+            return values()[(ordinal() + 2) & 3];
+        }
+    }
+
+    /**
+     * Direction a wall's text runs in, relative to a reader facing the wall
+     */
+    public enum Direction {
+        RIGHT,
+        LEFT,
+        DOWN;
+
+        public Step step(Facing face) {
+            return switch (this) {
+                case RIGHT -> face.opposite().clockwise().step();
+                case LEFT -> face.clockwise().step();
+                case DOWN -> new Step(0, -1, 0);
+            };
+        }
+    }
+}
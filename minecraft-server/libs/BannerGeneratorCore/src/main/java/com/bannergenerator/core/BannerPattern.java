@@ -0,0 +1,78 @@
+package com.bannergenerator.core;
+
+/**
+ * Vanilla banner pattern types, identified by their registry key in the minecraft namespace.
+ * Platform adapters resolve the key to their own pattern type (Bukkit {@code PatternType},
+ * vanilla {@code BannerPattern}).
+ */
+public enum BannerPattern {
+    SQUARE_BOTTOM_LEFT,
+    SQUARE_BOTTOM_RIGHT,
+    SQUARE_TOP_LEFT,
+    SQUARE_TOP_RIGHT,
+    STRIPE_BOTTOM,
+    STRIPE_TOP,
+    STRIPE_LEFT,
+    STRIPE_RIGHT,
+    STRIPE_CENTER,
+    STRIPE_MIDDLE,
+    STRIPE_DOWNRIGHT,
+    STRIPE_DOWNLEFT,
+    SMALL_STRIPES,
+    CROSS,
+    STRAIGHT_CROSS,
+    TRIANGLE_BOTTOM,
+    TRIANGLE_TOP,
+    TRIANGLES_BOTTOM,
+    TRIANGLES_TOP,
+    DIAGONAL_LEFT,
+    DIAGONAL_UP_RIGHT,
+    DIAGONAL_UP_LEFT,
+    DIAGONAL_RIGHT,
+    CIRCLE,
+    RHOMBUS,
+    HALF_VERTICAL,
+    HALF_HORIZONTAL,
+    HALF_VERTICAL_RIGHT,
+    HALF_HORIZONTAL_BOTTOM,
+    BORDER,
+    CURLY_BORDER,
+    GRADIENT,
+    GRADIENT_UP,
+    BRICKS,
+    GLOBE,
+    CREEPER,
+    SKULL,
+    FLOWER,
+    MOJANG,
+    PIGLIN,
+    FLOW,
+    GUSTER;
+
+    private static final BannerPattern[] VALUES = values();
+
+    private final String key = name().toLowerCase(java.util.Locale.ROOT);
+
+    /**
+     * Registry key without namespace, e.g. "stripe_top"
+     */
+    public String key() {
+        return key;
+    }
+
+    public static BannerPattern byOrdinal(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    /**
+     * @return The pattern with the given registry key, or null when unknown
+     */
+    public static BannerPattern byKey(String key) {
+        for (BannerPattern pattern : VALUES) {
+            if (pattern.key.equals(key)) {
+                return pattern;
+            }
+        }
+        return null;
+    }
+}
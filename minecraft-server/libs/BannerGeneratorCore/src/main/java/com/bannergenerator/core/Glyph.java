@@ -0,0 +1,49 @@
+package com.bannergenerator.core;
+
+import java.util.List;
+
+/**
+ * The banner layers that draw one character.
+ *
+ * @param character The character this glyph renders
+ * @param id Stable index of the character in the glyph table
+ * @param layers Layers in application order, bottom first
+ */
+public record Glyph(char character, int id, List<Layer> layers) {
+
+    public Glyph {
+        layers = List.copyOf(layers);
+    }
+
+    /**
+     * Colour role of a layer; resolved to the actual dye when a banner is built
+     */
+    public enum Tone {
+        /**
+         * The letter colour
+         */
+        FOREGROUND,
+        /**
+         * The banner base colour, used to cut shapes back out of earlier layers
+         */
+        BACKGROUND;
+
+        public BannerColor resolve(BannerColor background, BannerColor foreground) {
+            return this == FOREGROUND ? foreground : background;
+        }
+    }
+
+    /**
+     * A single pattern layer
+     */
+    public record Layer(BannerPattern pattern, Tone tone) {
+
+        public static Layer fg(BannerPattern pattern) {
+            return new Layer(pattern, Tone.FOREGROUND);
+        }
+
+        public static Layer bg(BannerPattern pattern) {
+            return new Layer(pattern, Tone.BACKGROUND);
+        }
+    }
+}
@@ -0,0 +1,191 @@
+package com.bannergenerator.core;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static com.bannergenerator.core.BannerPattern.*;
+
+/**
+ * Maps characters to the banner layers that draw them.
+ * Glyph ids are the position of the character in {@link #characters()} and are stable for a given table,
+ * so they can be stored on items and sent over the wire instead of the characters themselves.
+ */
+public final class GlyphTable {
+
+    private static final GlyphTable BUILT_IN = createBuiltIn();
+
+    private final List<Glyph> glyphs;
+    private final String characters;
+    private final Glyph[] byChar;
+    private final Glyph fallback;
+
+    /**
+     * @param glyphs Glyphs in id order; ids must be 0..n-1
+     * @param fallbackChar Character whose glyph is used for unknown characters
+     */
+    public GlyphTable(List<Glyph> glyphs, char fallbackChar) {
+        this.glyphs = List.copyOf(glyphs);
+        StringBuilder chars = new StringBuilder(glyphs.size());
+        char max = 0;
+        for (int i = 0; i < this.glyphs.size(); i++) {
+            Glyph glyph = this.glyphs.get(i);
+            if (glyph.id() != i) {
+                throw new IllegalArgumentException("Glyph '" + glyph.character() + "' has id " + glyph.id() + ", expected " + i);
+            }
+            if (chars.indexOf(String.valueOf(glyph.character())) >= 0) {
+                throw new IllegalArgumentException("Duplicate glyph for '" + glyph.character() + "'");
+            }
+            chars.append(glyph.character());
+            max = (char) Math.max(max, glyph.character());
+        }
+        this.characters = chars.toString();
+        this.byChar = new Glyph[max + 1];
+        for (Glyph glyph : this.glyphs) {
+            byChar[glyph.character()] = glyph;
+        }
+        this.fallback = find(fallbackChar);
+        if (fallback == null) {
+            throw new IllegalArgumentException("Fallback character '" + fallbackChar + "' has no glyph");
+        }
+    }
+
+    /**
+     * The hand-made table for letters, digits and basic punctuation
+     */
+    public static GlyphTable builtIn() {
+        return BUILT_IN;
+    }
+
+    /**
+     * Every character that has a glyph, in id order
+     */
+    public String characters() {
+        return characters;
+    }
+
+    public List<Glyph> glyphs() {
+        return glyphs;
+    }
+
+    public int size() {
+        return glyphs.size();
+    }
+
+    /**
+     * Looks the character up as-is, then upper-cased, so tables without lower-case glyphs
+     * still accept lower-case input
+     *
+     * @return The glyph for the character, or null when it has none
+     */
+    public Glyph find(char c) {
+        Glyph glyph = c < byChar.length ? byChar[c] : null;
+        if (glyph == null) {
+            char upper = Character.toUpperCase(c);
+            glyph = upper < byChar.length ? byChar[upper] : null;
+        }
+        return glyph;
+    }
+
+    /**
+     * @return The glyph for the character, or the fallback glyph when it has none
+     */
+    public Glyph glyph(char c) {
+        Glyph glyph = find(c);
+        return glyph != null ? glyph : fallback;
+    }
+
+    /**
+     * Glyph drawn for characters the table does not support
+     */
+    public Glyph fallback() {
+        return fallback;
+    }
+
+    public Glyph byId(int id) {
+        return glyphs.get(id);
+    }
+
+    public boolean supports(char c) {
+        return find(c) != null;
+    }
+
+    private static GlyphTable createBuiltIn() {
+        Builder builder = new Builder();
+
+        // Letters A-Z
+        builder.add('A', STRIPE_TOP, STRIPE_LEFT, STRIPE_RIGHT, STRIPE_MIDDLE);
+        builder.add('B', STRIPE_LEFT, STRIPE_TOP, STRIPE_BOTTOM, STRIPE_RIGHT, STRIPE_MIDDLE);
+        builder.add('C', STRIPE_LEFT, STRIPE_TOP, STRIPE_BOTTOM);
+        builder.add('D', STRIPE_LEFT, STRIPE_TOP, STRIPE_BOTTOM, STRIPE_RIGHT);
+        builder.add('E', STRIPE_LEFT, STRIPE_TOP, STRIPE_MIDDLE, STRIPE_BOTTOM);
+        builder.add('F', STRIPE_LEFT, STRIPE_TOP, STRIPE_MIDDLE);
+        builder.add('G', STRIPE_LEFT, STRIPE_TOP, STRIPE_BOTTOM, STRIPE_MIDDLE, HALF_HORIZONTAL_BOTTOM);
+        builder.add('H', STRIPE_LEFT, STRIPE_RIGHT, STRIPE_MIDDLE);
+        builder.add('I', STRIPE_CENTER, STRIPE_TOP, STRIPE_BOTTOM);
+        builder.add('J', STRIPE_RIGHT, STRIPE_BOTTOM, SQUARE_BOTTOM_LEFT);
+        builder.add('K', STRIPE_LEFT, DIAGONAL_UP_RIGHT, STRIPE_DOWNRIGHT);
+        builder.add('L', STRIPE_LEFT, STRIPE_BOTTOM);
+        builder.add('M', STRIPE_LEFT, STRIPE_RIGHT, TRIANGLE_TOP);
+        builder.add('N', STRIPE_LEFT, STRIPE_RIGHT, STRIPE_DOWNRIGHT);
+        builder.add('O', STRIPE_LEFT, STRIPE_RIGHT, STRIPE_TOP, STRIPE_BOTTOM);
+        builder.add('P', STRIPE_LEFT, STRIPE_TOP, STRIPE_MIDDLE, HALF_VERTICAL_RIGHT);
+        builder.add('Q', STRIPE_LEFT, STRIPE_RIGHT, STRIPE_TOP, STRIPE_BOTTOM, SQUARE_BOTTOM_RIGHT);
+        builder.add('R', STRIPE_LEFT, STRIPE_TOP, STRIPE_MIDDLE, STRIPE_DOWNRIGHT);
+        builder.add('S', STRIPE_TOP, STRIPE_BOTTOM, STRIPE_MIDDLE, SQUARE_TOP_LEFT, SQUARE_BOTTOM_RIGHT);
+        builder.add('T', STRIPE_TOP, STRIPE_CENTER);
+        builder.add('U', STRIPE_LEFT, STRIPE_RIGHT, STRIPE_BOTTOM);
+        builder.add('V', STRIPE_LEFT, STRIPE_DOWNLEFT);
+        builder.add('W', STRIPE_LEFT, STRIPE_RIGHT, TRIANGLE_BOTTOM);
+        builder.add('X', DIAGONAL_LEFT, STRIPE_DOWNRIGHT);
+        builder.add('Y', STRIPE_DOWNRIGHT, STRIPE_DOWNLEFT, HALF_VERTICAL);
+        builder.add('Z', STRIPE_TOP, STRIPE_BOTTOM, STRIPE_DOWNLEFT);
+
+        // Numbers 0-9
+        builder.add('0', STRIPE_LEFT, STRIPE_RIGHT, STRIPE_TOP, STRIPE_BOTTOM, STRIPE_DOWNLEFT);
+        builder.add('1', STRIPE_CENTER, SQUARE_TOP_LEFT);
+        builder.add('2', STRIPE_TOP, STRIPE_MIDDLE, STRIPE_BOTTOM, SQUARE_TOP_RIGHT, SQUARE_BOTTOM_LEFT);
+        builder.add('3', STRIPE_TOP, STRIPE_MIDDLE, STRIPE_BOTTOM, STRIPE_RIGHT);
+        builder.add('4', STRIPE_LEFT, STRIPE_MIDDLE, STRIPE_RIGHT, HALF_HORIZONTAL_BOTTOM);
+        builder.add('5', STRIPE_TOP, STRIPE_MIDDLE, STRIPE_BOTTOM, SQUARE_TOP_LEFT, SQUARE_BOTTOM_RIGHT);
+        builder.add('6', STRIPE_LEFT, STRIPE_TOP, STRIPE_MIDDLE, STRIPE_BOTTOM, SQUARE_BOTTOM_RIGHT);
+        builder.add('7', STRIPE_TOP, STRIPE_RIGHT);
+        builder.add('8', STRIPE_LEFT, STRIPE_RIGHT, STRIPE_TOP, STRIPE_MIDDLE, STRIPE_BOTTOM);
+        builder.add('9', STRIPE_TOP, STRIPE_MIDDLE, STRIPE_RIGHT, SQUARE_TOP_LEFT);
+
+        // Special characters
+        builder.add('!', STRIPE_CENTER, SQUARE_BOTTOM_LEFT);
+        builder.add('?', STRIPE_TOP, HALF_VERTICAL_RIGHT, SQUARE_BOTTOM_LEFT);
+        builder.add('.', SQUARE_BOTTOM_LEFT);
+        builder.add(',', SQUARE_BOTTOM_LEFT, BORDER);
+
+        // Space - no patterns, just the background color
+        builder.add(' ');
+
+        return builder.build('?');
+    }
+
+    /**
+     * Collects glyphs in id order
+     */
+    public static final class Builder {
+
+        private final List<Glyph> glyphs = new ArrayList<>();
+
+        /**
+         * Adds a glyph drawn entirely in the foreground colour
+         */
+        public Builder add(char c, BannerPattern... patterns) {
+            return add(c, Arrays.stream(patterns).map(Glyph.Layer::fg).toList());
+        }
+
+        public Builder add(char c, List<Glyph.Layer> layers) {
+            glyphs.add(new Glyph(c, glyphs.size(), layers));
+            return this;
+        }
+
+        public GlyphTable build(char fallbackChar) {
+            return new GlyphTable(glyphs, fallbackChar);
+        }
+    }
+}
@@ -0,0 +1,196 @@
+package com.bannergenerator.core;
+
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Text and binary forms of a {@link GlyphTable}.
+ * <p>
+ * The text form is meant for editing and review:
+ * <pre>
+ * fallback U+003F
+ * U+0041 +stripe_top +stripe_left +stripe_right +stripe_middle
+ * U+0020
+ * </pre>
+ * One glyph per line in id order: the code point, then its layers bottom first,
+ * '+' for the foreground tone and '-' for the background tone. '#' starts a comment.
+ * <p>
+ * The binary form is what the plugin loads at startup: magic "BGGT", a version byte,
+ * the fallback character, a dictionary of the pattern keys in use, then per glyph its character,
+ * layer count and one byte per layer (dictionary index shifted left, tone in the low bit).
+ * Keys rather than ordinals keep the file valid when {@link BannerPattern} gains entries.
+ */
+public final class GlyphTableFormat {
+
+    private static final int MAGIC = 0x42474754; // "BGGT"
+    private static final int BINARY_VERSION = 1;
+    private static final int MAX_DICTIONARY_SIZE = 128;
+
+    private GlyphTableFormat() {
+    }
+
+    public static void writeBinary(GlyphTable table, OutputStream stream) throws IOException {
+        Map<BannerPattern, Integer> dictionary = new LinkedHashMap<>();
+        for (Glyph glyph : table.glyphs()) {
+            for (Glyph.Layer layer : glyph.layers()) {
+                dictionary.putIfAbsent(layer.pattern(), dictionary.size());
+            }
+        }
+        if (dictionary.size() > MAX_DICTIONARY_SIZE) {
+            throw new IOException("Too many distinct patterns: " + dictionary.size());
+        }
+
+        DataOutputStream out = new DataOutputStream(stream);
+        out.writeInt(MAGIC);
+        out.writeByte(BINARY_VERSION);
+        out.writeChar(table.fallback().character());
+
+        out.writeByte(dictionary.size());
+        for (BannerPattern pattern : dictionary.keySet()) {
+            out.writeUTF(pattern.key());
+        }
+
+        out.writeShort(table.size());
+        for (Glyph glyph : table.glyphs()) {
+            out.writeChar(glyph.character());
+            out.writeByte(glyph.layers().size());
+            for (Glyph.Layer layer : glyph.layers()) {
+                int tone = layer.tone() == Glyph.Tone.FOREGROUND ? 0 : 1;
+                out.writeByte(dictionary.get(layer.pattern()) << 1 | tone);
+            }
+        }
+        out.flush();
+    }
+
+    public static GlyphTable readBinary(InputStream stream) throws IOException {
+        DataInputStream in = new DataInputStream(stream);
+        if (in.readInt() != MAGIC) {
+            throw new IOException("Not a glyph table (bad magic)");
+        }
+        int version = in.readUnsignedByte();
+        if (version != BINARY_VERSION) {
+            throw new IOException("Unsupported glyph table version " + version);
+        }
+        char fallback = in.readChar();
+
+        int dictionarySize = in.readUnsignedByte();
+        BannerPattern[] dictionary = new BannerPattern[dictionarySize];
+        for (int i = 0; i < dictionarySize; i++) {
+            String key = in.readUTF();
+            dictionary[i] = BannerPattern.byKey(key);
+            if (dictionary[i] == null) {
+                throw new IOException("Unknown pattern '" + key + "'");
+            }
+        }
+
+        GlyphTable.Builder builder = new GlyphTable.Builder();
+        int count = in.readUnsignedShort();
+        for (int i = 0; i < count; i++) {
+            char c = in.readChar();
+            int layerCount = in.readUnsignedByte();
+            List<Glyph.Layer> layers = new ArrayList<>(layerCount);
+            for (int j = 0; j < layerCount; j++) {
+                int value = in.readUnsignedByte();
+                int index = value >>> 1;
+                if (index >= dictionarySize) {
+                    throw new IOException("Glyph U+" + Integer.toHexString(c) + " references unknown pattern " + index);
+                }
+                layers.add((value & 1) == 0 ? Glyph.Layer.fg(dictionary[index]) : Glyph.Layer.bg(dictionary[index]));
+            }
+            builder.add(c, layers);
+        }
+
+        try {
+            return builder.build(fallback);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    public static void write(GlyphTable table, Writer out) throws IOException {
+        out.write("fallback " + codePoint(table.fallback().character()) + "\n");
+        for (Glyph glyph : table.glyphs()) {
+            StringBuilder line = new StringBuilder(codePoint(glyph.character()));
+            for (Glyph.Layer layer : glyph.layers()) {
+                line.append(' ').append(layer.tone() == Glyph.Tone.FOREGROUND ? '+' : '-').append(layer.pattern().key());
+            }
+            out.write(line.append('\n').toString());
+        }
+        out.flush();
+    }
+
+    public static GlyphTable read(Reader in) throws IOException {
+        BufferedReader reader = new BufferedReader(in);
+        GlyphTable.Builder builder = new GlyphTable.Builder();
+        Character fallback = null;
+
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            int comment = line.indexOf('#');
+            if (comment >= 0) {
+                line = line.substring(0, comment);
+            }
+            String[] tokens = line.trim().split("\\s+");
+            if (tokens[0].isEmpty()) {
+                continue;
+            }
+
+            if (tokens[0].equals("fallback")) {
+                if (tokens.length != 2) {
+                    throw new IOException("Line " + lineNumber + ": expected 'fallback U+XXXX'");
+                }
+                fallback = parseCodePoint(tokens[1], lineNumber);
+                continue;
+            }
+
+            char c = parseCodePoint(tokens[0], lineNumber);
+            List<Glyph.Layer> layers = new ArrayList<>(tokens.length - 1);
+            for (int i = 1; i < tokens.length; i++) {
+                String token = tokens[i];
+                char sign = token.charAt(0);
+                BannerPattern pattern = BannerPattern.byKey(token.substring(1));
+                if ((sign != '+' && sign != '-') || pattern == null) {
+                    throw new IOException("Line " + lineNumber + ": invalid layer '" + token + "'");
+                }
+                layers.add(sign == '+' ? Glyph.Layer.fg(pattern) : Glyph.Layer.bg(pattern));
+            }
+            builder.add(c, layers);
+        }
+
+        if (fallback == null) {
+            throw new IOException("Missing 'fallback' line");
+        }
+        try {
+            return builder.build(fallback);
+        } catch (IllegalArgumentException e) {
+            throw new IOException(e.getMessage(), e);
+        }
+    }
+
+    private static String codePoint(char c) {
+        return String.format("U+%04X", (int) c);
+    }
+
+    private static char parseCodePoint(String token, int lineNumber) throws IOException {
+        try {
+            if (token.startsWith("U+")) {
+                return (char) Integer.parseInt(token.substring(2), 16);
+            }
+        } catch (NumberFormatException ignored) {
+            // reported below
+        }
+        throw new IOException("Line " + lineNumber + ": invalid code point '" + token + "'");
+    }
+}
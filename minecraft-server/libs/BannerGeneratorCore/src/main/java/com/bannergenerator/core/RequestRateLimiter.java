@@ -0,0 +1,58 @@
+package com.bannergenerator.core;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Sliding-window limiter for generate requests: a minimum delay between two requests plus a cap per rolling minute.
+ * The server enforces it per player and the client mirrors it with the announced limits,
+ * so both sides agree on when a request is allowed. Thread-safe.
+ */
+public final class RequestRateLimiter {
+
+    private static final long WINDOW_MILLIS = 60_000L;
+
+    private final long cooldownMillis;
+    private final int requestsPerMinute;
+    private final Deque<Long> timestamps = new ArrayDeque<>();
+
+    public RequestRateLimiter(long cooldownMillis, int requestsPerMinute) {
+        this.cooldownMillis = cooldownMillis;
+        this.requestsPerMinute = requestsPerMinute;
+    }
+
+    /**
+     * Whether a request made now would be allowed, without recording it
+     */
+    public synchronized boolean canAcquire(long now) {
+        expire(now);
+        Long last = timestamps.peekLast();
+        if (last != null && now - last < cooldownMillis) {
+            return false;
+        }
+        return timestamps.size() < requestsPerMinute;
+    }
+
+    /**
+     * Records a request if it is allowed
+     *
+     * @return False when the request exceeds the limits
+     */
+    public synchronized boolean tryAcquire(long now) {
+        if (!canAcquire(now)) {
+            return false;
+        }
+        timestamps.addLast(now);
+        return true;
+    }
+
+    public synchronized void reset() {
+        timestamps.clear();
+    }
+
+    private void expire(long now) {
+        while (!timestamps.isEmpty() && now - timestamps.peekFirst() >= WINDOW_MILLIS) {
+            timestamps.pollFirst();
+        }
+    }
+}
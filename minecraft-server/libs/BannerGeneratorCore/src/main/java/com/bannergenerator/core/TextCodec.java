@@ -0,0 +1,98 @@
+package com.bannergenerator.core;
+
+/**
+ * Converts user text to and from the form the generator works with: upper-case characters
+ * that all have a glyph, or the equivalent compact glyph id sequence.
+ */
+public final class TextCodec {
+
+    private final GlyphTable table;
+
+    public TextCodec(GlyphTable table) {
+        this.table = table;
+    }
+
+    public GlyphTable table() {
+        return table;
+    }
+
+    /**
+     * Maps every character to the one its glyph draws (upper-case unless the table has a
+     * dedicated lower-case glyph) and strips characters without a glyph
+     *
+     * @param text Raw user input
+     * @return Text containing only supported characters
+     */
+    public String sanitize(String text) {
+        StringBuilder cleaned = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            Glyph glyph = table.find(text.charAt(i));
+            if (glyph != null) {
+                cleaned.append(glyph.character());
+            }
+        }
+        return cleaned.toString();
+    }
+
+    /**
+     * Whether every character of the text has a glyph and it fits the length limit
+     */
+    public boolean accepts(String text, int maxLength) {
+        if (text.length() > maxLength) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (!table.supports(text.charAt(i))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Encodes sanitized text as glyph ids: one byte per character, or two bytes (big-endian)
+     * when the table has more than 256 glyphs
+     *
+     * @throws IllegalArgumentException if a character has no glyph
+     */
+    public byte[] encode(String text) {
+        int width = idWidth();
+        byte[] ids = new byte[text.length() * width];
+        for (int i = 0; i < text.length(); i++) {
+            Glyph glyph = table.find(text.charAt(i));
+            if (glyph == null) {
+                throw new IllegalArgumentException("No glyph for '" + text.charAt(i) + "'");
+            }
+            if (width == 2) {
+                ids[2 * i] = (byte) (glyph.id() >>> 8);
+            }
+            ids[width * i + width - 1] = (byte) glyph.id();
+        }
+        return ids;
+    }
+
+    /**
+     * Turns glyph ids back into text
+     *
+     * @throws IllegalArgumentException if an id is outside the table
+     */
+    public String decode(byte[] ids) {
+        int width = idWidth();
+        if (ids.length % width != 0) {
+            throw new IllegalArgumentException("Truncated glyph ids");
+        }
+        char[] chars = new char[ids.length / width];
+        for (int i = 0; i < chars.length; i++) {
+            int id = width == 2 ? (ids[2 * i] & 0xFF) << 8 | (ids[2 * i + 1] & 0xFF) : ids[i] & 0xFF;
+            if (id >= table.size()) {
+                throw new IllegalArgumentException("Unknown glyph id " + id);
+            }
+            chars[i] = table.byId(id).character();
+        }
+        return new String(chars);
+    }
+
+    private int idWidth() {
+        return table.size() > 256 ? 2 : 1;
+    }
+}
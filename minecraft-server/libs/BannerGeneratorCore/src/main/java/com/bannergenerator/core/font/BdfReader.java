@@ -0,0 +1,103 @@
+package com.bannergenerator.core.font;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Reads the glyphs of a BDF (Glyph Bitmap Distribution Format) font.
+ * Every glyph is placed in the font bounding box relative to the baseline,
+ * so letters with and without descenders line up when scaled onto a banner.
+ * Characters outside the Basic Multilingual Plane are skipped.
+ */
+public final class BdfReader {
+
+    private BdfReader() {
+    }
+
+    public static List<GlyphBitmap> read(Reader source) throws IOException {
+        BufferedReader reader = new BufferedReader(source);
+        List<GlyphBitmap> glyphs = new ArrayList<>();
+
+        int cellWidth = -1;
+        int cellHeight = -1;
+        int cellOffsetX = 0;
+        int cellOffsetY = 0;
+
+        int encoding = -1;
+        int[] box = null;
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            String[] tokens = line.trim().split("\\s+");
+            switch (tokens[0]) {
+                case "FONTBOUNDINGBOX" -> {
+                    int[] values = ints(tokens, 4, lineNumber);
+                    cellWidth = values[0];
+                    cellHeight = values[1];
+                    cellOffsetX = values[2];
+                    cellOffsetY = values[3];
+                }
+                case "STARTCHAR" -> {
+                    encoding = -1;
+                    box = null;
+                }
+                case "ENCODING" -> encoding = ints(tokens, 1, lineNumber)[0];
+                case "BBX" -> box = ints(tokens, 4, lineNumber);
+                case "BITMAP" -> {
+                    if (cellWidth <= 0 || box == null) {
+                        throw new IOException("Line " + lineNumber + ": BITMAP before FONTBOUNDINGBOX/BBX");
+                    }
+                    BitSet pixels = new BitSet(cellWidth * cellHeight);
+                    // Top row of the glyph box inside the cell, measured from the cell top
+                    int top = (cellHeight + cellOffsetY) - (box[1] + box[3]);
+                    int left = box[2] - cellOffsetX;
+                    for (int row = 0; row < box[1]; row++) {
+                        String hex = reader.readLine();
+                        lineNumber++;
+                        if (hex == null) {
+                            throw new IOException("Unexpected end of file in BITMAP");
+                        }
+                        hex = hex.trim();
+                        for (int col = 0; col < box[0]; col++) {
+                            int digit = Character.digit(hex.charAt(col / 4), 16);
+                            if ((digit & (8 >> (col % 4))) != 0) {
+                                int x = left + col;
+                                int y = top + row;
+                                if (x >= 0 && y >= 0 && x < cellWidth && y < cellHeight) {
+                                    pixels.set(y * cellWidth + x);
+                                }
+                            }
+                        }
+                    }
+                    if (encoding >= 0 && encoding <= Character.MAX_VALUE) {
+                        glyphs.add(new GlyphBitmap((char) encoding, cellWidth, cellHeight, pixels));
+                    }
+                }
+                default -> {
+                    // Properties and metrics that do not affect the bitmap
+                }
+            }
+        }
+        return glyphs;
+    }
+
+    private static int[] ints(String[] tokens, int count, int lineNumber) throws IOException {
+        if (tokens.length < count + 1) {
+            throw new IOException("Line " + lineNumber + ": expected " + count + " values after " + tokens[0]);
+        }
+        int[] values = new int[count];
+        try {
+            for (int i = 0; i < count; i++) {
+                values[i] = Integer.parseInt(tokens[i + 1]);
+            }
+        } catch (NumberFormatException e) {
+            throw new IOException("Line " + lineNumber + ": " + e.getMessage(), e);
+        }
+        return values;
+    }
+}
@@ -0,0 +1,58 @@
+package com.bannergenerator.core.font;
+
+import com.bannergenerator.core.raster.BannerMask;
+
+import java.util.BitSet;
+
+/**
+ * One character of a bitmap font, placed in the font's common character cell.
+ *
+ * @param pixels Set pixels, row-major ({@code y * width + x}), y downwards
+ */
+public record GlyphBitmap(char character, int width, int height, BitSet pixels) {
+
+    public boolean get(int x, int y) {
+        return pixels.get(y * width + x);
+    }
+
+    public boolean isBlank() {
+        return pixels.isEmpty();
+    }
+
+    /**
+     * Scales the cell onto the banner face. Each banner pixel is set when at least half
+     * of the font area it covers is set.
+     *
+     * @param marginX Banner pixels kept free on the left and right
+     * @param marginY Banner pixels kept free at the top and bottom
+     */
+    public BannerMask toMask(int marginX, int marginY) {
+        int innerWidth = BannerMask.WIDTH - 2 * marginX;
+        int innerHeight = BannerMask.HEIGHT - 2 * marginY;
+        double scaleX = (double) width / innerWidth;
+        double scaleY = (double) height / innerHeight;
+
+        return BannerMask.of((bx, by) -> {
+            int ix = bx - marginX;
+            int iy = by - marginY;
+            if (ix < 0 || iy < 0 || ix >= innerWidth || iy >= innerHeight) {
+                return false;
+            }
+            double x0 = ix * scaleX;
+            double x1 = x0 + scaleX;
+            double y0 = iy * scaleY;
+            double y1 = y0 + scaleY;
+
+            double covered = 0;
+            for (int sy = (int) y0; sy < Math.min(height, Math.ceil(y1)); sy++) {
+                double overlapY = Math.min(y1, sy + 1) - Math.max(y0, sy);
+                for (int sx = (int) x0; sx < Math.min(width, Math.ceil(x1)); sx++) {
+                    if (get(sx, sy)) {
+                        covered += overlapY * (Math.min(x1, sx + 1) - Math.max(x0, sx));
+                    }
+                }
+            }
+            return covered * 2 >= scaleX * scaleY;
+        });
+    }
+}
@@ -0,0 +1,206 @@
+package com.bannergenerator.core.font;
+
+import com.bannergenerator.core.Glyph;
+import com.bannergenerator.core.GlyphTable;
+import com.bannergenerator.core.GlyphTableFormat;
+import com.bannergenerator.core.optimize.LayerFitter;
+import com.bannergenerator.core.optimize.LayerOptimizer;
+import com.bannergenerator.core.raster.BannerMask;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Compiles a bitmap font into a banner glyph table.
+ * Each glyph is scaled onto the banner face, fitted with a short layer sequence by {@link LayerFitter},
+ * then trimmed by {@link LayerOptimizer} without changing its image. Glyphs are independent,
+ * so the work is split across a fork/join pool.
+ * <pre>
+ * java -cp bannergenerator-core.jar com.bannergenerator.core.font.GlyphCompiler
+ *     --bdf font.bdf | --sheet glyphs.png --columns 16 --rows 6 --first 32
+ *     [--chars "ABC..."] [--max-layers 6] [--beam 48] [--margin-x 0] [--margin-y 0]
+ *     [--fallback ?] --out glyphs.bin [--text glyphs.txt]
+ * </pre>
+ */
+public final class GlyphCompiler {
+
+    /**
+     * Glyphs per fork/join leaf; one fit takes a few milliseconds, so small leaves keep all cores busy
+     */
+    private static final int LEAF_SIZE = 4;
+
+    private final LayerFitter fitter;
+    private final LayerOptimizer trimmer = new LayerOptimizer(0);
+    private final int marginX;
+    private final int marginY;
+
+    public GlyphCompiler(int maxLayers, int beamWidth, int marginX, int marginY) {
+        this.fitter = new LayerFitter(maxLayers, beamWidth);
+        this.marginX = marginX;
+        this.marginY = marginY;
+    }
+
+    /**
+     * Compiles every bitmap in parallel on the common pool
+     *
+     * @return One result per bitmap, in input order
+     */
+    public List<Compiled> compile(List<GlyphBitmap> bitmaps) {
+        return compile(bitmaps, ForkJoinPool.commonPool());
+    }
+
+    public List<Compiled> compile(List<GlyphBitmap> bitmaps, ForkJoinPool pool) {
+        Compiled[] results = new Compiled[bitmaps.size()];
+        pool.invoke(new CompileTask(bitmaps, results, 0, bitmaps.size()));
+        return Arrays.asList(results);
+    }
+
+    /**
+     * Compiles a single glyph on the calling thread
+     */
+    public Compiled compile(GlyphBitmap bitmap) {
+        BannerMask target = bitmap.toMask(marginX, marginY);
+        LayerFitter.Fit fit = fitter.fit(target);
+        Glyph fitted = new Glyph(bitmap.character(), 0, fit.layers());
+        Glyph trimmed = trimmer.optimize(fitted).optimized();
+        return new Compiled(bitmap.character(), trimmed.layers(), fit.mismatchedPixels());
+    }
+
+    /**
+     * Builds a glyph table ordered by character
+     *
+     * @throws IllegalArgumentException if the fallback character was not compiled
+     */
+    public static GlyphTable toTable(List<Compiled> compiled, char fallbackChar) {
+        GlyphTable.Builder builder = new GlyphTable.Builder();
+        compiled.stream()
+                .sorted(Comparator.comparingInt(Compiled::character))
+                .forEach(glyph -> builder.add(glyph.character(), glyph.layers()));
+        return builder.build(fallbackChar);
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path bdf = null;
+        Path sheet = null;
+        int columns = 16;
+        int rows = 6;
+        char first = ' ';
+        String chars = null;
+        int maxLayers = 6;
+        int beam = 48;
+        int marginX = 0;
+        int marginY = 0;
+        char fallback = '?';
+        Path out = null;
+        Path text = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--bdf" -> bdf = Path.of(args[++i]);
+                case "--sheet" -> sheet = Path.of(args[++i]);
+                case "--columns" -> columns = Integer.parseInt(args[++i]);
+                case "--rows" -> rows = Integer.parseInt(args[++i]);
+                case "--first" -> first = (char) Integer.parseInt(args[++i]);
+                case "--chars" -> chars = args[++i];
+                case "--max-layers" -> maxLayers = Integer.parseInt(args[++i]);
+                case "--beam" -> beam = Integer.parseInt(args[++i]);
+                case "--margin-x" -> marginX = Integer.parseInt(args[++i]);
+                case "--margin-y" -> marginY = Integer.parseInt(args[++i]);
+                case "--fallback" -> fallback = args[++i].charAt(0);
+                case "--out" -> out = Path.of(args[++i]);
+                case "--text" -> text = Path.of(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+        if ((bdf == null) == (sheet == null) || out == null) {
+            throw new IllegalArgumentException("Need exactly one of --bdf/--sheet, and --out");
+        }
+
+        List<GlyphBitmap> bitmaps;
+        if (bdf != null) {
+            try (Reader reader = Files.newBufferedReader(bdf, StandardCharsets.ISO_8859_1)) {
+                bitmaps = BdfReader.read(reader);
+            }
+        } else {
+            bitmaps = GlyphSheetReader.read(sheet, columns, rows, first);
+        }
+        if (chars != null) {
+            String wanted = chars;
+            bitmaps = bitmaps.stream().filter(bitmap -> wanted.indexOf(bitmap.character()) >= 0).toList();
+        }
+
+        long start = System.nanoTime();
+        List<Compiled> compiled = new GlyphCompiler(maxLayers, beam, marginX, marginY).compile(bitmaps);
+        long millis = (System.nanoTime() - start) / 1_000_000L;
+        GlyphTable table = toTable(compiled, fallback);
+
+        try (OutputStream stream = Files.newOutputStream(out)) {
+            GlyphTableFormat.writeBinary(table, stream);
+        }
+        if (text != null) {
+            try (Writer writer = Files.newBufferedWriter(text, StandardCharsets.UTF_8)) {
+                GlyphTableFormat.write(table, writer);
+            }
+        }
+
+        int layers = 0;
+        long exact = 0;
+        for (Compiled glyph : compiled) {
+            layers += glyph.layers().size();
+            if (glyph.mismatchedPixels() == 0) {
+                exact++;
+            }
+        }
+        System.out.printf("Compiled %d glyph(s) in %d ms: %d layers, %d exact, %d with differing pixels%n",
+                compiled.size(), millis, layers, exact, compiled.size() - exact);
+        System.out.println("Wrote " + out + " (" + Files.size(out) + " bytes)");
+    }
+
+    /**
+     * @param layers Layers bottom first
+     * @param mismatchedPixels Banner pixels that differ from the scaled font glyph
+     */
+    public record Compiled(char character, List<Glyph.Layer> layers, int mismatchedPixels) {
+    }
+
+    @SuppressWarnings("serial") // Fork/join tasks are Serializable by inheritance only; this one never leaves the pool
+    private final class CompileTask extends RecursiveAction {
+
+        private final List<GlyphBitmap> bitmaps;
+        private final Compiled[] results;
+        private final int from;
+        private final int to;
+
+        CompileTask(List<GlyphBitmap> bitmaps, Compiled[] results, int from, int to) {
+            this.bitmaps = bitmaps;
+            this.results = results;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= LEAF_SIZE) {
+                for (int i = from; i < to; i++) {
+                    results[i] = compile(bitmaps.get(i));
+                }
+                return;
+            }
+            int middle = (from + to) >>> 1;
+            CompileTask left = new CompileTask(bitmaps, results, from, middle);
+            left.fork();
+            new CompileTask(bitmaps, results, middle, to).compute();
+            left.join();
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.bannergenerator.core.font;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+/**
+ * Reads a PNG glyph sheet: a grid of equally sized cells holding consecutive characters, row by row.
+ * Sheets with transparency use opaque pixels as ink; opaque sheets use dark pixels.
+ */
+public final class GlyphSheetReader {
+
+    private GlyphSheetReader() {
+    }
+
+    /**
+     * @param columns Cells per row
+     * @param rows Number of cell rows
+     * @param firstChar Character in the top-left cell
+     */
+    public static List<GlyphBitmap> read(Path file, int columns, int rows, char firstChar) throws IOException {
+        BufferedImage image = ImageIO.read(file.toFile());
+        if (image == null) {
+            throw new IOException("Unsupported image: " + file);
+        }
+        if (image.getWidth() % columns != 0 || image.getHeight() % rows != 0) {
+            throw new IOException("Sheet " + image.getWidth() + "x" + image.getHeight()
+                    + " is not divisible into " + columns + "x" + rows + " cells");
+        }
+
+        int cellWidth = image.getWidth() / columns;
+        int cellHeight = image.getHeight() / rows;
+        boolean alpha = image.getColorModel().hasAlpha();
+
+        List<GlyphBitmap> glyphs = new ArrayList<>(columns * rows);
+        for (int cell = 0; cell < columns * rows && firstChar + cell <= Character.MAX_VALUE; cell++) {
+            int originX = (cell % columns) * cellWidth;
+            int originY = (cell / columns) * cellHeight;
+            BitSet pixels = new BitSet(cellWidth * cellHeight);
+            for (int y = 0; y < cellHeight; y++) {
+                for (int x = 0; x < cellWidth; x++) {
+                    if (isInk(image.getRGB(originX + x, originY + y), alpha)) {
+                        pixels.set(y * cellWidth + x);
+                    }
+                }
+            }
+            glyphs.add(new GlyphBitmap((char) (firstChar + cell), cellWidth, cellHeight, pixels));
+        }
+        return glyphs;
+    }
+
+    private static boolean isInk(int argb, boolean alpha) {
+        if (alpha) {
+            return (argb >>> 24) >= 128;
+        }
+        int luminance = (((argb >> 16) & 0xFF) * 299 + ((argb >> 8) & 0xFF) * 587 + (argb & 0xFF) * 114) / 1000;
+        return luminance < 128;
+    }
+}
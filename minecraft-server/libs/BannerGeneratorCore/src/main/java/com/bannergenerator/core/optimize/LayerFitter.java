@@ -0,0 +1,92 @@
+package com.bannergenerator.core.optimize;
+
+import com.bannergenerator.core.BannerPattern;
+import com.bannergenerator.core.Glyph;
+import com.bannergenerator.core.raster.BannerMask;
+import com.bannergenerator.core.raster.PatternMasks;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Approximates an arbitrary target image with a short layer sequence.
+ * Unlike {@link LayerOptimizer}, which only shortens glyphs that already have an exact solution,
+ * this handles shapes no layer combination reproduces exactly (e.g. glyphs from a bitmap font).
+ * It runs a forward beam search: every step applies each candidate layer to the best partial images
+ * and keeps the {@code beamWidth} images closest to the target. Immutable and safe to share between threads.
+ */
+public final class LayerFitter {
+
+    private final int maxLayers;
+    private final int beamWidth;
+    private final List<Glyph.Layer> layers = new ArrayList<>();
+    private final List<BannerMask> masks = new ArrayList<>();
+
+    public LayerFitter(int maxLayers, int beamWidth) {
+        this.maxLayers = Math.max(0, maxLayers);
+        this.beamWidth = Math.max(1, beamWidth);
+        for (BannerPattern pattern : PatternMasks.patterns()) {
+            BannerMask mask = PatternMasks.of(pattern);
+            layers.add(Glyph.Layer.fg(pattern));
+            masks.add(mask);
+            layers.add(Glyph.Layer.bg(pattern));
+            masks.add(mask);
+        }
+    }
+
+    /**
+     * @param target Foreground pixels to reproduce
+     * @return The closest sequence found; shorter sequences win ties
+     */
+    public Fit fit(BannerMask target) {
+        Node best = new Node(BannerMask.EMPTY, null, null, target.cardinality());
+        List<Node> beam = List.of(best);
+
+        for (int depth = 0; depth < maxLayers && best.error() > 0; depth++) {
+            Map<BannerMask, Node> next = new HashMap<>();
+            for (Node node : beam) {
+                for (int i = 0; i < layers.size(); i++) {
+                    Glyph.Layer layer = layers.get(i);
+                    BannerMask image = layer.tone() == Glyph.Tone.FOREGROUND
+                            ? node.image().or(masks.get(i))
+                            : node.image().andNot(masks.get(i));
+                    if (image.equals(node.image())) {
+                        continue;
+                    }
+                    next.putIfAbsent(image, new Node(image, node, layer, image.xor(target).cardinality()));
+                }
+            }
+            if (next.isEmpty()) {
+                break;
+            }
+
+            beam = next.values().stream()
+                    .sorted(Comparator.comparingInt(Node::error))
+                    .limit(beamWidth)
+                    .toList();
+            if (beam.get(0).error() < best.error()) {
+                best = beam.get(0);
+            }
+        }
+
+        LinkedList<Glyph.Layer> sequence = new LinkedList<>();
+        for (Node node = best; node.layer() != null; node = node.parent()) {
+            sequence.addFirst(node.layer());
+        }
+        return new Fit(List.copyOf(sequence), best.error());
+    }
+
+    /**
+     * @param layers Layers bottom first
+     * @param mismatchedPixels Pixels that differ from the target
+     */
+    public record Fit(List<Glyph.Layer> layers, int mismatchedPixels) {
+    }
+
+    private record Node(BannerMask image, Node parent, Glyph.Layer layer, int error) {
+    }
+}
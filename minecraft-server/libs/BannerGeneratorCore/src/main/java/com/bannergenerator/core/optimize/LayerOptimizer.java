@@ -0,0 +1,214 @@
+package com.bannergenerator.core.optimize;
+
+import com.bannergenerator.core.BannerPattern;
+import com.bannergenerator.core.Glyph;
+import com.bannergenerator.core.GlyphTable;
+import com.bannergenerator.core.GlyphTableFormat;
+import com.bannergenerator.core.raster.BannerMask;
+import com.bannergenerator.core.raster.PatternMasks;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Offline search for the shortest layer sequence that draws each glyph.
+ * <p>
+ * Works backwards from the finished image: the topmost layer must agree with the target on every pixel
+ * it covers, and those pixels can then be ignored by all layers below it. The search therefore only
+ * tracks the set of pixels that are still undecided, runs iterative deepening up to one layer less than
+ * the current glyph, and remembers undecided sets that already failed at a given depth. A glyph is solved
+ * once the remaining undecided foreground pixels fit within the tolerance (the banner base covers the rest).
+ * <p>
+ * Run with {@code java -cp bannergenerator-core.jar com.bannergenerator.core.optimize.LayerOptimizer
+ * [--tolerance pixels] [--out file]}; the optimized table is written in {@link GlyphTableFormat}
+ * and a per-glyph report goes to standard output.
+ */
+public final class LayerOptimizer {
+
+    private final List<Candidate> candidates;
+    private final int tolerance;
+
+    /**
+     * @param tolerance Number of pixels the optimized glyph may differ from the original
+     */
+    public LayerOptimizer(int tolerance) {
+        this.tolerance = Math.max(0, tolerance);
+        this.candidates = new ArrayList<>();
+        for (BannerPattern pattern : PatternMasks.patterns()) {
+            BannerMask mask = PatternMasks.of(pattern);
+            candidates.add(new Candidate(Glyph.Layer.fg(pattern), mask));
+            candidates.add(new Candidate(Glyph.Layer.bg(pattern), mask));
+        }
+        // Large shapes first: they settle the most pixels per layer and find solutions sooner
+        candidates.sort(Comparator.comparingInt((Candidate c) -> c.mask().cardinality()).reversed());
+    }
+
+    /**
+     * Finds the shortest sequence for one glyph
+     *
+     * @return The result; glyphs using non-geometric patterns are returned unchanged
+     */
+    public Result optimize(Glyph glyph) {
+        for (Glyph.Layer layer : glyph.layers()) {
+            if (!PatternMasks.isRasterizable(layer.pattern())) {
+                return new Result(glyph, glyph, 0, false);
+            }
+        }
+
+        BannerMask target = PatternMasks.render(glyph);
+        Search search = new Search(target);
+        for (int depth = 0; depth < glyph.layers().size(); depth++) {
+            search.failed.clear();
+            if (search.solve(BannerMask.FULL, depth, tolerance)) {
+                List<Glyph.Layer> layers = new ArrayList<>(search.path);
+                Glyph optimized = new Glyph(glyph.character(), glyph.id(), layers);
+                int mismatches = PatternMasks.render(optimized).xor(target).cardinality();
+                return new Result(glyph, optimized, mismatches, true);
+            }
+        }
+        return new Result(glyph, glyph, 0, true);
+    }
+
+    /**
+     * Optimizes every glyph of the table, keeping ids and order
+     */
+    public List<Result> optimize(GlyphTable table) {
+        List<Result> results = new ArrayList<>(table.size());
+        for (Glyph glyph : table.glyphs()) {
+            results.add(optimize(glyph));
+        }
+        return results;
+    }
+
+    public static GlyphTable toTable(List<Result> results, char fallbackChar) {
+        return new GlyphTable(results.stream().map(Result::optimized).toList(), fallbackChar);
+    }
+
+    /**
+     * Per-glyph summary: layers before and after, and the pixels that changed
+     */
+    public static String report(List<Result> results) {
+        StringBuilder out = new StringBuilder();
+        int before = 0;
+        int after = 0;
+        out.append(String.format("%-6s %6s %6s %6s %8s%n", "glyph", "before", "after", "saved", "pixels"));
+        for (Result result : results) {
+            int original = result.original().layers().size();
+            int optimized = result.optimized().layers().size();
+            before += original;
+            after += optimized;
+            String glyph = result.original().character() == ' ' ? "space" : String.valueOf(result.original().character());
+            out.append(String.format("%-6s %6d %6d %6d %8s%n", glyph, original, optimized, original - optimized,
+                    result.searched() ? String.valueOf(result.mismatchedPixels()) : "skip"));
+        }
+        out.append(String.format("%-6s %6d %6d %6d%n", "total", before, after, before - after));
+        return out.toString();
+    }
+
+    public static void main(String[] args) throws IOException {
+        int tolerance = 0;
+        Path out = null;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--tolerance" -> tolerance = Integer.parseInt(args[++i]);
+                case "--out" -> out = Path.of(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+
+        GlyphTable table = GlyphTable.builtIn();
+        List<Result> results = new LayerOptimizer(tolerance).optimize(table);
+        char fallback = table.fallback().character();
+        GlyphTable optimized = toTable(results, fallback);
+
+        System.out.print(report(results));
+        if (out != null) {
+            try (Writer writer = Files.newBufferedWriter(out, StandardCharsets.UTF_8)) {
+                GlyphTableFormat.write(optimized, writer);
+            }
+            System.out.println("Wrote " + out);
+        } else {
+            GlyphTableFormat.write(optimized, new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * Outcome for one glyph
+     *
+     * @param mismatchedPixels Pixels where the optimized glyph differs from the original (at most the tolerance)
+     * @param searched False when the glyph uses patterns without a mask and was left as-is
+     */
+    public record Result(Glyph original, Glyph optimized, int mismatchedPixels, boolean searched) {
+
+        public int saved() {
+            return original.layers().size() - optimized.layers().size();
+        }
+    }
+
+    private record Candidate(Glyph.Layer layer, BannerMask mask) {
+    }
+
+    private record State(BannerMask undecided, int depth, int budget) {
+    }
+
+    /**
+     * One depth-limited backward search; {@link #path} holds the layers bottom first once solved
+     */
+    private final class Search {
+
+        final BannerMask target;
+        final Deque<Glyph.Layer> path = new ArrayDeque<>();
+        final Set<State> failed = new HashSet<>();
+
+        Search(BannerMask target) {
+            this.target = target;
+        }
+
+        boolean solve(BannerMask undecided, int depth, int budget) {
+            // Whatever is still undecided shows the banner base, i.e. background
+            if (target.countAnd(undecided) <= budget) {
+                return true;
+            }
+            if (depth == 0) {
+                return false;
+            }
+            State state = new State(undecided, depth, budget);
+            if (failed.contains(state)) {
+                return false;
+            }
+
+            for (Candidate candidate : candidates) {
+                BannerMask covered = candidate.mask().and(undecided);
+                if (covered.isEmpty()) {
+                    continue;
+                }
+                int mismatches = candidate.layer().tone() == Glyph.Tone.FOREGROUND
+                        ? covered.countAndNot(target)
+                        : covered.countAnd(target);
+                if (mismatches > budget) {
+                    continue;
+                }
+                // Layers are found top first, so each one goes below the ones already chosen
+                path.addFirst(candidate.layer());
+                if (solve(undecided.andNot(covered), depth - 1, budget - mismatches)) {
+                    return true;
+                }
+                path.pollFirst();
+            }
+
+            failed.add(state);
+            return false;
+        }
+    }
+}
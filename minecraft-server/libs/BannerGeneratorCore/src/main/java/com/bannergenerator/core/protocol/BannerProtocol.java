@@ -0,0 +1,45 @@
+package com.bannergenerator.core.protocol;
+
+/**
+ * Channel names and version of the plugin messaging protocol between the Paper plugin and the Fabric mod.
+ * Payloads use {@code DataOutput} encoding (big-endian numbers, strings as unsigned short length + modified UTF-8).
+ */
+public final class BannerProtocol {
+
+    /**
+     * Bumped whenever the layout of any payload on these channels changes
+     */
+    public static final int VERSION = 2;
+
+    public static final String NAMESPACE = "bannergenerator";
+
+    /**
+     * Server to client: {@link Handshake}, sent once the client registers the channel
+     */
+    public static final String HANDSHAKE = "handshake";
+
+    /**
+     * Server to client: open the generator screen; empty payload
+     */
+    public static final String OPEN_GUI = "open_gui";
+
+    /**
+     * Client to server: {@link GenerateRequest}
+     */
+    public static final String GENERATE = "generate";
+
+    /**
+     * Server to client: {@link GenerateResult}, acknowledgement and progress of a generate request
+     */
+    public static final String RESULT = "result";
+
+    private BannerProtocol() {
+    }
+
+    /**
+     * Full channel name, e.g. "bannergenerator:generate"
+     */
+    public static String channel(String path) {
+        return NAMESPACE + ":" + path;
+    }
+}
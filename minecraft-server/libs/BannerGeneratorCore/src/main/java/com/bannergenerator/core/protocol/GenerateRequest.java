@@ -0,0 +1,38 @@
+package com.bannergenerator.core.protocol;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * A client's request to generate banners for a text.
+ * Colours travel as dye colour names so unknown values can fall back gracefully on the server.
+ *
+ * @param requestId Chosen by the client and echoed in every {@link GenerateResult}; a retry reuses the
+ *                  id so the server can answer it without generating again
+ */
+public record GenerateRequest(int requestId, String text, String background, String foreground) {
+
+    public byte[] encode() {
+        try {
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(stream);
+            out.writeInt(requestId);
+            out.writeUTF(text);
+            out.writeUTF(background);
+            out.writeUTF(foreground);
+            out.flush();
+            return stream.toByteArray();
+        } catch (IOException e) {
+            // Writing to an in-memory stream cannot fail
+            throw new IllegalStateException("Failed to encode generate request", e);
+        }
+    }
+
+    public static GenerateRequest decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        return new GenerateRequest(in.readInt(), in.readUTF(), in.readUTF(), in.readUTF());
+    }
+}
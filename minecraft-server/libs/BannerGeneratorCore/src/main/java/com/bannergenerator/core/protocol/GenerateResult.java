@@ -0,0 +1,69 @@
+package com.bannergenerator.core.protocol;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+/**
+ * The server's answer to a {@link GenerateRequest}. A request is acknowledged with {@link Status#ACCEPTED}
+ * or rejected straight away; large jobs then report {@link Status#PROGRESS} while their banners are handed
+ * out, and every accepted request ends with {@link Status#COMPLETED} or {@link Status#FAILED}.
+ *
+ * @param completed Banners delivered so far
+ * @param total Banners the request produces, 0 when rejected
+ * @param message Human-readable outcome, may be empty
+ */
+public record GenerateResult(int requestId, Status status, int completed, int total, String message) {
+
+    public enum Status {
+        ACCEPTED,
+        PROGRESS,
+        COMPLETED,
+        /**
+         * Over the announced rate limits; the client may retry later with the same id
+         */
+        RATE_LIMITED,
+        /**
+         * Empty or too long after sanitizing, or malformed
+         */
+        INVALID,
+        FAILED;
+
+        /**
+         * Whether no further results follow for the request
+         */
+        public boolean isFinal() {
+            return this != ACCEPTED && this != PROGRESS;
+        }
+    }
+
+    public byte[] encode() {
+        try {
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(stream);
+            out.writeInt(requestId);
+            out.writeByte(status.ordinal());
+            out.writeShort(completed);
+            out.writeShort(total);
+            out.writeUTF(message);
+            out.flush();
+            return stream.toByteArray();
+        } catch (IOException e) {
+            // Writing to an in-memory stream cannot fail
+            throw new IllegalStateException("Failed to encode generate result", e);
+        }
+    }
+
+    public static GenerateResult decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+        int requestId = in.readInt();
+        Status[] statuses = Status.values();
+        int status = in.readUnsignedByte();
+        if (status >= statuses.length) {
+            throw new IOException("Unknown result status " + status);
+        }
+        return new GenerateResult(requestId, statuses[status], in.readUnsignedShort(), in.readUnsignedShort(), in.readUTF());
+    }
+}
@@ -0,0 +1,114 @@
+package com.bannergenerator.core.protocol;
+
+import com.bannergenerator.core.BannerColor;
+import com.bannergenerator.core.GlyphTable;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Capabilities the server announces once per connection: protocol version, glyph set, palette, text limit and rate limits.
+ * The client caches it for the whole connection so its screen can be built without any further round-trips.
+ */
+public record Handshake(int protocolVersion,
+                        String glyphs,
+                        List<PaletteColor> palette,
+                        int maxTextLength,
+                        int cooldownMillis,
+                        int requestsPerMinute) {
+
+    /**
+     * Used until the server handshake arrives; mirrors the server defaults.
+     */
+    public static final Handshake DEFAULTS = new Handshake(
+            BannerProtocol.VERSION,
+            GlyphTable.builtIn().characters(),
+            Arrays.stream(BannerColor.values()).map(PaletteColor::of).toList(),
+            20,
+            1000,
+            20
+    );
+
+    public Handshake {
+        palette = List.copyOf(palette);
+    }
+
+    public byte[] encode() {
+        try {
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(stream);
+
+            out.writeInt(protocolVersion);
+            out.writeUTF(glyphs);
+
+            out.writeByte(palette.size());
+            for (PaletteColor color : palette) {
+                out.writeUTF(color.name());
+                out.writeInt(color.rgb());
+            }
+
+            out.writeShort(maxTextLength);
+            out.writeInt(cooldownMillis);
+            out.writeShort(requestsPerMinute);
+            out.flush();
+            return stream.toByteArray();
+        } catch (IOException e) {
+            // Writing to an in-memory stream cannot fail
+            throw new IllegalStateException("Failed to encode handshake payload", e);
+        }
+    }
+
+    public static Handshake decode(byte[] payload) throws IOException {
+        DataInputStream in = new DataInputStream(new ByteArrayInputStream(payload));
+
+        int version = in.readInt();
+        String glyphs = in.readUTF();
+
+        int paletteSize = in.readUnsignedByte();
+        List<PaletteColor> palette = new ArrayList<>(paletteSize);
+        for (int i = 0; i < paletteSize; i++) {
+            palette.add(new PaletteColor(in.readUTF(), in.readInt()));
+        }
+
+        int maxTextLength = in.readUnsignedShort();
+        int cooldownMillis = in.readInt();
+        int requestsPerMinute = in.readUnsignedShort();
+        return new Handshake(version, glyphs, palette, maxTextLength, cooldownMillis, requestsPerMinute);
+    }
+
+    /**
+     * Whether the server can render every character of the text
+     */
+    public boolean accepts(String text) {
+        if (text.length() > maxTextLength) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (glyphs.indexOf(c) < 0 && glyphs.indexOf(Character.toUpperCase(c)) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * A selectable colour: the dye colour name and its RGB value for swatches.
+     */
+    public record PaletteColor(String name, int rgb) {
+
+        public static PaletteColor of(BannerColor color) {
+            return new PaletteColor(color.name(), color.rgb());
+        }
+
+        public String displayName() {
+            return BannerColor.displayName(name);
+        }
+    }
+}
@@ -0,0 +1,154 @@
+package com.bannergenerator.core.raster;
+
+import java.util.Arrays;
+import java.util.function.BiPredicate;
+
+/**
+ * Immutable set of pixels on the banner face, at the resolution of the vanilla banner texture (20 x 40).
+ * Stored as a bitset, so combining masks and counting pixels is a handful of long operations.
+ */
+public final class BannerMask {
+
+    public static final int WIDTH = 20;
+    public static final int HEIGHT = 40;
+    public static final int PIXELS = WIDTH * HEIGHT;
+
+    private static final int WORDS = (PIXELS + 63) / 64;
+    private static final long LAST_WORD_MASK = -1L >>> (WORDS * 64 - PIXELS);
+
+    public static final BannerMask EMPTY = new BannerMask(new long[WORDS]);
+    public static final BannerMask FULL = EMPTY.not();
+
+    private final long[] words;
+    private final int hash;
+
+    private BannerMask(long[] words) {
+        this.words = words;
+        this.hash = Arrays.hashCode(words);
+    }
+
+    /**
+     * Builds a mask from a predicate over pixel coordinates (x to the right, y downwards)
+     */
+    public static BannerMask of(BiPredicate<Integer, Integer> inside) {
+        long[] words = new long[WORDS];
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                if (inside.test(x, y)) {
+                    int bit = y * WIDTH + x;
+                    words[bit >>> 6] |= 1L << bit;
+                }
+            }
+        }
+        return new BannerMask(words);
+    }
+
+    public boolean get(int x, int y) {
+        int bit = y * WIDTH + x;
+        return (words[bit >>> 6] & (1L << bit)) != 0;
+    }
+
+    public BannerMask or(BannerMask other) {
+        long[] result = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            result[i] = words[i] | other.words[i];
+        }
+        return new BannerMask(result);
+    }
+
+    public BannerMask and(BannerMask other) {
+        long[] result = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            result[i] = words[i] & other.words[i];
+        }
+        return new BannerMask(result);
+    }
+
+    public BannerMask andNot(BannerMask other) {
+        long[] result = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            result[i] = words[i] & ~other.words[i];
+        }
+        return new BannerMask(result);
+    }
+
+    public BannerMask xor(BannerMask other) {
+        long[] result = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            result[i] = words[i] ^ other.words[i];
+        }
+        return new BannerMask(result);
+    }
+
+    public BannerMask not() {
+        long[] result = new long[WORDS];
+        for (int i = 0; i < WORDS; i++) {
+            result[i] = ~words[i];
+        }
+        result[WORDS - 1] &= LAST_WORD_MASK;
+        return new BannerMask(result);
+    }
+
+    public int cardinality() {
+        int count = 0;
+        for (long word : words) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    /**
+     * Number of pixels set in this mask but not in the other, without allocating
+     */
+    public int countAndNot(BannerMask other) {
+        int count = 0;
+        for (int i = 0; i < WORDS; i++) {
+            count += Long.bitCount(words[i] & ~other.words[i]);
+        }
+        return count;
+    }
+
+    /**
+     * Number of pixels set in both masks, without allocating
+     */
+    public int countAnd(BannerMask other) {
+        int count = 0;
+        for (int i = 0; i < WORDS; i++) {
+            count += Long.bitCount(words[i] & other.words[i]);
+        }
+        return count;
+    }
+
+    public boolean isEmpty() {
+        for (long word : words) {
+            if (word != 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Multi-line picture of the mask, '#' for set pixels, for reports and debugging
+     */
+    public String toAscii() {
+        StringBuilder out = new StringBuilder((WIDTH + 1) * HEIGHT);
+        for (int y = 0; y < HEIGHT; y++) {
+            for (int x = 0; x < WIDTH; x++) {
+                out.append(get(x, y) ? '#' : '.');
+            }
+            out.append('\n');
+        }
+        return out.toString();
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof BannerMask other && hash == other.hash && Arrays.equals(words, other.words);
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+}
@@ -0,0 +1,50 @@
+package com.bannergenerator.core.raster;
+
+import com.bannergenerator.core.BannerColor;
+import com.bannergenerator.core.Glyph;
+
+import java.util.Arrays;
+
+/**
+ * Software renderer for banner faces: paints the base colour, then every layer's mask in its tone.
+ * Layers without a geometric mask (pictorial patterns) are skipped.
+ */
+public final class BannerRasterizer {
+
+    private BannerRasterizer() {
+    }
+
+    /**
+     * Renders one glyph into a {@code 20 * scale} by {@code 40 * scale} tile at the given position
+     */
+    public static void render(Glyph glyph, BannerColor background, BannerColor foreground, int scale,
+                              RasterImage target, int targetX, int targetY) {
+        int[] colors = new int[BannerMask.PIXELS];
+        int base = 0xFF000000 | background.rgb();
+        Arrays.fill(colors, base);
+
+        for (Glyph.Layer layer : glyph.layers()) {
+            BannerMask mask = PatternMasks.of(layer.pattern());
+            if (mask == null) {
+                continue;
+            }
+            int color = 0xFF000000 | layer.tone().resolve(background, foreground).rgb();
+            for (int y = 0; y < BannerMask.HEIGHT; y++) {
+                for (int x = 0; x < BannerMask.WIDTH; x++) {
+                    if (mask.get(x, y)) {
+                        colors[y * BannerMask.WIDTH + x] = color;
+                    }
+                }
+            }
+        }
+
+        int[] out = target.argb();
+        for (int y = 0; y < BannerMask.HEIGHT * scale; y++) {
+            int rowStart = (targetY + y) * target.width() + targetX;
+            int sourceRow = (y / scale) * BannerMask.WIDTH;
+            for (int x = 0; x < BannerMask.WIDTH * scale; x++) {
+                out[rowStart + x] = colors[sourceRow + x / scale];
+            }
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.bannergenerator.core.raster;
+
+import com.bannergenerator.core.BannerColor;
+import com.bannergenerator.core.GlyphTable;
+
+/**
+ * Every glyph of a table pre-rendered for one colour pair and scale, packed into a single sprite sheet.
+ * Tiles are addressed by glyph id; {@link #ATLAS_COLUMNS} tiles per row.
+ */
+public final class GlyphAtlas {
+
+    public static final int ATLAS_COLUMNS = 16;
+
+    private final int tileWidth;
+    private final int tileHeight;
+    private final RasterImage image;
+
+    public GlyphAtlas(GlyphTable table, BannerColor background, BannerColor foreground, int scale) {
+        this.tileWidth = BannerMask.WIDTH * scale;
+        this.tileHeight = BannerMask.HEIGHT * scale;
+        int rows = (table.size() + ATLAS_COLUMNS - 1) / ATLAS_COLUMNS;
+        this.image = new RasterImage(tileWidth * ATLAS_COLUMNS, tileHeight * Math.max(1, rows));
+        for (int id = 0; id < table.size(); id++) {
+            BannerRasterizer.render(table.byId(id), background, foreground, scale,
+                    image, (id % ATLAS_COLUMNS) * tileWidth, (id / ATLAS_COLUMNS) * tileHeight);
+        }
+    }
+
+    public int tileWidth() {
+        return tileWidth;
+    }
+
+    public int tileHeight() {
+        return tileHeight;
+    }
+
+    /**
+     * The whole sprite sheet
+     */
+    public RasterImage image() {
+        return image;
+    }
+
+    /**
+     * Copies the tile of a glyph into the target image
+     */
+    public void blit(int glyphId, RasterImage target, int targetX, int targetY) {
+        target.blit(image, (glyphId % ATLAS_COLUMNS) * tileWidth, (glyphId / ATLAS_COLUMNS) * tileHeight,
+                tileWidth, tileHeight, targetX, targetY);
+    }
+
+    /**
+     * Pixels in the sheet
+     */
+    public long pixels() {
+        return image.argb().length;
+    }
+
+    /**
+     * Approximate heap size of the sheet
+     */
+    public long sizeBytes() {
+        return pixels() * Integer.BYTES;
+    }
+}
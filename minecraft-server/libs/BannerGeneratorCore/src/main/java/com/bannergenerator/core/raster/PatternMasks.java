@@ -0,0 +1,126 @@
+package com.bannergenerator.core.raster;
+
+import com.bannergenerator.core.BannerPattern;
+import com.bannergenerator.core.Glyph;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pixel masks of the geometric banner patterns on the 20 x 40 banner face.
+ * The shapes follow the proportions of the vanilla textures (thirds for stripes, half-width cantons, ...)
+ * but are derived geometrically rather than read from the client resources, so single edge pixels
+ * may differ from what the game draws. Pictorial and semi-transparent patterns (creeper, bricks,
+ * gradients, ...) have no mask.
+ */
+public final class PatternMasks {
+
+    private static final int W = BannerMask.WIDTH;
+    private static final int H = BannerMask.HEIGHT;
+
+    private static final Map<BannerPattern, BannerMask> MASKS = new EnumMap<>(BannerPattern.class);
+
+    static {
+        BannerMask stripeLeft = BannerMask.of((x, y) -> x < 6);
+        BannerMask stripeRight = BannerMask.of((x, y) -> x >= W - 6);
+        BannerMask stripeCenter = BannerMask.of((x, y) -> x >= 7 && x < 13);
+        BannerMask stripeTop = BannerMask.of((x, y) -> y < 8);
+        BannerMask stripeBottom = BannerMask.of((x, y) -> y >= H - 8);
+        BannerMask stripeMiddle = BannerMask.of((x, y) -> y >= 16 && y < 24);
+        BannerMask stripeDownRight = BannerMask.of((x, y) -> Math.abs(u(x) - v(y)) <= 0.15);
+        BannerMask stripeDownLeft = BannerMask.of((x, y) -> Math.abs(u(x) + v(y) - 1) <= 0.15);
+
+        MASKS.put(BannerPattern.SQUARE_BOTTOM_LEFT, BannerMask.of((x, y) -> x < 10 && y >= H - 14));
+        MASKS.put(BannerPattern.SQUARE_BOTTOM_RIGHT, BannerMask.of((x, y) -> x >= 10 && y >= H - 14));
+        MASKS.put(BannerPattern.SQUARE_TOP_LEFT, BannerMask.of((x, y) -> x < 10 && y < 14));
+        MASKS.put(BannerPattern.SQUARE_TOP_RIGHT, BannerMask.of((x, y) -> x >= 10 && y < 14));
+        MASKS.put(BannerPattern.STRIPE_BOTTOM, stripeBottom);
+        MASKS.put(BannerPattern.STRIPE_TOP, stripeTop);
+        MASKS.put(BannerPattern.STRIPE_LEFT, stripeLeft);
+        MASKS.put(BannerPattern.STRIPE_RIGHT, stripeRight);
+        MASKS.put(BannerPattern.STRIPE_CENTER, stripeCenter);
+        MASKS.put(BannerPattern.STRIPE_MIDDLE, stripeMiddle);
+        MASKS.put(BannerPattern.STRIPE_DOWNRIGHT, stripeDownRight);
+        MASKS.put(BannerPattern.STRIPE_DOWNLEFT, stripeDownLeft);
+        MASKS.put(BannerPattern.SMALL_STRIPES, BannerMask.of((x, y) -> x % 4 < 2));
+        MASKS.put(BannerPattern.CROSS, stripeDownRight.or(stripeDownLeft));
+        MASKS.put(BannerPattern.STRAIGHT_CROSS, stripeCenter.or(stripeMiddle));
+        MASKS.put(BannerPattern.TRIANGLE_BOTTOM, BannerMask.of((x, y) -> v(y) >= 1 - 0.25 * tent(u(x))));
+        MASKS.put(BannerPattern.TRIANGLE_TOP, BannerMask.of((x, y) -> v(y) < 0.25 * tent(u(x))));
+        MASKS.put(BannerPattern.TRIANGLES_BOTTOM, BannerMask.of((x, y) -> v(y) >= 1 - 0.1 * tent(frac(u(x) * 4))));
+        MASKS.put(BannerPattern.TRIANGLES_TOP, BannerMask.of((x, y) -> v(y) < 0.1 * tent(frac(u(x) * 4))));
+        MASKS.put(BannerPattern.DIAGONAL_LEFT, BannerMask.of((x, y) -> u(x) + v(y) < 1));
+        MASKS.put(BannerPattern.DIAGONAL_UP_RIGHT, BannerMask.of((x, y) -> u(x) + v(y) > 1));
+        MASKS.put(BannerPattern.DIAGONAL_RIGHT, BannerMask.of((x, y) -> u(x) > v(y)));
+        MASKS.put(BannerPattern.DIAGONAL_UP_LEFT, BannerMask.of((x, y) -> u(x) < v(y)));
+        MASKS.put(BannerPattern.CIRCLE, BannerMask.of((x, y) -> square(x + 0.5 - W / 2.0) + square(y + 0.5 - H / 2.0) <= 25));
+        MASKS.put(BannerPattern.RHOMBUS, BannerMask.of((x, y) -> Math.abs(u(x) - 0.5) / 0.4 + Math.abs(v(y) - 0.5) / 0.3 <= 1));
+        MASKS.put(BannerPattern.HALF_VERTICAL, BannerMask.of((x, y) -> x < W / 2));
+        MASKS.put(BannerPattern.HALF_HORIZONTAL, BannerMask.of((x, y) -> y < H / 2));
+        MASKS.put(BannerPattern.HALF_VERTICAL_RIGHT, BannerMask.of((x, y) -> x >= W / 2));
+        MASKS.put(BannerPattern.HALF_HORIZONTAL_BOTTOM, BannerMask.of((x, y) -> y >= H / 2));
+        MASKS.put(BannerPattern.BORDER, BannerMask.of((x, y) -> x < 1 || x >= W - 1 || y < 1 || y >= H - 1));
+    }
+
+    private PatternMasks() {
+    }
+
+    /**
+     * @return The pixels the pattern paints, or null for patterns without a geometric mask
+     */
+    public static BannerMask of(BannerPattern pattern) {
+        return MASKS.get(pattern);
+    }
+
+    /**
+     * Every pattern that has a mask
+     */
+    public static List<BannerPattern> patterns() {
+        return List.copyOf(MASKS.keySet());
+    }
+
+    public static boolean isRasterizable(BannerPattern pattern) {
+        return MASKS.containsKey(pattern);
+    }
+
+    /**
+     * Renders a glyph on the background colour and returns its foreground pixels
+     *
+     * @throws IllegalArgumentException if the glyph uses a pattern without a mask
+     */
+    public static BannerMask render(Glyph glyph) {
+        BannerMask image = BannerMask.EMPTY;
+        for (Glyph.Layer layer : glyph.layers()) {
+            BannerMask mask = of(layer.pattern());
+            if (mask == null) {
+                throw new IllegalArgumentException("No mask for pattern " + layer.pattern().key());
+            }
+            image = layer.tone() == Glyph.Tone.FOREGROUND ? image.or(mask) : image.andNot(mask);
+        }
+        return image;
+    }
+
+    private static double u(int x) {
+        return (x + 0.5) / W;
+    }
+
+    private static double v(int y) {
+        return (y + 0.5) / H;
+    }
+
+    /**
+     * 0 at both edges, 1 in the middle of the unit interval
+     */
+    private static double tent(double t) {
+        return 1 - Math.abs(2 * t - 1);
+    }
+
+    private static double frac(double value) {
+        return value - Math.floor(value);
+    }
+
+    private static double square(double value) {
+        return value * value;
+    }
+}
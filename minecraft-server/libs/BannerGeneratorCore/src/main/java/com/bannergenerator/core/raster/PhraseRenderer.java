@@ -0,0 +1,101 @@
+package com.bannergenerator.core.raster;
+
+import com.bannergenerator.core.BannerColor;
+import com.bannergenerator.core.Glyph;
+import com.bannergenerator.core.GlyphTable;
+
+import java.util.LinkedHashMap;
+
+/**
+ * Renders phrases as a row of banners by compositing tiles from cached {@link GlyphAtlas}es.
+ * An atlas is built once per glyph table, colour pair and scale, so a new phrase only costs one blit per letter.
+ * The cache is bounded by the pixels of all atlases together, because an atlas grows with the square of its scale.
+ * Thread-safe.
+ */
+public final class PhraseRenderer {
+
+    private final long maxPixels;
+    private final LinkedHashMap<AtlasKey, GlyphAtlas> atlases;
+    private long cachedPixels;
+
+    /**
+     * @param maxPixels Pixels kept across all atlases before the least recently used ones are dropped.
+     *                  The newest atlas always stays, even when it alone is larger.
+     */
+    public PhraseRenderer(long maxPixels) {
+        this.maxPixels = Math.max(1L, maxPixels);
+        this.atlases = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Renders the text left to right, wrapping after {@code maxColumns} banners.
+     * Banners are separated by one scaled pixel of transparency.
+     *
+     * @param text Text whose characters are looked up in the table; unknown ones use the fallback glyph
+     */
+    public RasterImage render(GlyphTable table, String text, BannerColor background, BannerColor foreground,
+                              int scale, int maxColumns) {
+        GlyphAtlas atlas = atlas(table, background, foreground, scale);
+        int length = Math.max(1, text.length());
+        int columns = Math.max(1, Math.min(maxColumns, length));
+        int rows = (length + columns - 1) / columns;
+        int gap = scale;
+        int stepX = atlas.tileWidth() + gap;
+        int stepY = atlas.tileHeight() + gap;
+
+        RasterImage image = new RasterImage(columns * stepX - gap, rows * stepY - gap);
+        for (int i = 0; i < text.length(); i++) {
+            Glyph glyph = table.glyph(text.charAt(i));
+            atlas.blit(glyph.id(), image, (i % columns) * stepX, (i / columns) * stepY);
+        }
+        return image;
+    }
+
+    /**
+     * The cached atlas for the combination, built on first use
+     */
+    public GlyphAtlas atlas(GlyphTable table, BannerColor background, BannerColor foreground, int scale) {
+        AtlasKey key = new AtlasKey(table, background, foreground, scale);
+        synchronized (atlases) {
+            GlyphAtlas atlas = atlases.get(key);
+            if (atlas == null) {
+                atlas = new GlyphAtlas(table, background, foreground, scale);
+                atlases.put(key, atlas);
+                cachedPixels += atlas.pixels();
+                while (cachedPixels > maxPixels && atlases.size() > 1) {
+                    cachedPixels -= atlases.pollFirstEntry().getValue().pixels();
+                }
+            }
+            return atlas;
+        }
+    }
+
+    public int cachedAtlases() {
+        synchronized (atlases) {
+            return atlases.size();
+        }
+    }
+
+    public long cachedPixels() {
+        synchronized (atlases) {
+            return cachedPixels;
+        }
+    }
+
+    /**
+     * Tables are compared by identity: a reloaded table gets fresh atlases
+     */
+    private record AtlasKey(GlyphTable table, BannerColor background, BannerColor foreground, int scale) {
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof AtlasKey other && table == other.table && background == other.background
+                    && foreground == other.foreground && scale == other.scale;
+        }
+
+        @Override
+        public int hashCode() {
+            return ((System.identityHashCode(table) * 31 + background.ordinal()) * 31 + foreground.ordinal()) * 31 + scale;
+        }
+    }
+}
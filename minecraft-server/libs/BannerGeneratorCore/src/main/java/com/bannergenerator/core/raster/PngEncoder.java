@@ -0,0 +1,78 @@
+package com.bannergenerator.core.raster;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Minimal PNG writer (8-bit RGBA, no filtering) that needs neither AWT nor ImageIO,
+ * so it works on headless servers and inside the core module.
+ */
+public final class PngEncoder {
+
+    private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+    private PngEncoder() {
+    }
+
+    public static byte[] encode(RasterImage image) {
+        try {
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            DataOutputStream out = new DataOutputStream(stream);
+            out.write(SIGNATURE);
+
+            ByteArrayOutputStream header = new ByteArrayOutputStream(13);
+            DataOutputStream headerOut = new DataOutputStream(header);
+            headerOut.writeInt(image.width());
+            headerOut.writeInt(image.height());
+            headerOut.writeByte(8);  // bit depth
+            headerOut.writeByte(6);  // colour type: RGBA
+            headerOut.writeByte(0);  // compression
+            headerOut.writeByte(0);  // filter method
+            headerOut.writeByte(0);  // no interlace
+            writeChunk(out, "IHDR", header.toByteArray());
+
+            ByteArrayOutputStream data = new ByteArrayOutputStream();
+            Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+            try (DeflaterOutputStream deflated = new DeflaterOutputStream(data, deflater)) {
+                byte[] row = new byte[1 + image.width() * 4];
+                int[] argb = image.argb();
+                for (int y = 0; y < image.height(); y++) {
+                    int offset = y * image.width();
+                    for (int x = 0; x < image.width(); x++) {
+                        int pixel = argb[offset + x];
+                        int i = 1 + x * 4;
+                        row[i] = (byte) (pixel >>> 16);
+                        row[i + 1] = (byte) (pixel >>> 8);
+                        row[i + 2] = (byte) pixel;
+                        row[i + 3] = (byte) (pixel >>> 24);
+                    }
+                    deflated.write(row);
+                }
+            } finally {
+                deflater.end();
+            }
+            writeChunk(out, "IDAT", data.toByteArray());
+            writeChunk(out, "IEND", new byte[0]);
+            return stream.toByteArray();
+        } catch (IOException e) {
+            // Writing to an in-memory stream cannot fail
+            throw new IllegalStateException("Failed to encode PNG", e);
+        }
+    }
+
+    private static void writeChunk(DataOutputStream out, String type, byte[] data) throws IOException {
+        byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+        CRC32 crc = new CRC32();
+        crc.update(typeBytes);
+        crc.update(data);
+        out.writeInt(data.length);
+        out.write(typeBytes);
+        out.write(data);
+        out.writeInt((int) crc.getValue());
+    }
+}
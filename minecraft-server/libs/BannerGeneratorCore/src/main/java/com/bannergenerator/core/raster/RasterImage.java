@@ -0,0 +1,21 @@
+package com.bannergenerator.core.raster;
+
+/**
+ * A plain ARGB image, row-major
+ */
+public record RasterImage(int width, int height, int[] argb) {
+
+    public RasterImage(int width, int height) {
+        this(width, height, new int[width * height]);
+    }
+
+    /**
+     * Copies a rectangle of another image into this one, one array copy per row
+     */
+    public void blit(RasterImage source, int sourceX, int sourceY, int width, int height, int targetX, int targetY) {
+        for (int row = 0; row < height; row++) {
+            System.arraycopy(source.argb, (sourceY + row) * source.width + sourceX,
+                    argb, (targetY + row) * this.width + targetX, width);
+        }
+    }
+}
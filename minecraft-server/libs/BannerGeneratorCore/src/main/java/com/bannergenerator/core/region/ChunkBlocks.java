@@ -0,0 +1,89 @@
+package com.bannergenerator.core.region;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Block lookups in a chunk read from a region file (1.18+ layout: {@code sections} with paletted
+ * {@code block_states}). Parts of the chunk that are never needed for block lookups are skipped while reading.
+ */
+public final class ChunkBlocks {
+
+    private static final Set<String> SKIPPED = Set.of("block_entities", "entities", "Heightmaps", "structures",
+            "block_ticks", "fluid_ticks", "PostProcessing", "biomes", "BlockLight", "SkyLight", "blending_data");
+
+    private static final String AIR = "minecraft:air";
+
+    private final Map<Integer, Section> sections = new HashMap<>();
+
+    private ChunkBlocks() {
+    }
+
+    /**
+     * Parses a decompressed chunk stream
+     */
+    public static ChunkBlocks read(InputStream in) throws IOException {
+        Map<String, Object> root;
+        try (DataInputStream data = new DataInputStream(new BufferedInputStream(in))) {
+            root = Nbt.readRoot(data, SKIPPED);
+        }
+
+        ChunkBlocks chunk = new ChunkBlocks();
+        if (!(root.get("sections") instanceof List<?> sectionList)) {
+            if (root.containsKey("Level")) {
+                throw new IOException("Chunk uses the pre-1.18 format; load and save the world with a current server first");
+            }
+            return chunk;
+        }
+        for (Object element : sectionList) {
+            if (!(element instanceof Map<?, ?> section) || !(section.get("Y") instanceof Number y)
+                    || !(section.get("block_states") instanceof Map<?, ?> states)
+                    || !(states.get("palette") instanceof List<?> palette) || palette.isEmpty()) {
+                continue;
+            }
+            String[] names = new String[palette.size()];
+            for (int i = 0; i < names.length; i++) {
+                names[i] = palette.get(i) instanceof Map<?, ?> entry && entry.get("Name") instanceof String name ? name : AIR;
+            }
+            long[] data = states.get("data") instanceof long[] packed ? packed : null;
+            chunk.sections.put(y.intValue(), new Section(names, data));
+        }
+        return chunk;
+    }
+
+    /**
+     * Namespaced id of the block at absolute world coordinates inside this chunk, e.g. "minecraft:cartography_table"
+     */
+    public String blockAt(int x, int y, int z) {
+        Section section = sections.get(Math.floorDiv(y, 16));
+        if (section == null) {
+            return AIR;
+        }
+        return section.blockAt(x & 15, y & 15, z & 15);
+    }
+
+    private record Section(String[] palette, long[] data) {
+
+        String blockAt(int x, int y, int z) {
+            if (palette.length == 1 || data == null) {
+                return palette[0];
+            }
+            // Indices never span two longs; at least 4 bits per entry
+            int bits = Math.max(4, 32 - Integer.numberOfLeadingZeros(palette.length - 1));
+            int perLong = 64 / bits;
+            int index = (y << 8) | (z << 4) | x;
+            int slot = index / perLong;
+            if (slot >= data.length) {
+                return AIR;
+            }
+            int value = (int) ((data[slot] >>> ((index % perLong) * bits)) & ((1L << bits) - 1));
+            return value < palette.length ? palette[value] : AIR;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.bannergenerator.core.region;
+
+import java.io.DataInput;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Minimal reader for Minecraft's NBT format, enough to look at chunk data offline.
+ * Compounds become {@code Map<String, Object>}, lists {@code List<Object>}, numbers their boxed type and
+ * arrays {@code byte[]}, {@code int[]} or {@code long[]}. Compounds whose name is in the skip set are
+ * stepped over without being materialized.
+ */
+public final class Nbt {
+
+    private static final int END = 0;
+    private static final int BYTE = 1;
+    private static final int SHORT = 2;
+    private static final int INT = 3;
+    private static final int LONG = 4;
+    private static final int FLOAT = 5;
+    private static final int DOUBLE = 6;
+    private static final int BYTE_ARRAY = 7;
+    private static final int STRING = 8;
+    private static final int LIST = 9;
+    private static final int COMPOUND = 10;
+    private static final int INT_ARRAY = 11;
+    private static final int LONG_ARRAY = 12;
+
+    private static final int MAX_DEPTH = 512;
+
+    private Nbt() {
+    }
+
+    /**
+     * Reads a named root compound, as stored in region files
+     *
+     * @param skip Names of nested tags to skip (for example "block_entities" or "Heightmaps")
+     */
+    public static Map<String, Object> readRoot(DataInput in, Set<String> skip) throws IOException {
+        int type = in.readUnsignedByte();
+        if (type != COMPOUND) {
+            throw new IOException("Root tag is not a compound (type " + type + ")");
+        }
+        in.readUTF();
+        return readCompound(in, skip, 0);
+    }
+
+    private static Map<String, Object> readCompound(DataInput in, Set<String> skip, int depth) throws IOException {
+        Map<String, Object> compound = new HashMap<>();
+        while (true) {
+            int type = in.readUnsignedByte();
+            if (type == END) {
+                return compound;
+            }
+            String name = in.readUTF();
+            if (skip.contains(name)) {
+                skipPayload(in, type, depth + 1);
+            } else {
+                compound.put(name, readPayload(in, type, skip, depth + 1));
+            }
+        }
+    }
+
+    private static Object readPayload(DataInput in, int type, Set<String> skip, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new IOException("NBT nested too deeply");
+        }
+        return switch (type) {
+            case BYTE -> in.readByte();
+            case SHORT -> in.readShort();
+            case INT -> in.readInt();
+            case LONG -> in.readLong();
+            case FLOAT -> in.readFloat();
+            case DOUBLE -> in.readDouble();
+            case BYTE_ARRAY -> {
+                byte[] array = new byte[length(in)];
+                in.readFully(array);
+                yield array;
+            }
+            case STRING -> in.readUTF();
+            case LIST -> {
+                int elementType = in.readUnsignedByte();
+                int size = length(in);
+                List<Object> list = new ArrayList<>(size);
+                for (int i = 0; i < size; i++) {
+                    list.add(readPayload(in, elementType, skip, depth + 1));
+                }
+                yield list;
+            }
+            case COMPOUND -> readCompound(in, skip, depth);
+            case INT_ARRAY -> {
+                int[] array = new int[length(in)];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = in.readInt();
+                }
+                yield array;
+            }
+            case LONG_ARRAY -> {
+                long[] array = new long[length(in)];
+                for (int i = 0; i < array.length; i++) {
+                    array[i] = in.readLong();
+                }
+                yield array;
+            }
+            default -> throw new IOException("Unknown NBT tag type " + type);
+        };
+    }
+
+    private static void skipPayload(DataInput in, int type, int depth) throws IOException {
+        if (depth > MAX_DEPTH) {
+            throw new IOException("NBT nested too deeply");
+        }
+        switch (type) {
+            case BYTE -> in.skipBytes(1);
+            case SHORT -> in.skipBytes(2);
+            case INT, FLOAT -> in.skipBytes(4);
+            case LONG, DOUBLE -> in.skipBytes(8);
+            case BYTE_ARRAY -> skipFully(in, length(in));
+            case STRING -> skipFully(in, in.readUnsignedShort());
+            case LIST -> {
+                int elementType = in.readUnsignedByte();
+                int size = length(in);
+                for (int i = 0; i < size; i++) {
+                    skipPayload(in, elementType, depth + 1);
+                }
+            }
+            case COMPOUND -> {
+                int child;
+                while ((child = in.readUnsignedByte()) != END) {
+                    skipFully(in, in.readUnsignedShort());
+                    skipPayload(in, child, depth + 1);
+                }
+            }
+            case INT_ARRAY -> skipFully(in, (long) length(in) * 4);
+            case LONG_ARRAY -> skipFully(in, (long) length(in) * 8);
+            default -> throw new IOException("Unknown NBT tag type " + type);
+        }
+    }
+
+    private static int length(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) {
+            throw new IOException("Negative NBT length " + length);
+        }
+        return length;
+    }
+
+    private static void skipFully(DataInput in, long count) throws IOException {
+        while (count > 0) {
+            int skipped = in.skipBytes((int) Math.min(count, Integer.MAX_VALUE));
+            if (skipped <= 0) {
+                in.readByte(); // throws EOFException at the end of the stream
+                skipped = 1;
+            }
+            count -= skipped;
+        }
+    }
+}
@@ -0,0 +1,159 @@
+package com.bannergenerator.core.region;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Read-only view of an Anvil region file ({@code r.X.Z.mca}), memory-mapped so that only the sectors
+ * of the chunks actually read are paged in. Chunks are decompressed on demand.
+ * <p>
+ * Layout: a 4 KiB table of chunk locations (3-byte sector offset, 1-byte sector count), a 4 KiB
+ * timestamp table, then chunks as {@code int length, byte compression, data}. Chunks whose compression
+ * byte has the high bit set live in an external {@code c.X.Z.mcc} file next to the region.
+ * Instances are not thread-safe; use one per thread.
+ */
+public final class RegionFile implements AutoCloseable {
+
+    private static final int SECTOR_BYTES = 4096;
+    private static final int EXTERNAL_FLAG = 0x80;
+
+    private static final int GZIP = 1;
+    private static final int ZLIB = 2;
+    private static final int NONE = 3;
+    private static final int LZ4 = 4;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer buffer;
+
+    private RegionFile(Path path, FileChannel channel, MappedByteBuffer buffer) {
+        this.path = path;
+        this.channel = channel;
+        this.buffer = buffer;
+    }
+
+    /**
+     * Maps a region file
+     */
+    public static RegionFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            long size = channel.size();
+            if (size < 2L * SECTOR_BYTES) {
+                throw new IOException("Region file too short: " + path.getFileName());
+            }
+            return new RegionFile(path, channel, channel.map(FileChannel.MapMode.READ_ONLY, 0, size));
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Region coordinate holding a chunk coordinate
+     */
+    public static int regionOf(int chunkCoordinate) {
+        return chunkCoordinate >> 5;
+    }
+
+    public static String fileName(int regionX, int regionZ) {
+        return "r." + regionX + "." + regionZ + ".mca";
+    }
+
+    /**
+     * Whether the chunk was ever saved to this region
+     */
+    public boolean hasChunk(int chunkX, int chunkZ) {
+        return buffer.getInt(headerIndex(chunkX, chunkZ)) != 0;
+    }
+
+    /**
+     * Opens the decompressed NBT stream of a chunk
+     *
+     * @param chunkX Absolute chunk coordinate; only its position within the region is used
+     * @return The stream, or null if the chunk is not stored in this region
+     */
+    public InputStream openChunk(int chunkX, int chunkZ) throws IOException {
+        int location = buffer.getInt(headerIndex(chunkX, chunkZ));
+        if (location == 0) {
+            return null;
+        }
+        long offset = (long) (location >>> 8) * SECTOR_BYTES;
+        if (offset + 5 > buffer.capacity()) {
+            throw new IOException("Chunk " + chunkX + "," + chunkZ + " points past the end of " + path.getFileName());
+        }
+
+        int length = buffer.getInt((int) offset);
+        int compression = buffer.get((int) offset + 4) & 0xFF;
+        InputStream raw;
+        if ((compression & EXTERNAL_FLAG) != 0) {
+            compression &= ~EXTERNAL_FLAG;
+            Path external = path.resolveSibling("c." + chunkX + "." + chunkZ + ".mcc");
+            raw = Files.newInputStream(external);
+        } else {
+            if (length < 1 || offset + 4 + length > buffer.capacity()) {
+                throw new IOException("Chunk " + chunkX + "," + chunkZ + " has a corrupt length in " + path.getFileName());
+            }
+            ByteBuffer slice = buffer.slice((int) offset + 5, length - 1);
+            raw = new ByteBufferInputStream(slice);
+        }
+
+        return switch (compression) {
+            case GZIP -> new GZIPInputStream(raw);
+            case ZLIB -> new InflaterInputStream(raw);
+            case NONE -> raw;
+            case LZ4 -> throw new IOException("LZ4-compressed chunks are not supported; set region-file-compression to deflate");
+            default -> throw new IOException("Unknown chunk compression " + compression);
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static int headerIndex(int chunkX, int chunkZ) {
+        return 4 * ((chunkX & 31) + (chunkZ & 31) * 32);
+    }
+
+    /**
+     * Streams a slice of the mapped file without copying it to the heap first
+     */
+    private static final class ByteBufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] target, int offset, int length) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int count = Math.min(length, buffer.remaining());
+            buffer.get(target, offset, count);
+            return count;
+        }
+
+        @Override
+        public int available() {
+            return buffer.remaining();
+        }
+    }
+}
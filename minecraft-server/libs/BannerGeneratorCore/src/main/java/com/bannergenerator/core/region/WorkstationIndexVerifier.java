@@ -0,0 +1,343 @@
+package com.bannergenerator.core.region;
+
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Checks a workstation index against the region files of a world without a running server.
+ * <p>
+ * Positions are grouped by region file; each region is memory-mapped once and only the chunks that hold
+ * recorded workstations are decompressed. Regions are verified in parallel. Every position ends up
+ * {@link Outcome#CONFIRMED confirmed} (a cartography table is still there), {@link Outcome#MISSING missing}
+ * (another block, or the chunk was never saved) or {@link Outcome#UNKNOWN unknown} (the world or region could
+ * not be read). The corrected index keeps confirmed and unknown positions, so a read error never drops data.
+ * <p>
+ * Standalone use against a stopped server:
+ * <pre>
+ * java -cp bannergenerator-core.jar com.bannergenerator.core.region.WorkstationIndexVerifier \
+ *     --server . --index plugins/BannerGenerator/workstations.yml \
+ *     --out workstations-verified.yml --report verify-report.txt
+ * </pre>
+ */
+public final class WorkstationIndexVerifier {
+
+    public static final String WORKSTATION_BLOCK = "minecraft:cartography_table";
+
+    private final Map<UUID, Path> worldFolders;
+
+    /**
+     * @param worldFolders World folder (the one containing {@code region/} or {@code DIM-1/region/}) per world UID
+     */
+    public WorkstationIndexVerifier(Map<UUID, Path> worldFolders) {
+        this.worldFolders = Map.copyOf(worldFolders);
+    }
+
+    /**
+     * A workstation entry as stored in {@code workstations.yml}: {@code worldUid,x,y,z}
+     */
+    public record Position(UUID world, int x, int y, int z) {
+
+        public static final Comparator<Position> ORDER = Comparator.comparing(Position::world)
+                .thenComparingInt(Position::x).thenComparingInt(Position::z).thenComparingInt(Position::y);
+
+        public static Position parse(String raw) {
+            String[] parts = raw.split(",");
+            if (parts.length != 4) {
+                return null;
+            }
+            try {
+                return new Position(UUID.fromString(parts[0].trim()), Integer.parseInt(parts[1].trim()),
+                        Integer.parseInt(parts[2].trim()), Integer.parseInt(parts[3].trim()));
+            } catch (IllegalArgumentException e) {
+                return null;
+            }
+        }
+
+        public String asString() {
+            return world + "," + x + "," + y + "," + z;
+        }
+    }
+
+    public enum Outcome {
+        CONFIRMED,
+        MISSING,
+        UNKNOWN
+    }
+
+    public record Finding(Position position, Outcome outcome, String detail) {
+    }
+
+    public record Report(List<Finding> findings, int regionsRead, int chunksRead, long elapsedNanos) {
+
+        public long count(Outcome outcome) {
+            return findings.stream().filter(finding -> finding.outcome() == outcome).count();
+        }
+
+        /**
+         * Positions to keep: confirmed ones plus those that could not be checked
+         */
+        public List<Position> correctedIndex() {
+            return findings.stream()
+                    .filter(finding -> finding.outcome() != Outcome.MISSING)
+                    .map(Finding::position)
+                    .toList();
+        }
+
+        /**
+         * Writes a human-readable diff: every removed and unverifiable entry with the reason
+         */
+        public void write(Writer writer) throws IOException {
+            writer.write("# Workstation index verification\n");
+            writer.write("# confirmed " + count(Outcome.CONFIRMED) + ", removed " + count(Outcome.MISSING)
+                    + ", unknown " + count(Outcome.UNKNOWN) + " (regions " + regionsRead + ", chunks " + chunksRead
+                    + ", " + elapsedNanos / 1_000_000L + " ms)\n");
+            for (Finding finding : findings) {
+                if (finding.outcome() == Outcome.CONFIRMED) {
+                    continue;
+                }
+                writer.write((finding.outcome() == Outcome.MISSING ? "- " : "? ") + finding.position().asString()
+                        + "  " + finding.detail() + "\n");
+            }
+        }
+    }
+
+    private record RegionKey(UUID world, int regionX, int regionZ) {
+    }
+
+    private record RegionResult(List<Finding> findings, boolean regionRead, int chunksRead) {
+    }
+
+    /**
+     * Verifies positions on the given pool, one task per region file
+     *
+     * @return Findings in {@link Position#ORDER}
+     */
+    public Report verify(Collection<Position> positions, ForkJoinPool pool) {
+        long start = System.nanoTime();
+        Map<RegionKey, List<Position>> byRegion = positions.stream().distinct().collect(Collectors.groupingBy(
+                position -> new RegionKey(position.world(), RegionFile.regionOf(position.x() >> 4),
+                        RegionFile.regionOf(position.z() >> 4))));
+
+        List<RegionResult> results;
+        try {
+            results = pool.submit(() -> byRegion.entrySet().parallelStream()
+                    .map(entry -> verifyRegion(entry.getKey(), entry.getValue()))
+                    .toList()).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Verification interrupted", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Verification failed", e.getCause());
+        }
+
+        List<Finding> findings = new ArrayList<>(positions.size());
+        int regionsRead = 0;
+        int chunksRead = 0;
+        for (RegionResult result : results) {
+            findings.addAll(result.findings());
+            regionsRead += result.regionRead() ? 1 : 0;
+            chunksRead += result.chunksRead();
+        }
+        findings.sort(Comparator.comparing(Finding::position, Position.ORDER));
+        return new Report(findings, regionsRead, chunksRead, System.nanoTime() - start);
+    }
+
+    private RegionResult verifyRegion(RegionKey key, List<Position> positions) {
+        Path worldFolder = worldFolders.get(key.world());
+        if (worldFolder == null) {
+            return new RegionResult(all(positions, Outcome.UNKNOWN, "world folder not found"), false, 0);
+        }
+        Path regionDir = regionDirectory(worldFolder);
+        if (regionDir == null) {
+            return new RegionResult(all(positions, Outcome.UNKNOWN, "no region directory in " + worldFolder), false, 0);
+        }
+        Path file = regionDir.resolve(RegionFile.fileName(key.regionX(), key.regionZ()));
+        if (!Files.isRegularFile(file)) {
+            return new RegionResult(all(positions, Outcome.MISSING, "region never saved"), false, 0);
+        }
+
+        Map<Long, List<Position>> byChunk = new HashMap<>();
+        for (Position position : positions) {
+            long chunk = ((long) (position.x() >> 4) << 32) | ((position.z() >> 4) & 0xFFFFFFFFL);
+            byChunk.computeIfAbsent(chunk, ignored -> new ArrayList<>()).add(position);
+        }
+
+        List<Finding> findings = new ArrayList<>(positions.size());
+        int chunksRead = 0;
+        try (RegionFile region = RegionFile.open(file)) {
+            for (List<Position> inChunk : byChunk.values()) {
+                int chunkX = inChunk.get(0).x() >> 4;
+                int chunkZ = inChunk.get(0).z() >> 4;
+                ChunkBlocks blocks;
+                try (InputStream in = region.openChunk(chunkX, chunkZ)) {
+                    if (in == null) {
+                        findings.addAll(all(inChunk, Outcome.MISSING, "chunk never saved"));
+                        continue;
+                    }
+                    blocks = ChunkBlocks.read(in);
+                    chunksRead++;
+                } catch (IOException e) {
+                    findings.addAll(all(inChunk, Outcome.UNKNOWN, "chunk " + chunkX + "," + chunkZ + ": " + e.getMessage()));
+                    continue;
+                }
+                for (Position position : inChunk) {
+                    String block = blocks.blockAt(position.x(), position.y(), position.z());
+                    findings.add(WORKSTATION_BLOCK.equals(block)
+                            ? new Finding(position, Outcome.CONFIRMED, block)
+                            : new Finding(position, Outcome.MISSING, "found " + block));
+                }
+            }
+        } catch (IOException e) {
+            return new RegionResult(all(positions, Outcome.UNKNOWN, file.getFileName() + ": " + e.getMessage()), false, 0);
+        }
+        return new RegionResult(findings, true, chunksRead);
+    }
+
+    private static List<Finding> all(List<Position> positions, Outcome outcome, String detail) {
+        return positions.stream().map(position -> new Finding(position, outcome, detail)).toList();
+    }
+
+    /**
+     * Region directory of an overworld, Nether or End world folder as laid out by Bukkit servers
+     */
+    static Path regionDirectory(Path worldFolder) {
+        for (String candidate : List.of("region", "DIM-1/region", "DIM1/region")) {
+            Path dir = worldFolder.resolve(candidate);
+            if (Files.isDirectory(dir)) {
+                return dir;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Finds world folders under a server directory by their {@code uid.dat}
+     */
+    public static Map<UUID, Path> discoverWorlds(Path serverDir) throws IOException {
+        Map<UUID, Path> worlds = new HashMap<>();
+        try (Stream<Path> children = Files.list(serverDir)) {
+            for (Path child : children.filter(Files::isDirectory).toList()) {
+                Path uidFile = child.resolve("uid.dat");
+                if (!Files.isRegularFile(uidFile)) {
+                    continue;
+                }
+                try (DataInputStream in = new DataInputStream(Files.newInputStream(uidFile))) {
+                    worlds.put(new UUID(in.readLong(), in.readLong()), child);
+                }
+            }
+        }
+        return worlds;
+    }
+
+    /**
+     * Reads the {@code workstations:} list of a {@code workstations.yml}, skipping malformed entries
+     */
+    public static List<Position> readIndex(Path file) throws IOException {
+        List<Position> positions = new ArrayList<>();
+        boolean inList = false;
+        for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            if (!line.startsWith(" ") && !line.startsWith("-")) {
+                inList = trimmed.equals("workstations:");
+                continue;
+            }
+            if (inList && trimmed.startsWith("-")) {
+                String value = trimmed.substring(1).trim();
+                if (value.length() >= 2 && (value.charAt(0) == '\'' || value.charAt(0) == '"')) {
+                    value = value.substring(1, value.length() - 1);
+                }
+                Position position = Position.parse(value);
+                if (position != null) {
+                    positions.add(position);
+                }
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Writes positions in the {@code workstations.yml} format
+     */
+    public static void writeIndex(Path file, Collection<Position> positions) throws IOException {
+        try (Writer writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(positions.isEmpty() ? "workstations: []\n" : "workstations:\n");
+            for (Position position : positions) {
+                writer.write("- " + position.asString() + "\n");
+            }
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Path server = Path.of(".");
+        Path index = null;
+        Path out = null;
+        Path reportFile = null;
+        int threads = Runtime.getRuntime().availableProcessors();
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--server" -> server = Path.of(args[++i]);
+                case "--index" -> index = Path.of(args[++i]);
+                case "--out" -> out = Path.of(args[++i]);
+                case "--report" -> reportFile = Path.of(args[++i]);
+                case "--threads" -> threads = Integer.parseInt(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+        if (index == null) {
+            index = server.resolve("plugins/BannerGenerator/workstations.yml");
+        }
+
+        Map<UUID, Path> worlds = discoverWorlds(server);
+        List<Position> positions = readIndex(index);
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+        Report report;
+        try {
+            report = new WorkstationIndexVerifier(worlds).verify(positions, pool);
+        } finally {
+            pool.shutdown();
+        }
+
+        System.out.println("Worlds: " + new TreeMap<>(worlds.entrySet().stream()
+                .collect(Collectors.toMap(entry -> entry.getValue().getFileName().toString(), Map.Entry::getKey))));
+        System.out.println("Entries " + positions.size() + ": confirmed " + report.count(Outcome.CONFIRMED)
+                + ", removed " + report.count(Outcome.MISSING) + ", unknown " + report.count(Outcome.UNKNOWN)
+                + " (" + report.regionsRead() + " regions, " + report.chunksRead() + " chunks, "
+                + report.elapsedNanos() / 1_000_000L + " ms)");
+
+        if (out != null) {
+            writeIndex(out, report.correctedIndex());
+            System.out.println("Corrected index written to " + out);
+        }
+        if (reportFile != null) {
+            try (Writer writer = Files.newBufferedWriter(reportFile, StandardCharsets.UTF_8)) {
+                report.write(writer);
+            }
+        } else {
+            Writer stdout = new OutputStreamWriter(System.out, StandardCharsets.UTF_8);
+            report.write(stdout);
+            stdout.flush();
+        }
+    }
+}
@@ -0,0 +1,177 @@
+package com.bannergenerator.core.schematic;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * Streaming writer for Minecraft's NBT format. Tags go straight to the output as they are written, so a
+ * structure of any size costs only its nesting depth in memory. Lists and arrays declare their length up
+ * front, the way the format requires; the writer checks that exactly that many elements follow.
+ * <pre>
+ * writer.beginCompound("Schematic");
+ * writer.writeInt("Version", 3);
+ * writer.beginList("Entries", NbtWriter.COMPOUND, 2);
+ * ...
+ * writer.end();
+ * </pre>
+ */
+public final class NbtWriter implements Closeable {
+
+    public static final int END = 0;
+    public static final int BYTE = 1;
+    public static final int SHORT = 2;
+    public static final int INT = 3;
+    public static final int LONG = 4;
+    public static final int BYTE_ARRAY = 7;
+    public static final int STRING = 8;
+    public static final int LIST = 9;
+    public static final int COMPOUND = 10;
+    public static final int INT_ARRAY = 11;
+
+    private final DataOutputStream out;
+    private final Deque<Scope> scopes = new ArrayDeque<>();
+
+    public NbtWriter(OutputStream out) {
+        this.out = new DataOutputStream(out);
+    }
+
+    /**
+     * Starts the unnamed root compound or a named compound inside a compound
+     */
+    public void beginCompound(String name) throws IOException {
+        header(COMPOUND, name);
+        scopes.push(Scope.compound());
+    }
+
+    /**
+     * Starts a list of {@code length} elements; elements are written with a null name
+     */
+    public void beginList(String name, int elementType, int length) throws IOException {
+        header(LIST, name);
+        out.writeByte(length == 0 ? END : elementType);
+        out.writeInt(length);
+        scopes.push(Scope.list(length == 0 ? END : elementType, length));
+    }
+
+    /**
+     * Starts a byte array of {@code length} bytes, to be filled with {@link #writeArrayBytes}
+     */
+    public void beginByteArray(String name, long length) throws IOException {
+        if (length > Integer.MAX_VALUE) {
+            throw new IOException("Byte array too long for NBT: " + length);
+        }
+        header(BYTE_ARRAY, name);
+        out.writeInt((int) length);
+        scopes.push(Scope.bytes(length));
+    }
+
+    public void writeArrayBytes(byte[] bytes, int offset, int length) throws IOException {
+        Scope scope = scopes.peek();
+        if (scope == null || scope.type != BYTE_ARRAY || scope.remaining < length) {
+            throw new IllegalStateException("Not inside a byte array with " + length + " bytes left");
+        }
+        out.write(bytes, offset, length);
+        scope.remaining -= length;
+    }
+
+    /**
+     * Closes the innermost compound, list or byte array
+     */
+    public void end() throws IOException {
+        Scope scope = scopes.pop();
+        if (scope.remaining != 0) {
+            throw new IllegalStateException(scope.remaining + " element(s) missing before end()");
+        }
+        if (scope.type == COMPOUND) {
+            out.writeByte(END);
+        }
+    }
+
+    public void writeByte(String name, int value) throws IOException {
+        header(BYTE, name);
+        out.writeByte(value);
+    }
+
+    public void writeShort(String name, int value) throws IOException {
+        header(SHORT, name);
+        out.writeShort(value);
+    }
+
+    public void writeInt(String name, int value) throws IOException {
+        header(INT, name);
+        out.writeInt(value);
+    }
+
+    public void writeLong(String name, long value) throws IOException {
+        header(LONG, name);
+        out.writeLong(value);
+    }
+
+    public void writeString(String name, String value) throws IOException {
+        header(STRING, name);
+        out.writeUTF(value);
+    }
+
+    public void writeIntArray(String name, int... values) throws IOException {
+        header(INT_ARRAY, name);
+        out.writeInt(values.length);
+        for (int value : values) {
+            out.writeInt(value);
+        }
+    }
+
+    /**
+     * Flushes and closes the underlying stream; every scope must have been ended
+     */
+    @Override
+    public void close() throws IOException {
+        if (!scopes.isEmpty()) {
+            out.close();
+            throw new IllegalStateException(scopes.size() + " unclosed NBT scope(s)");
+        }
+        out.close();
+    }
+
+    private void header(int type, String name) throws IOException {
+        Scope parent = scopes.peek();
+        if (parent == null || parent.type == COMPOUND) {
+            out.writeByte(type);
+            out.writeUTF(name == null ? "" : name);
+            return;
+        }
+        if (parent.type != LIST || parent.elementType != type || parent.remaining == 0) {
+            throw new IllegalStateException("Unexpected tag type " + type + " in " + (parent.type == LIST
+                    ? "list of type " + parent.elementType + " with " + parent.remaining + " element(s) left" : "byte array"));
+        }
+        parent.remaining--;
+    }
+
+    private static final class Scope {
+
+        private final int type;
+        private final int elementType;
+        private long remaining;
+
+        private Scope(int type, int elementType, long remaining) {
+            this.type = type;
+            this.elementType = elementType;
+            this.remaining = remaining;
+        }
+
+        static Scope compound() {
+            return new Scope(COMPOUND, END, 0);
+        }
+
+        static Scope list(int elementType, int length) {
+            return new Scope(LIST, elementType, length);
+        }
+
+        static Scope bytes(long length) {
+            return new Scope(BYTE_ARRAY, END, length);
+        }
+    }
+}
@@ -0,0 +1,213 @@
+package com.bannergenerator.core.schematic;
+
+import com.bannergenerator.core.BannerColor;
+import com.bannergenerator.core.Glyph;
+import com.bannergenerator.core.GlyphTable;
+import com.bannergenerator.core.GlyphTableFormat;
+import com.bannergenerator.core.TextCodec;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes a banner text wall as a Sponge schematic (version 3, {@code .schem}) that WorldEdit can paste.
+ * <p>
+ * The wall is one block deep: wall banners facing south, one row per text line, rows two blocks apart because
+ * a wall banner hangs into the block below it. The file is streamed through {@link NbtWriter} and gzip, so
+ * memory stays bounded by one row of blocks no matter how long the text is.
+ * <p>
+ * Standalone use:
+ * <pre>
+ * java -cp bannergenerator-core.jar com.bannergenerator.core.schematic.SpongeSchematicWriter \
+ *     --text "WELCOME|TO THE COLONY" --bg white --fg blue --out welcome.schem
+ * </pre>
+ */
+public final class SpongeSchematicWriter {
+
+    public static final int VERSION = 3;
+    /**
+     * Data version of Minecraft 1.21.1, used when the caller does not know the server's
+     */
+    public static final int DEFAULT_DATA_VERSION = 3955;
+
+    private static final String FACING = "south";
+    private static final int ROW_HEIGHT = 2;
+    private static final int MAX_NAME_LENGTH = 64;
+
+    private final GlyphTable glyphs;
+    private final int dataVersion;
+
+    public SpongeSchematicWriter(GlyphTable glyphs, int dataVersion) {
+        this.glyphs = glyphs;
+        this.dataVersion = dataVersion;
+    }
+
+    /**
+     * Breaks sanitized lines into rows of at most {@code rowLetters} letters, preferring to break at spaces.
+     * The space a row is broken at is dropped.
+     */
+    public static List<String> wrap(List<String> lines, int rowLetters) {
+        if (rowLetters < 1) {
+            throw new IllegalArgumentException("rowLetters must be positive");
+        }
+        List<String> rows = new ArrayList<>();
+        for (String line : lines) {
+            int start = 0;
+            while (line.length() - start > rowLetters) {
+                int limit = start + rowLetters;
+                int space = line.lastIndexOf(' ', limit);
+                if (space > start) {
+                    rows.add(line.substring(start, space));
+                    start = space + 1;
+                } else {
+                    rows.add(line.substring(start, limit));
+                    start = limit;
+                }
+            }
+            rows.add(line.substring(start));
+        }
+        return rows;
+    }
+
+    /**
+     * Writes the schematic, gzip-compressed, to the stream and closes it
+     *
+     * @param rows Sanitized rows of text, top row first, each at most {@link Short#MAX_VALUE} letters
+     * @param name Stored in the schematic metadata, cut to 64 characters
+     */
+    public void write(OutputStream stream, List<String> rows, BannerColor background, BannerColor foreground, String name)
+            throws IOException {
+        int width = Math.max(1, rows.stream().mapToInt(String::length).max().orElse(0));
+        int height = Math.max(1, rows.size() * ROW_HEIGHT);
+        if (width > Short.MAX_VALUE || height > Short.MAX_VALUE) {
+            throw new IllegalArgumentException("Wall too large for a schematic: " + width + "x" + height);
+        }
+        int letters = rows.stream().mapToInt(String::length).sum();
+
+        try (NbtWriter nbt = new NbtWriter(new GZIPOutputStream(new BufferedOutputStream(stream), 1 << 16))) {
+            nbt.beginCompound("");
+            nbt.beginCompound("Schematic");
+            nbt.writeInt("Version", VERSION);
+            nbt.writeInt("DataVersion", dataVersion);
+            nbt.writeShort("Width", width);
+            nbt.writeShort("Height", height);
+            nbt.writeShort("Length", 1);
+            nbt.writeIntArray("Offset", 0, 0, 0);
+
+            nbt.beginCompound("Metadata");
+            nbt.writeString("Name", name.length() > MAX_NAME_LENGTH ? name.substring(0, MAX_NAME_LENGTH) : name);
+            nbt.writeLong("Date", System.currentTimeMillis());
+            nbt.end();
+
+            nbt.beginCompound("Blocks");
+            nbt.beginCompound("Palette");
+            nbt.writeInt("minecraft:air", 0);
+            nbt.writeInt("minecraft:" + colorId(background) + "_wall_banner[facing=" + FACING + "]", 1);
+            nbt.end();
+
+            // Index order is x, then z, then y; every palette index fits one varint byte
+            nbt.beginByteArray("Data", (long) width * height);
+            byte[] line = new byte[width];
+            for (int y = 0; y < height; y++) {
+                int fromTop = height - 1 - y;
+                Arrays.fill(line, (byte) 0);
+                if (fromTop % ROW_HEIGHT == 0) {
+                    Arrays.fill(line, 0, rows.get(fromTop / ROW_HEIGHT).length(), (byte) 1);
+                }
+                nbt.writeArrayBytes(line, 0, width);
+            }
+            nbt.end();
+
+            nbt.beginList("BlockEntities", NbtWriter.COMPOUND, letters);
+            for (int row = 0; row < rows.size(); row++) {
+                String text = rows.get(row);
+                int y = height - 1 - row * ROW_HEIGHT;
+                for (int x = 0; x < text.length(); x++) {
+                    writeBanner(nbt, glyphs.glyph(text.charAt(x)), x, y, background, foreground);
+                }
+            }
+            nbt.end();
+            nbt.end(); // Blocks
+
+            nbt.end(); // Schematic
+            nbt.end(); // root
+        }
+    }
+
+    private static void writeBanner(NbtWriter nbt, Glyph glyph, int x, int y, BannerColor background,
+                                    BannerColor foreground) throws IOException {
+        nbt.beginCompound(null);
+        nbt.writeIntArray("Pos", x, y, 0);
+        nbt.writeString("Id", "minecraft:banner");
+        nbt.beginCompound("Data");
+        nbt.beginList("patterns", NbtWriter.COMPOUND, glyph.layers().size());
+        for (Glyph.Layer layer : glyph.layers()) {
+            nbt.beginCompound(null);
+            nbt.writeString("color", colorId(layer.tone().resolve(background, foreground)));
+            nbt.writeString("pattern", "minecraft:" + layer.pattern().key());
+            nbt.end();
+        }
+        nbt.end();
+        nbt.end(); // Data
+        nbt.end();
+    }
+
+    private static String colorId(BannerColor color) {
+        return color.name().toLowerCase(Locale.ROOT);
+    }
+
+    public static void main(String[] args) throws IOException {
+        String text = null;
+        BannerColor background = BannerColor.WHITE;
+        BannerColor foreground = BannerColor.BLACK;
+        int rowLetters = 32;
+        int dataVersion = DEFAULT_DATA_VERSION;
+        Path glyphFile = null;
+        Path out = null;
+
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--text" -> text = args[++i];
+                case "--bg" -> background = BannerColor.byName(args[++i], null);
+                case "--fg" -> foreground = BannerColor.byName(args[++i], null);
+                case "--row-letters" -> rowLetters = Integer.parseInt(args[++i]);
+                case "--data-version" -> dataVersion = Integer.parseInt(args[++i]);
+                case "--glyphs" -> glyphFile = Path.of(args[++i]);
+                case "--out" -> out = Path.of(args[++i]);
+                default -> throw new IllegalArgumentException("Unknown argument: " + args[i]);
+            }
+        }
+        if (text == null || out == null) {
+            throw new IllegalArgumentException("Need --text and --out");
+        }
+        if (background == null || foreground == null) {
+            throw new IllegalArgumentException("Unknown colour");
+        }
+
+        GlyphTable table = GlyphTable.builtIn();
+        if (glyphFile != null) {
+            try (InputStream in = new BufferedInputStream(Files.newInputStream(glyphFile))) {
+                table = GlyphTableFormat.readBinary(in);
+            }
+        }
+        TextCodec codec = new TextCodec(table);
+        List<String> lines = Arrays.stream(text.split("\\|")).map(codec::sanitize).toList();
+        List<String> rows = wrap(lines, rowLetters);
+
+        try (OutputStream stream = Files.newOutputStream(out)) {
+            new SpongeSchematicWriter(table, dataVersion).write(stream, rows, background, foreground, text);
+        }
+        System.out.println("Wrote " + rows.stream().mapToInt(String::length).sum() + " banner(s) in " + rows.size()
+                + " row(s) to " + out);
+    }
+}
@@ -0,0 +1,10 @@
+package com.bannergenerator.core.trace;
+
+/**
+ * A trace event with its timing and originating player
+ *
+ * @param offsetNanos Time since the start of the trace file
+ * @param actor Index into the trace's actor table, -1 when no player was involved
+ */
+public record TraceEntry(long offsetNanos, int actor, TraceEvent event) {
+}
@@ -0,0 +1,39 @@
+package com.bannergenerator.core.trace;
+
+/**
+ * One recorded piece of plugin traffic. Colours are dye colour ordinals, -1 when the slot held no matching item.
+ */
+public sealed interface TraceEvent {
+
+    /**
+     * A raw {@code bannergenerator:generate} plugin message
+     */
+    record Generate(byte[] payload) implements TraceEvent {
+    }
+
+    /**
+     * An anvil preview update in the workstation UI
+     */
+    record AnvilPrepare(String renameText, int background, int foreground) implements TraceEvent {
+    }
+
+    /**
+     * A click into the workstation anvil
+     */
+    record AnvilClick(int rawSlot, boolean shift, String renameText, int background, int foreground) implements TraceEvent {
+    }
+
+    /**
+     * A workstation block being placed, broken or opened
+     *
+     * @param world Index into the trace's world table
+     */
+    record Workstation(Action action, int world, int x, int y, int z) implements TraceEvent {
+    }
+
+    enum Action {
+        PLACE,
+        BREAK,
+        INTERACT
+    }
+}
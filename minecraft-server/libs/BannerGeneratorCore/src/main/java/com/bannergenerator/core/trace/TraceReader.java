@@ -0,0 +1,144 @@
+package com.bannergenerator.core.trace;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Reads traces written by {@link TraceWriter}. Player and world declarations are collected
+ * as they are encountered and can be looked up by the indices used in the entries.
+ */
+public final class TraceReader implements AutoCloseable {
+
+    private final DataInputStream in;
+    private final long startEpochMillis;
+    private final List<Named> actors = new ArrayList<>();
+    private final List<Named> worlds = new ArrayList<>();
+    private long offsetNanos;
+
+    public TraceReader(InputStream stream) throws IOException {
+        this.in = new DataInputStream(new BufferedInputStream(stream));
+        if (in.readInt() != TraceWriter.MAGIC) {
+            throw new IOException("Not a banner trace (bad magic)");
+        }
+        int version = in.readUnsignedByte();
+        if (version != TraceWriter.VERSION) {
+            throw new IOException("Unsupported trace version " + version);
+        }
+        this.startEpochMillis = in.readLong();
+    }
+
+    public long startEpochMillis() {
+        return startEpochMillis;
+    }
+
+    /**
+     * @return The next event, or null at the end of the trace
+     */
+    public TraceEntry next() throws IOException {
+        while (true) {
+            int type = in.read();
+            if (type < 0) {
+                return null;
+            }
+            offsetNanos += readVarLong();
+
+            switch (type) {
+                case TraceWriter.DECLARE_ACTOR -> actors.add(new Named(readUuid(), in.readUTF()));
+                case TraceWriter.DECLARE_WORLD -> worlds.add(new Named(readUuid(), in.readUTF()));
+                case TraceWriter.GENERATE -> {
+                    int actor = readVarInt() - 1;
+                    byte[] payload = new byte[readVarInt()];
+                    in.readFully(payload);
+                    return new TraceEntry(offsetNanos, actor, new TraceEvent.Generate(payload));
+                }
+                case TraceWriter.ANVIL_PREPARE -> {
+                    int actor = readVarInt() - 1;
+                    return new TraceEntry(offsetNanos, actor,
+                            new TraceEvent.AnvilPrepare(in.readUTF(), in.readByte(), in.readByte()));
+                }
+                case TraceWriter.ANVIL_CLICK -> {
+                    int actor = readVarInt() - 1;
+                    return new TraceEntry(offsetNanos, actor, new TraceEvent.AnvilClick(
+                            readVarInt(), in.readBoolean(), in.readUTF(), in.readByte(), in.readByte()));
+                }
+                case TraceWriter.WORKSTATION -> {
+                    int actor = readVarInt() - 1;
+                    TraceEvent.Action[] actions = TraceEvent.Action.values();
+                    int action = in.readUnsignedByte();
+                    if (action >= actions.length) {
+                        throw new IOException("Unknown workstation action " + action);
+                    }
+                    return new TraceEntry(offsetNanos, actor, new TraceEvent.Workstation(
+                            actions[action], readVarInt(), readZigZag(), readZigZag(), readZigZag()));
+                }
+                default -> throw new IOException("Unknown record type " + type);
+            }
+        }
+    }
+
+    /**
+     * Reads every remaining entry; a trace cut off mid-record (e.g. by a crash) ends at the last complete one
+     */
+    public List<TraceEntry> readAll() throws IOException {
+        List<TraceEntry> entries = new ArrayList<>();
+        try {
+            TraceEntry entry;
+            while ((entry = next()) != null) {
+                entries.add(entry);
+            }
+        } catch (EOFException truncated) {
+            // keep what was read
+        }
+        return entries;
+    }
+
+    public Named actor(int index) {
+        return index >= 0 && index < actors.size() ? actors.get(index) : null;
+    }
+
+    public Named world(int index) {
+        return index >= 0 && index < worlds.size() ? worlds.get(index) : null;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    private UUID readUuid() throws IOException {
+        return new UUID(in.readLong(), in.readLong());
+    }
+
+    private int readZigZag() throws IOException {
+        int value = readVarInt();
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private int readVarInt() throws IOException {
+        return (int) readVarLong();
+    }
+
+    private long readVarLong() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = in.readUnsignedByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint too long");
+    }
+
+    /**
+     * A declared player or world
+     */
+    public record Named(UUID id, String name) {
+    }
+}
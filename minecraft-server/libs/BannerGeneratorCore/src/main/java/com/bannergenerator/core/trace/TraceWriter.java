@@ -0,0 +1,185 @@
+package com.bannergenerator.core.trace;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Writes a compact binary trace.
+ * <p>
+ * Layout: magic "BGTR", version byte, wall-clock start in epoch millis, then records of
+ * {@code type byte, varint delta-nanos since the previous record, body}. Players and worlds are
+ * declared once with their UUID and name and referenced by a varint index afterwards; coordinates
+ * and deltas use zig-zag varints, so a typical record is a few bytes. Not thread-safe.
+ */
+public final class TraceWriter implements AutoCloseable {
+
+    static final int MAGIC = 0x42475452; // "BGTR"
+    static final int VERSION = 1;
+
+    static final int DECLARE_ACTOR = 1;
+    static final int DECLARE_WORLD = 2;
+    static final int GENERATE = 3;
+    static final int ANVIL_PREPARE = 4;
+    static final int ANVIL_CLICK = 5;
+    static final int WORKSTATION = 6;
+
+    private final CountingOutputStream counter;
+    private final DataOutputStream out;
+    private final Map<UUID, Integer> actors = new HashMap<>();
+    private final Map<UUID, Integer> worlds = new HashMap<>();
+    private long lastNanos;
+
+    /**
+     * @param startNanos {@link System#nanoTime()} that corresponds to offset zero
+     */
+    public TraceWriter(OutputStream stream, long startEpochMillis, long startNanos) throws IOException {
+        this.counter = new CountingOutputStream(new BufferedOutputStream(stream));
+        this.out = new DataOutputStream(counter);
+        this.lastNanos = startNanos;
+        out.writeInt(MAGIC);
+        out.writeByte(VERSION);
+        out.writeLong(startEpochMillis);
+    }
+
+    /**
+     * Returns the index of a world, declaring it on first use
+     */
+    public int world(UUID id, String name, long nanos) throws IOException {
+        Integer index = worlds.get(id);
+        if (index == null) {
+            index = worlds.size();
+            worlds.put(id, index);
+            header(DECLARE_WORLD, nanos);
+            writeUuid(id);
+            out.writeUTF(name);
+        }
+        return index;
+    }
+
+    /**
+     * Appends an event
+     *
+     * @param actorId Player the event belongs to, or null
+     * @param nanos {@link System#nanoTime()} when the event happened
+     */
+    public void write(long nanos, UUID actorId, String actorName, TraceEvent event) throws IOException {
+        int actor = -1;
+        if (actorId != null) {
+            Integer index = actors.get(actorId);
+            if (index == null) {
+                index = actors.size();
+                actors.put(actorId, index);
+                header(DECLARE_ACTOR, nanos);
+                writeUuid(actorId);
+                out.writeUTF(actorName == null ? "" : actorName);
+            }
+            actor = index;
+        }
+
+        switch (event) {
+            case TraceEvent.Generate generate -> {
+                header(GENERATE, nanos);
+                writeVarInt(actor + 1);
+                writeVarInt(generate.payload().length);
+                out.write(generate.payload());
+            }
+            case TraceEvent.AnvilPrepare prepare -> {
+                header(ANVIL_PREPARE, nanos);
+                writeVarInt(actor + 1);
+                out.writeUTF(prepare.renameText());
+                out.writeByte(prepare.background());
+                out.writeByte(prepare.foreground());
+            }
+            case TraceEvent.AnvilClick click -> {
+                header(ANVIL_CLICK, nanos);
+                writeVarInt(actor + 1);
+                writeVarInt(click.rawSlot());
+                out.writeBoolean(click.shift());
+                out.writeUTF(click.renameText());
+                out.writeByte(click.background());
+                out.writeByte(click.foreground());
+            }
+            case TraceEvent.Workstation workstation -> {
+                header(WORKSTATION, nanos);
+                writeVarInt(actor + 1);
+                out.writeByte(workstation.action().ordinal());
+                writeVarInt(workstation.world());
+                writeZigZag(workstation.x());
+                writeZigZag(workstation.y());
+                writeZigZag(workstation.z());
+            }
+        }
+    }
+
+    /**
+     * Bytes written so far, including buffered ones
+     */
+    public long size() {
+        return counter.count;
+    }
+
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    private void header(int type, long nanos) throws IOException {
+        out.writeByte(type);
+        // Events queued out of order by a few nanoseconds are clamped rather than written as negative deltas
+        long delta = Math.max(0, nanos - lastNanos);
+        lastNanos = Math.max(lastNanos, nanos);
+        writeVarLong(delta);
+    }
+
+    private void writeUuid(UUID id) throws IOException {
+        out.writeLong(id.getMostSignificantBits());
+        out.writeLong(id.getLeastSignificantBits());
+    }
+
+    private void writeZigZag(int value) throws IOException {
+        writeVarInt((value << 1) ^ (value >> 31));
+    }
+
+    private void writeVarInt(int value) throws IOException {
+        writeVarLong(value & 0xFFFFFFFFL);
+    }
+
+    private void writeVarLong(long value) throws IOException {
+        while ((value & ~0x7FL) != 0) {
+            out.writeByte((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.writeByte((int) value);
+    }
+
+    private static final class CountingOutputStream extends FilterOutputStream {
+
+        long count;
+
+        CountingOutputStream(OutputStream out) {
+            super(out);
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            count++;
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            count += len;
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.bannergenerator.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class GlyphTableFormatTest {
+
+    @Test
+    void textFormRoundTripsTheBuiltInTable() throws IOException {
+        GlyphTable table = GlyphTable.builtIn();
+        StringWriter text = new StringWriter();
+        GlyphTableFormat.write(table, text);
+
+        GlyphTable read = GlyphTableFormat.read(new StringReader(text.toString()));
+        assertEquals(table.glyphs(), read.glyphs());
+        assertEquals(table.fallback(), read.fallback());
+    }
+
+    @Test
+    void binaryFormRoundTripsTheBuiltInTable() throws IOException {
+        GlyphTable table = GlyphTable.builtIn();
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        GlyphTableFormat.writeBinary(table, bytes);
+
+        GlyphTable read = GlyphTableFormat.readBinary(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(table.glyphs(), read.glyphs());
+        assertEquals(table.fallback(), read.fallback());
+    }
+
+    @Test
+    void bothFormsKeepBackgroundLayersAndEmptyGlyphs() throws IOException {
+        GlyphTable table = new GlyphTable.Builder()
+                .add('A', List.of(Glyph.Layer.fg(BannerPattern.STRIPE_LEFT), Glyph.Layer.bg(BannerPattern.STRIPE_TOP)))
+                .add(' ', List.of())
+                .add('a', BannerPattern.STRIPE_BOTTOM)
+                .build(' ');
+
+        StringWriter text = new StringWriter();
+        GlyphTableFormat.write(table, text);
+        assertEquals(table.glyphs(), GlyphTableFormat.read(new StringReader(text.toString())).glyphs());
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        GlyphTableFormat.writeBinary(table, bytes);
+        GlyphTable binary = GlyphTableFormat.readBinary(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(table.glyphs(), binary.glyphs());
+        assertEquals(' ', binary.fallback().character());
+    }
+
+    @Test
+    void textFormIgnoresCommentsAndBlankLines() throws IOException {
+        GlyphTable table = GlyphTableFormat.read(new StringReader("""
+                # hand-edited
+                fallback U+003F
+
+                U+003F +stripe_top   # question mark
+                U+0041 +stripe_left -stripe_top
+                """));
+        assertEquals("?A", table.characters());
+        assertEquals(List.of(Glyph.Layer.fg(BannerPattern.STRIPE_LEFT), Glyph.Layer.bg(BannerPattern.STRIPE_TOP)),
+                table.glyph('A').layers());
+    }
+
+    @Test
+    void textFormRejectsBrokenInput() {
+        assertThrows(IOException.class, () -> GlyphTableFormat.read(new StringReader("U+0041 +stripe_top\n")));
+        assertThrows(IOException.class, () -> GlyphTableFormat.read(new StringReader("fallback U+0041\nU+0041 *stripe_top\n")));
+        assertThrows(IOException.class, () -> GlyphTableFormat.read(new StringReader("fallback U+0041\nU+0041 +no_such\n")));
+        assertThrows(IOException.class, () -> GlyphTableFormat.read(new StringReader("fallback U+0042\nU+0041\n")));
+        assertThrows(IOException.class, () -> GlyphTableFormat.read(new StringReader("fallback A\nU+0041\n")));
+    }
+
+    @Test
+    void binaryFormRejectsForeignData() {
+        byte[] garbage = {'P', 'N', 'G', 0, 1, 2, 3};
+        assertThrows(IOException.class, () -> GlyphTableFormat.readBinary(new ByteArrayInputStream(garbage)));
+    }
+}
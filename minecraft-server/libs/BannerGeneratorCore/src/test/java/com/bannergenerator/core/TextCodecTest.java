@@ -0,0 +1,74 @@
+package com.bannergenerator.core;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TextCodecTest {
+
+    private final TextCodec codec = new TextCodec(GlyphTable.builtIn());
+
+    @Test
+    void sanitizeUpperCasesAndDropsUnsupportedCharacters() {
+        assertEquals("HELLO, WORLD!", codec.sanitize("Hello, World!"));
+        assertEquals("AB", codec.sanitize("aé#b\n"));
+        assertEquals("", codec.sanitize(""));
+    }
+
+    @Test
+    void acceptsOnlySupportedTextWithinTheLimit() {
+        assertTrue(codec.accepts("SHOP 24", 7));
+        assertFalse(codec.accepts("SHOP 24", 6));
+        assertFalse(codec.accepts("SHOP#", 10));
+    }
+
+    @Test
+    void encodeAndDecodeRoundTripEveryCharacter() {
+        String characters = GlyphTable.builtIn().characters();
+        byte[] ids = codec.encode(characters);
+        assertEquals(characters.length(), ids.length);
+        assertEquals(characters, codec.decode(ids));
+    }
+
+    @Test
+    void encodeUsesGlyphIds() {
+        GlyphTable table = GlyphTable.builtIn();
+        byte[] ids = codec.encode("AZ");
+        assertArrayEquals(new byte[]{(byte) table.glyph('A').id(), (byte) table.glyph('Z').id()}, ids);
+    }
+
+    @Test
+    void encodeRejectsCharactersWithoutGlyph() {
+        assertThrows(IllegalArgumentException.class, () -> codec.encode("A#"));
+    }
+
+    @Test
+    void decodeRejectsIdsOutsideTheTable() {
+        assertThrows(IllegalArgumentException.class, () -> codec.decode(new byte[]{(byte) 255}));
+    }
+
+    @Test
+    void largeTablesUseTwoBytesPerCharacter() {
+        GlyphTable.Builder builder = new GlyphTable.Builder();
+        List<Character> characters = new ArrayList<>();
+        for (char c = 0x100; c < 0x100 + 300; c++) {
+            builder.add(c, BannerPattern.STRIPE_TOP);
+            characters.add(c);
+        }
+        TextCodec wide = new TextCodec(builder.build((char) 0x100));
+        String text = "" + characters.get(0) + characters.get(299) + characters.get(256);
+
+        byte[] ids = wide.encode(text);
+        assertEquals(6, ids.length);
+        assertArrayEquals(new byte[]{0, 0, 1, 43, 1, 0}, ids);
+        assertEquals(text, wide.decode(ids));
+        assertThrows(IllegalArgumentException.class, () -> wide.decode(new byte[]{0, 0, 1}));
+    }
+}
@@ -0,0 +1,186 @@
+package com.bannergenerator.core.font;
+
+import com.bannergenerator.core.BannerPattern;
+import com.bannergenerator.core.Glyph;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GlyphCompilerTest {
+
+    private static final String FONT = """
+            STARTFONT 2.1
+            FONT -test-tiny
+            SIZE 6 75 75
+            FONTBOUNDINGBOX 4 6 0 -1
+            STARTPROPERTIES 1
+            FONT_ASCENT 5
+            ENDPROPERTIES
+            CHARS 4
+            STARTCHAR A
+            ENCODING 65
+            BBX 4 6 0 -1
+            BITMAP
+            60
+            90
+            F0
+            90
+            90
+            00
+            ENDCHAR
+            STARTCHAR period
+            ENCODING 46
+            BBX 1 1 1 0
+            BITMAP
+            80
+            ENDCHAR
+            STARTCHAR unencoded
+            ENCODING -1
+            BBX 4 6 0 -1
+            BITMAP
+            F0
+            F0
+            F0
+            F0
+            F0
+            F0
+            ENDCHAR
+            STARTCHAR astral
+            ENCODING 128512
+            BBX 1 1 0 0
+            BITMAP
+            80
+            ENDCHAR
+            ENDFONT
+            """;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void readsBdfGlyphsIntoTheFontCell() throws IOException {
+        List<GlyphBitmap> glyphs = BdfReader.read(new StringReader(FONT));
+        assertEquals(2, glyphs.size());
+
+        GlyphBitmap a = glyphs.get(0);
+        assertEquals('A', a.character());
+        assertEquals(4, a.width());
+        assertEquals(6, a.height());
+        assertFalse(a.get(0, 0));
+        assertTrue(a.get(1, 0));
+        assertTrue(a.get(2, 0));
+        for (int x = 0; x < 4; x++) {
+            assertTrue(a.get(x, 2));
+        }
+        assertEquals(12, a.pixels().cardinality());
+
+        // One pixel on the baseline, which is one row above the cell bottom
+        GlyphBitmap period = glyphs.get(1);
+        assertEquals('.', period.character());
+        assertTrue(period.get(1, 4));
+        assertEquals(1, period.pixels().cardinality());
+    }
+
+    @Test
+    void rejectsBitmapsBeforeTheBoundingBox() {
+        String broken = "STARTCHAR A\nENCODING 65\nBITMAP\n80\nENDCHAR\n";
+        assertThrows(IOException.class, () -> BdfReader.read(new StringReader(broken)));
+    }
+
+    @Test
+    void readsSheetCellsInReadingOrder() throws IOException {
+        // Two 3x2 cells side by side; transparent sheets use opaque pixels as ink
+        BufferedImage image = new BufferedImage(6, 2, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(1, 0, 0xFF000000);
+        image.setRGB(5, 1, 0x80FFFFFF);
+        image.setRGB(4, 0, 0x10000000);
+        Path sheet = tempDir.resolve("sheet.png");
+        ImageIO.write(image, "png", sheet.toFile());
+
+        List<GlyphBitmap> glyphs = GlyphSheetReader.read(sheet, 2, 1, 'A');
+        assertEquals(2, glyphs.size());
+        assertEquals('A', glyphs.get(0).character());
+        assertTrue(glyphs.get(0).get(1, 0));
+        assertEquals(1, glyphs.get(0).pixels().cardinality());
+        assertEquals('B', glyphs.get(1).character());
+        assertTrue(glyphs.get(1).get(2, 1));
+        assertEquals(1, glyphs.get(1).pixels().cardinality());
+
+        assertThrows(IOException.class, () -> GlyphSheetReader.read(sheet, 4, 1, 'A'));
+    }
+
+    @Test
+    void opaqueSheetsUseDarkPixelsAsInk() throws IOException {
+        BufferedImage image = new BufferedImage(2, 2, BufferedImage.TYPE_INT_RGB);
+        image.setRGB(0, 0, 0xFFFFFF);
+        image.setRGB(1, 0, 0x202020);
+        image.setRGB(0, 1, 0xFFFFFF);
+        image.setRGB(1, 1, 0xC0C0C0);
+        Path sheet = tempDir.resolve("opaque.png");
+        ImageIO.write(image, "png", sheet.toFile());
+
+        GlyphBitmap glyph = GlyphSheetReader.read(sheet, 1, 1, '#').get(0);
+        assertTrue(glyph.get(1, 0));
+        assertEquals(1, glyph.pixels().cardinality());
+    }
+
+    @Test
+    void compilesAnExactShapeToItsLayer() {
+        GlyphCompiler compiler = new GlyphCompiler(3, 8, 0, 0);
+        GlyphCompiler.Compiled compiled = compiler.compile(bitmap('|', 4, 4, (x, y) -> x < 2));
+        assertEquals(List.of(Glyph.Layer.fg(BannerPattern.HALF_VERTICAL)), compiled.layers());
+        assertEquals(0, compiled.mismatchedPixels());
+    }
+
+    @Test
+    void parallelCompilationKeepsInputOrder() {
+        GlyphCompiler compiler = new GlyphCompiler(2, 4, 0, 0);
+        List<GlyphBitmap> bitmaps = new ArrayList<>();
+        for (int i = 0; i < 23; i++) {
+            int seed = i;
+            // Characters deliberately out of order, so sorting would show
+            bitmaps.add(bitmap((char) ('Z' - i), 4, 4, (x, y) -> (x * 4 + y + seed) % 5 == 0));
+        }
+
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            List<GlyphCompiler.Compiled> compiled = compiler.compile(bitmaps, pool);
+            assertEquals(bitmaps.size(), compiled.size());
+            for (int i = 0; i < bitmaps.size(); i++) {
+                assertEquals(compiler.compile(bitmaps.get(i)), compiled.get(i));
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private interface Ink {
+        boolean at(int x, int y);
+    }
+
+    private static GlyphBitmap bitmap(char character, int width, int height, Ink ink) {
+        BitSet pixels = new BitSet(width * height);
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                if (ink.at(x, y)) {
+                    pixels.set(y * width + x);
+                }
+            }
+        }
+        return new GlyphBitmap(character, width, height, pixels);
+    }
+}
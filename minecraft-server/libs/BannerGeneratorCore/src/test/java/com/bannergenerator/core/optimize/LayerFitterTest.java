@@ -0,0 +1,58 @@
+package com.bannergenerator.core.optimize;
+
+import com.bannergenerator.core.BannerPattern;
+import com.bannergenerator.core.Glyph;
+import com.bannergenerator.core.raster.BannerMask;
+import com.bannergenerator.core.raster.PatternMasks;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LayerFitterTest {
+
+    private final LayerFitter fitter = new LayerFitter(4, 16);
+
+    @Test
+    void reproducesASingleLayerExactly() {
+        LayerFitter.Fit fit = fitter.fit(PatternMasks.of(BannerPattern.HALF_VERTICAL));
+        assertEquals(0, fit.mismatchedPixels());
+        assertEquals(List.of(Glyph.Layer.fg(BannerPattern.HALF_VERTICAL)), fit.layers());
+    }
+
+    @Test
+    void reproducesLayerCombinationsExactly() {
+        // An upside-down L: the left stripe without its bottom part
+        BannerMask target = PatternMasks.of(BannerPattern.STRIPE_LEFT).or(PatternMasks.of(BannerPattern.STRIPE_TOP))
+                .andNot(PatternMasks.of(BannerPattern.STRIPE_BOTTOM));
+        LayerFitter.Fit fit = fitter.fit(target);
+        assertEquals(0, fit.mismatchedPixels());
+        assertTrue(fit.layers().size() <= 3);
+        assertEquals(target, render(fit));
+    }
+
+    @Test
+    void emptyTargetsNeedNoLayers() {
+        LayerFitter.Fit fit = fitter.fit(BannerMask.EMPTY);
+        assertEquals(List.of(), fit.layers());
+        assertEquals(0, fit.mismatchedPixels());
+    }
+
+    @Test
+    void reportsTheRemainingErrorOfApproximations() {
+        BannerMask target = BannerMask.of((x, y) -> x == 3 && y == 5);
+        LayerFitter.Fit fit = fitter.fit(target);
+        assertEquals(render(fit).xor(target).cardinality(), fit.mismatchedPixels());
+        assertTrue(fit.mismatchedPixels() <= 1);
+
+        LayerFitter.Fit none = new LayerFitter(0, 16).fit(PatternMasks.of(BannerPattern.HALF_VERTICAL));
+        assertEquals(List.of(), none.layers());
+        assertEquals(BannerMask.PIXELS / 2, none.mismatchedPixels());
+    }
+
+    private static BannerMask render(LayerFitter.Fit fit) {
+        return PatternMasks.render(new Glyph('x', 0, fit.layers()));
+    }
+}
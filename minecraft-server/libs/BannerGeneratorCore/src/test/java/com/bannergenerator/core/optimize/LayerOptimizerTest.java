@@ -0,0 +1,81 @@
+package com.bannergenerator.core.optimize;
+
+import com.bannergenerator.core.BannerPattern;
+import com.bannergenerator.core.Glyph;
+import com.bannergenerator.core.GlyphTable;
+import com.bannergenerator.core.raster.PatternMasks;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LayerOptimizerTest {
+
+    private final LayerOptimizer optimizer = new LayerOptimizer(0);
+
+    @Test
+    void dropsRepeatedLayers() {
+        Glyph glyph = glyph(Glyph.Layer.fg(BannerPattern.STRIPE_TOP), Glyph.Layer.fg(BannerPattern.STRIPE_TOP),
+                Glyph.Layer.fg(BannerPattern.STRIPE_LEFT));
+
+        LayerOptimizer.Result result = optimizer.optimize(glyph);
+        assertTrue(result.searched());
+        assertEquals(2, result.optimized().layers().size());
+        assertEquals(0, result.mismatchedPixels());
+        assertEquals(PatternMasks.render(glyph), PatternMasks.render(result.optimized()));
+    }
+
+    @Test
+    void dropsLayersThatAreCoveredLater() {
+        Glyph glyph = glyph(Glyph.Layer.fg(BannerPattern.STRIPE_LEFT), Glyph.Layer.bg(BannerPattern.HALF_VERTICAL),
+                Glyph.Layer.fg(BannerPattern.STRIPE_TOP));
+
+        LayerOptimizer.Result result = optimizer.optimize(glyph);
+        assertEquals(List.of(Glyph.Layer.fg(BannerPattern.STRIPE_TOP)), result.optimized().layers());
+        assertEquals(2, result.saved());
+    }
+
+    @Test
+    void keepsGlyphIdentity() {
+        Glyph glyph = glyph(Glyph.Layer.fg(BannerPattern.STRIPE_TOP), Glyph.Layer.fg(BannerPattern.STRIPE_TOP));
+
+        Glyph optimized = optimizer.optimize(glyph).optimized();
+        assertEquals(glyph.character(), optimized.character());
+        assertEquals(glyph.id(), optimized.id());
+    }
+
+    @Test
+    void leavesGlyphsWithoutMasksUntouched() {
+        Glyph glyph = glyph(Glyph.Layer.fg(BannerPattern.CREEPER), Glyph.Layer.fg(BannerPattern.CREEPER));
+
+        LayerOptimizer.Result result = optimizer.optimize(glyph);
+        assertFalse(result.searched());
+        assertSame(glyph, result.optimized());
+    }
+
+    @Test
+    void builtInTableKeepsEveryImageAndNeverGrows() {
+        GlyphTable table = GlyphTable.builtIn();
+        List<LayerOptimizer.Result> results = optimizer.optimize(table);
+        assertEquals(table.size(), results.size());
+
+        for (LayerOptimizer.Result result : results) {
+            String glyph = String.valueOf(result.original().character());
+            assertTrue(result.optimized().layers().size() <= result.original().layers().size(), glyph);
+            if (result.searched()) {
+                assertEquals(PatternMasks.render(result.original()), PatternMasks.render(result.optimized()), glyph);
+            }
+        }
+
+        GlyphTable optimized = LayerOptimizer.toTable(results, table.fallback().character());
+        assertEquals(table.characters(), optimized.characters());
+    }
+
+    private static Glyph glyph(Glyph.Layer... layers) {
+        return new Glyph('X', 0, List.of(layers));
+    }
+}
@@ -0,0 +1,84 @@
+package com.bannergenerator.core.raster;
+
+import com.bannergenerator.core.BannerColor;
+import com.bannergenerator.core.GlyphTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class PhraseRendererTest {
+
+    private static final GlyphTable TABLE = GlyphTable.builtIn();
+
+    @Test
+    void rendersOneTilePerLetterWithGaps() {
+        PhraseRenderer renderer = new PhraseRenderer(10_000_000L);
+        int scale = 2;
+        RasterImage image = renderer.render(TABLE, "ABCDE", BannerColor.WHITE, BannerColor.BLACK, scale, 3);
+
+        int tileWidth = BannerMask.WIDTH * scale;
+        int tileHeight = BannerMask.HEIGHT * scale;
+        assertEquals(3 * tileWidth + 2 * scale, image.width());
+        assertEquals(2 * tileHeight + scale, image.height());
+    }
+
+    @Test
+    void differentLettersRenderDifferently() {
+        PhraseRenderer renderer = new PhraseRenderer(10_000_000L);
+        RasterImage a = renderer.render(TABLE, "A", BannerColor.WHITE, BannerColor.BLACK, 1, 1);
+        RasterImage b = renderer.render(TABLE, "B", BannerColor.WHITE, BannerColor.BLACK, 1, 1);
+        assertNotEquals(Arrays.hashCode(a.argb()), Arrays.hashCode(b.argb()));
+    }
+
+    @Test
+    void reusesCachedAtlases() {
+        PhraseRenderer renderer = new PhraseRenderer(10_000_000L);
+        GlyphAtlas first = renderer.atlas(TABLE, BannerColor.WHITE, BannerColor.BLUE, 2);
+        GlyphAtlas second = renderer.atlas(TABLE, BannerColor.WHITE, BannerColor.BLUE, 2);
+        assertSame(first, second);
+        assertEquals(1, renderer.cachedAtlases());
+        assertEquals(first.pixels(), renderer.cachedPixels());
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedAtlasesByPixels() {
+        long atlasPixels = new GlyphAtlas(TABLE, BannerColor.WHITE, BannerColor.BLACK, 2).pixels();
+        PhraseRenderer renderer = new PhraseRenderer(atlasPixels * 2);
+
+        GlyphAtlas red = renderer.atlas(TABLE, BannerColor.WHITE, BannerColor.RED, 2);
+        renderer.atlas(TABLE, BannerColor.WHITE, BannerColor.BLUE, 2);
+        renderer.atlas(TABLE, BannerColor.WHITE, BannerColor.RED, 2);
+        renderer.atlas(TABLE, BannerColor.WHITE, BannerColor.GREEN, 2);
+
+        assertEquals(2, renderer.cachedAtlases());
+        assertEquals(atlasPixels * 2, renderer.cachedPixels());
+        assertSame(red, renderer.atlas(TABLE, BannerColor.WHITE, BannerColor.RED, 2));
+    }
+
+    @Test
+    void largeAtlasesTakeTheRoomOfSeveralSmallOnes() {
+        long smallPixels = new GlyphAtlas(TABLE, BannerColor.WHITE, BannerColor.BLACK, 1).pixels();
+        PhraseRenderer renderer = new PhraseRenderer(smallPixels * 4);
+
+        renderer.atlas(TABLE, BannerColor.WHITE, BannerColor.RED, 1);
+        renderer.atlas(TABLE, BannerColor.WHITE, BannerColor.BLUE, 1);
+        assertEquals(2, renderer.cachedAtlases());
+
+        // Scale 2 has four times the pixels, so it fills the budget on its own
+        renderer.atlas(TABLE, BannerColor.WHITE, BannerColor.GREEN, 2);
+        assertEquals(1, renderer.cachedAtlases());
+        assertEquals(smallPixels * 4, renderer.cachedPixels());
+    }
+
+    @Test
+    void keepsTheNewestAtlasEvenWhenItExceedsTheBudget() {
+        PhraseRenderer renderer = new PhraseRenderer(1L);
+        GlyphAtlas atlas = renderer.atlas(TABLE, BannerColor.WHITE, BannerColor.BLACK, 1);
+        assertEquals(1, renderer.cachedAtlases());
+        assertSame(atlas, renderer.atlas(TABLE, BannerColor.WHITE, BannerColor.BLACK, 1));
+    }
+}
@@ -0,0 +1,243 @@
+package com.bannergenerator.core.region;
+
+import com.bannergenerator.core.region.WorkstationIndexVerifier.Finding;
+import com.bannergenerator.core.region.WorkstationIndexVerifier.Outcome;
+import com.bannergenerator.core.region.WorkstationIndexVerifier.Position;
+import com.bannergenerator.core.region.WorkstationIndexVerifier.Report;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.DeflaterOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkstationIndexVerifierTest {
+
+    private static final UUID WORLD = UUID.fromString("0b6a9c4e-1f2d-4e3a-9b8c-7d6e5f4a3b2c");
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void parsesPositionsAndRejectsMalformedOnes() {
+        Position position = Position.parse(WORLD + ", -12, 64 ,7");
+        assertEquals(new Position(WORLD, -12, 64, 7), position);
+        assertEquals(position, Position.parse(position.asString()));
+
+        assertNull(Position.parse(WORLD + ",1,2"));
+        assertNull(Position.parse(WORLD + ",1,2,3,4"));
+        assertNull(Position.parse("not-a-uuid,1,2,3"));
+        assertNull(Position.parse(WORLD + ",1,two,3"));
+    }
+
+    @Test
+    void readsTheWorkstationListOfAYamlIndex() throws IOException {
+        Path file = tempDir.resolve("workstations.yml");
+        Files.writeString(file, """
+                # saved by the plugin
+                other:
+                - %1$s,9,9,9
+                workstations:
+                - '%1$s,1,2,3'
+                - "%1$s,-4,5,-6"
+                -   %1$s,7,8,9
+                - broken
+                """.formatted(WORLD));
+
+        assertEquals(List.of(new Position(WORLD, 1, 2, 3), new Position(WORLD, -4, 5, -6), new Position(WORLD, 7, 8, 9)),
+                WorkstationIndexVerifier.readIndex(file));
+    }
+
+    @Test
+    void writtenIndexReadsBack() throws IOException {
+        Path file = tempDir.resolve("out.yml");
+        List<Position> positions = List.of(new Position(WORLD, 1, 2, 3), new Position(WORLD, -100, -64, 100));
+        WorkstationIndexVerifier.writeIndex(file, positions);
+        assertEquals(positions, WorkstationIndexVerifier.readIndex(file));
+
+        WorkstationIndexVerifier.writeIndex(file, List.of());
+        assertEquals(List.of(), WorkstationIndexVerifier.readIndex(file));
+    }
+
+    @Test
+    void nbtReaderSkipsRequestedTags() throws IOException {
+        Map<String, Object> root = Nbt.readRoot(new DataInputStream(new ByteArrayInputStream(chunk(5, 6, 7))),
+                Set.of("Heightmaps"));
+        assertFalse(root.containsKey("Heightmaps"));
+        assertEquals(3955, root.get("DataVersion"));
+        assertTrue(root.get("sections") instanceof List<?>);
+    }
+
+    @Test
+    void chunkBlocksDecodesPalettedSections() throws IOException {
+        ChunkBlocks blocks = ChunkBlocks.read(new ByteArrayInputStream(chunk(5, 6, 7)));
+        assertEquals(WorkstationIndexVerifier.WORKSTATION_BLOCK, blocks.blockAt(5, 6, 7));
+        assertEquals("minecraft:air", blocks.blockAt(5, 7, 7));
+        assertEquals("minecraft:stone", blocks.blockAt(0, 16, 0));
+        assertEquals("minecraft:air", blocks.blockAt(0, 100, 0));
+    }
+
+    @Test
+    void regionFileFindsStoredChunksOnly() throws IOException {
+        Path file = tempDir.resolve("r.0.0.mca");
+        Files.write(file, region(chunk(5, 6, 7)));
+
+        try (RegionFile region = RegionFile.open(file)) {
+            assertTrue(region.hasChunk(0, 0));
+            assertFalse(region.hasChunk(1, 0));
+            assertNull(region.openChunk(1, 0));
+            try (InputStream in = region.openChunk(0, 0)) {
+                assertNotNull(in);
+                assertEquals(WorkstationIndexVerifier.WORKSTATION_BLOCK, ChunkBlocks.read(in).blockAt(5, 6, 7));
+            }
+        }
+        assertEquals(-1, RegionFile.regionOf(-1));
+        assertEquals(1, RegionFile.regionOf(32));
+    }
+
+    @Test
+    void verifiesPositionsAgainstRegionFiles() throws IOException {
+        Path worldFolder = tempDir.resolve("world");
+        Files.createDirectories(worldFolder.resolve("region"));
+        Files.write(worldFolder.resolve("region").resolve(RegionFile.fileName(0, 0)), region(chunk(5, 6, 7)));
+
+        Position confirmed = new Position(WORLD, 5, 6, 7);
+        Position replaced = new Position(WORLD, 5, 7, 7);
+        Position unsavedChunk = new Position(WORLD, 40, 6, 7);
+        Position unsavedRegion = new Position(WORLD, -600, 6, 7);
+        Position unknownWorld = new Position(new UUID(0, 1), 5, 6, 7);
+
+        WorkstationIndexVerifier verifier = new WorkstationIndexVerifier(Map.of(WORLD, worldFolder));
+        Report report = verifier.verify(List.of(confirmed, replaced, unsavedChunk, unsavedRegion, unknownWorld, confirmed),
+                ForkJoinPool.commonPool());
+
+        assertEquals(5, report.findings().size());
+        assertEquals(Outcome.CONFIRMED, outcome(report, confirmed));
+        assertEquals(Outcome.MISSING, outcome(report, replaced));
+        assertEquals(Outcome.MISSING, outcome(report, unsavedChunk));
+        assertEquals(Outcome.MISSING, outcome(report, unsavedRegion));
+        assertEquals(Outcome.UNKNOWN, outcome(report, unknownWorld));
+        assertEquals(1, report.regionsRead());
+        assertEquals(1, report.chunksRead());
+
+        // Unreadable positions are kept so a read error never drops data
+        assertEquals(Set.of(confirmed, unknownWorld), Set.copyOf(report.correctedIndex()));
+    }
+
+    private static Outcome outcome(Report report, Position position) {
+        return report.findings().stream()
+                .filter(finding -> finding.position().equals(position))
+                .map(Finding::outcome)
+                .findFirst()
+                .orElseThrow();
+    }
+
+    /**
+     * Uncompressed chunk NBT: section 0 holds air with one cartography table, section 1 is all stone
+     */
+    private static byte[] chunk(int tableX, int tableY, int tableZ) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeByte(10);
+        out.writeUTF("");
+        out.writeByte(3);
+        out.writeUTF("DataVersion");
+        out.writeInt(3955);
+
+        out.writeByte(10);
+        out.writeUTF("Heightmaps");
+        out.writeByte(12);
+        out.writeUTF("WORLD_SURFACE");
+        out.writeInt(2);
+        out.writeLong(1);
+        out.writeLong(2);
+        out.writeByte(0);
+
+        out.writeByte(9);
+        out.writeUTF("sections");
+        out.writeByte(10);
+        out.writeInt(2);
+
+        // 2 palette entries use 4 bits per block, 16 blocks per long
+        long[] data = new long[4096 / 16];
+        int index = (tableY << 8) | (tableZ << 4) | tableX;
+        data[index / 16] |= 1L << ((index % 16) * 4);
+        out.writeByte(1);
+        out.writeUTF("Y");
+        out.writeByte(0);
+        out.writeByte(10);
+        out.writeUTF("block_states");
+        palette(out, "minecraft:air", WorkstationIndexVerifier.WORKSTATION_BLOCK);
+        out.writeByte(12);
+        out.writeUTF("data");
+        out.writeInt(data.length);
+        for (long value : data) {
+            out.writeLong(value);
+        }
+        out.writeByte(0);
+        out.writeByte(0);
+
+        out.writeByte(1);
+        out.writeUTF("Y");
+        out.writeByte(1);
+        out.writeByte(10);
+        out.writeUTF("block_states");
+        palette(out, "minecraft:stone");
+        out.writeByte(0);
+        out.writeByte(0);
+
+        out.writeByte(0);
+        return bytes.toByteArray();
+    }
+
+    private static void palette(DataOutputStream out, String... names) throws IOException {
+        out.writeByte(9);
+        out.writeUTF("palette");
+        out.writeByte(10);
+        out.writeInt(names.length);
+        for (String name : names) {
+            out.writeByte(8);
+            out.writeUTF("Name");
+            out.writeUTF(name);
+            out.writeByte(0);
+        }
+    }
+
+    /**
+     * A region file holding the chunk at region-local 0,0, zlib-compressed in the first data sector
+     */
+    private static byte[] region(byte[] chunk) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (DeflaterOutputStream out = new DeflaterOutputStream(compressed)) {
+            out.write(chunk);
+        }
+        int sectors = (5 + compressed.size() + 4095) / 4096;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(2 << 8 | sectors);
+        out.write(new byte[8192 - 4]);
+        out.writeInt(compressed.size() + 1);
+        out.writeByte(2);
+        compressed.writeTo(out);
+        out.write(new byte[sectors * 4096 - 5 - compressed.size()]);
+        return bytes.toByteArray();
+    }
+}
@@ -0,0 +1,88 @@
+package com.bannergenerator.core.schematic;
+
+import com.bannergenerator.core.region.Nbt;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class NbtWriterTest {
+
+    @Test
+    void writtenTagsReadBack() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (NbtWriter nbt = new NbtWriter(bytes)) {
+            nbt.beginCompound("");
+            nbt.writeByte("byte", -3);
+            nbt.writeShort("short", 1234);
+            nbt.writeInt("int", -70000);
+            nbt.writeLong("long", Long.MAX_VALUE);
+            nbt.writeString("string", "Grüße");
+            nbt.writeIntArray("ints", 1, -2, 3);
+            nbt.beginByteArray("bytes", 4);
+            nbt.writeArrayBytes(new byte[]{9, 8, 7, 6, 5}, 1, 4);
+            nbt.end();
+            nbt.beginList("names", NbtWriter.STRING, 2);
+            nbt.writeString(null, "a");
+            nbt.writeString(null, "b");
+            nbt.end();
+            nbt.beginList("entries", NbtWriter.COMPOUND, 1);
+            nbt.beginCompound(null);
+            nbt.writeInt("x", 5);
+            nbt.end();
+            nbt.end();
+            nbt.beginList("empty", NbtWriter.COMPOUND, 0);
+            nbt.end();
+            nbt.end();
+        }
+
+        Map<String, Object> root = read(bytes.toByteArray());
+        assertEquals((byte) -3, root.get("byte"));
+        assertEquals((short) 1234, root.get("short"));
+        assertEquals(-70000, root.get("int"));
+        assertEquals(Long.MAX_VALUE, root.get("long"));
+        assertEquals("Grüße", root.get("string"));
+        assertArrayEquals(new int[]{1, -2, 3}, (int[]) root.get("ints"));
+        assertArrayEquals(new byte[]{8, 7, 6, 5}, (byte[]) root.get("bytes"));
+        assertEquals(List.of("a", "b"), root.get("names"));
+        assertEquals(List.of(Map.of("x", 5)), root.get("entries"));
+        assertEquals(List.of(), root.get("empty"));
+    }
+
+    @Test
+    void listsRejectTheWrongElementTypeOrCount() throws IOException {
+        NbtWriter nbt = new NbtWriter(new ByteArrayOutputStream());
+        nbt.beginCompound("");
+        nbt.beginList("names", NbtWriter.STRING, 1);
+        assertThrows(IllegalStateException.class, () -> nbt.writeInt(null, 1));
+        nbt.writeString(null, "a");
+        assertThrows(IllegalStateException.class, () -> nbt.writeString(null, "b"));
+        nbt.end();
+
+        nbt.beginList("short", NbtWriter.INT, 2);
+        nbt.writeInt(null, 1);
+        assertThrows(IllegalStateException.class, nbt::end);
+    }
+
+    @Test
+    void byteArraysRejectOverflowAndUnclosedScopesFailOnClose() throws IOException {
+        NbtWriter nbt = new NbtWriter(new ByteArrayOutputStream());
+        nbt.beginCompound("");
+        nbt.beginByteArray("data", 2);
+        assertThrows(IllegalStateException.class, () -> nbt.writeArrayBytes(new byte[3], 0, 3));
+        assertThrows(IllegalStateException.class, nbt::close);
+    }
+
+    static Map<String, Object> read(byte[] bytes) throws IOException {
+        return Nbt.readRoot(new DataInputStream(new ByteArrayInputStream(bytes)), Set.of());
+    }
+}
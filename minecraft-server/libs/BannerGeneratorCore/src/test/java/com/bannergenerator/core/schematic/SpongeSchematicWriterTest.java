@@ -0,0 +1,92 @@
+package com.bannergenerator.core.schematic;
+
+import com.bannergenerator.core.BannerColor;
+import com.bannergenerator.core.Glyph;
+import com.bannergenerator.core.GlyphTable;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SpongeSchematicWriterTest {
+
+    private static final GlyphTable TABLE = GlyphTable.builtIn();
+
+    @Test
+    void wrapBreaksAtSpacesAndDropsThem() {
+        assertEquals(List.of("HELLO", "WORLD"), SpongeSchematicWriter.wrap(List.of("HELLO WORLD"), 8));
+        assertEquals(List.of("ABCD", "EFGH", "IJ"), SpongeSchematicWriter.wrap(List.of("ABCDEFGHIJ"), 4));
+        assertEquals(List.of("AB", "", "C"), SpongeSchematicWriter.wrap(List.of("AB", "", "C"), 4));
+        assertEquals(List.of("HI THERE"), SpongeSchematicWriter.wrap(List.of("HI THERE"), 8));
+        assertThrows(IllegalArgumentException.class, () -> SpongeSchematicWriter.wrap(List.of("A"), 0));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void writesBannersWithTheirPatterns() throws IOException {
+        Map<String, Object> schematic = write(List.of("AB", "C"), "Sign");
+
+        assertEquals(SpongeSchematicWriter.VERSION, schematic.get("Version"));
+        assertEquals(SpongeSchematicWriter.DEFAULT_DATA_VERSION, schematic.get("DataVersion"));
+        assertEquals((short) 2, schematic.get("Width"));
+        assertEquals((short) 4, schematic.get("Height"));
+        assertEquals((short) 1, schematic.get("Length"));
+        assertEquals("Sign", ((Map<String, Object>) schematic.get("Metadata")).get("Name"));
+
+        Map<String, Object> blocks = (Map<String, Object>) schematic.get("Blocks");
+        assertEquals(Map.of("minecraft:air", 0, "minecraft:white_wall_banner[facing=south]", 1), blocks.get("Palette"));
+        // Rows from the bottom: gap, "C", gap, "AB"
+        assertArrayEquals(new byte[]{0, 0, 1, 0, 0, 0, 1, 1}, (byte[]) blocks.get("Data"));
+
+        List<Map<String, Object>> entities = (List<Map<String, Object>>) blocks.get("BlockEntities");
+        assertEquals(3, entities.size());
+        assertArrayEquals(new int[]{0, 3, 0}, (int[]) entities.get(0).get("Pos"));
+        assertArrayEquals(new int[]{1, 3, 0}, (int[]) entities.get(1).get("Pos"));
+        assertArrayEquals(new int[]{0, 1, 0}, (int[]) entities.get(2).get("Pos"));
+        assertEquals("minecraft:banner", entities.get(0).get("Id"));
+
+        Glyph a = TABLE.glyph('A');
+        List<Map<String, Object>> patterns = (List<Map<String, Object>>) ((Map<String, Object>) entities.get(0).get("Data"))
+                .get("patterns");
+        assertEquals(a.layers().size(), patterns.size());
+        for (int i = 0; i < patterns.size(); i++) {
+            Glyph.Layer layer = a.layers().get(i);
+            assertEquals("minecraft:" + layer.pattern().key(), patterns.get(i).get("pattern"));
+            assertEquals(layer.tone() == Glyph.Tone.FOREGROUND ? "blue" : "white", patterns.get(i).get("color"));
+        }
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void cutsLongNames() throws IOException {
+        Map<String, Object> schematic = write(List.of("A"), "N".repeat(100_000));
+        assertEquals("N".repeat(64), ((Map<String, Object>) schematic.get("Metadata")).get("Name"));
+    }
+
+    @Test
+    void rejectsRowsTooWideForTheFormat() {
+        SpongeSchematicWriter writer = new SpongeSchematicWriter(TABLE, SpongeSchematicWriter.DEFAULT_DATA_VERSION);
+        List<String> rows = List.of("A".repeat(Short.MAX_VALUE + 1));
+        assertThrows(IllegalArgumentException.class,
+                () -> writer.write(new ByteArrayOutputStream(), rows, BannerColor.WHITE, BannerColor.BLUE, "wide"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> write(List<String> rows, String name) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new SpongeSchematicWriter(TABLE, SpongeSchematicWriter.DEFAULT_DATA_VERSION)
+                .write(bytes, rows, BannerColor.WHITE, BannerColor.BLUE, name);
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            return (Map<String, Object>) NbtWriterTest.read(in.readAllBytes()).get("Schematic");
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package com.bannergenerator.core.trace;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TraceRoundTripTest {
+
+    private static final long START_MILLIS = 1_700_000_000_000L;
+    private static final long START_NANOS = 5_000_000_000L;
+    private static final UUID ALICE = new UUID(1, 2);
+    private static final UUID BOB = new UUID(3, 4);
+    private static final UUID WORLD = new UUID(5, 6);
+
+    @Test
+    void everyEventTypeRoundTrips() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TraceWriter writer = new TraceWriter(bytes, START_MILLIS, START_NANOS)) {
+            int world = writer.world(WORLD, "world", START_NANOS);
+            writer.write(START_NANOS + 10, ALICE, "Alice", new TraceEvent.Generate(new byte[]{1, 2, 3}));
+            writer.write(START_NANOS + 20, BOB, "Bob", new TraceEvent.AnvilPrepare("HELLO", 0, 15));
+            writer.write(START_NANOS + 1_000_000_000L, ALICE, "Alice", new TraceEvent.AnvilClick(2, true, "HI", -1, 4));
+            writer.write(START_NANOS + 1_000_000_500L, null, null,
+                    new TraceEvent.Workstation(TraceEvent.Action.BREAK, world, -30_000_000, -64, 29_999_999));
+        }
+
+        try (TraceReader reader = new TraceReader(new ByteArrayInputStream(bytes.toByteArray()))) {
+            assertEquals(START_MILLIS, reader.startEpochMillis());
+            List<TraceEntry> entries = reader.readAll();
+            assertEquals(4, entries.size());
+
+            TraceEntry generate = entries.get(0);
+            assertEquals(10, generate.offsetNanos());
+            assertEquals(new TraceReader.Named(ALICE, "Alice"), reader.actor(generate.actor()));
+            assertArrayEquals(new byte[]{1, 2, 3}, ((TraceEvent.Generate) generate.event()).payload());
+
+            assertEquals(new TraceEntry(20, 1, new TraceEvent.AnvilPrepare("HELLO", 0, 15)), entries.get(1));
+            assertEquals(new TraceEntry(1_000_000_000L, 0, new TraceEvent.AnvilClick(2, true, "HI", -1, 4)),
+                    entries.get(2));
+            assertEquals(new TraceEntry(1_000_000_500L, -1,
+                    new TraceEvent.Workstation(TraceEvent.Action.BREAK, 0, -30_000_000, -64, 29_999_999)), entries.get(3));
+
+            assertEquals(new TraceReader.Named(BOB, "Bob"), reader.actor(1));
+            assertEquals(new TraceReader.Named(WORLD, "world"), reader.world(0));
+            assertNull(reader.actor(-1));
+            assertNull(reader.world(1));
+        }
+    }
+
+    @Test
+    void actorsAndWorldsAreDeclaredOnce() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TraceWriter writer = new TraceWriter(bytes, START_MILLIS, START_NANOS)) {
+            assertEquals(0, writer.world(WORLD, "world", START_NANOS));
+            assertEquals(0, writer.world(WORLD, "world", START_NANOS));
+            writer.write(START_NANOS, ALICE, "Alice", new TraceEvent.AnvilPrepare("", 0, 0));
+            long before = writer.size();
+            writer.write(START_NANOS, ALICE, "Alice", new TraceEvent.AnvilPrepare("", 0, 0));
+            // type, delta, actor, empty string and two colours; no second declaration
+            assertEquals(before + 7, writer.size());
+        }
+    }
+
+    @Test
+    void truncatedTraceKeepsCompleteEntries() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TraceWriter writer = new TraceWriter(bytes, START_MILLIS, START_NANOS)) {
+            for (int i = 0; i < 10; i++) {
+                writer.write(START_NANOS + i, ALICE, "Alice", new TraceEvent.AnvilPrepare("TEXT " + i, 1, 2));
+            }
+        }
+        byte[] full = bytes.toByteArray();
+        byte[] cut = Arrays.copyOf(full, full.length - 3);
+
+        try (TraceReader reader = new TraceReader(new ByteArrayInputStream(cut))) {
+            List<TraceEntry> entries = reader.readAll();
+            assertEquals(9, entries.size());
+            assertEquals(new TraceEvent.AnvilPrepare("TEXT 8", 1, 2), entries.get(8).event());
+        }
+    }
+
+    @Test
+    void rejectsFilesThatAreNotTraces() {
+        byte[] garbage = {'B', 'G', 'G', 'T', 1, 0, 0, 0, 0, 0, 0, 0, 0};
+        IOException error = assertThrows(IOException.class, () -> new TraceReader(new ByteArrayInputStream(garbage)));
+        assertTrue(error.getMessage().contains("magic"));
+    }
+}
@@ -1,54 +1,244 @@
 package com.bannergenerator.client;
 
+import com.bannergenerator.core.RequestRateLimiter;
+import com.bannergenerator.core.protocol.BannerProtocol;
+import com.bannergenerator.core.protocol.GenerateRequest;
+import com.bannergenerator.core.protocol.GenerateResult;
+import com.bannergenerator.core.protocol.Handshake;
 import net.fabricmc.api.ClientModInitializer;
+import net.fabricmc.fabric.api.client.event.lifecycle.v1.ClientTickEvents;
+import net.fabricmc.fabric.api.client.networking.v1.ClientPlayConnectionEvents;
 import net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking;
 import net.minecraft.client.MinecraftClient;
 import net.minecraft.network.PacketByteBuf;
+import net.minecraft.text.Text;
 import net.minecraft.util.Identifier;
 
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
 /**
  * Client-side entry point for Banner Generator Fabric mod.
  * Handles custom packet communication with the Paper server.
  */
 public class BannerGeneratorClient implements ClientModInitializer {
 
-    public static final String MOD_ID = "bannergenerator";
-    public static final Identifier OPEN_GUI_PACKET = Identifier.of(MOD_ID, "open_gui");
-    public static final Identifier GENERATE_PACKET = Identifier.of(MOD_ID, "generate");
+    public static final String MOD_ID = BannerProtocol.NAMESPACE;
+    public static final Identifier HANDSHAKE_PACKET = Identifier.of(MOD_ID, BannerProtocol.HANDSHAKE);
+    public static final Identifier OPEN_GUI_PACKET = Identifier.of(MOD_ID, BannerProtocol.OPEN_GUI);
+    public static final Identifier GENERATE_PACKET = Identifier.of(MOD_ID, BannerProtocol.GENERATE);
+    public static final Identifier RESULT_PACKET = Identifier.of(MOD_ID, BannerProtocol.RESULT);
+
+    /**
+     * Requests that may wait for an answer at the same time
+     */
+    public static final int MAX_OUTSTANDING = 4;
+
+    /**
+     * A request without any answer for this long is resent with the same id; the server answers
+     * retries from its record of the id instead of generating again
+     */
+    private static final long RETRY_AFTER_MILLIS = 5000L;
+    private static final int MAX_ATTEMPTS = 3;
+
+    private static volatile Handshake capabilities = Handshake.DEFAULTS;
+    private static volatile RequestRateLimiter rateLimiter = limiterFor(Handshake.DEFAULTS);
+
+    private static final AtomicInteger nextRequestId = new AtomicInteger();
+    private static final Map<Integer, Outstanding> outstanding = new ConcurrentHashMap<>();
 
     @Override
     public void onInitializeClient() {
+        // Register packet handler for the one-time capability handshake sent on join
+        ClientPlayNetworking.registerGlobalReceiver(HANDSHAKE_PACKET, this::handleHandshake);
+
         // Register packet handler for server → client "open GUI" command
         ClientPlayNetworking.registerGlobalReceiver(OPEN_GUI_PACKET, this::handleOpenGui);
 
+        // Acknowledgements and progress of our generate requests
+        ClientPlayNetworking.registerGlobalReceiver(RESULT_PACKET, this::handleResult);
+
+        // Resend requests the server never answered
+        ClientTickEvents.END_CLIENT_TICK.register(client -> retryUnanswered());
+
+        // Forget the cached capabilities and pending requests when leaving a server
+        ClientPlayConnectionEvents.DISCONNECT.register((handler, client) -> {
+            capabilities = Handshake.DEFAULTS;
+            rateLimiter = limiterFor(Handshake.DEFAULTS);
+            outstanding.clear();
+        });
+
         System.out.println("[BannerGenerator] Client mod initialized!");
     }
 
     /**
-     * Called when the server tells us to open the Banner Generator GUI
+     * Capabilities of the server we are connected to (defaults until the handshake arrives)
+     */
+    public static Handshake getCapabilities() {
+        return capabilities;
+    }
+
+    /**
+     * Called once per connection with the server's glyphs, palette and limits
+     */
+    private void handleHandshake(MinecraftClient client,
+                                 net.minecraft.client.network.ClientPlayNetworkHandler handler,
+                                 PacketByteBuf buf,
+                                 net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking.PacketSender responseSender) {
+
+        byte[] payload = new byte[buf.readableBytes()];
+        buf.readBytes(payload);
+
+        Handshake received;
+        try {
+            received = Handshake.decode(payload);
+        } catch (IOException e) {
+            System.out.println("[BannerGenerator] Ignoring malformed handshake: " + e.getMessage());
+            return;
+        }
+        if (received.protocolVersion() != BannerProtocol.VERSION) {
+            System.out.println("[BannerGenerator] Server speaks protocol v" + received.protocolVersion()
+                    + ", client expects v" + BannerProtocol.VERSION);
+        }
+        capabilities = received;
+        rateLimiter = limiterFor(received);
+    }
+
+    private static RequestRateLimiter limiterFor(Handshake handshake) {
+        return new RequestRateLimiter(handshake.cooldownMillis(), handshake.requestsPerMinute());
+    }
+
+    /**
+     * Called when the server tells us to open the Banner Generator GUI.
+     * The packet carries no payload; the screen is built from the cached handshake.
      */
     private void handleOpenGui(MinecraftClient client,
                                net.minecraft.client.network.ClientPlayNetworkHandler handler,
                                PacketByteBuf buf,
                                net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking.PacketSender responseSender) {
 
-        // Read any initial data from server (optional)
-        // For now, just open the screen
+        client.execute(() -> {
+            client.setScreen(new BannerGeneratorScreen(capabilities));
+        });
+    }
+
+    /**
+     * Called for every acknowledgement, progress report and final outcome of a generate request
+     */
+    private void handleResult(MinecraftClient client,
+                              net.minecraft.client.network.ClientPlayNetworkHandler handler,
+                              PacketByteBuf buf,
+                              net.fabricmc.fabric.api.client.networking.v1.ClientPlayNetworking.PacketSender responseSender) {
+
+        byte[] payload = new byte[buf.readableBytes()];
+        buf.readBytes(payload);
+
+        GenerateResult result;
+        try {
+            result = GenerateResult.decode(payload);
+        } catch (IOException e) {
+            System.out.println("[BannerGenerator] Ignoring malformed result: " + e.getMessage());
+            return;
+        }
 
         client.execute(() -> {
-            client.setScreen(new BannerGeneratorScreen());
+            Outstanding request = result.status().isFinal()
+                    ? outstanding.remove(result.requestId())
+                    : outstanding.computeIfPresent(result.requestId(), (id, pending) -> pending.heard());
+            if (request == null) {
+                return; // answer to a retry we already resolved, or from before a reconnect
+            }
+
+            if (client.currentScreen instanceof BannerGeneratorScreen screen) {
+                screen.onResult(request.text(), result);
+            } else if (result.status().isFinal()) {
+                client.inGameHud.setOverlayMessage(Text.literal(describe(request.text(), result)), false);
+            }
         });
     }
 
     /**
-     * Send generation request to server
+     * One-line description of a result for status lines and the action bar
      */
-    public static void sendGenerateRequest(String text, String bannerColor, String dyeColor) {
-        PacketByteBuf buf = ClientPlayNetworking.createC2SPacket(GENERATE_PACKET);
-        buf.writeString(text);
-        buf.writeString(bannerColor);
-        buf.writeString(dyeColor);
+    public static String describe(String text, GenerateResult result) {
+        return switch (result.status()) {
+            case ACCEPTED -> "Generating \"" + text + "\"...";
+            case PROGRESS -> "Generating \"" + text + "\": " + result.completed() + "/" + result.total();
+            default -> result.message().isEmpty() ? result.status().name() : result.message();
+        };
+    }
 
+    private static void retryUnanswered() {
+        long now = System.currentTimeMillis();
+        Iterator<Map.Entry<Integer, Outstanding>> iterator = outstanding.entrySet().iterator();
+        while (iterator.hasNext()) {
+            Map.Entry<Integer, Outstanding> entry = iterator.next();
+            Outstanding request = entry.getValue();
+            if (now - request.lastHeardMillis() < RETRY_AFTER_MILLIS) {
+                continue;
+            }
+            if (request.attempts() >= MAX_ATTEMPTS) {
+                System.out.println("[BannerGenerator] Giving up on generate request " + entry.getKey()
+                        + " after " + MAX_ATTEMPTS + " attempts");
+                iterator.remove();
+                continue;
+            }
+            send(request.payload());
+            entry.setValue(new Outstanding(request.text(), request.payload(), now, request.attempts() + 1));
+        }
+    }
+
+    /**
+     * Whether a request sent now would stay within the server's announced rate limits
+     * and the number of requests still waiting for an answer
+     */
+    public static boolean canSendRequest() {
+        return outstanding.size() < MAX_OUTSTANDING && rateLimiter.canAcquire(System.currentTimeMillis());
+    }
+
+    /**
+     * Requests sent and not yet completed or rejected
+     */
+    public static int getOutstandingCount() {
+        return outstanding.size();
+    }
+
+    /**
+     * Send generation request to server.
+     * Requests the server would reject (unknown glyphs, too long, rate limited) are dropped locally.
+     * Several requests may be in flight; results are matched to them by id.
+     *
+     * @return The request id, or -1 if the request was not sent
+     */
+    public static int sendGenerateRequest(String text, String bannerColor, String dyeColor) {
+        if (outstanding.size() >= MAX_OUTSTANDING || !capabilities.accepts(text)
+                || !rateLimiter.tryAcquire(System.currentTimeMillis())) {
+            return -1;
+        }
+
+        int requestId = nextRequestId.incrementAndGet();
+        byte[] payload = new GenerateRequest(requestId, text, bannerColor, dyeColor).encode();
+        outstanding.put(requestId, new Outstanding(text, payload, System.currentTimeMillis(), 1));
+        send(payload);
+        return requestId;
+    }
+
+    private static void send(byte[] payload) {
+        PacketByteBuf buf = ClientPlayNetworking.createC2SPacket(GENERATE_PACKET);
+        buf.writeBytes(payload);
         ClientPlayNetworking.send(GENERATE_PACKET, buf);
     }
+
+    /**
+     * A request waiting for its final result; the encoded payload is kept for retries
+     */
+    private record Outstanding(String text, byte[] payload, long lastHeardMillis, int attempts) {
+
+        Outstanding heard() {
+            return new Outstanding(text, payload, System.currentTimeMillis(), attempts);
+        }
+    }
 }
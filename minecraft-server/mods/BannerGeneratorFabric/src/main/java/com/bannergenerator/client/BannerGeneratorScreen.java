@@ -1,96 +1,102 @@
 package com.bannergenerator.client;
 
+import com.bannergenerator.core.protocol.GenerateResult;
+import com.bannergenerator.core.protocol.Handshake;
 import net.minecraft.client.gui.DrawContext;
 import net.minecraft.client.gui.screen.Screen;
+import net.minecraft.client.gui.tooltip.Tooltip;
 import net.minecraft.client.gui.widget.ButtonWidget;
 import net.minecraft.client.gui.widget.TextFieldWidget;
 import net.minecraft.text.Text;
-import net.minecraft.util.DyeColor;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.IntConsumer;
 
 /**
  * Custom GUI screen for the Banner Generator.
  * Provides a clean interface for entering text and selecting colors.
+ * Glyphs, palette and limits come from the server handshake cached by {@link BannerGeneratorClient}.
  */
 public class BannerGeneratorScreen extends Screen {
 
     private static final int GUI_WIDTH = 256;
-    private static final int GUI_HEIGHT = 166;
+    private static final int GUI_HEIGHT = 214;
+    private static final int SWATCH_SIZE = 20;
+    private static final int SWATCH_SPACING = 24;
+    private static final int SWATCHES_PER_ROW = 8;
+
+    private final Handshake capabilities;
+    private final List<ButtonWidget> bannerSwatches = new ArrayList<>();
+    private final List<ButtonWidget> dyeSwatches = new ArrayList<>();
 
     private TextFieldWidget textInput;
-    private String selectedBannerColor = "WHITE";
-    private String selectedDyeColor = "BLACK";
+    private ButtonWidget generateButton;
+    private Text status = Text.empty();
+    private int selectedBannerColor;
+    private int selectedDyeColor;
     private int guiLeft;
     private int guiTop;
 
-    public BannerGeneratorScreen() {
+    public BannerGeneratorScreen(Handshake capabilities) {
         super(Text.literal("Banner Workstation"));
+        this.capabilities = capabilities;
+        this.selectedBannerColor = indexOf("WHITE", 0);
+        this.selectedDyeColor = indexOf("BLACK", Math.min(1, capabilities.palette().size() - 1));
     }
 
     @Override
     protected void init() {
         super.init();
+        bannerSwatches.clear();
+        dyeSwatches.clear();
 
         // Center the GUI
         this.guiLeft = (this.width - GUI_WIDTH) / 2;
         this.guiTop = (this.height - GUI_HEIGHT) / 2;
 
-        // Text input field
+        // Text input field, limited to what the server accepts
         this.textInput = new TextFieldWidget(
                 this.textRenderer,
                 guiLeft + 30,
-                guiTop + 40,
+                guiTop + 30,
                 196,
                 20,
                 Text.literal("Enter text")
         );
-        this.textInput.setMaxLength(20);
+        this.textInput.setMaxLength(capabilities.maxTextLength());
+        this.textInput.setTextPredicate(capabilities::accepts);
         this.textInput.setPlaceholder(Text.literal("Type your text here..."));
         this.addSelectableChild(this.textInput);
         this.setInitialFocus(this.textInput);
 
-        // Banner color selection buttons
-        int colorY = guiTop + 75;
-        int colorX = guiLeft + 30;
-
-        // Add a few color options for demo
-        this.addDrawableChild(ButtonWidget.builder(
-                Text.literal("White"),
-                button -> selectedBannerColor = "WHITE"
-        ).dimensions(colorX, colorY, 60, 20).build());
-
-        this.addDrawableChild(ButtonWidget.builder(
-                Text.literal("Red"),
-                button -> selectedBannerColor = "RED"
-        ).dimensions(colorX + 65, colorY, 60, 20).build());
-
-        this.addDrawableChild(ButtonWidget.builder(
-                Text.literal("Blue"),
-                button -> selectedBannerColor = "BLUE"
-        ).dimensions(colorX + 130, colorY, 60, 20).build());
-
-        // Dye color selection
-        colorY = guiTop + 100;
-
-        this.addDrawableChild(ButtonWidget.builder(
-                Text.literal("Black"),
-                button -> selectedDyeColor = "BLACK"
-        ).dimensions(colorX, colorY, 60, 20).build());
-
-        this.addDrawableChild(ButtonWidget.builder(
-                Text.literal("White"),
-                button -> selectedDyeColor = "WHITE"
-        ).dimensions(colorX + 65, colorY, 60, 20).build());
-
-        this.addDrawableChild(ButtonWidget.builder(
-                Text.literal("Yellow"),
-                button -> selectedDyeColor = "YELLOW"
-        ).dimensions(colorX + 130, colorY, 60, 20).build());
+        // Banner and dye color palettes
+        addPalette(guiTop + 72, bannerSwatches, index -> selectedBannerColor = index);
+        addPalette(guiTop + 127, dyeSwatches, index -> selectedDyeColor = index);
 
         // Generate button
-        this.addDrawableChild(ButtonWidget.builder(
+        this.generateButton = this.addDrawableChild(ButtonWidget.builder(
                 Text.literal("Generate Banners"),
                 button -> this.generateBanners()
-        ).dimensions(guiLeft + 58, guiTop + 135, 140, 20).build());
+        ).dimensions(guiLeft + 58, guiTop + 172, 140, 20).build());
+    }
+
+    /**
+     * Adds one swatch button per palette colour, wrapping after {@link #SWATCHES_PER_ROW}
+     */
+    private void addPalette(int top, List<ButtonWidget> swatches, IntConsumer onSelect) {
+        List<Handshake.PaletteColor> palette = capabilities.palette();
+        for (int i = 0; i < palette.size(); i++) {
+            final int index = i;
+            int x = guiLeft + 30 + (i % SWATCHES_PER_ROW) * SWATCH_SPACING;
+            int y = top + (i / SWATCHES_PER_ROW) * SWATCH_SPACING;
+            swatches.add(this.addDrawableChild(ButtonWidget.builder(
+                    Text.empty(),
+                    button -> onSelect.accept(index)
+            ).dimensions(x, y, SWATCH_SIZE, SWATCH_SIZE)
+                    .tooltip(Tooltip.of(Text.literal(palette.get(i).displayName())))
+                    .build()));
+        }
     }
 
     @Override
@@ -119,33 +125,76 @@ public class BannerGeneratorScreen extends Screen {
                 this.textRenderer,
                 Text.literal("Text:"),
                 guiLeft + 10,
-                guiTop + 45,
+                guiTop + 36,
                 0xFFFFFF,
                 false
         );
 
         context.drawText(
                 this.textRenderer,
-                Text.literal("Banner Color:"),
+                Text.literal("Banner Color: " + colorName(selectedBannerColor)),
                 guiLeft + 10,
-                guiTop + 65,
+                guiTop + 60,
                 0xFFFFFF,
                 false
         );
 
         context.drawText(
                 this.textRenderer,
-                Text.literal("Dye Color:"),
+                Text.literal("Dye Color: " + colorName(selectedDyeColor)),
                 guiLeft + 10,
-                guiTop + 90,
+                guiTop + 115,
                 0xFFFFFF,
                 false
         );
 
+        // Outcome of the latest request
+        context.drawText(
+                this.textRenderer,
+                this.status,
+                guiLeft + 10,
+                guiTop + GUI_HEIGHT - 14,
+                0xAAAAAA,
+                false
+        );
+
         // Render text field
         this.textInput.render(context, mouseX, mouseY, delta);
 
+        this.generateButton.active = !this.textInput.getText().isEmpty() && BannerGeneratorClient.canSendRequest();
+
         super.render(context, mouseX, mouseY, delta);
+
+        // Paint swatch colours on top of the buttons and outline the selection
+        renderSwatches(context, bannerSwatches, selectedBannerColor);
+        renderSwatches(context, dyeSwatches, selectedDyeColor);
+    }
+
+    private void renderSwatches(DrawContext context, List<ButtonWidget> swatches, int selected) {
+        List<Handshake.PaletteColor> palette = capabilities.palette();
+        for (int i = 0; i < swatches.size(); i++) {
+            ButtonWidget swatch = swatches.get(i);
+            int x = swatch.getX();
+            int y = swatch.getY();
+            context.fill(x + 3, y + 3, x + SWATCH_SIZE - 3, y + SWATCH_SIZE - 3, 0xFF000000 | palette.get(i).rgb());
+            if (i == selected) {
+                context.drawBorder(x - 1, y - 1, SWATCH_SIZE + 2, SWATCH_SIZE + 2, 0xFFFFD700);
+            }
+        }
+    }
+
+    private int indexOf(String colorName, int fallback) {
+        List<Handshake.PaletteColor> palette = capabilities.palette();
+        for (int i = 0; i < palette.size(); i++) {
+            if (palette.get(i).name().equals(colorName)) {
+                return i;
+            }
+        }
+        return fallback;
+    }
+
+    private String colorName(int index) {
+        return capabilities.palette().get(index).displayName();
     }
 
     private void generateBanners() {
@@ -155,11 +204,26 @@ public class BannerGeneratorScreen extends Screen {
             return;
         }
 
-        // Send packet to server
-        BannerGeneratorClient.sendGenerateRequest(text, selectedBannerColor, selectedDyeColor);
+        // Send packet to server (dropped locally if the server would reject it)
+        List<Handshake.PaletteColor> palette = capabilities.palette();
+        int requestId = BannerGeneratorClient.sendGenerateRequest(
+                text,
+                palette.get(selectedBannerColor).name(),
+                palette.get(selectedDyeColor).name()
+        );
+
+        // Stay open so the outcome can be shown; further requests may be sent meanwhile
+        if (requestId >= 0) {
+            this.status = Text.literal("Sent \"" + text + "\"...");
+            this.textInput.setText("");
+        }
+    }
 
-        // Close the screen
-        this.close();
+    /**
+     * Shows the server's answer to one of our requests in the status line
+     */
+    void onResult(String text, GenerateResult result) {
+        this.status = Text.literal(BannerGeneratorClient.describe(text, result));
     }
 
     @Override
@@ -0,0 +1,605 @@
+package com.bannergenerator;
+
+import com.bannergenerator.core.BannerColor;
+import com.bannergenerator.core.BannerLayout;
+import com.bannergenerator.core.region.WorkstationIndexVerifier;
+import com.bannergenerator.core.schematic.SpongeSchematicWriter;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.Bukkit;
+import org.bukkit.DyeColor;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.command.Command;
+import org.bukkit.command.CommandExecutor;
+import org.bukkit.command.CommandSender;
+import org.bukkit.command.TabCompleter;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ForkJoinPool;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Handles {@code /bannergenerator} and its subcommands.
+ */
+public class BannerCommand implements CommandExecutor, TabCompleter {
+
+    private static final int TARGET_RANGE = 10;
+    private static final List<String> SUBCOMMANDS = List.of("export", "find", "give", "measure", "stats", "trace", "verify", "wall");
+
+    private final BannerGeneratorPlugin plugin;
+
+    public BannerCommand(BannerGeneratorPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    @Override
+    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
+        if (args.length == 0) {
+            giveWorkstation(sender);
+            return true;
+        }
+
+        switch (args[0].toLowerCase(Locale.ROOT)) {
+            case "export" -> exportSchematic(sender, label, Arrays.copyOfRange(args, 1, args.length));
+            case "find" -> findWord(sender, label, Arrays.copyOfRange(args, 1, args.length));
+            case "give" -> giveBanners(sender, label, Arrays.copyOfRange(args, 1, args.length));
+            case "measure" -> measureItems(sender);
+            case "stats" -> sendCacheStats(sender);
+            case "trace" -> trace(sender, label, Arrays.copyOfRange(args, 1, args.length));
+            case "verify" -> verifyWorkstations(sender);
+            case "wall" -> placeWall(sender, label, Arrays.copyOfRange(args, 1, args.length));
+            default -> {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public List<String> onTabComplete(CommandSender sender, Command command, String alias, String[] args) {
+        if (args.length == 1) {
+            return filter(SUBCOMMANDS, args[0]);
+        }
+        if (args[0].equalsIgnoreCase("give")) {
+            if (args.length == 2) {
+                return filter(Bukkit.getOnlinePlayers().stream().map(Player::getName).toList(), args[1]);
+            }
+            if (args.length == 3 || args.length == 4) {
+                return filter(colorNames(), args[args.length - 1]);
+            }
+            return List.of();
+        }
+        if (args[0].equalsIgnoreCase("export")) {
+            if (args.length == 2 || args.length == 3) {
+                return filter(colorNames(), args[args.length - 1]);
+            }
+            return List.of();
+        }
+        if (args[0].equalsIgnoreCase("trace")) {
+            if (args.length == 2) {
+                return filter(List.of("start", "stop", "list", "replay", "cancel"), args[1]);
+            }
+            if (args.length == 3 && args[1].equalsIgnoreCase("replay")) {
+                return filter(plugin.getTraceRecorder().listTraces().stream()
+                        .map(file -> file.getName().substring(0, file.getName().length() - TraceRecorder.FILE_SUFFIX.length()))
+                        .toList(), args[2]);
+            }
+            if (args.length == 4 && args[1].equalsIgnoreCase("replay")) {
+                return filter(List.of("fast", "realtime"), args[3]);
+            }
+            return List.of();
+        }
+        if (args[0].equalsIgnoreCase("wall")) {
+            if (args.length == 2) {
+                List<String> options = new ArrayList<>(colorNames());
+                options.add("cancel");
+                return filter(options, args[1]);
+            }
+            if (args.length == 3) {
+                return filter(colorNames(), args[2]);
+            }
+            if (args.length == 4) {
+                return filter(Arrays.stream(BannerLayout.Direction.values())
+                        .map(direction -> direction.name().toLowerCase(Locale.ROOT)).toList(), args[3]);
+            }
+        }
+        return List.of();
+    }
+
+    private void giveWorkstation(CommandSender sender) {
+        if (!(sender instanceof Player player)) {
+            sender.sendMessage("This command can only be used by players!");
+            return;
+        }
+
+        // Give the player a banner workstation block
+        plugin.getWorkstationManager().giveWorkstationBlock(player);
+        player.sendMessage("§aYou received a Banner Workstation! Place it and right-click to use.");
+    }
+
+    /**
+     * /bannergenerator export &lt;background&gt; &lt;text color&gt; &lt;file&gt; &lt;text&gt; [| &lt;text&gt;...]
+     * Writes the text as a Sponge schematic of wall banners for WorldEdit. Each {@code |} starts a new row and
+     * long rows wrap at {@code export.row-letters}. The file is streamed on a background thread.
+     */
+    private void exportSchematic(CommandSender sender, String label, String[] args) {
+        if (!sender.hasPermission("bannergenerator.export")) {
+            sender.sendMessage(Component.text("You don't have permission to export schematics.", NamedTextColor.RED));
+            return;
+        }
+        if (args.length < 4) {
+            sender.sendMessage(Component.text("Usage: /" + label + " export <background> <text color> <file> <text> [| <text>...]",
+                    NamedTextColor.RED));
+            return;
+        }
+
+        DyeColor background = parseColor(args[0]);
+        DyeColor foreground = parseColor(args[1]);
+        if (background == null || foreground == null) {
+            sender.sendMessage(Component.text("Unknown colour. Use one of: " + String.join(", ", colorNames()), NamedTextColor.RED));
+            return;
+        }
+        String name = args[2].replaceFirst("(?i)\\.schem$", "");
+        if (!name.matches("[A-Za-z0-9_-]{1,64}")) {
+            sender.sendMessage(Component.text("File names may only use letters, digits, - and _.", NamedTextColor.RED));
+            return;
+        }
+
+        List<String> lines = new ArrayList<>();
+        for (String part : String.join(" ", Arrays.copyOfRange(args, 3, args.length)).split("\\|")) {
+            lines.add(LetterPatterns.sanitize(part.strip()));
+        }
+        int letters = lines.stream().mapToInt(String::length).sum();
+        if (letters == 0) {
+            sender.sendMessage(Component.text("Nothing to export: use " + LetterPatterns.describeSupportedCharacters(),
+                    NamedTextColor.RED));
+            return;
+        }
+        int maxLetters = Math.max(1, plugin.getConfig().getInt("export.max-letters", 10000));
+        if (letters > maxLetters) {
+            sender.sendMessage(Component.text("Exports are limited to " + maxLetters + " letters.", NamedTextColor.RED));
+            return;
+        }
+
+        List<String> rows = SpongeSchematicWriter.wrap(lines, Math.max(1, plugin.getConfig().getInt("export.row-letters", 32)));
+        File directory = new File(plugin.getDataFolder(), plugin.getConfig().getString("export.directory", "schematics"));
+        File file = new File(directory, name + ".schem");
+        // Everything the writer needs is captured here; the background thread touches no server state
+        SpongeSchematicWriter writer = new SpongeSchematicWriter(LetterPatterns.getGlyphTable(),
+                Bukkit.getUnsafe().getDataVersion());
+        String title = String.join(" ", lines);
+        BannerColor bannerBackground = LetterPatterns.toBannerColor(background);
+        BannerColor bannerForeground = LetterPatterns.toBannerColor(foreground);
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                Files.createDirectories(directory.toPath());
+                try (OutputStream out = Files.newOutputStream(file.toPath())) {
+                    writer.write(out, rows, bannerBackground, bannerForeground, title);
+                }
+                Component done = Component.text("Exported " + letters + " banner(s) in " + rows.size() + " row(s) to "
+                        + file.getPath() + ". Banners face south; rotate with //rotate after //schem load.", NamedTextColor.GREEN);
+                Bukkit.getScheduler().runTask(plugin, () -> sender.sendMessage(done));
+            } catch (IOException | RuntimeException e) {
+                plugin.getLogger().warning("Schematic export failed: " + e.getMessage());
+                Bukkit.getScheduler().runTask(plugin, () -> sender.sendMessage(
+                        Component.text("Export failed: " + e.getMessage(), NamedTextColor.RED)));
+            }
+        });
+    }
+
+    /**
+     * /bannergenerator find &lt;word&gt;
+     * Lists where a word stands on placed letter banners, nearest first. Answered from the placed banner index;
+     * letters in loaded chunks are re-checked so walls removed behind the plugin's back drop out.
+     */
+    private void findWord(CommandSender sender, String label, String[] args) {
+        if (!sender.hasPermission("bannergenerator.find")) {
+            sender.sendMessage(Component.text("You don't have permission to search banner text.", NamedTextColor.RED));
+            return;
+        }
+        PlacedBannerIndex index = plugin.getPlacedBannerIndex();
+        if (!index.isEnabled()) {
+            sender.sendMessage(Component.text("The placed banner index is disabled (text-index.enabled).", NamedTextColor.RED));
+            return;
+        }
+        String word = args.length == 1 ? LetterPatterns.sanitize(args[0]).strip() : "";
+        if (word.isEmpty() || word.indexOf(' ') >= 0) {
+            sender.sendMessage(Component.text("Usage: /" + label + " find <word>", NamedTextColor.RED));
+            return;
+        }
+
+        List<PlacedBannerIndex.Word> hits = new ArrayList<>(index.find(word));
+        if (sender instanceof Player player) {
+            UUID worldId = player.getWorld().getUID();
+            int x = player.getLocation().getBlockX();
+            int z = player.getLocation().getBlockZ();
+            // Hits in the player's world come first, nearest first
+            hits.sort(Comparator.comparingLong(hit -> hit.start().worldId().equals(worldId)
+                    ? (long) (hit.start().x() - x) * (hit.start().x() - x) + (long) (hit.start().z() - z) * (hit.start().z() - z)
+                    : Long.MAX_VALUE));
+        }
+
+        List<PlacedBannerIndex.Word> shown = new ArrayList<>();
+        int stale = 0;
+        for (PlacedBannerIndex.Word hit : hits) {
+            if (shown.size() == index.getMaxResults()) {
+                break;
+            }
+            if (index.verifyLoaded(hit)) {
+                shown.add(hit);
+            } else {
+                stale++;
+            }
+        }
+        int found = hits.size() - stale;
+        if (shown.isEmpty()) {
+            sender.sendMessage(Component.text("No placed banners spell " + word.toUpperCase(Locale.ROOT) + ".", NamedTextColor.YELLOW));
+            return;
+        }
+
+        sender.sendMessage(Component.text("Found " + word.toUpperCase(Locale.ROOT) + " in " + found + " place(s)"
+                + (found > shown.size() ? ", showing " + shown.size() : "") + ":", NamedTextColor.GOLD));
+        for (PlacedBannerIndex.Word hit : shown) {
+            BlockLocationKey start = hit.start();
+            World world = Bukkit.getWorld(start.worldId());
+            sender.sendMessage(Component.text(" " + (world != null ? world.getName() : start.worldId()) + " " + start.x() + ", "
+                    + start.y() + ", " + start.z() + " facing " + hit.facing().name().toLowerCase(Locale.ROOT)
+                    + (hit.axis() == PlacedBannerIndex.Axis.DOWN ? ", reading down" : ""), NamedTextColor.YELLOW));
+        }
+    }
+
+    /**
+     * /bannergenerator give &lt;player&gt; &lt;background&gt; &lt;text color&gt; &lt;text&gt; [| &lt;text&gt;...]
+     * Generates banners straight into a player's inventory without any GUI. Meant for the console,
+     * operators and bots: several texts separated by {@code |} are generated in one batch.
+     */
+    private void giveBanners(CommandSender sender, String label, String[] args) {
+        if (!sender.hasPermission("bannergenerator.give")) {
+            sender.sendMessage(Component.text("You don't have permission to give banners.", NamedTextColor.RED));
+            return;
+        }
+        if (args.length < 4) {
+            sender.sendMessage(Component.text("Usage: /" + label + " give <player> <background> <text color> <text> [| <text>...]",
+                    NamedTextColor.RED));
+            return;
+        }
+
+        Player target = Bukkit.getPlayerExact(args[0]);
+        if (target == null) {
+            sender.sendMessage(Component.text("Player " + args[0] + " is not online.", NamedTextColor.RED));
+            return;
+        }
+
+        DyeColor background = parseColor(args[1]);
+        DyeColor foreground = parseColor(args[2]);
+        if (background == null || foreground == null) {
+            sender.sendMessage(Component.text("Unknown colour. Use one of: " + String.join(", ", colorNames()), NamedTextColor.RED));
+            return;
+        }
+
+        BannerService service = plugin.getBannerService();
+        List<BannerService.Request> requests = new ArrayList<>();
+        int letters = 0;
+        for (String part : String.join(" ", Arrays.copyOfRange(args, 3, args.length)).split("\\|")) {
+            String text = service.sanitize(part.strip());
+            if (!text.isEmpty()) {
+                requests.add(new BannerService.Request(text, background, foreground));
+                letters += text.length();
+            }
+        }
+        if (requests.isEmpty()) {
+            sender.sendMessage(Component.text("Nothing to generate: use " + LetterPatterns.describeSupportedCharacters(),
+                    NamedTextColor.RED));
+            return;
+        }
+        int maxLetters = Math.max(1, plugin.getConfig().getInt("give.max-letters", 1000));
+        if (letters > maxLetters) {
+            sender.sendMessage(Component.text("A single give is limited to " + maxLetters + " letters.", NamedTextColor.RED));
+            return;
+        }
+
+        int texts = requests.size();
+        int total = letters;
+        // One insertion per container instead of one per letter when packed delivery is configured
+        service.generateBatch(requests, plugin.getDeliveryPacking(letters)).whenComplete((results, error) -> {
+            if (error != null) {
+                plugin.getLogger().warning("Failed to generate banners for " + target.getName() + ": " + error.getMessage());
+                sender.sendMessage(Component.text("Banner generation failed; see the server log.", NamedTextColor.RED));
+                return;
+            }
+            if (!target.isOnline()) {
+                sender.sendMessage(Component.text(target.getName() + " left before the banners were ready.", NamedTextColor.RED));
+                return;
+            }
+            for (ItemStack[] items : results) {
+                for (ItemStack item : items) {
+                    target.getInventory().addItem(item).values()
+                            .forEach(leftover -> target.getWorld().dropItemNaturally(target.getLocation(), leftover));
+                }
+            }
+            sender.sendMessage(Component.text("Gave " + target.getName() + " " + total + " banner(s) for " + texts + " text(s).",
+                    NamedTextColor.GREEN));
+        });
+    }
+
+    /**
+     * Reports the serialized size of one banner in every item style, averaged over the active glyph table.
+     * Raw is the item NBT as stored in containers and sent to clients; gzip is the compressed item form.
+     */
+    private void measureItems(CommandSender sender) {
+        if (!sender.hasPermission("bannergenerator.admin")) {
+            sender.sendMessage(Component.text("You don't have permission to measure banner items.", NamedTextColor.RED));
+            return;
+        }
+
+        BannerGenerator generator = plugin.getBannerGenerator();
+        String characters = LetterPatterns.getSupportedCharacters();
+        sender.sendMessage(Component.text("Bytes per banner over " + characters.length() + " glyph(s):", NamedTextColor.GOLD));
+        for (BannerItemStyle style : BannerItemStyle.values()) {
+            long raw = 0;
+            long compressed = 0;
+            for (char c : characters.toCharArray()) {
+                byte[] bytes = generator.createSample(c, DyeColor.WHITE, DyeColor.BLACK, style).serializeAsBytes();
+                compressed += bytes.length;
+                raw += uncompressedSize(bytes);
+            }
+            boolean active = style == generator.getItemStyle();
+            sender.sendMessage(Component.text(String.format("%s%s: %.0f raw, %.0f gzip",
+                    style.name().toLowerCase(Locale.ROOT), active ? " (active)" : "", raw / (double) characters.length(),
+                    compressed / (double) characters.length()), active ? NamedTextColor.GREEN : NamedTextColor.YELLOW));
+        }
+    }
+
+    private static long uncompressedSize(byte[] gzip) {
+        try (InputStream in = new GZIPInputStream(new ByteArrayInputStream(gzip))) {
+            return in.transferTo(OutputStream.nullOutputStream());
+        } catch (IOException e) {
+            return gzip.length; // Not compressed on this server version
+        }
+    }
+
+    /**
+     * Reports phrase cache effectiveness so the capacity can be sized against real traffic,
+     * plus the load controller's level and its recent transitions
+     */
+    private void sendCacheStats(CommandSender sender) {
+        if (!sender.hasPermission("bannergenerator.admin")) {
+            sender.sendMessage(Component.text("You don't have permission to view cache statistics.", NamedTextColor.RED));
+            return;
+        }
+
+        PhraseCache.Stats stats = plugin.getBannerGenerator().getPhraseCache().stats();
+        sender.sendMessage(Component.text("Phrase cache: " + stats.size() + "/" + stats.capacity() + " phrases, "
+                + String.format("%.1f", stats.serializedBytes() / 1024.0) + " KB serialized", NamedTextColor.GOLD));
+        sender.sendMessage(Component.text("Hit rate " + String.format("%.1f", stats.hitRate() * 100) + "% ("
+                + stats.hits() + " hits, " + stats.misses() + " misses)", NamedTextColor.YELLOW));
+        sender.sendMessage(Component.text("Admitted " + stats.admissions() + ", rejected " + stats.rejections()
+                + ", evicted " + stats.evictions(), NamedTextColor.GRAY));
+
+        LoadController load = plugin.getLoadController();
+        sender.sendMessage(Component.text("Server load: " + load.getLevel() + " at "
+                + String.format("%.1f", load.getLastMspt()) + " MSPT (" + LoadController.describe(load.getLevel()) + ")",
+                load.getLevel() == LoadController.Level.NORMAL ? NamedTextColor.GOLD : NamedTextColor.RED));
+        sender.sendMessage(Component.text(load.getTransitions() + " transition(s), " + load.getDeferredCount()
+                + " delivery(ies) waiting, " + load.getDeferredTotal() + " deferred in total", NamedTextColor.GRAY));
+        long now = System.currentTimeMillis();
+        for (LoadController.Transition transition : load.getHistory()) {
+            sender.sendMessage(Component.text(" " + (now - transition.timeMillis()) / 1000L + "s ago: " + transition.from()
+                    + " -> " + transition.to() + " at " + String.format("%.1f", transition.mspt()) + " MSPT",
+                    NamedTextColor.GRAY));
+        }
+    }
+
+    /**
+     * /bannergenerator trace &lt;start|stop|list|replay &lt;file&gt; [fast|realtime]|cancel&gt;
+     * Records plugin traffic to disk and replays it to reproduce load.
+     */
+    private void trace(CommandSender sender, String label, String[] args) {
+        if (!sender.hasPermission("bannergenerator.admin")) {
+            sender.sendMessage(Component.text("You don't have permission to manage traces.", NamedTextColor.RED));
+            return;
+        }
+
+        TraceRecorder recorder = plugin.getTraceRecorder();
+        TraceReplayer replayer = plugin.getTraceReplayer();
+        String action = args.length == 0 ? "" : args[0].toLowerCase(Locale.ROOT);
+        switch (action) {
+            case "start" -> sender.sendMessage(recorder.start()
+                    ? Component.text("Trace recording started.", NamedTextColor.GREEN)
+                    : Component.text("Trace recording is already running or the trace folder is unavailable.", NamedTextColor.RED));
+            case "stop" -> sender.sendMessage(recorder.stop()
+                    ? Component.text("Trace recording stopped: " + recorder.getRecorded() + " event(s), "
+                    + recorder.getDropped() + " dropped.", NamedTextColor.GREEN)
+                    : Component.text("No trace is being recorded.", NamedTextColor.RED));
+            case "list" -> {
+                List<File> traces = recorder.listTraces();
+                if (traces.isEmpty()) {
+                    sender.sendMessage(Component.text("No traces recorded yet.", NamedTextColor.YELLOW));
+                }
+                for (File file : traces) {
+                    sender.sendMessage(Component.text(file.getName() + " (" + String.format("%.1f", file.length() / 1024.0) + " KB)",
+                            NamedTextColor.YELLOW));
+                }
+            }
+            case "replay" -> {
+                if (args.length < 2) {
+                    sender.sendMessage(Component.text("Usage: /" + label + " trace replay <file> [fast|realtime]", NamedTextColor.RED));
+                    return;
+                }
+                File file = recorder.resolveTrace(args[1]);
+                if (file == null) {
+                    sender.sendMessage(Component.text("No trace named " + args[1] + ". See /" + label + " trace list.", NamedTextColor.RED));
+                    return;
+                }
+                boolean realtime = args.length > 2 && args[2].equalsIgnoreCase("realtime");
+                if (!replayer.start(file, realtime, sender)) {
+                    sender.sendMessage(Component.text("A replay is already running.", NamedTextColor.RED));
+                }
+            }
+            case "cancel" -> {
+                if (!replayer.cancel()) {
+                    sender.sendMessage(Component.text("No replay is running.", NamedTextColor.RED));
+                }
+            }
+            default -> sender.sendMessage(Component.text("Recording: " + (recorder.isEnabled() ? "on" : "off")
+                    + ", " + recorder.getRecorded() + " event(s), " + recorder.getDropped() + " dropped. Usage: /"
+                    + label + " trace <start|stop|list|replay|cancel>", NamedTextColor.GOLD));
+        }
+    }
+
+    /**
+     * /bannergenerator verify
+     * Checks every indexed workstation against the saved region files on a background pool and writes a
+     * corrected index plus a report to the data folder. Nothing is applied automatically.
+     */
+    private void verifyWorkstations(CommandSender sender) {
+        if (!sender.hasPermission("bannergenerator.admin")) {
+            sender.sendMessage(Component.text("You don't have permission to verify workstations.", NamedTextColor.RED));
+            return;
+        }
+        WorkstationManager workstations = plugin.getWorkstationManager();
+        if (!workstations.hasFullIndex()) {
+            sender.sendMessage(Component.text("Verification needs storage.backend: yaml; the chunk and sqlite backends "
+                    + "already re-check workstations as their chunks load.", NamedTextColor.RED));
+            return;
+        }
+
+        List<WorkstationIndexVerifier.Position> positions = workstations.snapshotWorkstations().stream()
+                .map(key -> new WorkstationIndexVerifier.Position(key.worldId(), key.x(), key.y(), key.z()))
+                .toList();
+        Map<UUID, Path> worldFolders = new HashMap<>();
+        for (World world : Bukkit.getWorlds()) {
+            worldFolders.put(world.getUID(), world.getWorldFolder().toPath());
+        }
+        File out = new File(plugin.getDataFolder(), "workstations-verified.yml");
+        File reportFile = new File(plugin.getDataFolder(), "workstations-verify-report.txt");
+        sender.sendMessage(Component.text("Verifying " + positions.size() + " workstation(s) against the saved region files. "
+                + "Run /save-all first so recent changes are on disk.", NamedTextColor.YELLOW));
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            ForkJoinPool pool = new ForkJoinPool(Math.max(1, Runtime.getRuntime().availableProcessors() / 2));
+            try {
+                WorkstationIndexVerifier.Report report = new WorkstationIndexVerifier(worldFolders).verify(positions, pool);
+                WorkstationIndexVerifier.writeIndex(out.toPath(), report.correctedIndex());
+                try (Writer writer = Files.newBufferedWriter(reportFile.toPath(), StandardCharsets.UTF_8)) {
+                    report.write(writer);
+                }
+                Component summary = Component.text("Verified " + positions.size() + " workstation(s) in "
+                        + report.elapsedNanos() / 1_000_000L + " ms: " + report.count(WorkstationIndexVerifier.Outcome.CONFIRMED)
+                        + " confirmed, " + report.count(WorkstationIndexVerifier.Outcome.MISSING) + " missing, "
+                        + report.count(WorkstationIndexVerifier.Outcome.UNKNOWN) + " unreadable. See " + reportFile.getName()
+                        + "; to apply, stop the server and replace workstations.yml with " + out.getName() + ".",
+                        NamedTextColor.GREEN);
+                Bukkit.getScheduler().runTask(plugin, () -> sender.sendMessage(summary));
+            } catch (IOException | RuntimeException e) {
+                plugin.getLogger().warning("Workstation verification failed: " + e.getMessage());
+                Bukkit.getScheduler().runTask(plugin, () -> sender.sendMessage(
+                        Component.text("Verification failed: " + e.getMessage(), NamedTextColor.RED)));
+            } finally {
+                pool.shutdown();
+            }
+        });
+    }
+
+    /**
+     * /bannergenerator wall &lt;background&gt; &lt;text color&gt; &lt;right|left|down&gt; &lt;text...&gt;
+     * Hangs the text on the block face the player is looking at.
+     */
+    private void placeWall(CommandSender sender, String label, String[] args) {
+        if (!(sender instanceof Player player)) {
+            sender.sendMessage("This command can only be used by players!");
+            return;
+        }
+        if (!player.hasPermission("bannergenerator.wall")) {
+            player.sendMessage(Component.text("You don't have permission to place banner walls.", NamedTextColor.RED));
+            return;
+        }
+
+        BannerWallPlacer wallPlacer = plugin.getWallPlacer();
+        if (args.length == 1 && args[0].equalsIgnoreCase("cancel")) {
+            int dropped = wallPlacer.cancel(player.getUniqueId());
+            player.sendMessage(Component.text("Cancelled " + dropped + " queued banner(s).", NamedTextColor.YELLOW));
+            return;
+        }
+
+        if (args.length < 4) {
+            player.sendMessage(Component.text("Usage: /" + label + " wall <background> <text color> <right|left|down> <text...>",
+                    NamedTextColor.RED));
+            return;
+        }
+
+        DyeColor background = parseColor(args[0]);
+        DyeColor foreground = parseColor(args[1]);
+        if (background == null || foreground == null) {
+            player.sendMessage(Component.text("Unknown colour. Use one of: " + String.join(", ", colorNames()), NamedTextColor.RED));
+            return;
+        }
+
+        BannerLayout.Direction direction;
+        try {
+            direction = BannerLayout.Direction.valueOf(args[2].toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            player.sendMessage(Component.text("Direction must be right, left or down.", NamedTextColor.RED));
+            return;
+        }
+
+        String text = LetterPatterns.sanitize(String.join(" ", Arrays.copyOfRange(args, 3, args.length)));
+        if (text.isEmpty()) {
+            player.sendMessage(Component.text("Nothing to place: use " + LetterPatterns.describeSupportedCharacters(),
+                    NamedTextColor.RED));
+            return;
+        }
+        if (text.length() > wallPlacer.getMaxLetters()) {
+            player.sendMessage(Component.text("Walls are limited to " + wallPlacer.getMaxLetters() + " letters.", NamedTextColor.RED));
+            return;
+        }
+
+        Block target = player.getTargetBlockExact(TARGET_RANGE);
+        BlockFace face = player.getTargetBlockFace(TARGET_RANGE);
+        if (target == null || face == null || face == BlockFace.UP || face == BlockFace.DOWN) {
+            player.sendMessage(Component.text("Look at the side of a wall within " + TARGET_RANGE + " blocks.", NamedTextColor.RED));
+            return;
+        }
+
+        int queued = wallPlacer.placeWall(player, target, face, direction, text, background, foreground);
+        player.sendMessage(Component.text("Queued " + queued + " banner(s); they will appear over the next ticks.", NamedTextColor.GREEN));
+    }
+
+    static DyeColor parseColor(String name) {
+        try {
+            return DyeColor.valueOf(name.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    private static List<String> colorNames() {
+        return Arrays.stream(DyeColor.values()).map(color -> color.name().toLowerCase(Locale.ROOT)).toList();
+    }
+
+    private static List<String> filter(List<String> options, String prefix) {
+        String lower = prefix.toLowerCase(Locale.ROOT);
+        return options.stream().filter(option -> option.startsWith(lower)).toList();
+    }
+}
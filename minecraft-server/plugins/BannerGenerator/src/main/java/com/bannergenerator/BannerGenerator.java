@@ -1,12 +1,18 @@
 package com.bannergenerator;
 
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
 import org.bukkit.DyeColor;
 import org.bukkit.Material;
+import org.bukkit.block.ShulkerBox;
 import org.bukkit.block.banner.Pattern;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.BannerMeta;
+import org.bukkit.inventory.meta.BlockStateMeta;
+import org.bukkit.inventory.meta.BundleMeta;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
 /**
@@ -15,8 +21,34 @@ import java.util.List;
  */
 public class BannerGenerator {
 
+    private static final int DEFAULT_CACHE_CAPACITY = 256;
+
+    private final PhraseCache phraseCache;
+    private final BannerItemStyle itemStyle;
+
+    public BannerGenerator() {
+        this(DEFAULT_CACHE_CAPACITY);
+    }
+
+    /**
+     * @param cacheCapacity Maximum number of phrases kept in the phrase cache
+     */
+    public BannerGenerator(int cacheCapacity) {
+        this(cacheCapacity, BannerItemStyle.FULL);
+    }
+
     /**
-     * Generates an array of banner items, one for each character in the text
+     * @param cacheCapacity Maximum number of phrases kept in the phrase cache
+     * @param itemStyle Metadata carried by every generated banner
+     */
+    public BannerGenerator(int cacheCapacity, BannerItemStyle itemStyle) {
+        this.phraseCache = new PhraseCache(cacheCapacity);
+        this.itemStyle = itemStyle;
+    }
+
+    /**
+     * Generates an array of banner items, one for each character in the text.
+     * Popular phrases are served from the phrase cache; the returned array is always a fresh copy.
      *
      * @param text The text to convert to banners
      * @param backgroundColor The base color of the banner (background)
@@ -24,15 +56,100 @@ public class BannerGenerator {
      * @return Array of banner ItemStacks with letter patterns
      */
     public ItemStack[] generateLetterBanners(String text, DyeColor backgroundColor, DyeColor textColor) {
+        PhraseCache.Key key = new PhraseCache.Key(text, backgroundColor, textColor);
+        ItemStack[] cached = phraseCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
         List<ItemStack> banners = new ArrayList<>();
 
         // Process each character
         for (char c : text.toCharArray()) {
-            ItemStack banner = createLetterBanner(c, backgroundColor, textColor);
+            ItemStack banner = createLetterBanner(c, backgroundColor, textColor, itemStyle);
             banners.add(banner);
         }
 
-        return banners.toArray(new ItemStack[0]);
+        ItemStack[] generated = banners.toArray(new ItemStack[0]);
+        phraseCache.put(key, generated);
+
+        ItemStack[] result = new ItemStack[generated.length];
+        for (int i = 0; i < generated.length; i++) {
+            result[i] = generated[i].clone();
+        }
+        return result;
+    }
+
+    /**
+     * Generates the banners for a text and packs them into named containers in reading order.
+     * Packed phrases are cached next to the loose ones, so a popular text is packed only once.
+     *
+     * @param packing {@link BannerPacking#LOOSE} behaves like {@link #generateLetterBanners}
+     * @return Fresh copies of the containers, one per {@link BannerPacking#lettersPerItem()} letters
+     */
+    public ItemStack[] generatePacked(String text, DyeColor backgroundColor, DyeColor textColor, BannerPacking packing) {
+        if (packing == BannerPacking.LOOSE) {
+            return generateLetterBanners(text, backgroundColor, textColor);
+        }
+
+        PhraseCache.Key key = new PhraseCache.Key(text, backgroundColor, textColor, packing);
+        ItemStack[] cached = phraseCache.get(key);
+        if (cached != null) {
+            return cached;
+        }
+
+        ItemStack[] packed = pack(text, generateLetterBanners(text, backgroundColor, textColor), backgroundColor, packing);
+        phraseCache.put(key, packed);
+
+        ItemStack[] result = new ItemStack[packed.length];
+        for (int i = 0; i < packed.length; i++) {
+            result[i] = packed[i].clone();
+        }
+        return result;
+    }
+
+    /**
+     * Packs already generated banners into named containers in reading order, bypassing the phrase cache.
+     * Used for banners that carry per-delivery data, such as the materials charged for them.
+     */
+    ItemStack[] pack(String text, ItemStack[] banners, DyeColor backgroundColor, BannerPacking packing) {
+        if (packing == BannerPacking.LOOSE) {
+            return banners;
+        }
+        int perItem = packing.lettersPerItem();
+        int count = Math.max(1, (banners.length + perItem - 1) / perItem);
+        ItemStack[] packed = new ItemStack[count];
+        for (int i = 0; i < count; i++) {
+            ItemStack[] slice = Arrays.copyOfRange(banners, i * perItem, Math.min(banners.length, (i + 1) * perItem));
+            String name = count == 1 ? text : text + " (" + (i + 1) + "/" + count + ")";
+            packed[i] = packing == BannerPacking.SHULKER_BOX
+                    ? createShulkerBox(name, slice, backgroundColor)
+                    : createBundle(name, slice, backgroundColor);
+        }
+        return packed;
+    }
+
+    public PhraseCache getPhraseCache() {
+        return phraseCache;
+    }
+
+    public BannerItemStyle getItemStyle() {
+        return itemStyle;
+    }
+
+    /**
+     * Builds one banner in the configured style without touching the phrase cache.
+     * Used where a phrase is assembled letter by letter, such as the anvil while the player types.
+     */
+    ItemStack generateLetterBanner(char c, DyeColor backgroundColor, DyeColor textColor) {
+        return createLetterBanner(c, backgroundColor, textColor, itemStyle);
+    }
+
+    /**
+     * Builds one banner in the given style without touching the phrase cache; used to measure item sizes
+     */
+    ItemStack createSample(char c, DyeColor backgroundColor, DyeColor textColor, BannerItemStyle style) {
+        return createLetterBanner(c, backgroundColor, textColor, style);
     }
 
     /**
@@ -41,9 +158,10 @@ public class BannerGenerator {
      * @param c The character to create a banner for
      * @param backgroundColor The base banner color
      * @param textColor The letter pattern color
+     * @param style How much name and lore to attach
      * @return Banner ItemStack with the letter pattern
      */
-    private ItemStack createLetterBanner(char c, DyeColor backgroundColor, DyeColor textColor) {
+    private ItemStack createLetterBanner(char c, DyeColor backgroundColor, DyeColor textColor, BannerItemStyle style) {
         // Create a banner with the background color
         Material bannerMaterial = getBannerMaterial(backgroundColor);
         ItemStack banner = new ItemStack(bannerMaterial);
@@ -55,34 +173,69 @@ public class BannerGenerator {
         }
 
         // Get the patterns for this character
-        List<Pattern> patterns = LetterPatterns.getPatternsForChar(c, textColor);
+        List<Pattern> patterns = LetterPatterns.getPatternsForChar(c, backgroundColor, textColor);
 
         // Add all patterns to the banner
         for (Pattern pattern : patterns) {
             meta.addPattern(pattern);
         }
 
-        // Set display name to show what letter this is
-        String displayName = (c == ' ') ? "§f[Space]" : "§f" + c;
-        meta.setDisplayName("§6Letter Banner: " + displayName);
+        if (style == BannerItemStyle.FULL) {
+            // Set display name to show what letter this is
+            String displayName = (c == ' ') ? "§f[Space]" : "§f" + c;
+            meta.setDisplayName("§6Letter Banner: " + displayName);
 
-        // Add lore with color info
-        List<String> lore = new ArrayList<>();
-        lore.add("§7Background: §f" + formatColorName(backgroundColor));
-        lore.add("§7Text: §f" + formatColorName(textColor));
-        meta.setLore(lore);
+            // Add lore with color info
+            List<String> lore = new ArrayList<>();
+            lore.add("§7Background: §f" + formatColorName(backgroundColor));
+            lore.add("§7Text: §f" + formatColorName(textColor));
+            meta.setLore(lore);
+        } else if (style == BannerItemStyle.NAMED) {
+            meta.displayName(Component.text(c == ' ' ? "[Space]" : String.valueOf(c)));
+        }
+        // Every style carries the tag, so banners are recognized without comparing pattern lists
+        BannerTag.write(meta, LetterPatterns.getGlyphTable().glyph(c).character(), backgroundColor, textColor);
 
         banner.setItemMeta(meta);
         return banner;
     }
 
+    /**
+     * A shulker box in the background colour holding one letter per slot
+     */
+    private ItemStack createShulkerBox(String name, ItemStack[] banners, DyeColor color) {
+        Material material = Material.matchMaterial(color.name() + "_SHULKER_BOX");
+        ItemStack box = new ItemStack(material != null ? material : Material.SHULKER_BOX);
+        if (box.getItemMeta() instanceof BlockStateMeta meta && meta.getBlockState() instanceof ShulkerBox state) {
+            state.getInventory().setContents(banners);
+            meta.setBlockState(state);
+            meta.displayName(Component.text(name, NamedTextColor.GOLD));
+            box.setItemMeta(meta);
+        }
+        return box;
+    }
+
+    /**
+     * A bundle whose first item out is the first letter
+     */
+    private ItemStack createBundle(String name, ItemStack[] banners, DyeColor color) {
+        Material material = Material.matchMaterial(color.name() + "_BUNDLE");
+        ItemStack bundle = new ItemStack(material != null ? material : Material.BUNDLE);
+        if (bundle.getItemMeta() instanceof BundleMeta meta) {
+            meta.setItems(Arrays.asList(banners));
+            meta.displayName(Component.text(name, NamedTextColor.GOLD));
+            bundle.setItemMeta(meta);
+        }
+        return bundle;
+    }
+
     /**
      * Gets the banner material for a specific color
      *
      * @param color The dye color
      * @return The corresponding banner material
      */
-    private Material getBannerMaterial(DyeColor color) {
+    static Material getBannerMaterial(DyeColor color) {
         switch (color) {
             case WHITE: return Material.WHITE_BANNER;
             case ORANGE: return Material.ORANGE_BANNER;
@@ -104,6 +257,17 @@ public class BannerGenerator {
         }
     }
 
+    /**
+     * Gets the wall-mounted banner block for a specific color
+     *
+     * @param color The dye color
+     * @return The corresponding wall banner material
+     */
+    static Material getWallBannerMaterial(DyeColor color) {
+        Material material = Material.matchMaterial(color.name() + "_WALL_BANNER");
+        return material != null ? material : Material.WHITE_WALL_BANNER;
+    }
+
     /**
      * Formats a color name to be more readable
      *
@@ -1,55 +1,187 @@
 package com.bannergenerator;
 
+import com.bannergenerator.core.GlyphTable;
+import com.bannergenerator.core.GlyphTableFormat;
 import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
-import org.bukkit.command.Command;
-import org.bukkit.command.CommandSender;
-import org.bukkit.entity.Player;
+import org.bukkit.World;
+import org.bukkit.command.PluginCommand;
+import org.bukkit.inventory.ItemType;
 import org.bukkit.inventory.RecipeChoice;
 import org.bukkit.inventory.ShapedRecipe;
+import org.bukkit.plugin.ServicePriority;
 import org.bukkit.plugin.java.JavaPlugin;
 
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+import java.util.Locale;
+
 /**
  * Main plugin class for BannerGenerator
  * Creates a custom workstation block for generating letter banners
  */
 public class BannerGeneratorPlugin extends JavaPlugin {
 
+    private BannerGenerator bannerGenerator;
     private WorkstationManager workstationManager;
     private BannerGuiManager guiManager;
+    private BannerPaletteGui paletteGui;
     private PacketHandler packetHandler;
+    private BannerService bannerService;
+    private BannerWallPlacer wallPlacer;
+    private PlacedBannerIndex placedBannerIndex;
+    private BannerPreviewServer previewServer;
+    private TraceRecorder traceRecorder;
+    private TraceReplayer traceReplayer;
+    private LoadController loadController;
+    private BannerPacking deliveryPacking = BannerPacking.LOOSE;
+    private int packMinLetters;
 
     @Override
     public void onEnable() {
         getLogger().info("BannerGenerator is starting up!");
 
-        // Initialize managers
+        // Write the default config on first start
+        saveDefaultConfig();
+
+        // A compiled glyph table replaces the built-in one before anything generates banners
+        loadGlyphTable();
+        loadDeliverySettings();
+
+        // Everything below asks the load controller how much optional work to do
+        loadController = new LoadController(this);
+        loadController.loadSettings();
+
+        // The recorder is handed to the listeners below, so it exists before them
+        traceRecorder = new TraceRecorder(this);
+        traceReplayer = new TraceReplayer(this);
+
+        // Initialize managers; all generation paths share one generator and its phrase cache
+        bannerGenerator = new BannerGenerator(getConfig().getInt("cache.phrase-capacity", 256), loadItemStyle());
         workstationManager = new WorkstationManager(this);
-        guiManager = new BannerGuiManager();
-        packetHandler = new PacketHandler(this);
+        guiManager = new BannerGuiManager(this, bannerGenerator, traceRecorder, loadController);
+        guiManager.start();
+        paletteGui = new BannerPaletteGui(this, bannerGenerator);
+        paletteGui.loadSettings();
+        paletteGui.start();
+        bannerService = new SimpleBannerService(this, bannerGenerator, workstationManager);
+        packetHandler = new PacketHandler(this, bannerService);
+        wallPlacer = new BannerWallPlacer(this);
+        wallPlacer.loadSettings();
+        placedBannerIndex = new PlacedBannerIndex(this);
+        placedBannerIndex.loadSettings();
+        previewServer = new BannerPreviewServer(this);
 
-        // Register event listeners
+        // Register event listeners; the GUI and loaded-workstation handlers register themselves on demand
         getServer().getPluginManager().registerEvents(workstationManager, this);
-        getServer().getPluginManager().registerEvents(guiManager, this);
+        getServer().getPluginManager().registerEvents(packetHandler, this);
 
         // Register packet channels
         packetHandler.register();
 
-        // Load persisted workstation data
+        // Load persisted workstation data and start batched saving + integrity sweeps
         workstationManager.loadWorkstations();
+        workstationManager.start();
+
+        // Index of placed letter banners for '/bannergenerator find'
+        placedBannerIndex.start();
 
         // Ensure data folder exists for future saves
         if (!getDataFolder().exists() && !getDataFolder().mkdirs()) {
             getLogger().warning("Unable to create plugin data folder; workstation data will not persist.");
         }
 
+        // Register commands
+        BannerCommand bannerCommand = new BannerCommand(this);
+        PluginCommand command = getCommand("bannergenerator");
+        if (command != null) {
+            command.setExecutor(bannerCommand);
+            command.setTabCompleter(bannerCommand);
+        }
+
         // Load custom recipes
         loadRecipes();
 
+        // Serve PNG previews to the dashboard when enabled
+        previewServer.start();
+
+        // Start watching MSPT to shed optional work under load
+        loadController.start();
+
+        // Record traffic from startup when trace.enabled is set
+        traceRecorder.loadSettings();
+
+        // Expose the public API to other plugins
+        getServer().getServicesManager().register(BannerService.class, bannerService, this, ServicePriority.Normal);
+
         getLogger().info("BannerGenerator enabled successfully!");
     }
 
+    /**
+     * Loads the compiled glyph table named by {@code glyphs.table}, falling back to the built-in glyphs
+     */
+    private void loadGlyphTable() {
+        LetterPatterns.setGlyphTable(GlyphTable.builtIn());
+        String fileName = getConfig().getString("glyphs.table", "");
+        if (fileName == null || fileName.isBlank()) {
+            return;
+        }
+
+        File file = new File(getDataFolder(), fileName);
+        try (InputStream in = new BufferedInputStream(new FileInputStream(file))) {
+            GlyphTable table = GlyphTableFormat.readBinary(in);
+            LetterPatterns.setGlyphTable(table);
+            getLogger().info("Loaded " + table.size() + " glyph(s) from " + file.getName());
+        } catch (IOException e) {
+            getLogger().warning("Could not load glyph table " + file.getName() + ", using built-in glyphs: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reads how generated texts are handed to players ({@code delivery.*})
+     */
+    private void loadDeliverySettings() {
+        String packing = getConfig().getString("delivery.packing", "loose");
+        try {
+            deliveryPacking = BannerPacking.valueOf(packing.toUpperCase(Locale.ROOT).replace('-', '_'));
+        } catch (IllegalArgumentException e) {
+            getLogger().warning("Unknown delivery.packing '" + packing + "', using loose banners.");
+            deliveryPacking = BannerPacking.LOOSE;
+        }
+        // Before 1.21.2 bundles are an experiment that only exists with the bundle datapack enabled
+        List<World> worlds = Bukkit.getWorlds();
+        if (deliveryPacking == BannerPacking.BUNDLE && !worlds.isEmpty() && !worlds.get(0).isEnabled(ItemType.BUNDLE)) {
+            getLogger().warning("delivery.packing is bundle but bundles are not enabled on this server, using shulker boxes.");
+            deliveryPacking = BannerPacking.SHULKER_BOX;
+        }
+        packMinLetters = Math.max(1, getConfig().getInt("delivery.pack-min-letters", 2));
+    }
+
+    /**
+     * Reads how much metadata generated banners carry ({@code items.style})
+     */
+    private BannerItemStyle loadItemStyle() {
+        String style = getConfig().getString("items.style", "full");
+        try {
+            return BannerItemStyle.valueOf(style.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            getLogger().warning("Unknown items.style '" + style + "', using full banner names.");
+            return BannerItemStyle.FULL;
+        }
+    }
+
+    /**
+     * Packing used when handing a generated text of the given length to a player
+     */
+    public BannerPacking getDeliveryPacking(int letters) {
+        return letters >= packMinLetters ? deliveryPacking : BannerPacking.LOOSE;
+    }
+
     /**
      * Loads custom crafting recipes
      */
@@ -79,28 +211,21 @@ public class BannerGeneratorPlugin extends JavaPlugin {
 
     @Override
     public void onDisable() {
-        workstationManager.saveWorkstations();
+        getServer().getServicesManager().unregisterAll(this);
+        loadController.shutdown();
+        previewServer.stop();
+        paletteGui.closeAll();
+        traceReplayer.cancel();
+        traceRecorder.stop();
+        wallPlacer.shutdown();
+        placedBannerIndex.shutdown();
+        workstationManager.shutdown();
         packetHandler.unregister();
         getLogger().info("BannerGenerator is shutting down!");
     }
 
-    @Override
-    public boolean onCommand(CommandSender sender, Command command, String label, String[] args) {
-        if (command.getName().equalsIgnoreCase("bannergenerator")) {
-            if (!(sender instanceof Player)) {
-                sender.sendMessage("This command can only be used by players!");
-                return true;
-            }
-
-            Player player = (Player) sender;
-
-            // Give the player a banner workstation block
-            workstationManager.giveWorkstationBlock(player);
-            player.sendMessage("§aYou received a Banner Workstation! Place it and right-click to use.");
-
-            return true;
-        }
-        return false;
+    public BannerGenerator getBannerGenerator() {
+        return bannerGenerator;
     }
 
     public WorkstationManager getWorkstationManager() {
@@ -111,7 +236,35 @@ public class BannerGeneratorPlugin extends JavaPlugin {
         return guiManager;
     }
 
+    public BannerPaletteGui getPaletteGui() {
+        return paletteGui;
+    }
+
+    public BannerService getBannerService() {
+        return bannerService;
+    }
+
+    public BannerWallPlacer getWallPlacer() {
+        return wallPlacer;
+    }
+
+    LoadController getLoadController() {
+        return loadController;
+    }
+
+    PlacedBannerIndex getPlacedBannerIndex() {
+        return placedBannerIndex;
+    }
+
     public PacketHandler getPacketHandler() {
         return packetHandler;
     }
+
+    public TraceRecorder getTraceRecorder() {
+        return traceRecorder;
+    }
+
+    public TraceReplayer getTraceReplayer() {
+        return traceReplayer;
+    }
 }
@@ -4,6 +4,7 @@ import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextDecoration;
 import org.bukkit.DyeColor;
+import org.bukkit.GameMode;
 import org.bukkit.Material;
 import org.bukkit.Sound;
 import org.bukkit.entity.Player;
@@ -17,6 +18,7 @@ import org.bukkit.inventory.AnvilInventory;
 import org.bukkit.inventory.InventoryView;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.plugin.Plugin;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -27,6 +29,11 @@ import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Provides the anvil-based Banner Workstation UI with multi-letter support.
+ * Each session keeps the banners of the phrase being typed and rebuilds only the letters an edit touched,
+ * so typing a long phrase builds each banner once instead of the whole phrase on every keystroke.
+ * While the server is under load the preview stops building banners; they are built when the result is taken.
+ * The manager registers its inventory handlers when the first session opens and unregisters them
+ * when the last one closes, so anvil and click events cost nothing while nobody uses the UI.
  */
 public class BannerGuiManager implements Listener {
 
@@ -35,11 +42,33 @@ public class BannerGuiManager implements Listener {
     private static final int RIGHT_SLOT = 1;
     private static final int RESULT_SLOT = 2;
 
-    private static final String ALLOWED_CHARS = "ABCDEFGHIJKLMNOPQRSTUVWXYZ0123456789!?., ";
 
-    private final BannerGenerator bannerGenerator = new BannerGenerator();
+    private final Plugin plugin;
+    private final BannerGenerator bannerGenerator;
+    private final TraceRecorder traceRecorder;
+    private final LoadController loadController;
+    private ListenerToggle sessionListener;
     private final Set<UUID> activePlayers = ConcurrentHashMap.newKeySet();
-    private final Map<UUID, String> lastInput = new ConcurrentHashMap<>();
+    private final Map<UUID, IncrementalPhrase> phrases = new ConcurrentHashMap<>();
+    private final IncrementalPhrase replayPhrase;
+    private final int maxLetters;
+
+    public BannerGuiManager(Plugin plugin, BannerGenerator bannerGenerator, TraceRecorder traceRecorder,
+                            LoadController loadController) {
+        this.plugin = plugin;
+        this.bannerGenerator = bannerGenerator;
+        this.traceRecorder = traceRecorder;
+        this.loadController = loadController;
+        this.replayPhrase = new IncrementalPhrase(bannerGenerator);
+        this.maxLetters = Math.max(1, plugin.getConfig().getInt("max-text-length", 20));
+    }
+
+    /**
+     * Creates the on-demand session listener; call once after construction, before the first UI is opened
+     */
+    public void start() {
+        sessionListener = new ListenerToggle(plugin, this);
+    }
 
     /**
      * Opens the workstation UI for a player.
@@ -59,8 +88,10 @@ public class BannerGuiManager implements Listener {
 
         UUID id = player.getUniqueId();
         activePlayers.add(id);
-        lastInput.putIfAbsent(id, "");
-        player.sendMessage(Component.text("Place a banner on the left, dye on the right, then type your text in the anvil field.", NamedTextColor.YELLOW));
+        phrases.putIfAbsent(id, new IncrementalPhrase(bannerGenerator));
+        sessionListener.setActive(true);
+        player.sendMessage(Component.text("Place banners on the left, dye on the right, then type your text in the anvil field. "
+                + "Each letter uses one banner and one dye.", NamedTextColor.YELLOW));
     }
 
     @EventHandler(priority = EventPriority.LOWEST)
@@ -77,14 +108,22 @@ public class BannerGuiManager implements Listener {
         ItemStack bannerInput = anvil.getItem(LEFT_SLOT);
         ItemStack dyeInput = anvil.getItem(RIGHT_SLOT);
 
+        if (traceRecorder.isEnabled()) {
+            traceRecorder.recordAnvilPrepare(player, anvil.getRenameText(),
+                    isBanner(bannerInput) ? getBannerColor(bannerInput) : null, isDye(dyeInput) ? getDyeColor(dyeInput) : null);
+        }
+
         if (!isBanner(bannerInput) || !isDye(dyeInput)) {
             event.setResult(null);
             anvil.setRepairCost(0);
             return;
         }
 
-        UUID id = player.getUniqueId();
-        String previous = lastInput.getOrDefault(id, "");
+        IncrementalPhrase phrase = phrases.get(player.getUniqueId());
+        if (phrase == null) {
+            return;
+        }
+        String previous = phrase.getText();
         String renameRaw = anvil.getRenameText();
 
         if (isDefaultBannerName(renameRaw, bannerInput)) {
@@ -103,22 +142,29 @@ public class BannerGuiManager implements Listener {
             return;
         }
 
-        ItemStack[] generated = bannerGenerator.generateLetterBanners(sanitized, getBannerColor(bannerInput), getDyeColor(dyeInput));
-        if (generated.length == 0) {
-            event.setResult(null);
-            anvil.setRepairCost(0);
-            return;
+        ItemStack preview;
+        boolean paused = loadController.previewsPaused();
+        if (paused) {
+            // Under load the input banner stands in for the preview; nothing is built until the click
+            preview = bannerInput.clone();
+            preview.setAmount(1);
+        } else {
+            // Only the letters this keystroke changed are built; the preview shows the first banner and the phrase
+            phrase.update(sanitized, getBannerColor(bannerInput), getDyeColor(dyeInput));
+            preview = phrase.get(0).clone();
         }
-
-        lastInput.put(id, sanitized);
-
-        ItemStack preview = generated[0].clone();
         ItemMeta meta = preview.getItemMeta();
         if (meta != null) {
-            meta.displayName(Component.text("Preview: " + sanitized.charAt(0), NamedTextColor.GOLD));
+            meta.displayName(Component.text("Preview: " + sanitized, NamedTextColor.GOLD));
             List<Component> lore = new ArrayList<>();
-            lore.add(Component.text("Text: " + sanitized, NamedTextColor.YELLOW));
+            if (paused) {
+                lore.add(Component.text("Preview paused while the server is busy", NamedTextColor.DARK_GRAY));
+            }
             lore.add(Component.text("Letters to create: " + sanitized.length(), NamedTextColor.GRAY));
+            if (player.getGameMode() != GameMode.CREATIVE) {
+                lore.add(Component.text("Uses " + sanitized.length() + " banner(s) and " + sanitized.length() + " dye(s)",
+                        NamedTextColor.GRAY));
+            }
             meta.lore(lore);
             preview.setItemMeta(meta);
         }
@@ -134,7 +180,8 @@ public class BannerGuiManager implements Listener {
         }
 
         UUID id = player.getUniqueId();
-        if (!activePlayers.contains(id)) {
+        IncrementalPhrase phrase = phrases.get(id);
+        if (phrase == null || !activePlayers.contains(id)) {
             return;
         }
 
@@ -147,6 +194,13 @@ public class BannerGuiManager implements Listener {
             return; // Allow interactions with player inventory
         }
 
+        if (traceRecorder.isEnabled()) {
+            ItemStack left = anvil.getItem(LEFT_SLOT);
+            ItemStack right = anvil.getItem(RIGHT_SLOT);
+            traceRecorder.recordAnvilClick(player, rawSlot, event.isShiftClick(), anvil.getRenameText(),
+                    isBanner(left) ? getBannerColor(left) : null, isDye(right) ? getDyeColor(right) : null);
+        }
+
         if (event.isShiftClick()) {
             event.setCancelled(true);
             return;
@@ -178,26 +232,46 @@ public class BannerGuiManager implements Listener {
 
         String renameRaw = anvil.getRenameText();
         if (isDefaultBannerName(renameRaw, bannerInput)) {
-            renameRaw = lastInput.getOrDefault(id, "");
+            renameRaw = phrase.getText();
         }
 
         String sanitized = sanitizeText(renameRaw);
         if (sanitized.isEmpty()) {
-            sanitized = lastInput.getOrDefault(id, "");
+            sanitized = phrase.getText();
         }
 
         if (sanitized.isEmpty()) {
-            player.sendMessage(Component.text("Type a single character using A-Z, 0-9, space, ! ? . ,", NamedTextColor.RED));
+            player.sendMessage(Component.text("Type your text using " + LetterPatterns.describeSupportedCharacters(),
+                    NamedTextColor.RED));
             return;
         }
 
-        lastInput.put(id, sanitized);
+        int letters = sanitized.length();
+        boolean free = player.getGameMode() == GameMode.CREATIVE;
+        if (!free && (bannerInput.getAmount() < letters || dyeInput.getAmount() < letters)) {
+            player.sendMessage(Component.text("\"" + sanitized + "\" needs " + letters + " banner(s) and " + letters + " dye(s).",
+                    NamedTextColor.RED));
+            return;
+        }
 
-        ItemStack[] banners = bannerGenerator.generateLetterBanners(sanitized, getBannerColor(bannerInput), getDyeColor(dyeInput));
+        // Normally a no-op: the preview already built these banners
+        phrase.update(sanitized, getBannerColor(bannerInput), getDyeColor(dyeInput));
+        ItemStack[] banners = phrase.copyBanners();
+        if (!free) {
+            // The anvil charges a banner in the background colour and a dye in the text colour per letter
+            BannerTag.Refund refund = new BannerTag.Refund(getBannerColor(bannerInput), getDyeColor(dyeInput));
+            for (ItemStack banner : banners) {
+                ItemMeta bannerMeta = banner.getItemMeta();
+                BannerTag.writeRefund(bannerMeta, refund);
+                banner.setItemMeta(bannerMeta);
+            }
+        }
         distributeBanners(player, banners);
 
-        consumeOne(anvil, LEFT_SLOT);
-        consumeOne(anvil, RIGHT_SLOT);
+        if (!free) {
+            consume(anvil, LEFT_SLOT, letters);
+            consume(anvil, RIGHT_SLOT, letters);
+        }
         anvil.setItem(RESULT_SLOT, null);
         anvil.setRepairCost(0);
         player.updateInventory();
@@ -217,7 +291,10 @@ public class BannerGuiManager implements Listener {
             return;
         }
 
-        lastInput.remove(id);
+        phrases.remove(id);
+        if (activePlayers.isEmpty()) {
+            sessionListener.setActive(false);
+        }
 
         if (!(event.getInventory() instanceof AnvilInventory inventory)) {
             return;
@@ -228,6 +305,28 @@ public class BannerGuiManager implements Listener {
         returnItem(player, inventory, RESULT_SLOT);
     }
 
+    /**
+     * Whether a click in the anvil creates banners (a plain click on the result slot)
+     */
+    static boolean isResultClick(int rawSlot, boolean shift) {
+        return rawSlot == RESULT_SLOT && !shift;
+    }
+
+    /**
+     * Repeats the generation a recorded anvil input caused, without a player or inventory.
+     * Used by trace replay; missing colours mean the input slots did not hold a banner and dye.
+     * Replayed inputs share one phrase, so consecutive keystrokes are as incremental as they were live.
+     */
+    void replayInput(String renameText, DyeColor background, DyeColor foreground) {
+        if (background == null || foreground == null) {
+            return;
+        }
+        String sanitized = sanitizeText(renameText);
+        if (!sanitized.isEmpty()) {
+            replayPhrase.update(sanitized, background, foreground);
+        }
+    }
+
     private void distributeBanners(Player player, ItemStack[] banners) {
         for (ItemStack banner : banners) {
             Map<Integer, ItemStack> leftover = player.getInventory().addItem(banner.clone());
@@ -237,15 +336,15 @@ public class BannerGuiManager implements Listener {
         }
     }
 
-    private void consumeOne(AnvilInventory inventory, int slot) {
+    private void consume(AnvilInventory inventory, int slot, int amount) {
         ItemStack stack = inventory.getItem(slot);
         if (stack == null) {
             return;
         }
-        if (stack.getAmount() <= 1) {
+        if (stack.getAmount() <= amount) {
             inventory.setItem(slot, null);
         } else {
-            stack.setAmount(stack.getAmount() - 1);
+            stack.setAmount(stack.getAmount() - amount);
         }
     }
 
@@ -289,14 +388,8 @@ public class BannerGuiManager implements Listener {
         if (input == null) {
             return "";
         }
-        char[] chars = input.toCharArray();
-        for (char c : chars) {
-            char upper = Character.toUpperCase(c);
-            if (ALLOWED_CHARS.indexOf(upper) >= 0) {
-                return upper == ' ' ? " " : String.valueOf(upper);
-            }
-        }
-        return "";
+        String cleaned = LetterPatterns.sanitize(input);
+        return cleaned.length() > maxLetters ? cleaned.substring(0, maxLetters) : cleaned;
     }
 
     private boolean isDefaultBannerName(String renameText, ItemStack banner) {
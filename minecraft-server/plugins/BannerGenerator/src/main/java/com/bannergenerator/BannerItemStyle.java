@@ -0,0 +1,24 @@
+package com.bannergenerator;
+
+/**
+ * How much cosmetic metadata a generated letter banner carries on top of its {@link BannerTag}.
+ * Every byte of item metadata is repeated per letter in inventories, containers, chunk data and
+ * inventory sync packets, so storage-heavy builds can drop the name and lore.
+ */
+public enum BannerItemStyle {
+
+    /**
+     * "Letter Banner: A" display name plus background and text colour lore
+     */
+    FULL,
+
+    /**
+     * Only the letter as display name
+     */
+    NAMED,
+
+    /**
+     * No name or lore; the glyph tag alone identifies the banner
+     */
+    LEAN
+}
@@ -0,0 +1,40 @@
+package com.bannergenerator;
+
+/**
+ * How generated banners are handed out.
+ * Packed modes put the letters, in reading order, into named container items so a long text is a
+ * single inventory insertion (or a single dropped entity) instead of one stack per letter.
+ */
+public enum BannerPacking {
+
+    /**
+     * One banner item per letter
+     */
+    LOOSE(1),
+
+    /**
+     * Up to 27 letters per shulker box, one letter per slot
+     */
+    SHULKER_BOX(27),
+
+    /**
+     * Up to 16 letters per bundle (banners stack to 16, so each fills 1/16 of a bundle);
+     * the first letter is the first one taken out. On 1.21.1 bundles only exist while the experimental
+     * bundle datapack is enabled; {@code delivery.packing} falls back to shulker boxes without it, but
+     * {@link BannerService} callers asking for bundles have to check this themselves.
+     */
+    BUNDLE(16);
+
+    private final int lettersPerItem;
+
+    BannerPacking(int lettersPerItem) {
+        this.lettersPerItem = lettersPerItem;
+    }
+
+    /**
+     * Most letters a single item of this kind carries
+     */
+    public int lettersPerItem() {
+        return lettersPerItem;
+    }
+}
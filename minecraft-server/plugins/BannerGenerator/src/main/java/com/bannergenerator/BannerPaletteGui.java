@@ -0,0 +1,466 @@
+package com.bannergenerator;
+
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import net.kyori.adventure.text.format.TextDecoration;
+import org.bukkit.Bukkit;
+import org.bukkit.DyeColor;
+import org.bukkit.GameMode;
+import org.bukkit.Material;
+import org.bukkit.Sound;
+import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.inventory.InventoryAction;
+import org.bukkit.event.inventory.InventoryClickEvent;
+import org.bukkit.event.inventory.InventoryCloseEvent;
+import org.bukkit.event.inventory.InventoryDragEvent;
+import org.bukkit.inventory.Inventory;
+import org.bukkit.inventory.InventoryHolder;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+import org.bukkit.inventory.meta.BannerMeta;
+import org.bukkit.inventory.meta.ItemMeta;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Chest-style workstation UI for players without the Fabric client: pick both colours from a palette and
+ * type on a glyph keyboard, without putting banners and dyes into anvil slots.
+ * <p>
+ * Every page is built once as a template array of items and copied into a viewer's inventory when the page is
+ * shown, so opening the UI does not build any item metadata. Only the colour indicators and the preview in
+ * the control row are per session and updated on clicks. Creating banners still costs one plain banner and one
+ * dye of any colour per letter outside creative mode.
+ */
+public class BannerPaletteGui implements Listener {
+
+    private static final Component TITLE = Component.text("✦ Banner Workstation ✦", NamedTextColor.GOLD, TextDecoration.BOLD);
+    private static final int SIZE = 54;
+    private static final int KEYS_PER_PAGE = 45;
+
+    private static final int BACKGROUND_FIRST = 0;
+    private static final int FOREGROUND_FIRST = 18;
+
+    private static final int BACKGROUND_SLOT = 45;
+    private static final int FOREGROUND_SLOT = 46;
+    private static final int PAGE_SLOT = 48;
+    private static final int PREVIEW_SLOT = 49;
+    private static final int DELETE_SLOT = 50;
+    private static final int PREVIOUS_KEYS_SLOT = 51;
+    private static final int NEXT_KEYS_SLOT = 52;
+    private static final int CREATE_SLOT = 53;
+
+    private static final DyeColor[] COLORS = DyeColor.values();
+
+    private final BannerGeneratorPlugin plugin;
+    private final BannerGenerator bannerGenerator;
+    private ListenerToggle sessionListener;
+    private final Map<UUID, Session> sessions = new HashMap<>();
+
+    private boolean enabled;
+    private int maxLetters;
+    private ItemStack[] colorTemplate;
+    private List<ItemStack[]> keyTemplates;
+    private String keyCharacters;
+
+    public BannerPaletteGui(BannerGeneratorPlugin plugin, BannerGenerator bannerGenerator) {
+        this.plugin = plugin;
+        this.bannerGenerator = bannerGenerator;
+    }
+
+    /**
+     * Creates the on-demand session listener; call once after construction, before the first UI is opened
+     */
+    public void start() {
+        sessionListener = new ListenerToggle(plugin, this);
+    }
+
+    /**
+     * Reads {@code gui.vanilla} and the text limit
+     */
+    public void loadSettings() {
+        enabled = !plugin.getConfig().getString("gui.vanilla", "palette").equalsIgnoreCase("anvil");
+        maxLetters = Math.max(1, plugin.getConfig().getInt("max-text-length", 20));
+    }
+
+    /**
+     * Whether vanilla clients get this UI instead of the anvil
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Opens the palette on the colour page. Main thread only.
+     */
+    public void open(Player player) {
+        buildTemplates();
+        Session session = new Session();
+        session.inventory = Bukkit.createInventory(session, SIZE, TITLE);
+        showPage(session, Page.COLORS);
+
+        // Register before opening so the close event of a previous session cannot drop the listener
+        sessions.put(player.getUniqueId(), session);
+        sessionListener.setActive(true);
+        player.openInventory(session.inventory);
+    }
+
+    /**
+     * Drops every session; their inventories hold only template copies, so nothing needs to be returned
+     */
+    public void closeAll() {
+        for (UUID id : List.copyOf(sessions.keySet())) {
+            Player player = Bukkit.getPlayer(id);
+            if (player != null && player.getOpenInventory().getTopInventory().getHolder() instanceof Session) {
+                player.closeInventory();
+            }
+        }
+        sessions.clear();
+        sessionListener.setActive(false);
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onInventoryClick(InventoryClickEvent event) {
+        if (!(event.getView().getTopInventory().getHolder() instanceof Session session)
+                || !(event.getWhoClicked() instanceof Player player)) {
+            return;
+        }
+
+        int rawSlot = event.getRawSlot();
+        if (rawSlot >= SIZE) {
+            // The player's own inventory stays usable, but nothing may be moved into the palette
+            if (event.isShiftClick() || event.getAction() == InventoryAction.COLLECT_TO_CURSOR) {
+                event.setCancelled(true);
+            }
+            return;
+        }
+        event.setCancelled(true);
+        if (rawSlot < 0) {
+            return;
+        }
+
+        switch (rawSlot) {
+            case PAGE_SLOT -> showPage(session, session.page == Page.COLORS ? Page.KEYS : Page.COLORS);
+            case DELETE_SLOT -> {
+                if (event.isRightClick() || event.isShiftClick()) {
+                    session.text.setLength(0);
+                } else if (!session.text.isEmpty()) {
+                    session.text.setLength(session.text.length() - 1);
+                }
+                updatePreview(session);
+            }
+            case PREVIOUS_KEYS_SLOT, NEXT_KEYS_SLOT -> {
+                if (session.page == Page.KEYS) {
+                    int step = rawSlot == NEXT_KEYS_SLOT ? 1 : -1;
+                    session.keyPage = Math.floorMod(session.keyPage + step, keyTemplates.size());
+                    showPage(session, Page.KEYS);
+                }
+            }
+            case CREATE_SLOT -> create(player, session);
+            case BACKGROUND_SLOT, FOREGROUND_SLOT, PREVIEW_SLOT -> {
+            }
+            default -> {
+                if (session.page == Page.COLORS) {
+                    pickColor(session, rawSlot);
+                } else {
+                    type(player, session, rawSlot);
+                }
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.LOWEST)
+    public void onInventoryDrag(InventoryDragEvent event) {
+        if (!(event.getView().getTopInventory().getHolder() instanceof Session)) {
+            return;
+        }
+        for (int rawSlot : event.getRawSlots()) {
+            if (rawSlot < SIZE) {
+                event.setCancelled(true);
+                return;
+            }
+        }
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onInventoryClose(InventoryCloseEvent event) {
+        if (!(event.getInventory().getHolder() instanceof Session session)) {
+            return;
+        }
+        sessions.remove(event.getPlayer().getUniqueId(), session);
+        if (sessions.isEmpty()) {
+            sessionListener.setActive(false);
+        }
+    }
+
+    private void pickColor(Session session, int slot) {
+        if (slot >= BACKGROUND_FIRST && slot < BACKGROUND_FIRST + COLORS.length) {
+            session.background = COLORS[slot - BACKGROUND_FIRST];
+        } else if (slot >= FOREGROUND_FIRST && slot < FOREGROUND_FIRST + COLORS.length) {
+            session.foreground = COLORS[slot - FOREGROUND_FIRST];
+        } else {
+            return;
+        }
+        updateSessionSlots(session);
+    }
+
+    private void type(Player player, Session session, int slot) {
+        int index = session.keyPage * KEYS_PER_PAGE + slot;
+        if (slot >= KEYS_PER_PAGE || index >= keyCharacters.length()) {
+            return;
+        }
+        if (session.text.length() >= maxLetters) {
+            player.sendMessage(Component.text("Texts are limited to " + maxLetters + " letters.", NamedTextColor.RED));
+            return;
+        }
+        session.text.append(keyCharacters.charAt(index));
+        updatePreview(session);
+    }
+
+    private void create(Player player, Session session) {
+        String text = LetterPatterns.sanitize(session.text.toString());
+        if (text.isEmpty()) {
+            player.sendMessage(Component.text("Type some letters on the keyboard page first.", NamedTextColor.RED));
+            return;
+        }
+        BannerTag.Refund[] refunds = null;
+        if (player.getGameMode() != GameMode.CREATIVE) {
+            refunds = takeMaterials(player.getInventory(), text.length());
+            if (refunds == null) {
+                player.sendMessage(Component.text("You need " + text.length() + " plain banner(s) and " + text.length()
+                        + " dye(s) of any colour in your inventory.", NamedTextColor.RED));
+                return;
+            }
+        }
+
+        BannerPacking packing = plugin.getDeliveryPacking(text.length());
+        ItemStack[] items;
+        if (refunds == null) {
+            items = bannerGenerator.generatePacked(text, session.background, session.foreground, packing);
+        } else {
+            // Paid banners remember what they were made from, so they cannot come from the shared phrase cache
+            ItemStack[] banners = bannerGenerator.generateLetterBanners(text, session.background, session.foreground);
+            for (int i = 0; i < banners.length; i++) {
+                ItemMeta meta = banners[i].getItemMeta();
+                BannerTag.writeRefund(meta, refunds[i]);
+                banners[i].setItemMeta(meta);
+            }
+            items = bannerGenerator.pack(text, banners, session.background, packing);
+        }
+        Map<Integer, ItemStack> leftover = player.getInventory().addItem(items);
+        leftover.values().forEach(item -> player.getWorld().dropItemNaturally(player.getLocation(), item));
+
+        session.text.setLength(0);
+        updatePreview(session);
+        player.playSound(player.getLocation(), Sound.UI_LOOM_TAKE_RESULT, 1.0f, 1.0f);
+        player.sendMessage(Component.text("Created " + text.length() + " banner(s) for \"" + text + "\".", NamedTextColor.GREEN));
+    }
+
+    /**
+     * Removes one pattern-free banner and one dye per letter, or nothing if the inventory holds too few
+     *
+     * @return The colours charged for each letter, or null if nothing was taken
+     */
+    private static BannerTag.Refund[] takeMaterials(PlayerInventory inventory, int letters) {
+        ItemStack[] contents = inventory.getStorageContents();
+        int banners = 0;
+        int dyes = 0;
+        for (ItemStack item : contents) {
+            if (isPlainBanner(item)) {
+                banners += item.getAmount();
+            } else if (isDye(item)) {
+                dyes += item.getAmount();
+            }
+        }
+        if (banners < letters || dyes < letters) {
+            return null;
+        }
+
+        DyeColor[] bannerColors = new DyeColor[letters];
+        DyeColor[] dyeColors = new DyeColor[letters];
+        int bannersTaken = 0;
+        int dyesTaken = 0;
+        for (int slot = 0; slot < contents.length && (bannersTaken < letters || dyesTaken < letters); slot++) {
+            ItemStack item = contents[slot];
+            if (bannersTaken < letters && isPlainBanner(item)) {
+                DyeColor color = BannerRecycler.colorOf(item.getType(), "_BANNER", DyeColor.WHITE);
+                int taken = take(inventory, slot, item, letters - bannersTaken);
+                Arrays.fill(bannerColors, bannersTaken, bannersTaken + taken, color);
+                bannersTaken += taken;
+            } else if (dyesTaken < letters && isDye(item)) {
+                DyeColor color = BannerRecycler.colorOf(item.getType(), "_DYE", DyeColor.BLACK);
+                int taken = take(inventory, slot, item, letters - dyesTaken);
+                Arrays.fill(dyeColors, dyesTaken, dyesTaken + taken, color);
+                dyesTaken += taken;
+            }
+        }
+
+        BannerTag.Refund[] refunds = new BannerTag.Refund[letters];
+        for (int i = 0; i < letters; i++) {
+            refunds[i] = new BannerTag.Refund(bannerColors[i], dyeColors[i]);
+        }
+        return refunds;
+    }
+
+    private static int take(PlayerInventory inventory, int slot, ItemStack item, int wanted) {
+        int taken = Math.min(wanted, item.getAmount());
+        if (taken == item.getAmount()) {
+            inventory.setItem(slot, null);
+        } else {
+            item.setAmount(item.getAmount() - taken);
+            inventory.setItem(slot, item);
+        }
+        return taken;
+    }
+
+    private static boolean isPlainBanner(ItemStack item) {
+        return item != null && item.getType().name().endsWith("_BANNER")
+                && item.getItemMeta() instanceof BannerMeta meta && meta.numberOfPatterns() == 0;
+    }
+
+    private static boolean isDye(ItemStack item) {
+        return item != null && item.getType().name().endsWith("_DYE");
+    }
+
+    /**
+     * Copies a page template into the session inventory and fills in the per-session slots
+     */
+    private void showPage(Session session, Page page) {
+        session.page = page;
+        session.inventory.setContents(page == Page.COLORS ? colorTemplate : keyTemplates.get(session.keyPage));
+        updateSessionSlots(session);
+    }
+
+    private void updateSessionSlots(Session session) {
+        // The palette entries double as indicators, so no item is built per click
+        session.inventory.setItem(BACKGROUND_SLOT, colorTemplate[BACKGROUND_FIRST + session.background.ordinal()]);
+        session.inventory.setItem(FOREGROUND_SLOT, colorTemplate[FOREGROUND_FIRST + session.foreground.ordinal()]);
+        updatePreview(session);
+    }
+
+    private void updatePreview(Session session) {
+        if (session.text.isEmpty()) {
+            session.inventory.setItem(PREVIEW_SLOT, named(Material.PAPER, "Type with the letter keys", NamedTextColor.GRAY));
+            return;
+        }
+        String text = session.text.toString();
+        boolean paused = plugin.getLoadController().previewsPaused();
+        // Under load the text is shown on paper instead of building a banner per click
+        ItemStack preview = paused ? new ItemStack(Material.PAPER)
+                : bannerGenerator.generateLetterBanners(text.substring(text.length() - 1),
+                        session.background, session.foreground)[0];
+        ItemMeta meta = preview.getItemMeta();
+        meta.displayName(Component.text("Text: " + text, NamedTextColor.GOLD).decoration(TextDecoration.ITALIC, false));
+        Component letters = Component.text("Letters: " + text.length() + "/" + maxLetters, NamedTextColor.GRAY);
+        meta.lore(paused
+                ? List.of(letters, Component.text("Preview paused while the server is busy", NamedTextColor.DARK_GRAY))
+                : List.of(letters));
+        preview.setItemMeta(meta);
+        session.inventory.setItem(PREVIEW_SLOT, preview);
+    }
+
+    /**
+     * Builds the shared page templates once; the glyph table is fixed after startup
+     */
+    private void buildTemplates() {
+        if (colorTemplate != null) {
+            return;
+        }
+        ItemStack filler = named(Material.GRAY_STAINED_GLASS_PANE, " ", NamedTextColor.GRAY);
+
+        ItemStack[] colors = controlRow(filler, "Letters", Material.WRITABLE_BOOK, false);
+        for (int i = 0; i < KEYS_PER_PAGE; i++) {
+            colors[i] = filler;
+        }
+        for (int i = 0; i < COLORS.length; i++) {
+            colors[BACKGROUND_FIRST + i] = named(Material.valueOf(COLORS[i].name() + "_BANNER"),
+                    "Background: " + colorName(COLORS[i]), NamedTextColor.WHITE);
+            colors[FOREGROUND_FIRST + i] = named(Material.valueOf(COLORS[i].name() + "_DYE"),
+                    "Text colour: " + colorName(COLORS[i]), NamedTextColor.WHITE);
+        }
+
+        String characters = LetterPatterns.getSupportedCharacters();
+        int pages = Math.max(1, (characters.length() + KEYS_PER_PAGE - 1) / KEYS_PER_PAGE);
+        List<ItemStack[]> keys = new ArrayList<>(pages);
+        for (int page = 0; page < pages; page++) {
+            ItemStack[] template = controlRow(filler, "Colours", Material.LOOM, pages > 1);
+            for (int slot = 0; slot < KEYS_PER_PAGE; slot++) {
+                int index = page * KEYS_PER_PAGE + slot;
+                template[slot] = index < characters.length() ? key(characters.charAt(index)) : null;
+            }
+            keys.add(template);
+        }
+
+        keyCharacters = characters;
+        keyTemplates = List.copyOf(keys);
+        colorTemplate = colors;
+    }
+
+    private static ItemStack[] controlRow(ItemStack filler, String pageName, Material pageIcon, boolean paged) {
+        ItemStack[] template = new ItemStack[SIZE];
+        for (int slot = KEYS_PER_PAGE; slot < SIZE; slot++) {
+            template[slot] = filler;
+        }
+        template[PAGE_SLOT] = named(pageIcon, pageName, NamedTextColor.AQUA);
+        template[DELETE_SLOT] = named(Material.BARRIER, "Delete last letter (right-click: clear)", NamedTextColor.RED);
+        if (paged) {
+            template[PREVIOUS_KEYS_SLOT] = named(Material.ARROW, "Previous letters", NamedTextColor.AQUA);
+            template[NEXT_KEYS_SLOT] = named(Material.ARROW, "Next letters", NamedTextColor.AQUA);
+        }
+        template[CREATE_SLOT] = named(Material.LIME_DYE, "Create banners", NamedTextColor.GREEN);
+        return template;
+    }
+
+    private ItemStack key(char character) {
+        ItemStack key = bannerGenerator.generateLetterBanners(String.valueOf(character), DyeColor.WHITE, DyeColor.BLACK)[0];
+        ItemMeta meta = key.getItemMeta();
+        meta.displayName(Component.text(character == ' ' ? "Space" : "Type " + character, NamedTextColor.YELLOW)
+                .decoration(TextDecoration.ITALIC, false));
+        key.setItemMeta(meta);
+        return key;
+    }
+
+    private static ItemStack named(Material material, String name, NamedTextColor color) {
+        ItemStack item = new ItemStack(material);
+        ItemMeta meta = item.getItemMeta();
+        meta.displayName(Component.text(name, color).decoration(TextDecoration.ITALIC, false));
+        item.setItemMeta(meta);
+        return item;
+    }
+
+    private static String colorName(DyeColor color) {
+        String name = color.name().toLowerCase(Locale.ROOT).replace('_', ' ');
+        return Character.toUpperCase(name.charAt(0)) + name.substring(1);
+    }
+
+    private enum Page {
+        COLORS,
+        KEYS
+    }
+
+    /**
+     * Per-viewer state; also the holder that identifies palette inventories in events
+     */
+    private static final class Session implements InventoryHolder {
+
+        private final StringBuilder text = new StringBuilder();
+        private Inventory inventory;
+        private DyeColor background = DyeColor.WHITE;
+        private DyeColor foreground = DyeColor.BLACK;
+        private Page page = Page.COLORS;
+        private int keyPage;
+
+        @Override
+        public Inventory getInventory() {
+            return inventory;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.bannergenerator;
+
+import com.bannergenerator.core.BannerColor;
+import com.bannergenerator.core.GlyphTable;
+import com.bannergenerator.core.raster.PhraseRenderer;
+import com.bannergenerator.core.raster.PngEncoder;
+import com.bannergenerator.core.raster.RasterImage;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.bukkit.configuration.file.FileConfiguration;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/**
+ * Local HTTP endpoint that renders banner previews as PNG, for the colony dashboard and other tools.
+ * Rendering never touches the world, so requests are served on the endpoint's own threads;
+ * phrases are composited from cached per-colour atlases.
+ * <ul>
+ *     <li>{@code GET /banner.png?text=HELLO&bg=white&fg=blue&scale=4&columns=8}</li>
+ *     <li>{@code GET /atlas.png?bg=white&fg=blue&scale=4} - every glyph of the active table</li>
+ * </ul>
+ */
+public class BannerPreviewServer {
+
+    private final BannerGeneratorPlugin plugin;
+
+    private PhraseRenderer renderer;
+    private HttpServer server;
+    private ExecutorService executor;
+    private int maxLetters;
+    private int maxScale;
+
+    public BannerPreviewServer(BannerGeneratorPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Starts the endpoint if {@code preview.enabled} is set
+     */
+    public void start() {
+        FileConfiguration config = plugin.getConfig();
+        if (!config.getBoolean("preview.enabled", false)) {
+            return;
+        }
+        String bind = config.getString("preview.bind", "127.0.0.1");
+        int port = config.getInt("preview.port", 8765);
+        maxLetters = Math.max(1, config.getInt("preview.max-letters", 64));
+        maxScale = Math.max(1, config.getInt("preview.max-scale", 8));
+        double megapixels = Math.max(0.0, config.getDouble("preview.atlas-cache-megapixels", 16.0));
+        renderer = new PhraseRenderer((long) (megapixels * 1_000_000L));
+
+        try {
+            server = HttpServer.create(new InetSocketAddress(bind, port), 0);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not start banner preview endpoint on " + bind + ":" + port + ": " + e.getMessage());
+            return;
+        }
+
+        AtomicInteger threadCount = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "BannerGenerator-Preview-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        server.setExecutor(executor);
+        server.createContext("/banner.png", exchange -> handle(exchange, this::renderPhrase));
+        server.createContext("/atlas.png", exchange -> handle(exchange, this::renderAtlas));
+        server.start();
+        plugin.getLogger().info("Banner preview endpoint listening on http://" + bind + ":" + port + "/banner.png");
+    }
+
+    public void stop() {
+        if (server != null) {
+            server.stop(0);
+            server = null;
+        }
+        if (executor != null) {
+            executor.shutdownNow();
+            executor = null;
+        }
+    }
+
+    private RasterImage renderPhrase(Map<String, String> query) {
+        GlyphTable table = LetterPatterns.getGlyphTable();
+        String text = LetterPatterns.sanitize(query.getOrDefault("text", ""));
+        if (text.isEmpty()) {
+            throw new IllegalArgumentException("text is empty or has no supported characters");
+        }
+        if (text.length() > maxLetters) {
+            throw new IllegalArgumentException("text is longer than " + maxLetters + " letters");
+        }
+        int columns = parseInt(query, "columns", text.length(), 1, maxLetters);
+        return renderer.render(table, text, color(query, "bg", BannerColor.WHITE), color(query, "fg", BannerColor.BLACK),
+                parseInt(query, "scale", 4, 1, maxScale), columns);
+    }
+
+    private RasterImage renderAtlas(Map<String, String> query) {
+        return renderer.atlas(LetterPatterns.getGlyphTable(), color(query, "bg", BannerColor.WHITE),
+                color(query, "fg", BannerColor.BLACK), parseInt(query, "scale", 2, 1, maxScale)).image();
+    }
+
+    private void handle(HttpExchange exchange, Function<Map<String, String>, RasterImage> render)
+            throws IOException {
+        try (exchange) {
+            if (!exchange.getRequestMethod().equals("GET")) {
+                send(exchange, 405, "text/plain", "Only GET is supported".getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            byte[] png;
+            try {
+                png = PngEncoder.encode(render.apply(parseQuery(exchange.getRequestURI().getRawQuery())));
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, "text/plain", String.valueOf(e.getMessage()).getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+            exchange.getResponseHeaders().set("Cache-Control", "public, max-age=300");
+            send(exchange, 200, "image/png", png);
+        }
+    }
+
+    private static void send(HttpExchange exchange, int status, String contentType, byte[] body) throws IOException {
+        exchange.getResponseHeaders().set("Content-Type", contentType);
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int equals = pair.indexOf('=');
+            String key = equals < 0 ? pair : pair.substring(0, equals);
+            String value = equals < 0 ? "" : pair.substring(equals + 1);
+            query.put(URLDecoder.decode(key, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return query;
+    }
+
+    private static BannerColor color(Map<String, String> query, String key, BannerColor fallback) {
+        String value = query.get(key);
+        if (value == null) {
+            return fallback;
+        }
+        BannerColor color = BannerColor.byName(value, null);
+        if (color == null) {
+            throw new IllegalArgumentException("Unknown colour '" + value + "'");
+        }
+        return color;
+    }
+
+    private static int parseInt(Map<String, String> query, String key, int fallback, int min, int max) {
+        String value = query.get(key);
+        if (value == null) {
+            return fallback;
+        }
+        try {
+            return Math.max(min, Math.min(max, Integer.parseInt(value)));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(key + " must be a number");
+        }
+    }
+}
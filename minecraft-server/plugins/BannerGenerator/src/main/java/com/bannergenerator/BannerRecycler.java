@@ -0,0 +1,74 @@
+package com.bannergenerator;
+
+import org.bukkit.DyeColor;
+import org.bukkit.Material;
+import org.bukkit.entity.Player;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.inventory.PlayerInventory;
+
+/**
+ * Turns letter banners back into the materials they were made from: one plain banner and one dye per letter,
+ * in the colours recorded by {@link BannerTag#readRefund} when the banner was paid for. Banners handed out for
+ * free (creative mode, commands, the Fabric client and the API) carry no refund and cannot be recycled, so
+ * recycling never creates materials. A stack costs one tag read regardless of its glyph or pattern count.
+ */
+final class BannerRecycler {
+
+    private BannerRecycler() {
+    }
+
+    /**
+     * Whether an item is a letter banner generated by this plugin
+     */
+    static boolean isLetterBanner(ItemStack item) {
+        return item != null && item.hasItemMeta() && BannerTag.read(item.getItemMeta()) != null;
+    }
+
+    /**
+     * Recycles the stack in the player's main hand
+     *
+     * @return Number of letter banners recycled; 0 if the hand held none or only banners that were not paid for
+     */
+    static int recycleHeld(Player player) {
+        PlayerInventory inventory = player.getInventory();
+        ItemStack held = inventory.getItemInMainHand();
+        if (!held.hasItemMeta()) {
+            return 0;
+        }
+        BannerTag.Refund refund = BannerTag.readRefund(held.getItemMeta());
+        if (refund == null) {
+            return 0;
+        }
+
+        int amount = held.getAmount();
+        inventory.setItemInMainHand(null);
+        give(player, new ItemStack(material(refund.banner(), "_BANNER", Material.WHITE_BANNER), amount));
+        give(player, new ItemStack(material(refund.dye(), "_DYE", Material.BLACK_DYE), amount));
+        return amount;
+    }
+
+    /**
+     * Colour of a plain banner or dye material, the inverse of {@link #material}
+     */
+    static DyeColor colorOf(Material material, String suffix, DyeColor fallback) {
+        String name = material.name();
+        if (!name.endsWith(suffix)) {
+            return fallback;
+        }
+        try {
+            return DyeColor.valueOf(name.substring(0, name.length() - suffix.length()));
+        } catch (IllegalArgumentException e) {
+            return fallback;
+        }
+    }
+
+    private static Material material(DyeColor color, String suffix, Material fallback) {
+        Material material = Material.matchMaterial(color.name() + suffix);
+        return material != null ? material : fallback;
+    }
+
+    private static void give(Player player, ItemStack item) {
+        player.getInventory().addItem(item).values()
+                .forEach(leftover -> player.getWorld().dropItemNaturally(player.getLocation(), leftover));
+    }
+}
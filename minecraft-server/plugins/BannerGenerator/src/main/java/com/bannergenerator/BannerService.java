@@ -0,0 +1,100 @@
+package com.bannergenerator;
+
+import org.bukkit.DyeColor;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Public entry point for other plugins that need letter banners or workstation information.
+ * Obtain it through Bukkit's services manager:
+ * <pre>
+ * BannerService service = Bukkit.getServicesManager().load(BannerService.class);
+ * </pre>
+ * All futures complete on the main server thread, so callbacks may touch the world and inventories directly.
+ * A future whose work finishes after BannerGenerator was disabled completes exceptionally with an
+ * {@link IllegalStateException} instead, possibly off the main thread, because that thread can no longer be reached.
+ */
+public interface BannerService {
+
+    /**
+     * Generates one banner per character of the text.
+     * Unsupported characters are dropped and letters are upper-cased before generation.
+     *
+     * @param text The text to convert to banners
+     * @param background The base banner colour
+     * @param foreground The letter colour
+     * @return Future completed with freshly copied banners the caller may modify
+     */
+    CompletableFuture<ItemStack[]> generate(String text, DyeColor background, DyeColor foreground);
+
+    /**
+     * Generates the banners and packs them, in reading order, into containers named after the text.
+     *
+     * @param packing Container kind; {@link BannerPacking#LOOSE} is the same as {@link #generate(String, DyeColor, DyeColor)}
+     * @return Future completed with one container per {@link BannerPacking#lettersPerItem()} letters
+     */
+    CompletableFuture<ItemStack[]> generate(String text, DyeColor background, DyeColor foreground, BannerPacking packing);
+
+    /**
+     * Generates several texts in one off-thread pass.
+     *
+     * @param requests Texts and colours to generate
+     * @return Future completed with one banner array per request, in request order
+     */
+    CompletableFuture<List<ItemStack[]>> generateBatch(List<Request> requests);
+
+    /**
+     * Generates several texts in one off-thread pass, each packed into its own containers.
+     */
+    CompletableFuture<List<ItemStack[]>> generateBatch(List<Request> requests, BannerPacking packing);
+
+    /**
+     * Upper-cases the text and strips every character without a glyph
+     */
+    String sanitize(String text);
+
+    /**
+     * Whether the block at the location is a registered Banner Workstation
+     */
+    CompletableFuture<Boolean> isWorkstation(Location location);
+
+    /**
+     * Block locations of all registered Banner Workstations in the world.
+     * With {@code storage.backend: chunk} or {@code sqlite} only workstations in loaded chunks are known,
+     * which also applies to the spatial queries below.
+     */
+    CompletableFuture<List<Location>> getWorkstations(World world);
+
+    /**
+     * Closest registered Banner Workstation in the location's world, measured to the block centre
+     *
+     * @return Future completed with its block location, or empty if the world has none
+     */
+    CompletableFuture<Optional<Location>> getNearestWorkstation(Location location);
+
+    /**
+     * Registered Banner Workstations within a radius (in blocks) of the location
+     *
+     * @return Future completed with their block locations, nearest first
+     */
+    CompletableFuture<List<Location>> getWorkstationsWithin(Location center, double radius);
+
+    /**
+     * Registered Banner Workstations in one chunk. What an unloaded chunk returns depends on the storage backend:
+     * with {@code yaml} every workstation is known from startup, so the chunk does not need to be loaded. With
+     * {@code chunk} the markers live in the chunk itself and {@code sqlite} queries a chunk as it loads, so an
+     * unloaded chunk (or one whose query is still running) completes with an empty list.
+     */
+    CompletableFuture<List<Location>> getWorkstationsInChunk(World world, int chunkX, int chunkZ);
+
+    /**
+     * A single text with its colours, used for batch generation.
+     */
+    record Request(String text, DyeColor background, DyeColor foreground) {
+    }
+}
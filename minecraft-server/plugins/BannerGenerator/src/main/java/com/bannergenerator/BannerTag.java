@@ -0,0 +1,75 @@
+package com.bannergenerator;
+
+import org.bukkit.DyeColor;
+import org.bukkit.NamespacedKey;
+import org.bukkit.inventory.meta.ItemMeta;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+
+/**
+ * Compact identity tag of a generated letter banner: the character and both colours packed into one int
+ * ({@code character << 8 | background << 4 | foreground}). The key is deliberately short because it is
+ * stored with every banner. The character is stored rather than the glyph id, because ids depend on the
+ * glyph table ({@code glyphs.table}) and would name a different letter after it changes; tags written with
+ * ids under the old key {@code g} are ignored.
+ * Banners that were paid for also carry the colours of the plain banner and dye that were charged for them,
+ * which is what recycling gives back; banners handed out for free carry none.
+ */
+final class BannerTag {
+
+    static final NamespacedKey KEY = new NamespacedKey("bannergenerator", "c");
+    static final NamespacedKey REFUND_KEY = new NamespacedKey("bannergenerator", "r");
+
+    private BannerTag() {
+    }
+
+    record Value(char character, DyeColor background, DyeColor foreground) {
+    }
+
+    /**
+     * Colours of the plain banner and the dye a letter banner was made from
+     */
+    record Refund(DyeColor banner, DyeColor dye) {
+    }
+
+    static void write(ItemMeta meta, char character, DyeColor background, DyeColor foreground) {
+        meta.getPersistentDataContainer().set(KEY, PersistentDataType.INTEGER,
+                (character << 8) | (background.ordinal() << 4) | foreground.ordinal());
+    }
+
+    static void writeRefund(ItemMeta meta, Refund refund) {
+        meta.getPersistentDataContainer().set(REFUND_KEY, PersistentDataType.BYTE,
+                (byte) ((refund.banner().ordinal() << 4) | refund.dye().ordinal()));
+    }
+
+    /**
+     * @return The materials charged for the banner, or null if it was handed out for free
+     */
+    static Refund readRefund(ItemMeta meta) {
+        if (meta == null) {
+            return null;
+        }
+        Byte packed = meta.getPersistentDataContainer().get(REFUND_KEY, PersistentDataType.BYTE);
+        if (packed == null) {
+            return null;
+        }
+        DyeColor[] colors = DyeColor.values();
+        return new Refund(colors[(packed >> 4) & 15], colors[packed & 15]);
+    }
+
+    /**
+     * @return The tag, or null if the item was not generated by this plugin with a tag
+     */
+    static Value read(ItemMeta meta) {
+        if (meta == null) {
+            return null;
+        }
+        PersistentDataContainer container = meta.getPersistentDataContainer();
+        Integer packed = container.get(KEY, PersistentDataType.INTEGER);
+        if (packed == null) {
+            return null;
+        }
+        DyeColor[] colors = DyeColor.values();
+        return new Value((char) (packed >>> 8), colors[(packed >> 4) & 15], colors[packed & 15]);
+    }
+}
@@ -0,0 +1,383 @@
+package com.bannergenerator;
+
+import com.bannergenerator.core.BannerLayout;
+import com.bannergenerator.core.BannerLayout.Direction;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.Bukkit;
+import org.bukkit.DyeColor;
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.block.Banner;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockState;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.banner.Pattern;
+import org.bukkit.block.data.Directional;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.inventory.EquipmentSlot;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Places generated letters directly into the world as wall banners.
+ * Placements are grouped per chunk and spread across ticks under a fixed time budget, so even
+ * very long walls never stall the server. Unloaded chunks are either skipped or loaded
+ * asynchronously (and held with a plugin chunk ticket until their banners are placed).
+ * Banners of a player's wall are checked with a {@link BlockPlaceEvent} for that player, so protection
+ * plugins apply as if each banner had been placed by hand; the wall stops if the player logs out.
+ */
+public class BannerWallPlacer {
+
+    private final BannerGeneratorPlugin plugin;
+    private final Deque<WallJob> jobs = new ArrayDeque<>();
+
+    private long tickBudgetNanos;
+    private boolean loadChunks;
+    private int maxPendingChunkLoads;
+    private int maxLetters;
+    private int pendingChunkLoads;
+    private BukkitTask task;
+
+    public BannerWallPlacer(BannerGeneratorPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    /**
+     * Reads the wall settings from the plugin config
+     */
+    public void loadSettings() {
+        FileConfiguration config = plugin.getConfig();
+        tickBudgetNanos = (long) (Math.max(0.1, config.getDouble("wall.tick-budget-ms", 2.0)) * 1_000_000L);
+        loadChunks = config.getBoolean("wall.load-chunks", true);
+        maxPendingChunkLoads = Math.max(1, config.getInt("wall.max-pending-chunk-loads", 4));
+        maxLetters = Math.max(1, config.getInt("wall.max-letters", 1000));
+    }
+
+    public int getMaxLetters() {
+        return maxLetters;
+    }
+
+    /**
+     * Queues a wall of letter banners.
+     *
+     * @param owner Player the banners are placed as and who is notified about progress; null places
+     *              without protection checks
+     * @param wall The solid block the first banner hangs on
+     * @param face The side of the wall the banners hang on (must be horizontal)
+     * @param direction Direction the text runs in, as seen by someone reading it
+     * @param text Sanitized text, one banner per character
+     * @return Number of banners queued
+     */
+    public int placeWall(Player owner, Block wall, BlockFace face, Direction direction,
+                         String text, DyeColor background, DyeColor foreground) {
+        if (!isHorizontal(face)) {
+            throw new IllegalArgumentException("Wall banners need a horizontal face, got " + face);
+        }
+
+        Block origin = wall.getRelative(face);
+
+        WallJob job = new WallJob(owner == null ? null : owner.getUniqueId(), wall.getWorld(), face,
+                BannerGenerator.getWallBannerMaterial(background), background, foreground);
+        for (BannerLayout.Slot slot : BannerLayout.wall(text, BannerLayout.Facing.valueOf(face.name()), direction)) {
+            job.add(new Placement(origin.getX() + slot.dx(), origin.getY() + slot.dy(), origin.getZ() + slot.dz(),
+                    slot.glyph()));
+        }
+
+        jobs.addLast(job);
+        ensureRunning();
+        return text.length();
+    }
+
+    /**
+     * Cancels every queued wall owned by the player
+     *
+     * @return Number of banners that will no longer be placed
+     */
+    public int cancel(UUID owner) {
+        int dropped = 0;
+        Iterator<WallJob> iterator = jobs.iterator();
+        while (iterator.hasNext()) {
+            WallJob job = iterator.next();
+            if (owner.equals(job.owner)) {
+                dropped += job.remaining();
+                job.releaseTickets();
+                iterator.remove();
+            }
+        }
+        return dropped;
+    }
+
+    /**
+     * Stops placement; queued banners are discarded
+     */
+    public void shutdown() {
+        if (task != null) {
+            task.cancel();
+            task = null;
+        }
+        int dropped = 0;
+        for (WallJob job : jobs) {
+            dropped += job.remaining();
+            job.releaseTickets();
+        }
+        jobs.clear();
+        if (dropped > 0) {
+            plugin.getLogger().warning("Discarded " + dropped + " queued wall banner(s) on shutdown.");
+        }
+    }
+
+    private void ensureRunning() {
+        if (task == null) {
+            task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+    }
+
+    /**
+     * Works through the queued jobs until the tick budget is used up
+     */
+    private void tick() {
+        double budgetFactor = plugin.getLoadController().wallBudgetFactor();
+        if (budgetFactor <= 0) {
+            return; // Paused under critical load; the jobs stay queued
+        }
+        long deadline = System.nanoTime() + (long) (tickBudgetNanos * budgetFactor);
+        int waitingJobs = 0;
+
+        while (!jobs.isEmpty() && waitingJobs < jobs.size() && System.nanoTime() < deadline) {
+            WallJob job = jobs.peekFirst();
+            StepResult result = job.step(deadline);
+            if (result == StepResult.DONE) {
+                jobs.pollFirst();
+                job.finish();
+                waitingJobs = 0;
+            } else if (result == StepResult.WAITING) {
+                // Let other walls progress while this one waits for chunk loads
+                jobs.addLast(jobs.pollFirst());
+                waitingJobs++;
+            } else {
+                break;
+            }
+        }
+
+        if (jobs.isEmpty() && task != null) {
+            task.cancel();
+            task = null;
+        }
+    }
+
+    private static boolean isHorizontal(BlockFace face) {
+        return face == BlockFace.NORTH || face == BlockFace.SOUTH || face == BlockFace.EAST || face == BlockFace.WEST;
+    }
+
+    private enum StepResult {
+        DONE,
+        WAITING,
+        OUT_OF_TIME
+    }
+
+    private record Placement(int x, int y, int z, char glyph) {
+    }
+
+    /**
+     * Placements of one chunk, kept in text order
+     */
+    private static final class ChunkBatch {
+        final int chunkX;
+        final int chunkZ;
+        final Deque<Placement> placements = new ArrayDeque<>();
+        boolean loading;
+        boolean failed;
+        boolean ticketHeld;
+
+        ChunkBatch(int chunkX, int chunkZ) {
+            this.chunkX = chunkX;
+            this.chunkZ = chunkZ;
+        }
+    }
+
+    /**
+     * A single queued wall and its progress
+     */
+    private final class WallJob {
+        final UUID owner;
+        final World world;
+        final BlockFace face;
+        final Material material;
+        final Material item;
+        final DyeColor background;
+        final DyeColor foreground;
+        final LinkedHashMap<Long, ChunkBatch> batches = new LinkedHashMap<>();
+        final Map<Character, List<Pattern>> patternCache = new HashMap<>();
+        int total;
+        int placed;
+        int obstructed;
+        int skippedUnloaded;
+        int denied;
+
+        WallJob(UUID owner, World world, BlockFace face, Material material, DyeColor background, DyeColor foreground) {
+            this.owner = owner;
+            this.world = world;
+            this.face = face;
+            this.material = material;
+            this.item = BannerGenerator.getBannerMaterial(background);
+            this.background = background;
+            this.foreground = foreground;
+        }
+
+        void add(Placement placement) {
+            int chunkX = placement.x() >> 4;
+            int chunkZ = placement.z() >> 4;
+            long key = ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+            batches.computeIfAbsent(key, k -> new ChunkBatch(chunkX, chunkZ)).placements.addLast(placement);
+            total++;
+        }
+
+        int remaining() {
+            int remaining = 0;
+            for (ChunkBatch batch : batches.values()) {
+                remaining += batch.placements.size();
+            }
+            return remaining;
+        }
+
+        StepResult step(long deadline) {
+            Player player = owner == null ? null : Bukkit.getPlayer(owner);
+            if (owner != null && player == null) {
+                int dropped = remaining();
+                releaseTickets();
+                batches.clear();
+                plugin.getLogger().info("Dropped " + dropped + " banner(s) of a wall whose owner logged out.");
+                return StepResult.DONE;
+            }
+
+            Iterator<ChunkBatch> iterator = batches.values().iterator();
+            while (iterator.hasNext()) {
+                ChunkBatch batch = iterator.next();
+
+                if (batch.failed) {
+                    skippedUnloaded += batch.placements.size();
+                    iterator.remove();
+                    continue;
+                }
+
+                if (!world.isChunkLoaded(batch.chunkX, batch.chunkZ)) {
+                    if (!loadChunks) {
+                        skippedUnloaded += batch.placements.size();
+                        iterator.remove();
+                        continue;
+                    }
+                    requestLoad(batch);
+                    continue;
+                }
+
+                while (!batch.placements.isEmpty()) {
+                    if (System.nanoTime() >= deadline) {
+                        return StepResult.OUT_OF_TIME;
+                    }
+                    place(player, batch.placements.pollFirst());
+                }
+
+                if (batch.ticketHeld) {
+                    world.removePluginChunkTicket(batch.chunkX, batch.chunkZ, plugin);
+                    batch.ticketHeld = false;
+                }
+                iterator.remove();
+            }
+            return batches.isEmpty() ? StepResult.DONE : StepResult.WAITING;
+        }
+
+        private void requestLoad(ChunkBatch batch) {
+            if (batch.loading || pendingChunkLoads >= maxPendingChunkLoads) {
+                return;
+            }
+            batch.loading = true;
+            pendingChunkLoads++;
+            world.getChunkAtAsync(batch.chunkX, batch.chunkZ).whenComplete((chunk, error) -> {
+                pendingChunkLoads--;
+                batch.loading = false;
+                if (error != null || chunk == null) {
+                    // Given up on the next step instead of requesting the load again
+                    batch.failed = true;
+                    return;
+                }
+                if (batches.containsValue(batch) && jobs.contains(this)) {
+                    // Keep the chunk loaded until this batch has been placed
+                    batch.ticketHeld = world.addPluginChunkTicket(batch.chunkX, batch.chunkZ, plugin);
+                }
+            });
+        }
+
+        private void place(Player player, Placement placement) {
+            Block block = world.getBlockAt(placement.x(), placement.y(), placement.z());
+            Block support = block.getRelative(face.getOppositeFace());
+            if (!block.getType().isAir() || !support.getType().isSolid()) {
+                obstructed++;
+                return;
+            }
+
+            BlockState replaced = block.getState();
+            Directional data = (Directional) material.createBlockData();
+            data.setFacing(face);
+            block.setBlockData(data, false);
+
+            if (player != null) {
+                BlockPlaceEvent event = new BlockPlaceEvent(block, replaced, support, new ItemStack(item), player, true,
+                        EquipmentSlot.HAND);
+                Bukkit.getPluginManager().callEvent(event);
+                if (event.isCancelled() || !event.canBuild()) {
+                    replaced.update(true, false);
+                    denied++;
+                    return;
+                }
+            }
+
+            List<Pattern> patterns = patternCache.computeIfAbsent(placement.glyph(),
+                    glyph -> LetterPatterns.getPatternsForChar(glyph, background, foreground));
+            if (!patterns.isEmpty() && block.getState() instanceof Banner banner) {
+                banner.setPatterns(patterns);
+                banner.update(true, false);
+            }
+            plugin.getPlacedBannerIndex().add(BlockLocationKey.fromBlock(block),
+                    LetterPatterns.getGlyphTable().glyph(placement.glyph()).id(), PlacedBannerIndex.toFacing(face), false);
+            placed++;
+        }
+
+        void releaseTickets() {
+            for (ChunkBatch batch : batches.values()) {
+                if (batch.ticketHeld) {
+                    world.removePluginChunkTicket(batch.chunkX, batch.chunkZ, plugin);
+                    batch.ticketHeld = false;
+                }
+            }
+        }
+
+        void finish() {
+            Player player = owner == null ? null : Bukkit.getPlayer(owner);
+            if (player == null) {
+                return;
+            }
+            player.sendMessage(Component.text("Banner wall finished: placed " + placed + " of " + total + " banner(s).",
+                    NamedTextColor.GREEN));
+            if (denied > 0) {
+                player.sendMessage(Component.text("You are not allowed to build at " + denied + " position(s).",
+                        NamedTextColor.YELLOW));
+            }
+            if (obstructed > 0 || skippedUnloaded > 0) {
+                player.sendMessage(Component.text("Skipped " + obstructed + " obstructed or unsupported position(s) and "
+                        + skippedUnloaded + " in unloaded chunks.", NamedTextColor.YELLOW));
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.bannergenerator;
+
+import org.bukkit.Location;
+import org.bukkit.block.Block;
+
+import java.util.UUID;
+
+/**
+ * Compact immutable key representing a block's location.
+ */
+record BlockLocationKey(UUID worldId, int x, int y, int z) {
+
+    ChunkKey chunk() {
+        return new ChunkKey(worldId, x >> 4, z >> 4);
+    }
+
+    static BlockLocationKey fromBlock(Block block) {
+        Location loc = block.getLocation();
+        return new BlockLocationKey(loc.getWorld().getUID(), loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
+    }
+
+    static BlockLocationKey fromString(String raw) {
+        if (raw == null || raw.isEmpty()) {
+            return null;
+        }
+        String[] parts = raw.split(",");
+        if (parts.length != 4) {
+            return null;
+        }
+        try {
+            UUID world = UUID.fromString(parts[0]);
+            int x = Integer.parseInt(parts[1]);
+            int y = Integer.parseInt(parts[2]);
+            int z = Integer.parseInt(parts[3]);
+            return new BlockLocationKey(world, x, y, z);
+        } catch (IllegalArgumentException ex) {
+            return null;
+        }
+    }
+
+    String asString() {
+        return worldId + "," + x + "," + y + "," + z;
+    }
+
+    /**
+     * Packs the position within its chunk into a single long: y in the high bits, then x and z (4 bits each)
+     */
+    long packInChunk() {
+        return ((long) y << 8) | ((x & 15) << 4) | (z & 15);
+    }
+
+    static BlockLocationKey unpackInChunk(ChunkKey chunk, long packed) {
+        int y = (int) (packed >> 8);
+        int x = (chunk.x() << 4) | (int) ((packed >> 4) & 15);
+        int z = (chunk.z() << 4) | (int) (packed & 15);
+        return new BlockLocationKey(chunk.worldId(), x, y, z);
+    }
+}
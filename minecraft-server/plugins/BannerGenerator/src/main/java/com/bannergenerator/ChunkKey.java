@@ -0,0 +1,15 @@
+package com.bannergenerator;
+
+import org.bukkit.Chunk;
+
+import java.util.UUID;
+
+/**
+ * Compact immutable key representing a chunk within a world.
+ */
+record ChunkKey(UUID worldId, int x, int z) {
+
+    static ChunkKey fromChunk(Chunk chunk) {
+        return new ChunkKey(chunk.getWorld().getUID(), chunk.getX(), chunk.getZ());
+    }
+}
@@ -0,0 +1,170 @@
+package com.bannergenerator;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.NamespacedKey;
+import org.bukkit.World;
+import org.bukkit.persistence.PersistentDataContainer;
+import org.bukkit.persistence.PersistentDataType;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Stores the workstations of each chunk in that chunk's PersistentDataContainer as a packed long array.
+ * Markers are written straight into the chunk and saved by the server together with the chunk, so
+ * there is nothing to flush and memory only scales with loaded chunks.
+ * <p>
+ * An existing {@code workstations.yml} is migrated lazily: entries are moved into their chunk as it
+ * loads, and whatever is still pending on shutdown is written back to the file for the next start.
+ */
+class ChunkWorkstationStorage implements WorkstationStorage {
+
+    private static final long[] EMPTY = new long[0];
+
+    private final BannerGeneratorPlugin plugin;
+    private final NamespacedKey markerKey;
+    private final File legacyFile;
+    private final Map<ChunkKey, Set<BlockLocationKey>> pendingMigration = new HashMap<>();
+    private int migratedCount;
+
+    ChunkWorkstationStorage(BannerGeneratorPlugin plugin, File legacyFile) {
+        this.plugin = plugin;
+        this.markerKey = new NamespacedKey(plugin, "workstations");
+        this.legacyFile = legacyFile;
+    }
+
+    @Override
+    public void open() {
+        for (BlockLocationKey key : YamlWorkstationStorage.read(legacyFile)) {
+            pendingMigration.computeIfAbsent(key.chunk(), chunk -> new HashSet<>()).add(key);
+        }
+        if (!pendingMigration.isEmpty()) {
+            plugin.getLogger().info("Migrating workstations from " + legacyFile.getName()
+                    + " into chunk data as their chunks load (" + pendingMigration.size() + " chunk(s)).");
+        }
+    }
+
+    @Override
+    public boolean isChunkScoped() {
+        return true;
+    }
+
+    @Override
+    public Collection<BlockLocationKey> loadAll() {
+        return List.of(); // Markers are read from each chunk as it loads
+    }
+
+    @Override
+    public CompletableFuture<Collection<BlockLocationKey>> loadChunk(Chunk chunk) {
+        ChunkKey chunkKey = ChunkKey.fromChunk(chunk);
+        PersistentDataContainer container = chunk.getPersistentDataContainer();
+        long[] packed = container.getOrDefault(markerKey, PersistentDataType.LONG_ARRAY, EMPTY);
+
+        List<BlockLocationKey> keys = new ArrayList<>(packed.length);
+        for (long marker : packed) {
+            keys.add(BlockLocationKey.unpackInChunk(chunkKey, marker));
+        }
+
+        Set<BlockLocationKey> migrated = pendingMigration.remove(chunkKey);
+        if (migrated != null) {
+            for (BlockLocationKey key : migrated) {
+                if (!keys.contains(key)) {
+                    keys.add(key);
+                }
+            }
+            write(chunk, keys);
+            migratedCount += migrated.size();
+            if (pendingMigration.isEmpty()) {
+                completeMigration();
+            }
+        }
+        return CompletableFuture.completedFuture(keys);
+    }
+
+    @Override
+    public void added(BlockLocationKey key) {
+        update(key, true);
+    }
+
+    @Override
+    public void removed(BlockLocationKey key) {
+        update(key, false);
+    }
+
+    @Override
+    public void flush(Set<BlockLocationKey> index) {
+        // Markers live in chunk data and are saved with the chunk
+    }
+
+    @Override
+    public void close(Set<BlockLocationKey> index) {
+        if (pendingMigration.isEmpty()) {
+            return;
+        }
+        List<String> remaining = new ArrayList<>();
+        pendingMigration.values().forEach(keys -> keys.forEach(key -> remaining.add(key.asString())));
+        YamlWorkstationStorage.write(plugin, legacyFile, remaining);
+        plugin.getLogger().info("Migrated " + migratedCount + " workstation(s) into chunk data; "
+                + remaining.size() + " remain in " + legacyFile.getName() + " until their chunks load.");
+    }
+
+    private void update(BlockLocationKey key, boolean add) {
+        World world = Bukkit.getWorld(key.worldId());
+        if (world == null) {
+            return;
+        }
+        ChunkKey chunkKey = key.chunk();
+        Chunk chunk = world.getChunkAt(chunkKey.x(), chunkKey.z());
+
+        long marker = key.packInChunk();
+        long[] packed = chunk.getPersistentDataContainer().getOrDefault(markerKey, PersistentDataType.LONG_ARRAY, EMPTY);
+        List<Long> markers = new ArrayList<>(packed.length + 1);
+        for (long existing : packed) {
+            if (existing != marker) {
+                markers.add(existing);
+            }
+        }
+        if (add) {
+            markers.add(marker);
+        }
+
+        long[] updated = new long[markers.size()];
+        for (int i = 0; i < updated.length; i++) {
+            updated[i] = markers.get(i);
+        }
+        store(chunk, updated);
+    }
+
+    private void write(Chunk chunk, List<BlockLocationKey> keys) {
+        long[] packed = new long[keys.size()];
+        for (int i = 0; i < packed.length; i++) {
+            packed[i] = keys.get(i).packInChunk();
+        }
+        store(chunk, packed);
+    }
+
+    private void store(Chunk chunk, long[] packed) {
+        PersistentDataContainer container = chunk.getPersistentDataContainer();
+        if (packed.length == 0) {
+            container.remove(markerKey);
+        } else {
+            container.set(markerKey, PersistentDataType.LONG_ARRAY, packed);
+        }
+    }
+
+    private void completeMigration() {
+        File migrated = new File(legacyFile.getParentFile(), legacyFile.getName() + ".migrated");
+        if (legacyFile.exists() && legacyFile.renameTo(migrated)) {
+            plugin.getLogger().info("Workstation migration complete (" + migratedCount + " workstation(s)); "
+                    + "kept the old file as " + migrated.getName() + ".");
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.bannergenerator;
+
+import org.bukkit.DyeColor;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Arrays;
+
+/**
+ * Banners of a phrase being typed into the workstation anvil.
+ * Each update keeps the banners of the unchanged prefix and suffix and only builds the letters in between,
+ * so appending or deleting a character costs one banner (or none) instead of the whole phrase.
+ * Changing either colour rebuilds everything. Main thread only.
+ */
+final class IncrementalPhrase {
+
+    private static final ItemStack[] EMPTY = new ItemStack[0];
+
+    private final BannerGenerator bannerGenerator;
+    private String text = "";
+    private DyeColor background;
+    private DyeColor foreground;
+    private ItemStack[] banners = EMPTY;
+
+    IncrementalPhrase(BannerGenerator bannerGenerator) {
+        this.bannerGenerator = bannerGenerator;
+    }
+
+    /**
+     * Brings the banners in line with a new text and colours
+     *
+     * @param newText Sanitized text
+     * @return Number of banners that had to be built
+     */
+    int update(String newText, DyeColor newBackground, DyeColor newForeground) {
+        if (newBackground != background || newForeground != foreground) {
+            text = "";
+            banners = EMPTY;
+            background = newBackground;
+            foreground = newForeground;
+        }
+        if (newText.equals(text)) {
+            return 0;
+        }
+
+        int oldLength = text.length();
+        int newLength = newText.length();
+        int prefix = 0;
+        int shorter = Math.min(oldLength, newLength);
+        while (prefix < shorter && text.charAt(prefix) == newText.charAt(prefix)) {
+            prefix++;
+        }
+        int suffix = 0;
+        while (suffix < shorter - prefix
+                && text.charAt(oldLength - 1 - suffix) == newText.charAt(newLength - 1 - suffix)) {
+            suffix++;
+        }
+
+        ItemStack[] updated = new ItemStack[newLength];
+        System.arraycopy(banners, 0, updated, 0, prefix);
+        System.arraycopy(banners, oldLength - suffix, updated, newLength - suffix, suffix);
+        for (int i = prefix; i < newLength - suffix; i++) {
+            updated[i] = bannerGenerator.generateLetterBanner(newText.charAt(i), background, foreground);
+        }
+        int built = newLength - suffix - prefix;
+        text = newText;
+        banners = updated;
+        return built;
+    }
+
+    String getText() {
+        return text;
+    }
+
+    int length() {
+        return banners.length;
+    }
+
+    /**
+     * The banner at a position; callers must clone it before handing it out
+     */
+    ItemStack get(int index) {
+        return banners[index];
+    }
+
+    /**
+     * Fresh copies of every banner, ready to give to a player
+     */
+    ItemStack[] copyBanners() {
+        return Arrays.stream(banners).map(ItemStack::clone).toArray(ItemStack[]::new);
+    }
+}
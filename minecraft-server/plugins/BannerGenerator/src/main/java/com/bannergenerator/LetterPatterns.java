@@ -1,305 +1,133 @@
 package com.bannergenerator;
 
+import com.bannergenerator.core.BannerColor;
+import com.bannergenerator.core.BannerPattern;
+import com.bannergenerator.core.Glyph;
+import com.bannergenerator.core.GlyphTable;
+import com.bannergenerator.core.TextCodec;
+import org.bukkit.DyeColor;
+import org.bukkit.NamespacedKey;
+import org.bukkit.Registry;
 import org.bukkit.block.banner.Pattern;
 import org.bukkit.block.banner.PatternType;
-import org.bukkit.DyeColor;
 
 import java.util.ArrayList;
-import java.util.HashMap;
+import java.util.EnumMap;
 import java.util.List;
 import java.util.Map;
 
 /**
- * Defines banner patterns for each letter, number, and symbol
- * Each pattern array represents the layers needed to create the letter
+ * Bukkit adapter for the platform-independent glyph table in the core module.
+ * Turns glyph layers into banner {@link Pattern}s and maps core colours to {@link DyeColor}s.
+ * The built-in table is used unless the plugin loads a compiled one at startup.
  */
 public class LetterPatterns {
 
-    /**
-     * Gets the banner patterns for a specific character
-     * @param c The character to get patterns for
-     * @param textColor The color to use for the letter itself
-     * @return List of patterns that form the letter
-     */
-    public static List<Pattern> getPatternsForChar(char c, DyeColor textColor) {
-        List<Pattern> patterns = new ArrayList<>();
-
-        // Convert to uppercase
-        c = Character.toUpperCase(c);
-
-        switch (c) {
-            // Letters A-Z
-            case 'A':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_TOP));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_RIGHT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_MIDDLE));
-                break;
-
-            case 'B':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_TOP));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_BOTTOM));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_RIGHT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_MIDDLE));
-                break;
-
-            case 'C':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_TOP));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_BOTTOM));
-                break;
-
-            case 'D':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_TOP));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_BOTTOM));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_RIGHT));
-                break;
-
-            case 'E':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_TOP));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_MIDDLE));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_BOTTOM));
-                break;
-
-            case 'F':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_TOP));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_MIDDLE));
-                break;
-
-            case 'G':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_TOP));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_BOTTOM));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_MIDDLE));
-                patterns.add(new Pattern(textColor, PatternType.HALF_HORIZONTAL_BOTTOM));
-                break;
-
-            case 'H':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_RIGHT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_MIDDLE));
-                break;
-
-            case 'I':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_CENTER));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_TOP));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_BOTTOM));
-                break;
-
-            case 'J':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_RIGHT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_BOTTOM));
-                patterns.add(new Pattern(textColor, PatternType.SQUARE_BOTTOM_LEFT));
-                break;
-
-            case 'K':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.DIAGONAL_UP_RIGHT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_DOWNRIGHT));
-                break;
-
-            case 'L':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_BOTTOM));
-                break;
-
-            case 'M':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_RIGHT));
-                patterns.add(new Pattern(textColor, PatternType.TRIANGLE_TOP));
-                break;
-
-            case 'N':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_RIGHT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_DOWNRIGHT));
-                break;
-
-            case 'O':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_RIGHT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_TOP));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_BOTTOM));
-                break;
-
-            case 'P':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_TOP));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_MIDDLE));
-                patterns.add(new Pattern(textColor, PatternType.HALF_VERTICAL_RIGHT));
-                break;
-
-            case 'Q':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_RIGHT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_TOP));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_BOTTOM));
-                patterns.add(new Pattern(textColor, PatternType.SQUARE_BOTTOM_RIGHT));
-                break;
-
-            case 'R':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_TOP));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_MIDDLE));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_DOWNRIGHT));
-                break;
-
-            case 'S':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_TOP));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_BOTTOM));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_MIDDLE));
-                patterns.add(new Pattern(textColor, PatternType.SQUARE_TOP_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.SQUARE_BOTTOM_RIGHT));
-                break;
-
-            case 'T':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_TOP));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_CENTER));
-                break;
-
-            case 'U':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_RIGHT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_BOTTOM));
-                break;
-
-            case 'V':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_DOWNLEFT));
-                break;
-
-            case 'W':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_RIGHT));
-                patterns.add(new Pattern(textColor, PatternType.TRIANGLE_BOTTOM));
-                break;
-
-            case 'X':
-                patterns.add(new Pattern(textColor, PatternType.DIAGONAL_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_DOWNRIGHT));
-                break;
-
-            case 'Y':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_DOWNRIGHT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_DOWNLEFT));
-                patterns.add(new Pattern(textColor, PatternType.HALF_VERTICAL));
-                break;
-
-            case 'Z':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_TOP));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_BOTTOM));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_DOWNLEFT));
-                break;
-
-            // Numbers 0-9
-            case '0':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_RIGHT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_TOP));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_BOTTOM));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_DOWNLEFT));
-                break;
-
-            case '1':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_CENTER));
-                patterns.add(new Pattern(textColor, PatternType.SQUARE_TOP_LEFT));
-                break;
+    private static final Map<BannerPattern, PatternType> PATTERN_TYPES = new EnumMap<>(BannerPattern.class);
 
-            case '2':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_TOP));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_MIDDLE));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_BOTTOM));
-                patterns.add(new Pattern(textColor, PatternType.SQUARE_TOP_RIGHT));
-                patterns.add(new Pattern(textColor, PatternType.SQUARE_BOTTOM_LEFT));
-                break;
+    private static volatile GlyphTable glyphs = GlyphTable.builtIn();
+    private static volatile TextCodec codec = new TextCodec(glyphs);
 
-            case '3':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_TOP));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_MIDDLE));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_BOTTOM));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_RIGHT));
-                break;
-
-            case '4':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_MIDDLE));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_RIGHT));
-                patterns.add(new Pattern(textColor, PatternType.HALF_HORIZONTAL_BOTTOM));
-                break;
-
-            case '5':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_TOP));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_MIDDLE));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_BOTTOM));
-                patterns.add(new Pattern(textColor, PatternType.SQUARE_TOP_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.SQUARE_BOTTOM_RIGHT));
-                break;
-
-            case '6':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_TOP));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_MIDDLE));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_BOTTOM));
-                patterns.add(new Pattern(textColor, PatternType.SQUARE_BOTTOM_RIGHT));
-                break;
-
-            case '7':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_TOP));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_RIGHT));
-                break;
-
-            case '8':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_RIGHT));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_TOP));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_MIDDLE));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_BOTTOM));
-                break;
+    public static GlyphTable getGlyphTable() {
+        return glyphs;
+    }
 
-            case '9':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_TOP));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_MIDDLE));
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_RIGHT));
-                patterns.add(new Pattern(textColor, PatternType.SQUARE_TOP_LEFT));
-                break;
+    /**
+     * Replaces the active glyph table; call before any banners are generated
+     */
+    public static void setGlyphTable(GlyphTable table) {
+        glyphs = table;
+        codec = new TextCodec(table);
+    }
 
-            // Special characters
-            case '!':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_CENTER));
-                patterns.add(new Pattern(textColor, PatternType.SQUARE_BOTTOM_LEFT));
-                break;
+    public static TextCodec getCodec() {
+        return codec;
+    }
 
-            case '?':
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_TOP));
-                patterns.add(new Pattern(textColor, PatternType.HALF_VERTICAL_RIGHT));
-                patterns.add(new Pattern(textColor, PatternType.SQUARE_BOTTOM_LEFT));
-                break;
+    /**
+     * Every character that has a dedicated glyph, in display order
+     */
+    public static String getSupportedCharacters() {
+        return glyphs.characters();
+    }
 
-            case '.':
-                patterns.add(new Pattern(textColor, PatternType.SQUARE_BOTTOM_LEFT));
-                break;
+    /**
+     * The supported characters for messages, with runs such as A-Z collapsed, e.g. "A-Z, 0-9, space, ! ? . ,"
+     */
+    public static String describeSupportedCharacters() {
+        String characters = getSupportedCharacters();
+        List<String> groups = new ArrayList<>();
+        StringBuilder symbols = new StringBuilder();
+        int i = 0;
+        while (i < characters.length()) {
+            char first = characters.charAt(i);
+            int end = i;
+            while (end + 1 < characters.length() && Character.isLetterOrDigit(first)
+                    && characters.charAt(end + 1) == characters.charAt(end) + 1) {
+                end++;
+            }
+            if (end - i >= 2) {
+                groups.add(first + "-" + characters.charAt(end));
+                i = end + 1;
+                continue;
+            }
+            if (first == ' ') {
+                groups.add("space");
+            } else {
+                symbols.append(symbols.isEmpty() ? "" : " ").append(first);
+            }
+            i++;
+        }
+        if (!symbols.isEmpty()) {
+            groups.add(symbols.toString());
+        }
+        return String.join(", ", groups);
+    }
 
-            case ',':
-                patterns.add(new Pattern(textColor, PatternType.SQUARE_BOTTOM_LEFT));
-                patterns.add(new Pattern(textColor, PatternType.BORDER));
-                break;
+    /**
+     * Upper-cases the text and strips every character without a glyph
+     * @param text Raw user input
+     * @return Text containing only supported characters
+     */
+    public static String sanitize(String text) {
+        return codec.sanitize(text);
+    }
 
-            case ' ':
-                // Space - no patterns, just the background color
-                break;
+    /**
+     * Gets the banner patterns for a specific character
+     * @param c The character to get patterns for; unknown characters use the fallback glyph
+     * @param background The banner colour, used by layers that cut shapes back out
+     * @param textColor The color to use for the letter itself
+     * @return List of patterns that form the letter
+     */
+    public static List<Pattern> getPatternsForChar(char c, DyeColor background, DyeColor textColor) {
+        Glyph glyph = glyphs.glyph(c);
+        List<Pattern> patterns = new ArrayList<>(glyph.layers().size());
+        for (Glyph.Layer layer : glyph.layers()) {
+            PatternType type = toPatternType(layer.pattern());
+            if (type != null) {
+                patterns.add(new Pattern(layer.tone() == Glyph.Tone.FOREGROUND ? textColor : background, type));
+            }
+        }
+        return patterns;
+    }
 
-            default:
-                // Unknown character - use a question mark pattern
-                patterns.add(new Pattern(textColor, PatternType.STRIPE_TOP));
-                patterns.add(new Pattern(textColor, PatternType.HALF_VERTICAL_RIGHT));
-                patterns.add(new Pattern(textColor, PatternType.SQUARE_BOTTOM_LEFT));
-                break;
+    /**
+     * Resolves a core pattern through the banner pattern registry
+     * @return The pattern type, or null when this server version does not know the pattern
+     */
+    public static PatternType toPatternType(BannerPattern pattern) {
+        synchronized (PATTERN_TYPES) {
+            return PATTERN_TYPES.computeIfAbsent(pattern,
+                    p -> Registry.BANNER_PATTERN.get(NamespacedKey.minecraft(p.key())));
         }
+    }
 
-        return patterns;
+    public static DyeColor toDyeColor(BannerColor color) {
+        return DyeColor.values()[color.ordinal()];
+    }
+
+    public static BannerColor toBannerColor(DyeColor color) {
+        return BannerColor.byOrdinal(color.ordinal());
     }
 }
@@ -0,0 +1,42 @@
+package com.bannergenerator;
+
+import org.bukkit.Bukkit;
+import org.bukkit.event.HandlerList;
+import org.bukkit.event.Listener;
+import org.bukkit.plugin.Plugin;
+
+/**
+ * Keeps a listener registered only while it has something to do.
+ * Handlers for hot events (interact, inventory clicks, explosions) cost nothing on servers where
+ * no workstation is loaded and nobody has the interface open. Main thread only.
+ */
+final class ListenerToggle {
+
+    private final Plugin plugin;
+    private final Listener listener;
+    private boolean registered;
+
+    ListenerToggle(Plugin plugin, Listener listener) {
+        this.plugin = plugin;
+        this.listener = listener;
+    }
+
+    /**
+     * Registers or unregisters the listener; does nothing when it is already in the requested state
+     */
+    void setActive(boolean active) {
+        if (active == registered || (active && !plugin.isEnabled())) {
+            return;
+        }
+        if (active) {
+            Bukkit.getPluginManager().registerEvents(listener, plugin);
+        } else {
+            HandlerList.unregisterAll(listener);
+        }
+        registered = active;
+    }
+
+    boolean isActive() {
+        return registered;
+    }
+}
@@ -0,0 +1,243 @@
+package com.bannergenerator;
+
+import org.bukkit.Bukkit;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sheds optional work while the server is lagging.
+ * <p>
+ * The controller samples Paper's average tick time (MSPT over the last 100 ticks) and moves between three
+ * levels. It escalates as soon as a threshold is crossed, but steps down one level only after MSPT stayed a
+ * margin below the threshold for several samples in a row, so it does not flap around a limit. The rest of the
+ * plugin asks it how much to do: previews pause, wall placement gets a smaller tick budget, batched saves run
+ * less often and finished generation jobs are handed out a few per tick. Only the delivery is deferred: generation
+ * itself still starts right away on an async thread, where it does not cost tick time. Every transition is logged
+ * and kept for {@code /bannergenerator stats}. Main thread only, except {@link #submit}.
+ */
+final class LoadController {
+
+    private static final int HISTORY_SIZE = 8;
+
+    enum Level {
+        NORMAL(1.0, 1, Integer.MAX_VALUE),
+        ELEVATED(0.5, 2, 4),
+        CRITICAL(0.0, 4, 1);
+
+        private final double wallBudgetFactor;
+        private final int flushStride;
+        private final int deliveriesPerTick;
+
+        Level(double wallBudgetFactor, int flushStride, int deliveriesPerTick) {
+            this.wallBudgetFactor = wallBudgetFactor;
+            this.flushStride = flushStride;
+            this.deliveriesPerTick = deliveriesPerTick;
+        }
+    }
+
+    /**
+     * A level change with the MSPT that caused it
+     */
+    record Transition(long timeMillis, Level from, Level to, double mspt) {
+    }
+
+    /**
+     * A queued delivery and what to do instead if the plugin is disabled before it runs
+     */
+    private record Job(Runnable run, Runnable abandon) {
+    }
+
+    private final BannerGeneratorPlugin plugin;
+    private final Deque<Job> deferred = new ConcurrentLinkedDeque<>();
+    private final Deque<Transition> history = new ArrayDeque<>();
+    private final AtomicLong deferredTotal = new AtomicLong();
+
+    private boolean enabled;
+    private long sampleTicks;
+    private double elevatedMspt;
+    private double criticalMspt;
+    private double recoverMargin;
+    private int recoverSamples;
+
+    private volatile Level level = Level.NORMAL;
+    private double lastMspt;
+    private int calmSamples;
+    private int transitions;
+    private BukkitTask sampleTask;
+    private BukkitTask drainTask;
+
+    LoadController(BannerGeneratorPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    void loadSettings() {
+        FileConfiguration config = plugin.getConfig();
+        enabled = config.getBoolean("load.enabled", true);
+        sampleTicks = Math.max(1L, config.getLong("load.sample-interval-ticks", 20L));
+        elevatedMspt = config.getDouble("load.elevated-mspt", 40.0);
+        criticalMspt = Math.max(elevatedMspt, config.getDouble("load.critical-mspt", 48.0));
+        recoverMargin = Math.max(0.0, config.getDouble("load.recover-margin-mspt", 5.0));
+        recoverSamples = Math.max(1, config.getInt("load.recover-samples", 5));
+    }
+
+    void start() {
+        if (enabled && sampleTask == null) {
+            sampleTask = Bukkit.getScheduler().runTaskTimer(plugin, this::sample, sampleTicks, sampleTicks);
+        }
+    }
+
+    /**
+     * Stops sampling and abandons every deferred job, so no caller is left waiting. The jobs themselves are not
+     * run: the plugin is already disabled, so anything they schedule would be refused.
+     */
+    void shutdown() {
+        if (sampleTask != null) {
+            sampleTask.cancel();
+            sampleTask = null;
+        }
+        if (drainTask != null) {
+            drainTask.cancel();
+            drainTask = null;
+        }
+        while (!deferred.isEmpty()) {
+            deferred.pollFirst().abandon().run();
+        }
+    }
+
+    Level getLevel() {
+        return level;
+    }
+
+    double getLastMspt() {
+        return lastMspt;
+    }
+
+    int getTransitions() {
+        return transitions;
+    }
+
+    int getDeferredCount() {
+        return deferred.size();
+    }
+
+    long getDeferredTotal() {
+        return deferredTotal.get();
+    }
+
+    /**
+     * Most recent level changes, oldest first
+     */
+    List<Transition> getHistory() {
+        return new ArrayList<>(history);
+    }
+
+    /**
+     * Whether previews should keep the last image instead of building banners
+     */
+    boolean previewsPaused() {
+        return level != Level.NORMAL;
+    }
+
+    /**
+     * Share of the configured wall placement budget to spend this tick; 0 pauses placement
+     */
+    double wallBudgetFactor() {
+        return level.wallBudgetFactor;
+    }
+
+    /**
+     * Batched saves only write on every n-th flush interval
+     */
+    int flushStride() {
+        return level.flushStride;
+    }
+
+    /**
+     * Runs a main-thread job on the next tick, or queues it behind earlier ones while the server is under load.
+     * Queued jobs are handed out a few per tick. Every job goes through the queue, even without load, because
+     * Bukkit cancels a disabled plugin's pending tasks and {@link #shutdown} must see the job to abandon it.
+     * Safe to call from any thread.
+     *
+     * @param abandon Runs instead of the job if the plugin is disabled while it is queued
+     */
+    void submit(Runnable job, Runnable abandon) {
+        if (level != Level.NORMAL || !deferred.isEmpty()) {
+            deferredTotal.incrementAndGet();
+        }
+        deferred.addLast(new Job(job, abandon));
+        if (Bukkit.isPrimaryThread()) {
+            startDraining();
+        } else {
+            Bukkit.getScheduler().runTask(plugin, this::startDraining);
+        }
+    }
+
+    private void startDraining() {
+        if (drainTask == null && !deferred.isEmpty()) {
+            drainTask = Bukkit.getScheduler().runTaskTimer(plugin, this::drain, 1L, 1L);
+        }
+    }
+
+    private void drain() {
+        for (int i = 0; i < level.deliveriesPerTick && !deferred.isEmpty(); i++) {
+            deferred.pollFirst().run().run();
+        }
+        if (deferred.isEmpty()) {
+            drainTask.cancel();
+            drainTask = null;
+        }
+    }
+
+    private void sample() {
+        double mspt = Bukkit.getAverageTickTime();
+        lastMspt = mspt;
+        Level target = mspt >= criticalMspt ? Level.CRITICAL : mspt >= elevatedMspt ? Level.ELEVATED : Level.NORMAL;
+        if (target.ordinal() > level.ordinal()) {
+            calmSamples = 0;
+            transition(target, mspt);
+            return;
+        }
+        double threshold = (level == Level.CRITICAL ? criticalMspt : elevatedMspt) - recoverMargin;
+        if (level == Level.NORMAL || mspt >= threshold) {
+            calmSamples = 0;
+            return;
+        }
+        // Recover one level at a time once the server stayed calm long enough
+        if (++calmSamples >= recoverSamples) {
+            calmSamples = 0;
+            transition(Level.values()[level.ordinal() - 1], mspt);
+        }
+    }
+
+    private void transition(Level to, double mspt) {
+        Transition transition = new Transition(System.currentTimeMillis(), level, to, mspt);
+        level = to;
+        transitions++;
+        history.addLast(transition);
+        if (history.size() > HISTORY_SIZE) {
+            history.pollFirst();
+        }
+        plugin.getLogger().info("Server load " + transition.from() + " -> " + to + " at "
+                + String.format(Locale.ROOT, "%.1f", mspt) + " MSPT: " + describe(to));
+    }
+
+    /**
+     * What the plugin does at a level, for logs and stats
+     */
+    static String describe(Level level) {
+        return switch (level) {
+            case NORMAL -> "full service";
+            case ELEVATED -> "previews paused, wall placement at half budget, saves every 2nd interval, "
+                    + "up to 4 deliveries per tick";
+            case CRITICAL -> "previews and wall placement paused, saves every 4th interval, 1 delivery per tick";
+        };
+    }
+}
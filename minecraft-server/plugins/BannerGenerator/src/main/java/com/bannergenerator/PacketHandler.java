@@ -1,44 +1,88 @@
 package com.bannergenerator;
 
-import io.papermc.paper.network.ChannelInitializeListenerHolder;
+import com.bannergenerator.core.BannerColor;
+import com.bannergenerator.core.RequestRateLimiter;
+import com.bannergenerator.core.protocol.BannerProtocol;
+import com.bannergenerator.core.protocol.GenerateRequest;
+import com.bannergenerator.core.protocol.GenerateResult;
+import com.bannergenerator.core.protocol.Handshake;
 import org.bukkit.Bukkit;
 import org.bukkit.DyeColor;
+import org.bukkit.configuration.file.FileConfiguration;
 import org.bukkit.entity.Player;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.Listener;
+import org.bukkit.event.player.PlayerQuitEvent;
+import org.bukkit.event.player.PlayerRegisterChannelEvent;
+import org.bukkit.inventory.ItemStack;
 import org.bukkit.plugin.messaging.PluginMessageListener;
 
-import java.io.ByteArrayInputStream;
-import java.io.ByteArrayOutputStream;
-import java.io.DataInputStream;
-import java.io.DataOutputStream;
 import java.io.IOException;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * Handles custom packet communication between Paper server and Fabric client.
+ * Clients receive a one-time capability handshake as soon as they register the handshake channel,
+ * so every later message can stay small and the client never sends requests the server would reject.
  */
-public class PacketHandler implements PluginMessageListener {
+public class PacketHandler implements PluginMessageListener, Listener {
 
-    private static final String CHANNEL_NAMESPACE = "bannergenerator";
-    private static final String OPEN_GUI_CHANNEL = CHANNEL_NAMESPACE + ":open_gui";
-    private static final String GENERATE_CHANNEL = CHANNEL_NAMESPACE + ":generate";
+    private static final String HANDSHAKE_CHANNEL = BannerProtocol.channel(BannerProtocol.HANDSHAKE);
+    private static final String OPEN_GUI_CHANNEL = BannerProtocol.channel(BannerProtocol.OPEN_GUI);
+    private static final String GENERATE_CHANNEL = BannerProtocol.channel(BannerProtocol.GENERATE);
+    private static final String RESULT_CHANNEL = BannerProtocol.channel(BannerProtocol.RESULT);
+
+    /**
+     * Request ids remembered per player for answering retries without generating again
+     */
+    private static final int REMEMBERED_REQUESTS = 32;
+
+    /**
+     * Banners handed out per tick; larger jobs report progress after every slice
+     */
+    private static final int DELIVERY_SLICE = 16;
+
+    private static final byte[] OPEN_GUI_PAYLOAD = new byte[0];
 
     private final BannerGeneratorPlugin plugin;
-    private final BannerGenerator bannerGenerator = new BannerGenerator();
+    private final BannerService bannerService;
+    private final Map<UUID, RequestRateLimiter> rateLimiters = new ConcurrentHashMap<>();
+    private final Map<UUID, RecentRequests> recentRequests = new ConcurrentHashMap<>();
+
+    private int maxTextLength;
+    private long cooldownMillis;
+    private int requestsPerMinute;
+    private byte[] handshakePayload;
 
-    public PacketHandler(BannerGeneratorPlugin plugin) {
+    public PacketHandler(BannerGeneratorPlugin plugin, BannerService bannerService) {
         this.plugin = plugin;
+        this.bannerService = bannerService;
     }
 
     /**
      * Register packet channels with the server
      */
     public void register() {
-        // Register outgoing channel (server → client)
+        FileConfiguration config = plugin.getConfig();
+        maxTextLength = Math.max(1, config.getInt("max-text-length", 20));
+        cooldownMillis = Math.max(0L, config.getLong("rate-limit.cooldown-ms", 1000L));
+        requestsPerMinute = Math.max(1, config.getInt("rate-limit.requests-per-minute", 20));
+        handshakePayload = encodeHandshake();
+
+        // Register outgoing channels (server → client)
+        Bukkit.getMessenger().registerOutgoingPluginChannel(plugin, HANDSHAKE_CHANNEL);
         Bukkit.getMessenger().registerOutgoingPluginChannel(plugin, OPEN_GUI_CHANNEL);
+        Bukkit.getMessenger().registerOutgoingPluginChannel(plugin, RESULT_CHANNEL);
 
         // Register incoming channel (client → server)
         Bukkit.getMessenger().registerIncomingPluginChannel(plugin, GENERATE_CHANNEL, this);
 
-        plugin.getLogger().info("Registered plugin messaging channels");
+        plugin.getLogger().info("Registered plugin messaging channels (protocol v" + BannerProtocol.VERSION + ")");
     }
 
     /**
@@ -46,28 +90,72 @@ public class PacketHandler implements PluginMessageListener {
      */
     public void unregister() {
         Bukkit.getMessenger().unregisterIncomingPluginChannel(plugin, GENERATE_CHANNEL);
+        Bukkit.getMessenger().unregisterOutgoingPluginChannel(plugin, RESULT_CHANNEL);
         Bukkit.getMessenger().unregisterOutgoingPluginChannel(plugin, OPEN_GUI_CHANNEL);
+        Bukkit.getMessenger().unregisterOutgoingPluginChannel(plugin, HANDSHAKE_CHANNEL);
+        rateLimiters.clear();
+        recentRequests.clear();
     }
 
     /**
-     * Send packet to client telling them to open the GUI
+     * Whether the player runs the Fabric client mod (it registers the open GUI channel on join)
      */
-    public void sendOpenGuiPacket(Player player) {
-        try {
-            ByteArrayOutputStream stream = new ByteArrayOutputStream();
-            DataOutputStream out = new DataOutputStream(stream);
+    public boolean hasClientMod(Player player) {
+        return player.getListeningPluginChannels().contains(OPEN_GUI_CHANNEL);
+    }
 
-            // Can send initial data here if needed
-            // For now, just send empty packet
+    /**
+     * Send packet to client telling them to open the GUI.
+     * Everything the screen needs was delivered by the handshake, so the payload is always empty.
+     */
+    public void sendOpenGuiPacket(Player player) {
+        player.sendPluginMessage(plugin, OPEN_GUI_CHANNEL, OPEN_GUI_PAYLOAD);
+    }
 
-            player.sendPluginMessage(plugin, OPEN_GUI_CHANNEL, stream.toByteArray());
-        } catch (IOException e) {
-            plugin.getLogger().warning("Failed to send open GUI packet: " + e.getMessage());
+    /**
+     * Sends the capability handshake once the client announces it can receive it.
+     */
+    @EventHandler
+    public void onChannelRegister(PlayerRegisterChannelEvent event) {
+        if (event.getChannel().equals(HANDSHAKE_CHANNEL)) {
+            event.getPlayer().sendPluginMessage(plugin, HANDSHAKE_CHANNEL, handshakePayload);
         }
     }
 
+    @EventHandler
+    public void onPlayerQuit(PlayerQuitEvent event) {
+        rateLimiters.remove(event.getPlayer().getUniqueId());
+        recentRequests.remove(event.getPlayer().getUniqueId());
+    }
+
     /**
-     * Receive generation request from client
+     * Builds the handshake from the glyph table and config.
+     * The content is fixed for the lifetime of the plugin, so it is encoded once and reused for every join.
+     */
+    private byte[] encodeHandshake() {
+        return new Handshake(
+                BannerProtocol.VERSION,
+                LetterPatterns.getSupportedCharacters(),
+                Arrays.stream(BannerColor.values()).map(Handshake.PaletteColor::of).toList(),
+                maxTextLength,
+                (int) cooldownMillis,
+                requestsPerMinute
+        ).encode();
+    }
+
+    /**
+     * Records a request for the player, returning false when it exceeds the announced limits.
+     */
+    private boolean tryAcquire(Player player) {
+        return rateLimiters.computeIfAbsent(player.getUniqueId(),
+                        id -> new RequestRateLimiter(cooldownMillis, requestsPerMinute))
+                .tryAcquire(System.currentTimeMillis());
+    }
+
+    /**
+     * Receive generation request from client.
+     * Every request is answered on the result channel; a retried id gets the latest known result
+     * for it instead of being generated again.
      */
     @Override
     public void onPluginMessageReceived(String channel, Player player, byte[] message) {
@@ -75,49 +163,158 @@ public class PacketHandler implements PluginMessageListener {
             return;
         }
 
+        plugin.getTraceRecorder().recordGenerate(player, message);
+
+        GenerateRequest request;
         try {
-            ByteArrayInputStream stream = new ByteArrayInputStream(message);
-            DataInputStream in = new DataInputStream(stream);
-
-            // Read data from client
-            String text = in.readUTF();
-            String bannerColorName = in.readUTF();
-            String dyeColorName = in.readUTF();
-
-            // Validate and parse colors
-            DyeColor bannerColor;
-            DyeColor dyeColor;
-
-            try {
-                bannerColor = DyeColor.valueOf(bannerColorName.toUpperCase());
-            } catch (IllegalArgumentException e) {
-                bannerColor = DyeColor.WHITE;
-            }
+            request = GenerateRequest.decode(message);
+        } catch (IOException e) {
+            plugin.getLogger().warning("Failed to read generate packet: " + e.getMessage());
+            return;
+        }
 
-            try {
-                dyeColor = DyeColor.valueOf(dyeColorName.toUpperCase());
-            } catch (IllegalArgumentException e) {
-                dyeColor = DyeColor.BLACK;
-            }
+        RecentRequests recent = recentRequests.computeIfAbsent(player.getUniqueId(), id -> new RecentRequests());
+        GenerateResult previous = recent.get(request.requestId());
+        if (previous != null) {
+            player.sendPluginMessage(plugin, RESULT_CHANNEL, previous.encode());
+            return;
+        }
+
+        if (!tryAcquire(player)) {
+            // Not remembered, so a later retry with the same id is processed normally
+            player.sendPluginMessage(plugin, RESULT_CHANNEL, new GenerateResult(request.requestId(),
+                    GenerateResult.Status.RATE_LIMITED, 0, 0, "You are generating banners too quickly. Please wait a moment.").encode());
+            return;
+        }
+
+        ParsedRequest parsed = parse(request);
+        if (parsed == null) {
+            sendResult(player, new GenerateResult(request.requestId(), GenerateResult.Status.INVALID, 0, 0,
+                    "Nothing to generate: the text is empty or longer than " + maxTextLength + " letters."));
+            return;
+        }
+
+        int total = parsed.text().length();
+        sendResult(player, new GenerateResult(request.requestId(), GenerateResult.Status.ACCEPTED, 0, total, ""));
 
-            // Sanitize text
-            String cleaned = text.toUpperCase().replaceAll("[^A-Z0-9 !?.,]", "");
-            if (cleaned.isEmpty() || cleaned.length() > 20) {
+        // Generate banners off-thread, then give them on the main thread
+        BannerPacking packing = plugin.getDeliveryPacking(total);
+        bannerService.generate(parsed.text(), parsed.background(), parsed.foreground(), packing).whenComplete((items, error) -> {
+            if (!player.isOnline()) {
                 return;
             }
+            if (error != null) {
+                plugin.getLogger().warning("Failed to generate banners for " + player.getName() + ": " + error.getMessage());
+                sendResult(player, new GenerateResult(request.requestId(), GenerateResult.Status.FAILED, 0, total,
+                        "Banner generation failed."));
+                return;
+            }
+            deliver(player, request.requestId(), parsed.text(), items, packing);
+        });
+    }
 
-            // Generate banners
-            var banners = bannerGenerator.generateLetterBanners(cleaned, bannerColor, dyeColor);
+    /**
+     * Hands the items to the player, at most {@link #DELIVERY_SLICE} per tick with a progress
+     * report after each slice, and finishes with {@link GenerateResult.Status#COMPLETED}.
+     * Packed texts are a few containers and usually arrive in one go.
+     */
+    private void deliver(Player player, int requestId, String text, ItemStack[] items, BannerPacking packing) {
+        int total = text.length();
+        String done = "Created " + total + " banner(s) for \"" + text + "\"!";
+        if (items.length <= DELIVERY_SLICE) {
+            give(player, items, 0, items.length);
+            sendResult(player, new GenerateResult(requestId, GenerateResult.Status.COMPLETED, total, total, done));
+            return;
+        }
 
-            // Give to player
-            for (var banner : banners) {
-                player.getInventory().addItem(banner.clone());
+        int[] delivered = {0};
+        Bukkit.getScheduler().runTaskTimer(plugin, task -> {
+            if (!player.isOnline()) {
+                task.cancel();
+                return;
             }
+            int end = Math.min(items.length, delivered[0] + DELIVERY_SLICE);
+            give(player, items, delivered[0], end);
+            delivered[0] = end;
+            if (end < items.length) {
+                int letters = (int) Math.min(total, (long) end * packing.lettersPerItem());
+                sendResult(player, new GenerateResult(requestId, GenerateResult.Status.PROGRESS, letters, total, ""));
+                return;
+            }
+            task.cancel();
+            sendResult(player, new GenerateResult(requestId, GenerateResult.Status.COMPLETED, total, total, done));
+        }, 0L, 1L);
+    }
+
+    private void give(Player player, ItemStack[] banners, int from, int to) {
+        for (int i = from; i < to; i++) {
+            player.getInventory().addItem(banners[i]).values()
+                    .forEach(leftover -> player.getWorld().dropItemNaturally(player.getLocation(), leftover));
+        }
+    }
 
-            player.sendMessage("§aCreated " + banners.length + " banner(s) for \"" + cleaned + "\"!");
+    /**
+     * Sends a result and remembers it as the answer to retries of the same request id
+     */
+    private void sendResult(Player player, GenerateResult result) {
+        RecentRequests recent = recentRequests.get(player.getUniqueId());
+        if (recent != null) {
+            recent.put(result.requestId(), result);
+        }
+        player.sendPluginMessage(plugin, RESULT_CHANNEL, result.encode());
+    }
 
+    /**
+     * Runs a recorded generate message through the same decoding and generation as live traffic,
+     * without rate limiting or delivering the banners.
+     *
+     * @return The generation future, or null if the message would have been rejected
+     */
+    CompletableFuture<ItemStack[]> replayGenerate(byte[] message) {
+        try {
+            ParsedRequest request = parse(GenerateRequest.decode(message));
+            return request == null ? null : bannerService.generate(request.text(), request.background(), request.foreground());
         } catch (IOException e) {
-            plugin.getLogger().warning("Failed to read generate packet: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Validates a generate request
+     *
+     * @return The sanitized request, or null if the text is empty or too long
+     */
+    private ParsedRequest parse(GenerateRequest request) {
+        // Validate and parse colors
+        DyeColor bannerColor = LetterPatterns.toDyeColor(BannerColor.byName(request.background(), BannerColor.WHITE));
+        DyeColor dyeColor = LetterPatterns.toDyeColor(BannerColor.byName(request.foreground(), BannerColor.BLACK));
+
+        // Sanitize text
+        String cleaned = bannerService.sanitize(request.text());
+        if (cleaned.isEmpty() || cleaned.length() > maxTextLength) {
+            return null;
+        }
+        return new ParsedRequest(cleaned, bannerColor, dyeColor);
+    }
+
+    private record ParsedRequest(String text, DyeColor background, DyeColor foreground) {
+    }
+
+    /**
+     * Latest result per request id, bounded to the most recent {@link #REMEMBERED_REQUESTS} ids. Main thread only.
+     */
+    private static final class RecentRequests {
+        private final LinkedHashMap<Integer, GenerateResult> results = new LinkedHashMap<>();
+
+        GenerateResult get(int requestId) {
+            return results.get(requestId);
+        }
+
+        void put(int requestId, GenerateResult result) {
+            results.put(requestId, result);
+            if (results.size() > REMEMBERED_REQUESTS) {
+                results.pollFirstEntry();
+            }
         }
     }
 }
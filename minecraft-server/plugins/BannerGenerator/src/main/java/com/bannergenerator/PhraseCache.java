@@ -0,0 +1,210 @@
+package com.bannergenerator;
+
+import org.bukkit.DyeColor;
+import org.bukkit.inventory.ItemStack;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Bounded cache of fully generated banner phrases keyed by text and colours.
+ * Admission follows TinyLFU: when the cache is full a new phrase only replaces the least recently
+ * used one if a compact frequency sketch says it has been requested more often, so one-off texts
+ * cannot flush popular ones like town names or "SHOP".
+ * Stored arrays are never handed out; callers always receive copies.
+ */
+public class PhraseCache {
+
+    private final int capacity;
+    private final LinkedHashMap<Key, Entry> entries;
+    private final FrequencySketch sketch;
+
+    private long hits;
+    private long misses;
+    private long admissions;
+    private long rejections;
+    private long evictions;
+    private long serializedBytes;
+
+    public PhraseCache(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.sketch = new FrequencySketch(this.capacity);
+    }
+
+    /**
+     * Looks up a phrase and records the access in the frequency sketch.
+     *
+     * @return Copies of the cached banners, or null when the phrase is not cached
+     */
+    public synchronized ItemStack[] get(Key key) {
+        sketch.increment(key);
+        Entry entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return copyOf(entry.banners());
+    }
+
+    /**
+     * Offers a freshly generated phrase to the cache.
+     * The array is kept as-is, so the caller must not modify it afterwards.
+     */
+    public synchronized void put(Key key, ItemStack[] banners) {
+        if (entries.containsKey(key)) {
+            return;
+        }
+
+        if (entries.size() >= capacity) {
+            Iterator<Map.Entry<Key, Entry>> eldest = entries.entrySet().iterator();
+            Map.Entry<Key, Entry> victim = eldest.next();
+            if (sketch.frequency(key) <= sketch.frequency(victim.getKey())) {
+                rejections++;
+                return;
+            }
+            eldest.remove();
+            serializedBytes -= victim.getValue().sizeBytes();
+            evictions++;
+        }
+
+        Entry entry = new Entry(banners, serializedSize(key, banners));
+        entries.put(key, entry);
+        serializedBytes += entry.sizeBytes();
+        admissions++;
+    }
+
+    public synchronized void clear() {
+        entries.clear();
+        serializedBytes = 0;
+    }
+
+    public synchronized Stats stats() {
+        return new Stats(entries.size(), capacity, hits, misses, admissions, rejections, evictions, serializedBytes);
+    }
+
+    private static ItemStack[] copyOf(ItemStack[] banners) {
+        ItemStack[] copy = new ItemStack[banners.length];
+        for (int i = 0; i < banners.length; i++) {
+            copy[i] = banners[i].clone();
+        }
+        return copy;
+    }
+
+    /**
+     * Serialized size of the banners plus the key, measured once on admission. The item format is compressed,
+     * so this is a stable measure for comparing phrases, not the heap the live item stacks take.
+     */
+    private static long serializedSize(Key key, ItemStack[] banners) {
+        long size = key.text().length() * 2L;
+        for (ItemStack banner : banners) {
+            size += banner.serializeAsBytes().length;
+        }
+        return size;
+    }
+
+    /**
+     * Identifies a phrase: the sanitized text, both colours and how the banners are packed.
+     */
+    public record Key(String text, DyeColor background, DyeColor foreground, BannerPacking packing) {
+
+        public Key(String text, DyeColor background, DyeColor foreground) {
+            this(text, background, foreground, BannerPacking.LOOSE);
+        }
+    }
+
+    private record Entry(ItemStack[] banners, long sizeBytes) {
+    }
+
+    /**
+     * Snapshot of the cache counters for sizing against real traffic.
+     *
+     * @param serializedBytes Combined compressed item size of the cached phrases; heap use is several times larger
+     */
+    public record Stats(int size, int capacity, long hits, long misses, long admissions,
+                        long rejections, long evictions, long serializedBytes) {
+
+        public double hitRate() {
+            long requests = hits + misses;
+            return requests == 0 ? 0.0 : (double) hits / requests;
+        }
+    }
+
+    /**
+     * Count-min sketch with four 4-bit counters per key, halved periodically so that
+     * old popularity fades out (the "reset" step of TinyLFU).
+     */
+    private static final class FrequencySketch {
+
+        private static final long RESET_MASK = 0x7777777777777777L;
+        private static final int[] SEEDS = {0x9E3779B9, 0x85EBCA6B, 0xC2B2AE35, 0x27D4EB2F};
+
+        private final long[] table;
+        private final int tableMask;
+        private final int sampleSize;
+        private int additions;
+
+        FrequencySketch(int capacity) {
+            int size = Integer.highestOneBit(Math.max(8, capacity) - 1) << 1;
+            this.table = new long[size];
+            this.tableMask = size - 1;
+            this.sampleSize = 10 * Math.max(8, capacity);
+        }
+
+        void increment(Object key) {
+            int hash = spread(key.hashCode());
+            boolean added = false;
+            for (int i = 0; i < SEEDS.length; i++) {
+                added |= incrementAt(indexOf(hash, i), offsetOf(hash, i));
+            }
+            if (added && ++additions >= sampleSize) {
+                reset();
+            }
+        }
+
+        int frequency(Object key) {
+            int hash = spread(key.hashCode());
+            int frequency = Integer.MAX_VALUE;
+            for (int i = 0; i < SEEDS.length; i++) {
+                int count = (int) ((table[indexOf(hash, i)] >>> offsetOf(hash, i)) & 0xFL);
+                frequency = Math.min(frequency, count);
+            }
+            return frequency;
+        }
+
+        private boolean incrementAt(int index, int offset) {
+            long mask = 0xFL << offset;
+            if ((table[index] & mask) == mask) {
+                return false;
+            }
+            table[index] += 1L << offset;
+            return true;
+        }
+
+        private void reset() {
+            for (int i = 0; i < table.length; i++) {
+                table[i] = (table[i] >>> 1) & RESET_MASK;
+            }
+            additions /= 2;
+        }
+
+        private int indexOf(int hash, int row) {
+            int h = hash * SEEDS[row];
+            return (h ^ (h >>> 16)) & tableMask;
+        }
+
+        private static int offsetOf(int hash, int row) {
+            // Each row uses a different nibble of the 64-bit slot
+            return (((hash >>> (row << 3)) & 3) << 2) + (row << 4);
+        }
+
+        private static int spread(int hash) {
+            hash ^= hash >>> 17;
+            hash *= 0xED5AD4BB;
+            hash ^= hash >>> 11;
+            return hash;
+        }
+    }
+}
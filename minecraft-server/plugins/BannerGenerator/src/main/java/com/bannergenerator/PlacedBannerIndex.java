@@ -0,0 +1,601 @@
+package com.bannergenerator;
+
+import com.bannergenerator.core.BannerLayout;
+import com.bannergenerator.core.BannerLayout.Facing;
+import com.bannergenerator.core.Glyph;
+import com.bannergenerator.core.GlyphTable;
+import org.bukkit.Bukkit;
+import org.bukkit.Tag;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.block.BlockFace;
+import org.bukkit.block.data.BlockData;
+import org.bukkit.block.data.Directional;
+import org.bukkit.block.data.Rotatable;
+import org.bukkit.event.EventHandler;
+import org.bukkit.event.EventPriority;
+import org.bukkit.event.Listener;
+import org.bukkit.event.block.BlockBreakEvent;
+import org.bukkit.event.block.BlockExplodeEvent;
+import org.bukkit.event.block.BlockPlaceEvent;
+import org.bukkit.event.entity.EntityExplodeEvent;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Index of letter banners placed in the world, so text walls can be found again.
+ * <p>
+ * Banners are kept per chunk with their glyph id and facing. Neighbouring banners with the same facing are
+ * assembled into words along two axes: across in reading order, and down two blocks per letter, as vertical
+ * walls are laid out. Placing or breaking a banner only reassembles the words next to it, and an inverted
+ * index maps each word to where it stands, so searches never touch the world.
+ * <p>
+ * The index is saved to {@code placed-banners.dat}, six bytes per banner grouped by chunk and gzip-compressed.
+ * A chunk's records are encoded again only after it changed, and changes are written in batches off the main
+ * thread. Glyph ids depend on the glyph table, so the file header records the table's characters in id order;
+ * after {@code glyphs.table} changes, stored ids are mapped to the new table by character on load, and banners
+ * whose character it lacks are dropped. Main thread only.
+ */
+final class PlacedBannerIndex implements Listener {
+
+    private static final String FILE_NAME = "placed-banners.dat";
+    private static final int MAGIC = 0x42475042; // "BGPB"
+    private static final int FORMAT_VERSION = 2;
+    private static final int STANDING_BIT = 4;
+    private static final int MAX_GLYPH_ID = (1 << 13) - 1;
+    private static final int MAX_WORD_LENGTH = 256;
+
+    /**
+     * Direction words are read in
+     */
+    enum Axis {
+        ACROSS,
+        DOWN;
+
+        BannerLayout.Step step(Facing facing) {
+            // Wall banners are two blocks tall, so vertical text skips every other block
+            return this == ACROSS ? BannerLayout.Direction.RIGHT.step(facing) : new BannerLayout.Step(0, -2, 0);
+        }
+    }
+
+    /**
+     * A run of letters between spaces or gaps
+     *
+     * @param start Position of the first letter
+     */
+    record Word(BlockLocationKey start, Facing facing, Axis axis, String text) {
+
+        BlockLocationKey at(int index) {
+            return offset(start, axis.step(facing), index);
+        }
+    }
+
+    private final BannerGeneratorPlugin plugin;
+    private final File dataFile;
+    private final Map<ChunkKey, ChunkBanners> chunks = new HashMap<>();
+    private final Map<String, Set<Word>> words = new HashMap<>();
+    private final Map<Axis, Map<BlockLocationKey, Word>> wordsAt = new EnumMap<>(Axis.class);
+    private final ListenerToggle breakListener;
+    private final Object saveLock = new Object();
+    private final AtomicLong saveSequence = new AtomicLong();
+    private long lastWrittenSequence;
+
+    private boolean enabled;
+    private int maxResults;
+    private boolean dirty;
+    private int skippedFlushes;
+    private BukkitTask flushTask;
+
+    PlacedBannerIndex(BannerGeneratorPlugin plugin) {
+        this.plugin = plugin;
+        this.dataFile = new File(plugin.getDataFolder(), FILE_NAME);
+        this.breakListener = new ListenerToggle(plugin, new BreakListener());
+        for (Axis axis : Axis.values()) {
+            wordsAt.put(axis, new HashMap<>());
+        }
+    }
+
+    void loadSettings() {
+        enabled = plugin.getConfig().getBoolean("text-index.enabled", true);
+        maxResults = Math.max(1, plugin.getConfig().getInt("text-index.max-results", 10));
+    }
+
+    boolean isEnabled() {
+        return enabled;
+    }
+
+    int getMaxResults() {
+        return maxResults;
+    }
+
+    /**
+     * Loads the saved index, registers the place listener and starts the batched saving
+     */
+    void start() {
+        if (!enabled) {
+            return;
+        }
+        load();
+        plugin.getServer().getPluginManager().registerEvents(this, plugin);
+        long flushTicks = Math.max(1L, plugin.getConfig().getLong("text-index.flush-interval-seconds", 30L)) * 20L;
+        flushTask = Bukkit.getScheduler().runTaskTimer(plugin, this::flush, flushTicks, flushTicks);
+        breakListener.setActive(!chunks.isEmpty());
+    }
+
+    void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        breakListener.setActive(false);
+        if (dirty) {
+            dirty = false;
+            write(saveSequence.incrementAndGet(), LetterPatterns.getGlyphTable().characters(), snapshot());
+        }
+    }
+
+    /**
+     * Records a placed letter banner
+     *
+     * @param standing Whether it is a standing banner rather than a wall banner
+     */
+    void add(BlockLocationKey key, int glyphId, Facing facing, boolean standing) {
+        if (!enabled || glyphId < 0 || glyphId > MAX_GLYPH_ID) {
+            return;
+        }
+        remove(key);
+        ChunkBanners chunk = chunks.computeIfAbsent(key.chunk(), k -> new ChunkBanners());
+        chunk.banners.put(key.packInChunk(), (glyphId << 3) | (standing ? STANDING_BIT : 0) | facing.ordinal());
+        chunk.encoded = null;
+        dirty = true;
+        reassemble(key, facing);
+        breakListener.setActive(true);
+    }
+
+    /**
+     * Forgets the banner at a position
+     *
+     * @return Whether one was indexed there
+     */
+    boolean remove(BlockLocationKey key) {
+        ChunkKey chunkKey = key.chunk();
+        ChunkBanners chunk = chunks.get(chunkKey);
+        if (chunk == null) {
+            return false;
+        }
+        Integer entry = chunk.banners.remove(key.packInChunk());
+        if (entry == null) {
+            return false;
+        }
+        if (chunk.banners.isEmpty()) {
+            chunks.remove(chunkKey);
+        } else {
+            chunk.encoded = null;
+        }
+        dirty = true;
+        reassemble(key, facingOf(entry));
+        if (chunks.isEmpty()) {
+            breakListener.setActive(false);
+        }
+        return true;
+    }
+
+    /**
+     * Every indexed occurrence of a word
+     *
+     * @param word Sanitized single word; case does not matter
+     */
+    List<Word> find(String word) {
+        Set<Word> hits = words.get(word.toUpperCase(Locale.ROOT));
+        return hits == null ? List.of() : new ArrayList<>(hits);
+    }
+
+    /**
+     * Checks the letters of a word that are in loaded chunks and forgets those that are no longer banners,
+     * for example after their wall was removed without a break event
+     *
+     * @return Whether the word is still intact as far as loaded chunks show
+     */
+    boolean verifyLoaded(Word word) {
+        World world = Bukkit.getWorld(word.start().worldId());
+        if (world == null) {
+            return true;
+        }
+        List<BlockLocationKey> stale = new ArrayList<>();
+        for (int i = 0; i < word.text().length(); i++) {
+            BlockLocationKey key = word.at(i);
+            if (world.isChunkLoaded(key.x() >> 4, key.z() >> 4)
+                    && !Tag.BANNERS.isTagged(world.getBlockAt(key.x(), key.y(), key.z()).getType())) {
+                stale.add(key);
+            }
+        }
+        stale.forEach(this::remove);
+        return stale.isEmpty();
+    }
+
+    int size() {
+        return chunks.values().stream().mapToInt(chunk -> chunk.banners.size()).sum();
+    }
+
+    int wordCount() {
+        return words.values().stream().mapToInt(Set::size).sum();
+    }
+
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onBlockPlace(BlockPlaceEvent event) {
+        ItemStack item = event.getItemInHand();
+        if (!Tag.BANNERS.isTagged(item.getType()) || !item.hasItemMeta()) {
+            return;
+        }
+        BannerTag.Value tag = BannerTag.read(item.getItemMeta());
+        Glyph glyph = tag == null ? null : LetterPatterns.getGlyphTable().find(tag.character());
+        if (glyph == null) {
+            return;
+        }
+        Block block = event.getBlockPlaced();
+        BlockData data = block.getBlockData();
+        Facing facing = toFacing(data instanceof Directional directional ? directional.getFacing()
+                : data instanceof Rotatable rotatable ? rotatable.getRotation() : null);
+        if (facing != null) {
+            add(BlockLocationKey.fromBlock(block), glyph.id(), facing, !(data instanceof Directional));
+        }
+    }
+
+    /**
+     * Facing of a placed banner, or null for the diagonal rotations of standing banners
+     */
+    static Facing toFacing(BlockFace face) {
+        if (face == null) {
+            return null;
+        }
+        return switch (face) {
+            case NORTH -> Facing.NORTH;
+            case EAST -> Facing.EAST;
+            case SOUTH -> Facing.SOUTH;
+            case WEST -> Facing.WEST;
+            default -> null;
+        };
+    }
+
+    /**
+     * Forgets a removed block and the banners that hung on it or stood on it
+     */
+    private void removeWithDependents(Block block) {
+        BlockLocationKey key = BlockLocationKey.fromBlock(block);
+        remove(key);
+        for (Facing facing : Facing.values()) {
+            BannerLayout.Step step = facing.step();
+            BlockLocationKey side = new BlockLocationKey(key.worldId(), key.x() + step.dx(), key.y(), key.z() + step.dz());
+            int entry = entryAt(side);
+            if (entry >= 0 && (entry & STANDING_BIT) == 0 && facingOf(entry) == facing) {
+                remove(side);
+            }
+        }
+        BlockLocationKey above = new BlockLocationKey(key.worldId(), key.x(), key.y() + 1, key.z());
+        int entry = entryAt(above);
+        if (entry >= 0 && (entry & STANDING_BIT) != 0) {
+            remove(above);
+        }
+    }
+
+    /**
+     * Rebuilds the words around a position after its banner changed
+     */
+    private void reassemble(BlockLocationKey key, Facing facing) {
+        for (Axis axis : Axis.values()) {
+            BannerLayout.Step step = axis.step(facing);
+            List<BlockLocationKey> around = List.of(offset(key, step, -1), key, offset(key, step, 1));
+            Map<BlockLocationKey, Word> at = wordsAt.get(axis);
+            for (BlockLocationKey position : around) {
+                Word word = at.get(position);
+                if (word != null) {
+                    unindex(word);
+                }
+            }
+            for (BlockLocationKey position : around) {
+                assemble(position, axis);
+            }
+        }
+    }
+
+    /**
+     * Indexes the word the letter at a position belongs to, unless it is already indexed
+     */
+    private void assemble(BlockLocationKey key, Axis axis) {
+        GlyphTable table = LetterPatterns.getGlyphTable();
+        int space = spaceId(table);
+        int entry = entryAt(key);
+        if (!isLetter(entry, space) || wordsAt.get(axis).containsKey(key)) {
+            return;
+        }
+        Facing facing = facingOf(entry);
+        BannerLayout.Step step = axis.step(facing);
+
+        BlockLocationKey start = key;
+        for (int i = 0; i < MAX_WORD_LENGTH; i++) {
+            BlockLocationKey previous = offset(start, step, -1);
+            if (!continues(entryAt(previous), facing, space)) {
+                break;
+            }
+            start = previous;
+        }
+        StringBuilder text = new StringBuilder();
+        for (BlockLocationKey position = start; text.length() < MAX_WORD_LENGTH; position = offset(position, step, 1)) {
+            int letter = entryAt(position);
+            if (!continues(letter, facing, space)) {
+                break;
+            }
+            text.append(characterOf(table, letter));
+        }
+        // Every letter of a horizontal wall is also a one-letter column; only longer columns are words
+        if (axis == Axis.DOWN && text.length() < 2) {
+            return;
+        }
+
+        Word word = new Word(start, facing, axis, text.toString());
+        words.computeIfAbsent(word.text(), k -> new HashSet<>()).add(word);
+        Map<BlockLocationKey, Word> at = wordsAt.get(axis);
+        for (int i = 0; i < text.length(); i++) {
+            at.put(word.at(i), word);
+        }
+    }
+
+    private void unindex(Word word) {
+        Set<Word> sameText = words.get(word.text());
+        if (sameText != null && sameText.remove(word) && sameText.isEmpty()) {
+            words.remove(word.text());
+        }
+        Map<BlockLocationKey, Word> at = wordsAt.get(word.axis());
+        for (int i = 0; i < word.text().length(); i++) {
+            at.remove(word.at(i), word);
+        }
+    }
+
+    /**
+     * @return The packed entry of the banner at a position, or -1 if none is indexed there
+     */
+    private int entryAt(BlockLocationKey key) {
+        ChunkBanners chunk = chunks.get(key.chunk());
+        if (chunk == null) {
+            return -1;
+        }
+        Integer entry = chunk.banners.get(key.packInChunk());
+        return entry == null ? -1 : entry;
+    }
+
+    private static boolean isLetter(int entry, int space) {
+        return entry >= 0 && (entry >>> 3) != space;
+    }
+
+    private static boolean continues(int entry, Facing facing, int space) {
+        return isLetter(entry, space) && facingOf(entry) == facing;
+    }
+
+    private static Facing facingOf(int entry) {
+        return Facing.values()[entry & 3];
+    }
+
+    private static char characterOf(GlyphTable table, int entry) {
+        int glyphId = entry >>> 3;
+        return glyphId < table.size() ? Character.toUpperCase(table.byId(glyphId).character()) : '?';
+    }
+
+    private static int spaceId(GlyphTable table) {
+        Glyph space = table.find(' ');
+        return space == null ? -1 : space.id();
+    }
+
+    private static BlockLocationKey offset(BlockLocationKey key, BannerLayout.Step step, int times) {
+        return new BlockLocationKey(key.worldId(), key.x() + step.dx() * times, key.y() + step.dy() * times,
+                key.z() + step.dz() * times);
+    }
+
+    private void load() {
+        if (!dataFile.exists()) {
+            return;
+        }
+        try (InputStream file = new BufferedInputStream(new GZIPInputStream(Files.newInputStream(dataFile.toPath())));
+             DataInputStream in = new DataInputStream(file)) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("not a placed banner index");
+            }
+            int version = in.readUnsignedByte();
+            if (version != FORMAT_VERSION) {
+                // Version 1 did not record its glyph table, so its ids cannot be trusted
+                throw new IOException("unsupported format version " + version);
+            }
+            String storedCharacters = in.readUTF();
+            GlyphTable table = LetterPatterns.getGlyphTable();
+            int[] remap = remap(storedCharacters, table);
+            int dropped = 0;
+            int chunkCount = in.readInt();
+            for (int c = 0; c < chunkCount; c++) {
+                ChunkKey key = new ChunkKey(new UUID(in.readLong(), in.readLong()), in.readInt(), in.readInt());
+                ChunkBanners chunk = new ChunkBanners();
+                int count = in.readInt();
+                for (int i = 0; i < count; i++) {
+                    long position = in.readInt();
+                    int entry = in.readUnsignedShort();
+                    int storedId = entry >>> 3;
+                    int glyphId = storedId < remap.length ? remap[storedId] : -1;
+                    if (glyphId < 0 || glyphId > MAX_GLYPH_ID) {
+                        dropped++;
+                        continue;
+                    }
+                    chunk.banners.put(position, (glyphId << 3) | (entry & 7));
+                }
+                if (!chunk.banners.isEmpty()) {
+                    chunks.put(key, chunk);
+                }
+            }
+            if (!storedCharacters.equals(table.characters())) {
+                dirty = true;
+                plugin.getLogger().info("The glyph table changed since " + FILE_NAME + " was saved; placed banners were "
+                        + "matched to it by character and " + dropped + " without a glyph were dropped.");
+            }
+        } catch (IOException e) {
+            plugin.getLogger().warning("Could not read " + FILE_NAME + ", placed banners will be indexed from scratch: "
+                    + e.getMessage());
+            chunks.clear();
+            return;
+        }
+
+        chunks.forEach((chunkKey, chunk) -> chunk.banners.keySet().forEach(packed -> {
+            BlockLocationKey key = BlockLocationKey.unpackInChunk(chunkKey, packed);
+            for (Axis axis : Axis.values()) {
+                assemble(key, axis);
+            }
+        }));
+        plugin.getLogger().info("Indexed " + size() + " placed letter banner(s) in " + wordCount() + " word(s).");
+    }
+
+    /**
+     * Writes pending changes; only chunks changed since the last flush are encoded again
+     */
+    private void flush() {
+        if (!dirty) {
+            return;
+        }
+        // Under load only every n-th interval writes
+        if (++skippedFlushes < plugin.getLoadController().flushStride()) {
+            return;
+        }
+        skippedFlushes = 0;
+        dirty = false;
+        long sequence = saveSequence.incrementAndGet();
+        String characters = LetterPatterns.getGlyphTable().characters();
+        Map<ChunkKey, byte[]> snapshot = snapshot();
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> write(sequence, characters, snapshot));
+    }
+
+    private Map<ChunkKey, byte[]> snapshot() {
+        Map<ChunkKey, byte[]> snapshot = new HashMap<>(chunks.size());
+        chunks.forEach((key, chunk) -> snapshot.put(key, chunk.encode()));
+        return snapshot;
+    }
+
+    /**
+     * Maps glyph ids of a stored table, given by its characters in id order, to ids of the current table
+     *
+     * @return The current id per stored id, -1 where the current table has no glyph for the character
+     */
+    private static int[] remap(String storedCharacters, GlyphTable table) {
+        int[] remap = new int[storedCharacters.length()];
+        for (int id = 0; id < remap.length; id++) {
+            Glyph glyph = table.find(storedCharacters.charAt(id));
+            remap[id] = glyph == null ? -1 : glyph.id();
+        }
+        return remap;
+    }
+
+    /**
+     * @param characters Characters of the glyph table the ids refer to, in id order
+     */
+    private void write(long sequence, String characters, Map<ChunkKey, byte[]> snapshot) {
+        synchronized (saveLock) {
+            if (sequence < lastWrittenSequence) {
+                return; // A newer snapshot is already on disk
+            }
+            lastWrittenSequence = sequence;
+
+            File temp = new File(dataFile.getParentFile(), FILE_NAME + ".tmp");
+            try {
+                Files.createDirectories(dataFile.getParentFile().toPath());
+                try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(
+                        new GZIPOutputStream(Files.newOutputStream(temp.toPath()))))) {
+                    out.writeInt(MAGIC);
+                    out.writeByte(FORMAT_VERSION);
+                    out.writeUTF(characters);
+                    out.writeInt(snapshot.size());
+                    for (Map.Entry<ChunkKey, byte[]> entry : snapshot.entrySet()) {
+                        ChunkKey key = entry.getKey();
+                        out.writeLong(key.worldId().getMostSignificantBits());
+                        out.writeLong(key.worldId().getLeastSignificantBits());
+                        out.writeInt(key.x());
+                        out.writeInt(key.z());
+                        out.write(entry.getValue());
+                    }
+                }
+                Files.move(temp.toPath(), dataFile.toPath(), StandardCopyOption.REPLACE_EXISTING,
+                        StandardCopyOption.ATOMIC_MOVE);
+            } catch (IOException e) {
+                plugin.getLogger().severe("Failed to save the placed banner index: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Banners of one chunk, keyed by {@link BlockLocationKey#packInChunk()}.
+     * Each value packs {@code glyphId << 3 | standing << 2 | facing}.
+     */
+    private static final class ChunkBanners {
+
+        final Map<Long, Integer> banners = new HashMap<>();
+        byte[] encoded;
+
+        /**
+         * Banner count followed by an int position and a short entry per banner; cached until the chunk changes
+         */
+        byte[] encode() {
+            if (encoded == null) {
+                ByteArrayOutputStream bytes = new ByteArrayOutputStream(4 + banners.size() * 6);
+                try (DataOutputStream out = new DataOutputStream(bytes)) {
+                    out.writeInt(banners.size());
+                    for (Map.Entry<Long, Integer> banner : banners.entrySet()) {
+                        out.writeInt(banner.getKey().intValue());
+                        out.writeShort(banner.getValue());
+                    }
+                } catch (IOException e) {
+                    throw new IllegalStateException(e); // In-memory stream
+                }
+                encoded = bytes.toByteArray();
+            }
+            return encoded;
+        }
+    }
+
+    /**
+     * Keeps the index in step with banners being broken or blown up, and with the blocks they hang on.
+     * Registered only while at least one banner is indexed.
+     */
+    private final class BreakListener implements Listener {
+
+        @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+        public void onBlockBreak(BlockBreakEvent event) {
+            removeWithDependents(event.getBlock());
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+        public void onBlockExplode(BlockExplodeEvent event) {
+            event.blockList().forEach(PlacedBannerIndex.this::removeWithDependents);
+        }
+
+        @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+        public void onEntityExplode(EntityExplodeEvent event) {
+            event.blockList().forEach(PlacedBannerIndex.this::removeWithDependents);
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.bannergenerator;
+
+import org.bukkit.Bukkit;
+import org.bukkit.DyeColor;
+import org.bukkit.Location;
+import org.bukkit.World;
+import org.bukkit.inventory.ItemStack;
+import org.bukkit.plugin.IllegalPluginAccessException;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+/**
+ * Default {@link BannerService} backed by the plugin's shared generator and workstation manager.
+ * Generation runs on the async scheduler; workstation data is only read on the main thread.
+ */
+public class SimpleBannerService implements BannerService {
+
+    private final BannerGeneratorPlugin plugin;
+    private final BannerGenerator bannerGenerator;
+    private final WorkstationManager workstationManager;
+
+    public SimpleBannerService(BannerGeneratorPlugin plugin, BannerGenerator bannerGenerator, WorkstationManager workstationManager) {
+        this.plugin = plugin;
+        this.bannerGenerator = bannerGenerator;
+        this.workstationManager = workstationManager;
+    }
+
+    @Override
+    public CompletableFuture<ItemStack[]> generate(String text, DyeColor background, DyeColor foreground) {
+        return generate(text, background, foreground, BannerPacking.LOOSE);
+    }
+
+    @Override
+    public CompletableFuture<ItemStack[]> generate(String text, DyeColor background, DyeColor foreground, BannerPacking packing) {
+        Objects.requireNonNull(text, "text");
+        Objects.requireNonNull(background, "background");
+        Objects.requireNonNull(foreground, "foreground");
+        Objects.requireNonNull(packing, "packing");
+        return supplyAsync(() -> bannerGenerator.generatePacked(sanitize(text), background, foreground, packing));
+    }
+
+    @Override
+    public CompletableFuture<List<ItemStack[]>> generateBatch(List<Request> requests) {
+        return generateBatch(requests, BannerPacking.LOOSE);
+    }
+
+    @Override
+    public CompletableFuture<List<ItemStack[]>> generateBatch(List<Request> requests, BannerPacking packing) {
+        Objects.requireNonNull(packing, "packing");
+        List<Request> snapshot = List.copyOf(requests);
+        return supplyAsync(() -> {
+            List<ItemStack[]> results = new ArrayList<>(snapshot.size());
+            for (Request request : snapshot) {
+                results.add(bannerGenerator.generatePacked(
+                        sanitize(request.text()), request.background(), request.foreground(), packing));
+            }
+            return results;
+        });
+    }
+
+    @Override
+    public String sanitize(String text) {
+        return LetterPatterns.sanitize(text);
+    }
+
+    @Override
+    public CompletableFuture<Boolean> isWorkstation(Location location) {
+        Objects.requireNonNull(location, "location");
+        return supplySync(() -> workstationManager.isWorkstation(location));
+    }
+
+    @Override
+    public CompletableFuture<List<Location>> getWorkstations(World world) {
+        Objects.requireNonNull(world, "world");
+        return supplySync(() -> workstationManager.getWorkstationLocations(world));
+    }
+
+    @Override
+    public CompletableFuture<Optional<Location>> getNearestWorkstation(Location location) {
+        Objects.requireNonNull(location, "location");
+        return supplySync(() -> Optional.ofNullable(
+                workstationManager.getNearestWorkstation(location, Double.POSITIVE_INFINITY)));
+    }
+
+    @Override
+    public CompletableFuture<List<Location>> getWorkstationsWithin(Location center, double radius) {
+        Objects.requireNonNull(center, "center");
+        return supplySync(() -> workstationManager.getWorkstationsWithin(center, radius));
+    }
+
+    @Override
+    public CompletableFuture<List<Location>> getWorkstationsInChunk(World world, int chunkX, int chunkZ) {
+        Objects.requireNonNull(world, "world");
+        return supplySync(() -> workstationManager.getWorkstationsInChunk(world, chunkX, chunkZ));
+    }
+
+    /**
+     * Runs the work on an async scheduler thread and completes the future back on the main thread
+     */
+    private <T> CompletableFuture<T> supplyAsync(Supplier<T> work) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (!plugin.isEnabled()) {
+            future.completeExceptionally(new IllegalStateException("BannerGenerator is disabled"));
+            return future;
+        }
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            try {
+                T result = work.get();
+                completeOnMainThread(future, result, null);
+            } catch (Throwable t) {
+                completeOnMainThread(future, null, t);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Runs the work on the main thread, immediately if we are already on it
+     */
+    private <T> CompletableFuture<T> supplySync(Supplier<T> work) {
+        CompletableFuture<T> future = new CompletableFuture<>();
+        if (Bukkit.isPrimaryThread()) {
+            try {
+                future.complete(work.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+            return future;
+        }
+        if (!plugin.isEnabled()) {
+            future.completeExceptionally(new IllegalStateException("BannerGenerator is disabled"));
+            return future;
+        }
+        Bukkit.getScheduler().runTask(plugin, () -> {
+            try {
+                future.complete(work.get());
+            } catch (Throwable t) {
+                future.completeExceptionally(t);
+            }
+        });
+        return future;
+    }
+
+    private <T> void completeOnMainThread(CompletableFuture<T> future, T result, Throwable error) {
+        Runnable completion = () -> {
+            if (error != null) {
+                future.completeExceptionally(error);
+            } else {
+                future.complete(result);
+            }
+        };
+        // Callbacks must not run off the main thread or after disable, where anything they schedule is refused
+        Runnable abandon = () -> future.completeExceptionally(
+                new IllegalStateException("BannerGenerator was disabled before the result could be delivered"));
+        try {
+            if (plugin.isEnabled()) {
+                // Deliveries are spread over later ticks while the server is under load
+                plugin.getLoadController().submit(completion, abandon);
+                return;
+            }
+        } catch (IllegalPluginAccessException e) {
+            // Disabled between the check and the call
+        }
+        abandon.run();
+    }
+}
@@ -0,0 +1,318 @@
+package com.bannergenerator;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.plugin.IllegalPluginAccessException;
+
+import java.io.File;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Stores workstations in an embedded SQLite database ({@code workstations.db}), one row per block with
+ * an index on world and chunk, so loading a chunk is a single index range scan.
+ * <p>
+ * All database access happens on one background thread. Adds and removes are queued and committed
+ * together in one transaction after {@code storage.sqlite.commit-delay-ms}, so a burst of changes costs a
+ * single fsync; the write-ahead log keeps committed changes across crashes. Chunk queries run on the same
+ * thread after any queued writes, so they always see the latest state.
+ * <p>
+ * An existing {@code workstations.yml} is imported in one transaction on first start and renamed to
+ * {@code workstations.yml.migrated}.
+ */
+class SqliteWorkstationStorage implements WorkstationStorage {
+
+    private static final String DRIVER = "org.sqlite.JDBC";
+
+    private final BannerGeneratorPlugin plugin;
+    private final File databaseFile;
+    private final File legacyFile;
+    private final long commitDelayMillis;
+    private final List<Change> pending = new ArrayList<>();
+
+    private ScheduledExecutorService executor;
+    private Connection connection;
+    private boolean commitScheduled;
+
+    SqliteWorkstationStorage(BannerGeneratorPlugin plugin, File databaseFile, File legacyFile) {
+        this.plugin = plugin;
+        this.databaseFile = databaseFile;
+        this.legacyFile = legacyFile;
+        this.commitDelayMillis = Math.max(0L, plugin.getConfig().getLong("storage.sqlite.commit-delay-ms", 250L));
+    }
+
+    /**
+     * Whether the server ships a SQLite JDBC driver
+     */
+    static boolean isAvailable() {
+        try {
+            Class.forName(DRIVER);
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public void open() {
+        executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "BannerGenerator-Storage");
+            thread.setDaemon(true);
+            return thread;
+        });
+        // Startup waits for the schema and migration so the first chunk loads see a ready database
+        await(executor.submit(() -> {
+            try {
+                connect();
+                migrateLegacyFile();
+            } catch (SQLException e) {
+                throw new IllegalStateException("Could not open " + databaseFile.getName(), e);
+            }
+        }));
+    }
+
+    @Override
+    public boolean isChunkScoped() {
+        return true;
+    }
+
+    @Override
+    public Collection<BlockLocationKey> loadAll() {
+        return List.of(); // Chunks are queried as they load
+    }
+
+    @Override
+    public CompletableFuture<Collection<BlockLocationKey>> loadChunk(Chunk chunk) {
+        ChunkKey chunkKey = ChunkKey.fromChunk(chunk);
+        CompletableFuture<Collection<BlockLocationKey>> future = new CompletableFuture<>();
+        executor.execute(() -> {
+            Collection<BlockLocationKey> keys;
+            try {
+                if (connection == null) {
+                    throw new SQLException("database is not open");
+                }
+                commitPending();
+                keys = query(chunkKey);
+            } catch (SQLException e) {
+                plugin.getLogger().warning("Failed to load workstations of chunk " + chunkKey.x() + "," + chunkKey.z()
+                        + ": " + e.getMessage());
+                keys = List.of();
+            }
+            Collection<BlockLocationKey> result = keys;
+            // Disabled while the query ran: the scheduler refuses new tasks, and completing here would run the
+            // callbacks on this thread while storage is being shut down
+            if (!plugin.isEnabled()) {
+                future.completeExceptionally(disabled());
+                return;
+            }
+            try {
+                Bukkit.getScheduler().runTask(plugin, () -> future.complete(result));
+            } catch (IllegalPluginAccessException e) {
+                future.completeExceptionally(disabled()); // Disabled between the check and the call
+            }
+        });
+        return future;
+    }
+
+    private static IllegalStateException disabled() {
+        return new IllegalStateException("BannerGenerator was disabled before the chunk query finished");
+    }
+
+    @Override
+    public void added(BlockLocationKey key) {
+        enqueue(new Change(key, true));
+    }
+
+    @Override
+    public void removed(BlockLocationKey key) {
+        enqueue(new Change(key, false));
+    }
+
+    @Override
+    public void flush(Set<BlockLocationKey> index) {
+        // Changes are group-committed shortly after they are queued
+    }
+
+    @Override
+    public void close(Set<BlockLocationKey> index) {
+        if (executor == null) {
+            return;
+        }
+        await(executor.submit(() -> {
+            try {
+                commitPending();
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to save workstation changes: " + e.getMessage());
+            }
+            try {
+                if (connection != null) {
+                    connection.close();
+                }
+            } catch (SQLException e) {
+                plugin.getLogger().warning("Failed to close " + databaseFile.getName() + ": " + e.getMessage());
+            }
+        }));
+        executor.shutdown();
+        executor = null;
+    }
+
+    private void enqueue(Change change) {
+        synchronized (pending) {
+            pending.add(change);
+            if (commitScheduled) {
+                return;
+            }
+            commitScheduled = true;
+        }
+        executor.schedule(() -> {
+            try {
+                commitPending();
+            } catch (SQLException e) {
+                plugin.getLogger().severe("Failed to save workstation changes: " + e.getMessage());
+            }
+        }, commitDelayMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void connect() throws SQLException {
+        if (!databaseFile.getParentFile().exists() && !databaseFile.getParentFile().mkdirs()) {
+            throw new SQLException("Unable to create plugin data folder");
+        }
+        connection = DriverManager.getConnection("jdbc:sqlite:" + databaseFile.getAbsolutePath());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("PRAGMA journal_mode=WAL");
+            statement.execute("PRAGMA synchronous=NORMAL");
+            statement.execute("CREATE TABLE IF NOT EXISTS workstations ("
+                    + "world TEXT NOT NULL, chunk_x INTEGER NOT NULL, chunk_z INTEGER NOT NULL, "
+                    + "x INTEGER NOT NULL, y INTEGER NOT NULL, z INTEGER NOT NULL, "
+                    + "PRIMARY KEY (world, x, y, z))");
+            statement.execute("CREATE INDEX IF NOT EXISTS workstations_by_chunk ON workstations (world, chunk_x, chunk_z)");
+        }
+        connection.setAutoCommit(false);
+    }
+
+    /**
+     * Writes every queued change in one transaction. Database thread only.
+     */
+    private void commitPending() throws SQLException {
+        List<Change> batch;
+        synchronized (pending) {
+            commitScheduled = false;
+            if (pending.isEmpty()) {
+                return;
+            }
+            batch = new ArrayList<>(pending);
+            pending.clear();
+        }
+        if (connection == null) {
+            throw new SQLException("database is not open, " + batch.size() + " change(s) lost");
+        }
+
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT OR IGNORE INTO workstations (world, chunk_x, chunk_z, x, y, z) VALUES (?, ?, ?, ?, ?, ?)");
+             PreparedStatement delete = connection.prepareStatement(
+                     "DELETE FROM workstations WHERE world = ? AND x = ? AND y = ? AND z = ?")) {
+            // Applied in order, so an add followed by a remove of the same block ends up removed
+            for (Change change : batch) {
+                BlockLocationKey key = change.key();
+                if (change.add()) {
+                    bindInsert(insert, key);
+                    insert.executeUpdate();
+                } else {
+                    delete.setString(1, key.worldId().toString());
+                    delete.setInt(2, key.x());
+                    delete.setInt(3, key.y());
+                    delete.setInt(4, key.z());
+                    delete.executeUpdate();
+                }
+            }
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        }
+    }
+
+    private Collection<BlockLocationKey> query(ChunkKey chunk) throws SQLException {
+        List<BlockLocationKey> keys = new ArrayList<>();
+        try (PreparedStatement select = connection.prepareStatement(
+                "SELECT x, y, z FROM workstations WHERE world = ? AND chunk_x = ? AND chunk_z = ?")) {
+            select.setString(1, chunk.worldId().toString());
+            select.setInt(2, chunk.x());
+            select.setInt(3, chunk.z());
+            try (ResultSet rows = select.executeQuery()) {
+                while (rows.next()) {
+                    keys.add(new BlockLocationKey(chunk.worldId(), rows.getInt(1), rows.getInt(2), rows.getInt(3)));
+                }
+            }
+        }
+        connection.commit(); // end the read transaction so the WAL can be checkpointed
+        return keys;
+    }
+
+    private void migrateLegacyFile() throws SQLException {
+        List<BlockLocationKey> legacy = YamlWorkstationStorage.read(legacyFile);
+        if (legacy.isEmpty()) {
+            return;
+        }
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT OR IGNORE INTO workstations (world, chunk_x, chunk_z, x, y, z) VALUES (?, ?, ?, ?, ?, ?)")) {
+            for (BlockLocationKey key : legacy) {
+                bindInsert(insert, key);
+                insert.addBatch();
+            }
+            insert.executeBatch();
+            connection.commit();
+        } catch (SQLException e) {
+            connection.rollback();
+            throw e;
+        }
+
+        File migrated = new File(legacyFile.getParentFile(), legacyFile.getName() + ".migrated");
+        if (legacyFile.renameTo(migrated)) {
+            plugin.getLogger().info("Imported " + legacy.size() + " workstation(s) into " + databaseFile.getName()
+                    + "; kept the old file as " + migrated.getName() + ".");
+        } else {
+            plugin.getLogger().warning("Imported " + legacy.size() + " workstation(s) but could not rename "
+                    + legacyFile.getName() + "; it will be imported again (without duplicates) on the next start.");
+        }
+    }
+
+    private static void bindInsert(PreparedStatement insert, BlockLocationKey key) throws SQLException {
+        ChunkKey chunk = key.chunk();
+        insert.setString(1, key.worldId().toString());
+        insert.setInt(2, chunk.x());
+        insert.setInt(3, chunk.z());
+        insert.setInt(4, key.x());
+        insert.setInt(5, key.y());
+        insert.setInt(6, key.z());
+    }
+
+    private void await(Future<?> task) {
+        try {
+            task.get(30, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            plugin.getLogger().severe("Workstation database task failed: " + cause.getMessage());
+        }
+    }
+
+    private record Change(BlockLocationKey key, boolean add) {
+    }
+}
@@ -0,0 +1,274 @@
+package com.bannergenerator;
+
+import com.bannergenerator.core.trace.TraceEvent;
+import com.bannergenerator.core.trace.TraceWriter;
+import org.bukkit.DyeColor;
+import org.bukkit.World;
+import org.bukkit.block.Block;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.entity.Player;
+
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Opt-in recorder of plugin traffic (generate messages, workstation anvil input, workstation blocks).
+ * Event handlers only enqueue a small record; a background thread encodes it into a rotating
+ * binary trace in {@code plugins/BannerGenerator/traces/}. When the queue is full events are
+ * dropped and counted rather than slowing the main thread down.
+ */
+public class TraceRecorder {
+
+    static final String FILE_SUFFIX = ".bgtrace";
+    private static final DateTimeFormatter FILE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss");
+    private static final int QUEUE_CAPACITY = 8192;
+
+    private final BannerGeneratorPlugin plugin;
+    private final File directory;
+    private final AtomicLong recorded = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+
+    private volatile boolean enabled;
+    private volatile BlockingQueue<Pending> queue;
+    private Thread writerThread;
+    private long maxFileBytes;
+    private int maxFiles;
+
+    public TraceRecorder(BannerGeneratorPlugin plugin) {
+        this.plugin = plugin;
+        this.directory = new File(plugin.getDataFolder(), "traces");
+    }
+
+    /**
+     * Reads the rotation limits and starts recording when {@code trace.enabled} is set
+     */
+    public void loadSettings() {
+        FileConfiguration config = plugin.getConfig();
+        maxFileBytes = Math.max(1L, config.getLong("trace.max-file-mb", 16L)) * 1024L * 1024L;
+        maxFiles = Math.max(1, config.getInt("trace.max-files", 5));
+        if (config.getBoolean("trace.enabled", false)) {
+            start();
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getRecorded() {
+        return recorded.get();
+    }
+
+    public long getDropped() {
+        return dropped.get();
+    }
+
+    /**
+     * Starts recording into a new trace file
+     *
+     * @return false if a recording is already running
+     */
+    public synchronized boolean start() {
+        if (enabled) {
+            return false;
+        }
+        if (!directory.exists() && !directory.mkdirs()) {
+            plugin.getLogger().warning("Unable to create trace folder " + directory);
+            return false;
+        }
+        BlockingQueue<Pending> pending = new LinkedBlockingQueue<>(QUEUE_CAPACITY);
+        queue = pending;
+        recorded.set(0);
+        dropped.set(0);
+        writerThread = new Thread(() -> writeLoop(pending), "BannerGenerator-Trace");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        enabled = true;
+        plugin.getLogger().info("Recording banner traffic to " + directory);
+        return true;
+    }
+
+    /**
+     * Stops recording and waits for queued events to be written
+     *
+     * @return false if nothing was being recorded
+     */
+    public synchronized boolean stop() {
+        if (!enabled) {
+            return false;
+        }
+        enabled = false;
+        Thread thread = writerThread;
+        writerThread = null;
+        thread.interrupt();
+        try {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        queue = null;
+        plugin.getLogger().info("Stopped trace recording (" + recorded.get() + " events, " + dropped.get() + " dropped)");
+        return true;
+    }
+
+    /**
+     * Trace files in the trace folder, oldest first
+     */
+    public List<File> listTraces() {
+        File[] files = directory.listFiles((dir, name) -> name.endsWith(FILE_SUFFIX));
+        if (files == null) {
+            return List.of();
+        }
+        return Arrays.stream(files).sorted(Comparator.comparing(File::getName)).toList();
+    }
+
+    /**
+     * Resolves a trace name from {@code /bannergenerator trace replay} inside the trace folder
+     */
+    public File resolveTrace(String name) {
+        String fileName = name.endsWith(FILE_SUFFIX) ? name : name + FILE_SUFFIX;
+        File file = new File(directory, fileName);
+        // Reject names that escape the trace folder
+        if (!directory.getAbsoluteFile().equals(file.getAbsoluteFile().getParentFile())) {
+            return null;
+        }
+        return file.isFile() ? file : null;
+    }
+
+    public void recordGenerate(Player player, byte[] payload) {
+        if (enabled) {
+            offer(player, null, new TraceEvent.Generate(payload.clone()));
+        }
+    }
+
+    public void recordAnvilPrepare(Player player, String renameText, DyeColor background, DyeColor foreground) {
+        if (enabled) {
+            offer(player, null, new TraceEvent.AnvilPrepare(renameText == null ? "" : renameText,
+                    ordinal(background), ordinal(foreground)));
+        }
+    }
+
+    public void recordAnvilClick(Player player, int rawSlot, boolean shift, String renameText,
+                                 DyeColor background, DyeColor foreground) {
+        if (enabled) {
+            offer(player, null, new TraceEvent.AnvilClick(rawSlot, shift, renameText == null ? "" : renameText,
+                    ordinal(background), ordinal(foreground)));
+        }
+    }
+
+    public void recordWorkstation(Player player, TraceEvent.Action action, Block block) {
+        if (enabled) {
+            // The world index is assigned by the writer thread when the world is first seen
+            offer(player, block.getWorld(), new TraceEvent.Workstation(action, 0, block.getX(), block.getY(), block.getZ()));
+        }
+    }
+
+    private void offer(Player player, World world, TraceEvent event) {
+        BlockingQueue<Pending> pending = queue;
+        if (pending == null) {
+            return;
+        }
+        Pending entry = new Pending(System.nanoTime(),
+                player == null ? null : player.getUniqueId(), player == null ? null : player.getName(),
+                world == null ? null : world.getUID(), world == null ? null : world.getName(), event);
+        if (!pending.offer(entry)) {
+            dropped.incrementAndGet();
+        }
+    }
+
+    private static int ordinal(DyeColor color) {
+        return color == null ? -1 : color.ordinal();
+    }
+
+    private void writeLoop(BlockingQueue<Pending> pending) {
+        TraceWriter writer = null;
+        try {
+            while (true) {
+                Pending entry;
+                try {
+                    entry = pending.poll(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    // Stop requested: drain what is left, then finish
+                    entry = pending.poll();
+                    if (entry == null) {
+                        break;
+                    }
+                    Thread.currentThread().interrupt();
+                }
+                if (entry == null) {
+                    if (writer != null) {
+                        writer.flush();
+                    }
+                    continue;
+                }
+
+                if (writer == null || writer.size() >= maxFileBytes) {
+                    if (writer != null) {
+                        writer.close();
+                    }
+                    writer = openWriter(entry.nanos());
+                    pruneOldTraces();
+                }
+                write(writer, entry);
+                recorded.incrementAndGet();
+
+                if (Thread.currentThread().isInterrupted() && pending.isEmpty()) {
+                    break;
+                }
+            }
+        } catch (IOException e) {
+            enabled = false;
+            plugin.getLogger().warning("Trace recording stopped after a write error: " + e.getMessage());
+        } finally {
+            if (writer != null) {
+                try {
+                    writer.close();
+                } catch (IOException e) {
+                    plugin.getLogger().warning("Could not close trace file: " + e.getMessage());
+                }
+            }
+        }
+    }
+
+    private void write(TraceWriter writer, Pending entry) throws IOException {
+        TraceEvent event = entry.event();
+        if (event instanceof TraceEvent.Workstation workstation && entry.worldId() != null) {
+            int world = writer.world(entry.worldId(), entry.worldName(), entry.nanos());
+            event = new TraceEvent.Workstation(workstation.action(), world, workstation.x(), workstation.y(), workstation.z());
+        }
+        writer.write(entry.nanos(), entry.actorId(), entry.actorName(), event);
+    }
+
+    private TraceWriter openWriter(long nanos) throws IOException {
+        String base = "trace-" + LocalDateTime.now().format(FILE_TIME);
+        File file = new File(directory, base + FILE_SUFFIX);
+        for (int i = 1; file.exists(); i++) {
+            file = new File(directory, base + "-" + i + FILE_SUFFIX);
+        }
+        return new TraceWriter(new BufferedOutputStream(new FileOutputStream(file)), System.currentTimeMillis(), nanos);
+    }
+
+    private void pruneOldTraces() {
+        List<File> traces = listTraces();
+        for (int i = 0; i < traces.size() - maxFiles; i++) {
+            if (!traces.get(i).delete()) {
+                plugin.getLogger().warning("Could not delete old trace " + traces.get(i).getName());
+            }
+        }
+    }
+
+    private record Pending(long nanos, UUID actorId, String actorName, UUID worldId, String worldName, TraceEvent event) {
+    }
+}
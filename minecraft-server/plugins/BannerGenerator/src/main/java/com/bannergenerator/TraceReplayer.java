@@ -0,0 +1,264 @@
+package com.bannergenerator;
+
+import com.bannergenerator.core.trace.TraceEntry;
+import com.bannergenerator.core.trace.TraceEvent;
+import com.bannergenerator.core.trace.TraceReader;
+import net.kyori.adventure.text.Component;
+import net.kyori.adventure.text.format.NamedTextColor;
+import org.bukkit.Bukkit;
+import org.bukkit.DyeColor;
+import org.bukkit.World;
+import org.bukkit.command.CommandSender;
+import org.bukkit.scheduler.BukkitTask;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Feeds a recorded trace back through the plugin's handlers to reproduce a load pattern.
+ * Replay is side-effect free: generate requests and anvil input run the same parsing, sanitizing and
+ * generation as live traffic, but nothing is handed to players, and workstation events run the handlers'
+ * checks and index updates in a dry run that is undone right away (see {@link WorkstationManager#replay}).
+ * Events run on the main thread either at their recorded pace or as fast as a per-tick time budget allows.
+ */
+public class TraceReplayer {
+
+    private static final long FAST_TICK_BUDGET_NANOS = 40_000_000L;
+
+    private final BannerGeneratorPlugin plugin;
+
+    private Replay replay;
+
+    public TraceReplayer(BannerGeneratorPlugin plugin) {
+        this.plugin = plugin;
+    }
+
+    public boolean isRunning() {
+        return replay != null;
+    }
+
+    /**
+     * Loads the trace off the main thread and starts replaying it
+     *
+     * @param realtime Honour recorded timing instead of replaying as fast as possible
+     * @return false if a replay is already running
+     */
+    public boolean start(File file, boolean realtime, CommandSender owner) {
+        if (replay != null) {
+            return false;
+        }
+        Replay pending = new Replay(file.getName(), realtime, owner);
+        replay = pending;
+
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> {
+            TraceData data;
+            try (TraceReader reader = new TraceReader(new FileInputStream(file))) {
+                List<TraceEntry> entries = reader.readAll();
+                List<TraceReader.Named> worlds = new ArrayList<>();
+                for (int i = 0; reader.world(i) != null; i++) {
+                    worlds.add(reader.world(i));
+                }
+                data = new TraceData(entries, worlds);
+            } catch (IOException e) {
+                Bukkit.getScheduler().runTask(plugin, () -> {
+                    replay = null;
+                    owner.sendMessage(Component.text("Could not read trace " + file.getName() + ": " + e.getMessage(), NamedTextColor.RED));
+                });
+                return;
+            }
+            Bukkit.getScheduler().runTask(plugin, () -> {
+                if (replay != pending) {
+                    return; // cancelled while loading
+                }
+                owner.sendMessage(Component.text("Replaying " + data.entries().size() + " event(s) from " + file.getName()
+                        + (realtime ? " in real time" : " as fast as possible") + ".", NamedTextColor.YELLOW));
+                pending.begin(data);
+            });
+        });
+        return true;
+    }
+
+    /**
+     * Stops the running replay and reports what was replayed so far
+     *
+     * @return false if no replay was running
+     */
+    public boolean cancel() {
+        if (replay == null) {
+            return false;
+        }
+        replay.finish(true);
+        return true;
+    }
+
+    private final class Replay {
+
+        private final String name;
+        private final boolean realtime;
+        private final CommandSender owner;
+        private final Map<Kind, Stat> stats = new EnumMap<>(Kind.class);
+        private final Stat generateLatency = new Stat();
+
+        private TraceData data;
+        private BukkitTask task;
+        private int next;
+        private int skipped;
+        private int pendingGenerates;
+        private boolean finished;
+        private long startNanos;
+
+        Replay(String name, boolean realtime, CommandSender owner) {
+            this.name = name;
+            this.realtime = realtime;
+            this.owner = owner;
+        }
+
+        void begin(TraceData data) {
+            this.data = data;
+            this.startNanos = System.nanoTime();
+            this.task = Bukkit.getScheduler().runTaskTimer(plugin, this::tick, 1L, 1L);
+        }
+
+        private void tick() {
+            long tickStart = System.nanoTime();
+            List<TraceEntry> entries = data.entries();
+            while (next < entries.size()) {
+                TraceEntry entry = entries.get(next);
+                if (realtime) {
+                    if (entry.offsetNanos() - entries.get(0).offsetNanos() > System.nanoTime() - startNanos) {
+                        return;
+                    }
+                } else if (System.nanoTime() - tickStart >= FAST_TICK_BUDGET_NANOS) {
+                    return;
+                }
+                next++;
+                dispatch(entry.event());
+            }
+            if (pendingGenerates == 0) {
+                finish(false);
+            }
+        }
+
+        private void dispatch(TraceEvent event) {
+            long started = System.nanoTime();
+            Kind kind;
+            switch (event) {
+                case TraceEvent.Generate generate -> {
+                    kind = Kind.GENERATE;
+                    CompletableFuture<?> future = plugin.getPacketHandler().replayGenerate(generate.payload());
+                    if (future == null) {
+                        skipped++;
+                    } else {
+                        pendingGenerates++;
+                        future.whenComplete((result, error) -> {
+                            generateLatency.add(System.nanoTime() - started);
+                            pendingGenerates--;
+                        });
+                    }
+                }
+                case TraceEvent.AnvilPrepare prepare -> {
+                    kind = Kind.ANVIL_PREPARE;
+                    plugin.getGuiManager().replayInput(prepare.renameText(), color(prepare.background()), color(prepare.foreground()));
+                }
+                case TraceEvent.AnvilClick click -> {
+                    kind = Kind.ANVIL_CLICK;
+                    if (BannerGuiManager.isResultClick(click.rawSlot(), click.shift())) {
+                        plugin.getGuiManager().replayInput(click.renameText(), color(click.background()), color(click.foreground()));
+                    }
+                }
+                case TraceEvent.Workstation workstation -> {
+                    kind = Kind.WORKSTATION;
+                    World world = resolveWorld(workstation.world());
+                    if (world == null) {
+                        skipped++;
+                    } else {
+                        plugin.getWorkstationManager().replay(workstation.action(),
+                                world.getBlockAt(workstation.x(), workstation.y(), workstation.z()));
+                    }
+                }
+            }
+            stats.computeIfAbsent(kind, k -> new Stat()).add(System.nanoTime() - started);
+        }
+
+        private World resolveWorld(int index) {
+            if (index < 0 || index >= data.worlds().size()) {
+                return null;
+            }
+            TraceReader.Named named = data.worlds().get(index);
+            World world = Bukkit.getWorld(named.id());
+            return world != null ? world : Bukkit.getWorld(named.name());
+        }
+
+        void finish(boolean cancelled) {
+            if (finished) {
+                return;
+            }
+            finished = true;
+            if (task != null) {
+                task.cancel();
+            }
+            replay = null;
+
+            long elapsed = data == null ? 0 : System.nanoTime() - startNanos;
+            owner.sendMessage(Component.text((cancelled ? "Cancelled" : "Finished") + " replay of " + name + ": "
+                    + next + " event(s) in " + millis(elapsed) + " ms, " + skipped + " skipped.", NamedTextColor.GOLD));
+            for (Map.Entry<Kind, Stat> entry : stats.entrySet()) {
+                owner.sendMessage(Component.text("  " + entry.getKey().label + ": " + entry.getValue().describe(), NamedTextColor.YELLOW));
+            }
+            if (generateLatency.count > 0) {
+                owner.sendMessage(Component.text("  generate completion: " + generateLatency.describe(), NamedTextColor.GRAY));
+            }
+        }
+    }
+
+    private static DyeColor color(int ordinal) {
+        DyeColor[] colors = DyeColor.values();
+        return ordinal >= 0 && ordinal < colors.length ? colors[ordinal] : null;
+    }
+
+    private static String millis(long nanos) {
+        return String.format("%.2f", nanos / 1_000_000.0);
+    }
+
+    private record TraceData(List<TraceEntry> entries, List<TraceReader.Named> worlds) {
+    }
+
+    private enum Kind {
+        GENERATE("generate"),
+        ANVIL_PREPARE("anvil prepare"),
+        ANVIL_CLICK("anvil click"),
+        WORKSTATION("workstation");
+
+        private final String label;
+
+        Kind(String label) {
+            this.label = label;
+        }
+    }
+
+    /**
+     * Count, average and maximum of a duration
+     */
+    private static final class Stat {
+
+        private int count;
+        private long totalNanos;
+        private long maxNanos;
+
+        void add(long nanos) {
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        String describe() {
+            return count + " x, avg " + millis(totalNanos / Math.max(1, count)) + " ms, max " + millis(maxNanos) + " ms";
+        }
+    }
+}
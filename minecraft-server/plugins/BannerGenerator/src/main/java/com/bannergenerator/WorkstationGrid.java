@@ -0,0 +1,319 @@
+package com.bannergenerator;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Spatial index of workstations per world.
+ * <p>
+ * Workstations are bucketed by chunk, for the manager's per-chunk bookkeeping, and by 256-block cell. Occupied
+ * cells are linked into a sparse pyramid: each 4096-block region lists its occupied cells and each 65536-block
+ * area its occupied regions. Nearest and radius queries descend the pyramid best-first and skip every branch
+ * whose bounding square is already too far away, so their cost depends on the workstations near the query,
+ * not on how many exist elsewhere or how far away the closest one is.
+ * Not thread-safe; the workstation manager uses it from the main thread only.
+ */
+final class WorkstationGrid {
+
+    /**
+     * Block-coordinate shift of each pyramid level: cells, regions, areas
+     */
+    private static final int[] LEVEL_SHIFTS = {8, 12, 16};
+    private static final int FAN_OUT_SHIFT = 4;
+
+    private final Map<UUID, Map<Long, Set<BlockLocationKey>>> chunks = new HashMap<>();
+    private final Map<UUID, WorldIndex> worlds = new HashMap<>();
+
+    /**
+     * A workstation with its distance from the query point
+     */
+    record Hit(BlockLocationKey key, double distanceSquared) {
+    }
+
+    void add(BlockLocationKey key) {
+        chunks.computeIfAbsent(key.worldId(), id -> new HashMap<>())
+                .computeIfAbsent(pack(key.x() >> 4, key.z() >> 4), c -> new HashSet<>())
+                .add(key);
+        worlds.computeIfAbsent(key.worldId(), id -> new WorldIndex()).add(key);
+    }
+
+    /**
+     * Removes a workstation
+     *
+     * @return Whether its chunk holds no workstation any more
+     */
+    boolean remove(BlockLocationKey key) {
+        WorldIndex index = worlds.get(key.worldId());
+        if (index != null && index.remove(key)) {
+            worlds.remove(key.worldId());
+        }
+
+        Map<Long, Set<BlockLocationKey>> inWorld = chunks.get(key.worldId());
+        if (inWorld == null) {
+            return true;
+        }
+        long chunk = pack(key.x() >> 4, key.z() >> 4);
+        Set<BlockLocationKey> inChunk = inWorld.get(chunk);
+        if (inChunk == null) {
+            return true;
+        }
+        inChunk.remove(key);
+        if (!inChunk.isEmpty()) {
+            return false;
+        }
+        inWorld.remove(chunk);
+        if (inWorld.isEmpty()) {
+            chunks.remove(key.worldId());
+        }
+        return true;
+    }
+
+    /**
+     * Live set of the workstations in a chunk, or null if it has none
+     */
+    Set<BlockLocationKey> inChunk(ChunkKey chunk) {
+        Map<Long, Set<BlockLocationKey>> inWorld = chunks.get(chunk.worldId());
+        return inWorld == null ? null : inWorld.get(pack(chunk.x(), chunk.z()));
+    }
+
+    boolean hasChunk(ChunkKey chunk) {
+        return inChunk(chunk) != null;
+    }
+
+    /**
+     * Drops every workstation of a chunk
+     *
+     * @return The removed workstations, or null if the chunk had none
+     */
+    Set<BlockLocationKey> removeChunk(ChunkKey chunk) {
+        Map<Long, Set<BlockLocationKey>> inWorld = chunks.get(chunk.worldId());
+        if (inWorld == null) {
+            return null;
+        }
+        Set<BlockLocationKey> removed = inWorld.remove(pack(chunk.x(), chunk.z()));
+        if (inWorld.isEmpty()) {
+            chunks.remove(chunk.worldId());
+        }
+        WorldIndex index = worlds.get(chunk.worldId());
+        if (removed != null && index != null) {
+            for (BlockLocationKey key : removed) {
+                if (index.remove(key)) {
+                    worlds.remove(chunk.worldId());
+                    break;
+                }
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Every chunk holding at least one workstation
+     */
+    List<ChunkKey> chunks() {
+        List<ChunkKey> occupied = new ArrayList<>();
+        chunks.forEach((worldId, inWorld) -> inWorld.keySet()
+                .forEach(chunk -> occupied.add(new ChunkKey(worldId, unpackX(chunk), unpackZ(chunk)))));
+        return occupied;
+    }
+
+    void clear() {
+        chunks.clear();
+        worlds.clear();
+    }
+
+    /**
+     * Closest workstation to a point, measured to block centres
+     *
+     * @param maxDistance Ignore workstations further away than this; {@link Double#POSITIVE_INFINITY} for no limit
+     * @return The closest hit, or null if there is none within range
+     */
+    Hit nearest(UUID worldId, double x, double y, double z, double maxDistance) {
+        WorldIndex index = worlds.get(worldId);
+        if (index == null) {
+            return null;
+        }
+        double limit = maxDistance * maxDistance;
+        Hit best = null;
+
+        PriorityQueue<Node> queue = new PriorityQueue<>(Comparator.comparingDouble(Node::distanceSquared));
+        int top = LEVEL_SHIFTS.length - 1;
+        for (long area : index.levels.get(top - 1).keySet()) {
+            queue.add(new Node(top, area, boundsDistanceSquared(top, area, x, z)));
+        }
+        while (!queue.isEmpty()) {
+            Node node = queue.poll();
+            if (node.distanceSquared() > limit) {
+                break; // Everything left in the queue is at least as far away
+            }
+            if (node.level() == 0) {
+                for (BlockLocationKey key : index.cells.get(node.packed())) {
+                    double distance = distanceSquared(key, x, y, z);
+                    if (distance <= limit) {
+                        best = new Hit(key, distance);
+                        limit = distance;
+                    }
+                }
+                continue;
+            }
+            for (long child : index.levels.get(node.level() - 1).get(node.packed())) {
+                double distance = boundsDistanceSquared(node.level() - 1, child, x, z);
+                if (distance <= limit) {
+                    queue.add(new Node(node.level() - 1, child, distance));
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Workstations within a radius of a point, nearest first
+     */
+    List<Hit> within(UUID worldId, double x, double y, double z, double radius) {
+        WorldIndex index = worlds.get(worldId);
+        if (index == null || radius < 0) {
+            return List.of();
+        }
+        List<Hit> hits = new ArrayList<>();
+        int top = LEVEL_SHIFTS.length - 1;
+        double radiusSquared = radius * radius;
+        for (long area : index.levels.get(top - 1).keySet()) {
+            collect(index, top, area, x, y, z, radiusSquared, hits);
+        }
+        hits.sort(Comparator.comparingDouble(Hit::distanceSquared));
+        return hits;
+    }
+
+    private static void collect(WorldIndex index, int level, long packed, double x, double y, double z,
+                                double radiusSquared, List<Hit> hits) {
+        if (boundsDistanceSquared(level, packed, x, z) > radiusSquared) {
+            return;
+        }
+        if (level == 0) {
+            for (BlockLocationKey key : index.cells.get(packed)) {
+                double distance = distanceSquared(key, x, y, z);
+                if (distance <= radiusSquared) {
+                    hits.add(new Hit(key, distance));
+                }
+            }
+            return;
+        }
+        for (long child : index.levels.get(level - 1).get(packed)) {
+            collect(index, level - 1, child, x, y, z, radiusSquared, hits);
+        }
+    }
+
+    /**
+     * Smallest horizontal distance from the point to any block centre inside a pyramid node
+     */
+    private static double boundsDistanceSquared(int level, long packed, double x, double z) {
+        double size = 1 << LEVEL_SHIFTS[level];
+        double minX = unpackX(packed) * size + 0.5;
+        double minZ = unpackZ(packed) * size + 0.5;
+        double dx = Math.max(0, Math.max(minX - x, x - (minX + size - 1)));
+        double dz = Math.max(0, Math.max(minZ - z, z - (minZ + size - 1)));
+        return dx * dx + dz * dz;
+    }
+
+    private static double distanceSquared(BlockLocationKey key, double x, double y, double z) {
+        double dx = key.x() + 0.5 - x;
+        double dy = key.y() + 0.5 - y;
+        double dz = key.z() + 0.5 - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+
+    private static long pack(int x, int z) {
+        return ((long) x << 32) | (z & 0xFFFFFFFFL);
+    }
+
+    private static int unpackX(long packed) {
+        return (int) (packed >> 32);
+    }
+
+    private static int unpackZ(long packed) {
+        return (int) packed;
+    }
+
+    private static long parent(long packed) {
+        return pack(unpackX(packed) >> FAN_OUT_SHIFT, unpackZ(packed) >> FAN_OUT_SHIFT);
+    }
+
+    private record Node(int level, long packed, double distanceSquared) {
+    }
+
+    /**
+     * Cells of one world plus the sparse pyramid above them.
+     * {@code levels.get(i)} maps each occupied node of level {@code i + 1} to its occupied children.
+     */
+    private static final class WorldIndex {
+
+        private final Map<Long, Set<BlockLocationKey>> cells = new HashMap<>();
+        private final List<Map<Long, Set<Long>>> levels = new ArrayList<>();
+
+        WorldIndex() {
+            for (int level = 1; level < LEVEL_SHIFTS.length; level++) {
+                levels.add(new HashMap<>());
+            }
+        }
+
+        void add(BlockLocationKey key) {
+            long cell = pack(key.x() >> LEVEL_SHIFTS[0], key.z() >> LEVEL_SHIFTS[0]);
+            Set<BlockLocationKey> inCell = cells.get(cell);
+            if (inCell == null) {
+                inCell = new HashSet<>();
+                cells.put(cell, inCell);
+                // Link the new cell upwards until a level already knows the branch
+                long child = cell;
+                for (Map<Long, Set<Long>> level : levels) {
+                    long node = parent(child);
+                    Set<Long> children = level.get(node);
+                    boolean created = children == null;
+                    if (created) {
+                        children = new HashSet<>();
+                        level.put(node, children);
+                    }
+                    children.add(child);
+                    if (!created) {
+                        break;
+                    }
+                    child = node;
+                }
+            }
+            inCell.add(key);
+        }
+
+        /**
+         * @return Whether the world holds no workstation any more
+         */
+        boolean remove(BlockLocationKey key) {
+            long cell = pack(key.x() >> LEVEL_SHIFTS[0], key.z() >> LEVEL_SHIFTS[0]);
+            Set<BlockLocationKey> inCell = cells.get(cell);
+            if (inCell == null || !inCell.remove(key) || !inCell.isEmpty()) {
+                return cells.isEmpty();
+            }
+            cells.remove(cell);
+            // Unlink empty branches upwards
+            long child = cell;
+            for (Map<Long, Set<Long>> level : levels) {
+                long node = parent(child);
+                Set<Long> children = level.get(node);
+                if (children == null) {
+                    break;
+                }
+                children.remove(child);
+                if (!children.isEmpty()) {
+                    break;
+                }
+                level.remove(node);
+                child = node;
+            }
+            return cells.isEmpty();
+        }
+    }
+}
@@ -1,14 +1,18 @@
 package com.bannergenerator;
 
+import com.bannergenerator.core.trace.TraceEvent;
 import net.kyori.adventure.text.Component;
 import net.kyori.adventure.text.format.NamedTextColor;
 import net.kyori.adventure.text.format.TextDecoration;
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
 import org.bukkit.Location;
 import org.bukkit.Material;
 import org.bukkit.NamespacedKey;
+import org.bukkit.Sound;
+import org.bukkit.World;
 import org.bukkit.block.Block;
 import org.bukkit.configuration.file.FileConfiguration;
-import org.bukkit.configuration.file.YamlConfiguration;
 import org.bukkit.entity.Player;
 import org.bukkit.event.EventHandler;
 import org.bukkit.event.EventPriority;
@@ -19,21 +23,31 @@ import org.bukkit.event.block.BlockExplodeEvent;
 import org.bukkit.event.block.BlockPlaceEvent;
 import org.bukkit.event.entity.EntityExplodeEvent;
 import org.bukkit.event.player.PlayerInteractEvent;
+import org.bukkit.event.world.ChunkLoadEvent;
+import org.bukkit.event.world.ChunkUnloadEvent;
+import org.bukkit.inventory.EquipmentSlot;
 import org.bukkit.inventory.ItemStack;
 import org.bukkit.inventory.meta.ItemMeta;
 import org.bukkit.persistence.PersistentDataType;
+import org.bukkit.scheduler.BukkitTask;
 import org.bukkit.util.Vector;
 
 import java.io.File;
-import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Deque;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Set;
 import java.util.UUID;
 
 /**
  * Handles creation, persistence, and interaction with the Banner Workstation custom block.
  * The workstation is represented as a cartography table tagged through persistent data.
+ * Only placement and chunk events are always listened to; the remaining handlers are registered
+ * while at least one workstation is in a loaded chunk.
  */
 public class WorkstationManager implements Listener {
 
@@ -42,13 +56,77 @@ public class WorkstationManager implements Listener {
 
     private final BannerGeneratorPlugin plugin;
     private final NamespacedKey workstationItemKey;
-    private final File dataFile;
+    private final WorkstationStorage storage;
     private final Set<BlockLocationKey> workstationBlocks = new HashSet<>();
+    private final WorkstationGrid grid = new WorkstationGrid();
+    private final Deque<ChunkKey> sweepQueue = new ArrayDeque<>();
+    private final Set<ChunkKey> loadedWorkstationChunks = new HashSet<>();
+    private final ListenerToggle loadedWorkstationListener;
+
+    private boolean dirty;
+    private int skippedFlushes;
+    private int sweepChunksPerRun;
+    private BukkitTask flushTask;
+    private BukkitTask sweepTask;
 
     public WorkstationManager(BannerGeneratorPlugin plugin) {
         this.plugin = plugin;
         this.workstationItemKey = new NamespacedKey(plugin, "banner_workstation");
-        this.dataFile = new File(plugin.getDataFolder(), "workstations.yml");
+        this.storage = createStorage(plugin);
+        this.loadedWorkstationListener = new ListenerToggle(plugin, new LoadedWorkstationListener());
+    }
+
+    /**
+     * Picks the persistence backend configured under {@code storage.backend}
+     */
+    private static WorkstationStorage createStorage(BannerGeneratorPlugin plugin) {
+        File yamlFile = new File(plugin.getDataFolder(), "workstations.yml");
+        String backend = plugin.getConfig().getString("storage.backend", "yaml").toLowerCase(Locale.ROOT);
+        return switch (backend) {
+            case "chunk" -> new ChunkWorkstationStorage(plugin, yamlFile);
+            case "sqlite" -> {
+                if (SqliteWorkstationStorage.isAvailable()) {
+                    yield new SqliteWorkstationStorage(plugin, new File(plugin.getDataFolder(), "workstations.db"), yamlFile);
+                }
+                plugin.getLogger().warning("storage.backend is sqlite but no SQLite driver is available, falling back to yaml.");
+                yield new YamlWorkstationStorage(plugin, yamlFile);
+            }
+            case "yaml" -> new YamlWorkstationStorage(plugin, yamlFile);
+            default -> {
+                plugin.getLogger().warning("Unknown storage.backend '" + backend + "', falling back to yaml.");
+                yield new YamlWorkstationStorage(plugin, yamlFile);
+            }
+        };
+    }
+
+    /**
+     * Starts the batched persistence flush and the background integrity sweep.
+     */
+    public void start() {
+        FileConfiguration config = plugin.getConfig();
+        long flushTicks = Math.max(1L, config.getLong("persistence.flush-interval-seconds", 10L)) * 20L;
+        long sweepTicks = Math.max(20L, config.getLong("reconcile.sweep-interval-ticks", 200L));
+        sweepChunksPerRun = Math.max(1, config.getInt("reconcile.sweep-chunks-per-run", 4));
+
+        flushTask = Bukkit.getScheduler().runTaskTimer(plugin, this::flush, flushTicks, flushTicks);
+        sweepTask = Bukkit.getScheduler().runTaskTimer(plugin, this::sweep, sweepTicks, sweepTicks);
+    }
+
+    /**
+     * Stops background work and writes any pending changes synchronously.
+     */
+    public void shutdown() {
+        if (flushTask != null) {
+            flushTask.cancel();
+            flushTask = null;
+        }
+        if (sweepTask != null) {
+            sweepTask.cancel();
+            sweepTask = null;
+        }
+        dirty = false;
+        loadedWorkstationListener.setActive(false);
+        storage.close(workstationBlocks);
     }
 
     /**
@@ -78,41 +156,43 @@ public class WorkstationManager implements Listener {
     }
 
     /**
-     * Loads persisted workstation locations from disk.
+     * Loads persisted workstation locations. Chunk-scoped backends only load the chunks that are
+     * currently loaded; the rest follow through {@link ChunkLoadEvent}.
      */
     public void loadWorkstations() {
         workstationBlocks.clear();
-        if (!dataFile.exists()) {
+        grid.clear();
+        loadedWorkstationChunks.clear();
+        updateListeners();
+        sweepQueue.clear();
+        storage.open();
+
+        if (!storage.isChunkScoped()) {
+            storage.loadAll().forEach(this::index);
             return;
         }
 
-        FileConfiguration config = YamlConfiguration.loadConfiguration(dataFile);
-        config.getStringList("workstations").stream()
-                .map(BlockLocationKey::fromString)
-                .forEach(key -> {
-                    if (key != null) {
-                        workstationBlocks.add(key);
-                    }
-                });
+        for (World world : Bukkit.getWorlds()) {
+            for (Chunk chunk : world.getLoadedChunks()) {
+                loadChunk(chunk);
+            }
+        }
     }
 
     /**
-     * Saves workstation locations to disk for persistence across restarts.
+     * Writes pending changes; changes are batched between periodic flushes.
      */
-    public void saveWorkstations() {
-        if (!plugin.getDataFolder().exists() && !plugin.getDataFolder().mkdirs()) {
-            plugin.getLogger().warning("Unable to create plugin data folder; workstation locations not saved.");
+    private void flush() {
+        if (!dirty) {
             return;
         }
-
-        FileConfiguration config = new YamlConfiguration();
-        config.set("workstations", workstationBlocks.stream().map(BlockLocationKey::asString).toList());
-
-        try {
-            config.save(dataFile);
-        } catch (IOException e) {
-            plugin.getLogger().severe("Failed to save workstation locations: " + e.getMessage());
+        // Under load only every n-th interval writes
+        if (++skippedFlushes < plugin.getLoadController().flushStride()) {
+            return;
         }
+        skippedFlushes = 0;
+        dirty = false;
+        storage.flush(workstationBlocks);
     }
 
     private boolean isWorkstationItem(ItemStack item) {
@@ -123,61 +203,262 @@ public class WorkstationManager implements Listener {
         return meta.getPersistentDataContainer().has(workstationItemKey, PersistentDataType.BYTE);
     }
 
+    /**
+     * Whether the block at the location is a registered workstation. Main thread only.
+     */
+    public boolean isWorkstation(Location location) {
+        return location.getWorld() != null
+                && workstationBlocks.contains(new BlockLocationKey(location.getWorld().getUID(),
+                location.getBlockX(), location.getBlockY(), location.getBlockZ()));
+    }
+
+    /**
+     * Block locations of every registered workstation in the world. Main thread only.
+     */
+    public List<Location> getWorkstationLocations(World world) {
+        UUID worldId = world.getUID();
+        return workstationBlocks.stream()
+                .filter(key -> key.worldId().equals(worldId))
+                .map(key -> new Location(world, key.x(), key.y(), key.z()))
+                .toList();
+    }
+
+    /**
+     * Copy of every workstation currently indexed. Main thread only.
+     */
+    List<BlockLocationKey> snapshotWorkstations() {
+        return List.copyOf(workstationBlocks);
+    }
+
+    /**
+     * Whether the in-memory index holds every workstation, not only those in loaded chunks
+     */
+    boolean hasFullIndex() {
+        return !storage.isChunkScoped();
+    }
+
+    /**
+     * Closest registered workstation to a location. Main thread only.
+     *
+     * @param maxDistance Largest distance considered, {@link Double#POSITIVE_INFINITY} for any
+     * @return Its block location, or null if there is none in range
+     */
+    public Location getNearestWorkstation(Location location, double maxDistance) {
+        World world = location.getWorld();
+        if (world == null) {
+            return null;
+        }
+        WorkstationGrid.Hit hit = grid.nearest(world.getUID(), location.getX(), location.getY(), location.getZ(), maxDistance);
+        return hit == null ? null : new Location(world, hit.key().x(), hit.key().y(), hit.key().z());
+    }
+
+    /**
+     * Registered workstations within a radius of a location, nearest first. Main thread only.
+     */
+    public List<Location> getWorkstationsWithin(Location location, double radius) {
+        World world = location.getWorld();
+        if (world == null) {
+            return List.of();
+        }
+        return grid.within(world.getUID(), location.getX(), location.getY(), location.getZ(), radius).stream()
+                .map(hit -> new Location(world, hit.key().x(), hit.key().y(), hit.key().z()))
+                .toList();
+    }
+
+    /**
+     * Registered workstations in one chunk, whether or not it is loaded. Main thread only.
+     */
+    public List<Location> getWorkstationsInChunk(World world, int chunkX, int chunkZ) {
+        Set<BlockLocationKey> inChunk = grid.inChunk(new ChunkKey(world.getUID(), chunkX, chunkZ));
+        if (inChunk == null) {
+            return List.of();
+        }
+        return inChunk.stream().map(key -> new Location(world, key.x(), key.y(), key.z())).toList();
+    }
+
     private boolean isWorkstationBlock(Block block) {
-        return workstationBlocks.contains(BlockLocationKey.fromBlock(block));
+        return block.getType() == Material.CARTOGRAPHY_TABLE
+                && workstationBlocks.contains(BlockLocationKey.fromBlock(block));
     }
 
     private void addWorkstation(Block block) {
-        workstationBlocks.add(BlockLocationKey.fromBlock(block));
-        saveWorkstations();
+        BlockLocationKey key = BlockLocationKey.fromBlock(block);
+        index(key);
+        storage.added(key);
+        dirty = true;
     }
 
     private void removeWorkstation(Block block) {
-        workstationBlocks.remove(BlockLocationKey.fromBlock(block));
-        saveWorkstations();
+        BlockLocationKey key = BlockLocationKey.fromBlock(block);
+        unindex(key);
+        storage.removed(key);
+        dirty = true;
+    }
+
+    private void index(BlockLocationKey key) {
+        if (workstationBlocks.add(key)) {
+            ChunkKey chunk = key.chunk();
+            grid.add(key);
+            World world = Bukkit.getWorld(chunk.worldId());
+            if (world != null && world.isChunkLoaded(chunk.x(), chunk.z()) && loadedWorkstationChunks.add(chunk)) {
+                updateListeners();
+            }
+        }
+    }
+
+    private void unindex(BlockLocationKey key) {
+        if (!workstationBlocks.remove(key)) {
+            return;
+        }
+        ChunkKey chunk = key.chunk();
+        if (grid.remove(key) && loadedWorkstationChunks.remove(chunk)) {
+            updateListeners();
+        }
     }
 
     /**
-     * Handles placement of the workstation block and records its location.
+     * Keeps the break/explode/interact handlers registered exactly while a workstation is loaded
      */
-    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
-    public void onWorkstationPlace(BlockPlaceEvent event) {
-        if (!isWorkstationItem(event.getItemInHand())) {
-            return;
+    private void updateListeners() {
+        loadedWorkstationListener.setActive(!loadedWorkstationChunks.isEmpty());
+    }
+
+    /**
+     * Checks the workstations recorded for a loaded chunk against the blocks actually there.
+     * Entries whose block is no longer a cartography table (WorldEdit, rollbacks, other plugins)
+     * are dropped from the index; the cost is proportional to the workstations in the chunk.
+     *
+     * @return Number of ghost entries removed
+     */
+    private int reconcile(Chunk chunk) {
+        Set<BlockLocationKey> recorded = grid.inChunk(ChunkKey.fromChunk(chunk));
+        if (recorded == null) {
+            return 0;
         }
 
-        Block block = event.getBlockPlaced();
-        addWorkstation(block);
-        event.getPlayer().sendMessage(Component.text("Banner Workstation placed.", NamedTextColor.GREEN));
+        List<BlockLocationKey> ghosts = new ArrayList<>();
+        for (BlockLocationKey key : recorded) {
+            if (chunk.getBlock(key.x() & 15, key.y(), key.z() & 15).getType() != Material.CARTOGRAPHY_TABLE) {
+                ghosts.add(key);
+            }
+        }
+
+        if (!ghosts.isEmpty()) {
+            for (BlockLocationKey ghost : ghosts) {
+                unindex(ghost);
+                storage.removed(ghost);
+            }
+            dirty = true;
+            plugin.getLogger().info("Dropped " + ghosts.size() + " stale workstation(s) in chunk "
+                    + chunk.getX() + "," + chunk.getZ() + " of " + chunk.getWorld().getName() + ".");
+        }
+        return ghosts.size();
     }
 
     /**
-     * Handles block breaking to ensure workstation drops the custom item and is deregistered.
+     * Loads (for chunk-scoped storage) and reconciles workstations as soon as their chunk loads.
      */
-    @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
-    public void onWorkstationBreak(BlockBreakEvent event) {
-        Block block = event.getBlock();
-        if (!isWorkstationBlock(block)) {
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkLoad(ChunkLoadEvent event) {
+        if (storage.isChunkScoped()) {
+            loadChunk(event.getChunk());
+            return;
+        }
+        reconcile(event.getChunk());
+        ChunkKey key = ChunkKey.fromChunk(event.getChunk());
+        if (grid.hasChunk(key) && loadedWorkstationChunks.add(key)) {
+            updateListeners();
+        }
+    }
+
+    /**
+     * Chunk-scoped storage keeps only loaded chunks in memory.
+     */
+    @EventHandler(priority = EventPriority.MONITOR)
+    public void onChunkUnload(ChunkUnloadEvent event) {
+        ChunkKey key = ChunkKey.fromChunk(event.getChunk());
+        if (loadedWorkstationChunks.remove(key)) {
+            updateListeners();
+        }
+        if (!storage.isChunkScoped()) {
             return;
         }
+        Set<BlockLocationKey> inChunk = grid.removeChunk(key);
+        if (inChunk != null) {
+            workstationBlocks.removeAll(inChunk);
+        }
+    }
 
-        event.setDropItems(false);
-        removeWorkstation(block);
-        block.getWorld().dropItemNaturally(block.getLocation().add(new Vector(0.5, 0.1, 0.5)), createWorkstationItem());
-        event.getPlayer().sendMessage(Component.text("Banner Workstation removed.", NamedTextColor.YELLOW));
+    private void loadChunk(Chunk chunk) {
+        // Completes exceptionally after disable, which skips this callback
+        storage.loadChunk(chunk).thenAccept(keys -> {
+            if (keys.isEmpty() || !chunk.isLoaded()) {
+                return;
+            }
+            keys.forEach(this::index);
+            reconcile(chunk);
+        });
+    }
+
+    /**
+     * Throttled pass over chunks that stay loaded (spawn and force-loaded chunks never fire
+     * ChunkLoadEvent again). Only a few chunks that actually hold workstations are checked per run.
+     */
+    private void sweep() {
+        if (sweepQueue.isEmpty()) {
+            sweepQueue.addAll(grid.chunks());
+        }
+
+        for (int checked = 0; checked < sweepChunksPerRun && !sweepQueue.isEmpty(); ) {
+            ChunkKey key = sweepQueue.pollFirst();
+            World world = Bukkit.getWorld(key.worldId());
+            if (world == null || !world.isChunkLoaded(key.x(), key.z()) || !grid.hasChunk(key)) {
+                continue;
+            }
+            reconcile(world.getChunkAt(key.x(), key.z()));
+            checked++;
+        }
     }
 
     /**
-     * Prevents explosions from silently removing workstation blocks.
+     * Handles placement of the workstation block and records its location.
      */
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onBlockExplode(BlockExplodeEvent event) {
-        event.blockList().removeIf(block -> handleExplosionRemoval(block));
+    @EventHandler(priority = EventPriority.MONITOR, ignoreCancelled = true)
+    public void onWorkstationPlace(BlockPlaceEvent event) {
+        if (!isWorkstationItem(event.getItemInHand())) {
+            return;
+        }
+
+        Block block = event.getBlockPlaced();
+        addWorkstation(block);
+        plugin.getTraceRecorder().recordWorkstation(event.getPlayer(), TraceEvent.Action.PLACE, block);
+        event.getPlayer().sendMessage(Component.text("Banner Workstation placed.", NamedTextColor.GREEN));
     }
 
-    @EventHandler(priority = EventPriority.HIGHEST)
-    public void onEntityExplode(EntityExplodeEvent event) {
-        event.blockList().removeIf(block -> handleExplosionRemoval(block));
+    /**
+     * Runs a recorded workstation event through the same checks and index bookkeeping as the live handler,
+     * then undoes it. Nothing is stored, dropped, opened or sent, and the world is left untouched: a place
+     * indexes the position and removes it again, a break removes an indexed workstation and restores it, and
+     * an interact repeats the workstation check. Main thread only.
+     */
+    void replay(TraceEvent.Action action, Block block) {
+        BlockLocationKey key = BlockLocationKey.fromBlock(block);
+        switch (action) {
+            case PLACE -> {
+                if (!workstationBlocks.contains(key)) {
+                    index(key);
+                    unindex(key);
+                }
+            }
+            case BREAK -> {
+                if (isWorkstationBlock(block)) {
+                    unindex(key);
+                    index(key);
+                }
+            }
+            // The interface is only opened for a real player
+            case INTERACT -> isWorkstationBlock(block);
+        }
     }
 
     private boolean handleExplosionRemoval(Block block) {
@@ -192,55 +473,85 @@ public class WorkstationManager implements Listener {
     }
 
     /**
-     * Opens the custom GUI when players interact with the workstation.
+     * Break, explosion and interact handlers. Registered only while a workstation sits in a loaded chunk,
+     * so these hot events cost nothing on servers (or stretches of time) without one.
      */
-    @EventHandler
-    public void onPlayerInteract(PlayerInteractEvent event) {
-        if (event.getAction() != Action.RIGHT_CLICK_BLOCK) {
-            return;
+    private final class LoadedWorkstationListener implements Listener {
+
+        /**
+         * Handles block breaking to ensure workstation drops the custom item and is deregistered.
+         */
+        @EventHandler(priority = EventPriority.LOWEST, ignoreCancelled = true)
+        public void onWorkstationBreak(BlockBreakEvent event) {
+            Block block = event.getBlock();
+            if (!isWorkstationBlock(block)) {
+                return;
+            }
+
+            plugin.getTraceRecorder().recordWorkstation(event.getPlayer(), TraceEvent.Action.BREAK, block);
+            event.setDropItems(false);
+            removeWorkstation(block);
+            block.getWorld().dropItemNaturally(block.getLocation().add(new Vector(0.5, 0.1, 0.5)), createWorkstationItem());
+            event.getPlayer().sendMessage(Component.text("Banner Workstation removed.", NamedTextColor.YELLOW));
         }
 
-        Block block = event.getClickedBlock();
-        if (block == null || !isWorkstationBlock(block)) {
-            return;
+        /**
+         * Prevents explosions from silently removing workstation blocks.
+         */
+        @EventHandler(priority = EventPriority.HIGHEST)
+        public void onBlockExplode(BlockExplodeEvent event) {
+            event.blockList().removeIf(block -> handleExplosionRemoval(block));
         }
 
-        event.setCancelled(true);
-        Player player = event.getPlayer();
-        plugin.getPacketHandler().sendOpenGuiPacket(player);
-    }
+        @EventHandler(priority = EventPriority.HIGHEST)
+        public void onEntityExplode(EntityExplodeEvent event) {
+            event.blockList().removeIf(block -> handleExplosionRemoval(block));
+        }
 
-    /**
-     * Compact immutable key representing a block's location.
-     */
-    private record BlockLocationKey(UUID worldId, int x, int y, int z) {
+        /**
+         * Opens the custom GUI when players interact with the workstation.
+         * Players running the Fabric client get the native screen, everyone else the palette or anvil interface ({@code gui.vanilla}).
+         * Sneaking with a letter banner in hand recycles the stack instead.
+         */
+        @EventHandler
+        public void onPlayerInteract(PlayerInteractEvent event) {
+            if (event.getAction() != Action.RIGHT_CLICK_BLOCK) {
+                return;
+            }
 
-        static BlockLocationKey fromBlock(Block block) {
-            Location loc = block.getLocation();
-            return new BlockLocationKey(loc.getWorld().getUID(), loc.getBlockX(), loc.getBlockY(), loc.getBlockZ());
-        }
+            Block block = event.getClickedBlock();
+            if (block == null || !isWorkstationBlock(block)) {
+                return;
+            }
 
-        static BlockLocationKey fromString(String raw) {
-            if (raw == null || raw.isEmpty()) {
-                return null;
+            event.setCancelled(true);
+            // One click fires once per hand; only the main-hand event acts, so the off-hand one can neither
+            // reopen the GUI nor open it right after a recycle emptied the main hand
+            if (event.getHand() != EquipmentSlot.HAND) {
+                return;
             }
-            String[] parts = raw.split(",");
-            if (parts.length != 4) {
-                return null;
+            Player player = event.getPlayer();
+            if (player.isSneaking() && BannerRecycler.isLetterBanner(player.getInventory().getItemInMainHand())) {
+                int recycled = BannerRecycler.recycleHeld(player);
+                if (recycled == 0) {
+                    player.sendMessage(Component.text("Only letter banners made from your own banners and dye can be recycled.",
+                            NamedTextColor.RED));
+                    return;
+                }
+                player.playSound(block.getLocation(), Sound.UI_LOOM_TAKE_RESULT, 1.0f, 0.8f);
+                player.sendMessage(Component.text("Recycled " + recycled + " letter banner(s) into banners and dye.",
+                        NamedTextColor.GREEN));
+                return;
             }
-            try {
-                UUID world = UUID.fromString(parts[0]);
-                int x = Integer.parseInt(parts[1]);
-                int y = Integer.parseInt(parts[2]);
-                int z = Integer.parseInt(parts[3]);
-                return new BlockLocationKey(world, x, y, z);
-            } catch (IllegalArgumentException ex) {
-                return null;
+            plugin.getTraceRecorder().recordWorkstation(player, TraceEvent.Action.INTERACT, block);
+            PacketHandler packetHandler = plugin.getPacketHandler();
+            if (packetHandler.hasClientMod(player)) {
+                packetHandler.sendOpenGuiPacket(player);
+            } else if (plugin.getPaletteGui().isEnabled()) {
+                plugin.getPaletteGui().open(player);
+            } else {
+                plugin.getGuiManager().openBannerGui(player);
             }
         }
-
-        String asString() {
-            return worldId + "," + x + "," + y + "," + z;
-        }
     }
 }
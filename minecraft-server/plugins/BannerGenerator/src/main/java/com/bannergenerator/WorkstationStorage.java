@@ -0,0 +1,60 @@
+package com.bannergenerator;
+
+import org.bukkit.Chunk;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Persistence backend for workstation locations.
+ * Global backends load every workstation at startup; chunk-scoped backends only know the
+ * workstations of loaded chunks and are asked for them as chunks load. All methods are
+ * called on the main thread.
+ */
+interface WorkstationStorage {
+
+    /**
+     * Prepares the backend; called once before anything is loaded
+     */
+    void open();
+
+    /**
+     * Whether workstations are loaded per chunk instead of all at startup
+     */
+    boolean isChunkScoped();
+
+    /**
+     * Every persisted workstation. Chunk-scoped backends return nothing here and answer through
+     * {@link #loadChunk} instead.
+     */
+    Collection<BlockLocationKey> loadAll();
+
+    /**
+     * Persisted workstations of a chunk that just loaded. Global backends return an already completed,
+     * empty future because {@link #loadAll} reported everything at startup.
+     * The future must complete on the main thread; once the plugin is disabled it completes exceptionally
+     * instead, so callbacks never run on a storage thread.
+     */
+    CompletableFuture<Collection<BlockLocationKey>> loadChunk(Chunk chunk);
+
+    /**
+     * A workstation was registered
+     */
+    void added(BlockLocationKey key);
+
+    /**
+     * A workstation was removed or found to be stale
+     */
+    void removed(BlockLocationKey key);
+
+    /**
+     * Periodic flush after changes; receives the current in-memory index
+     */
+    void flush(Set<BlockLocationKey> index);
+
+    /**
+     * Final synchronous save on shutdown
+     */
+    void close(Set<BlockLocationKey> index);
+}
@@ -0,0 +1,116 @@
+package com.bannergenerator;
+
+import org.bukkit.Bukkit;
+import org.bukkit.Chunk;
+import org.bukkit.configuration.file.FileConfiguration;
+import org.bukkit.configuration.file.YamlConfiguration;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Stores every workstation in a single {@code workstations.yml}.
+ * The whole file is rewritten off the main thread whenever a flush finds changes.
+ */
+class YamlWorkstationStorage implements WorkstationStorage {
+
+    private final BannerGeneratorPlugin plugin;
+    private final File dataFile;
+    private final Object saveLock = new Object();
+    private final AtomicLong saveSequence = new AtomicLong();
+    private long lastWrittenSequence;
+
+    YamlWorkstationStorage(BannerGeneratorPlugin plugin, File dataFile) {
+        this.plugin = plugin;
+        this.dataFile = dataFile;
+    }
+
+    @Override
+    public void open() {
+    }
+
+    @Override
+    public boolean isChunkScoped() {
+        return false;
+    }
+
+    @Override
+    public Collection<BlockLocationKey> loadAll() {
+        return read(dataFile);
+    }
+
+    @Override
+    public CompletableFuture<Collection<BlockLocationKey>> loadChunk(Chunk chunk) {
+        return CompletableFuture.completedFuture(List.of()); // Everything was loaded at startup
+    }
+
+    @Override
+    public void added(BlockLocationKey key) {
+    }
+
+    @Override
+    public void removed(BlockLocationKey key) {
+    }
+
+    @Override
+    public void flush(Set<BlockLocationKey> index) {
+        long sequence = saveSequence.incrementAndGet();
+        List<String> snapshot = snapshot(index);
+        Bukkit.getScheduler().runTaskAsynchronously(plugin, () -> write(sequence, snapshot));
+    }
+
+    @Override
+    public void close(Set<BlockLocationKey> index) {
+        write(saveSequence.incrementAndGet(), snapshot(index));
+    }
+
+    /**
+     * Reads workstation entries from a YAML file, skipping malformed lines
+     */
+    static List<BlockLocationKey> read(File file) {
+        if (!file.exists()) {
+            return List.of();
+        }
+        FileConfiguration config = YamlConfiguration.loadConfiguration(file);
+        return config.getStringList("workstations").stream()
+                .map(BlockLocationKey::fromString)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
+    private static List<String> snapshot(Collection<BlockLocationKey> index) {
+        return index.stream().map(BlockLocationKey::asString).toList();
+    }
+
+    private void write(long sequence, List<String> entries) {
+        synchronized (saveLock) {
+            if (sequence < lastWrittenSequence) {
+                return; // A newer snapshot is already on disk
+            }
+            lastWrittenSequence = sequence;
+            write(plugin, dataFile, entries);
+        }
+    }
+
+    static void write(BannerGeneratorPlugin plugin, File file, List<String> entries) {
+        if (!plugin.getDataFolder().exists() && !plugin.getDataFolder().mkdirs()) {
+            plugin.getLogger().warning("Unable to create plugin data folder; workstation locations not saved.");
+            return;
+        }
+
+        FileConfiguration config = new YamlConfiguration();
+        config.set("workstations", entries);
+
+        try {
+            config.save(file);
+        } catch (IOException e) {
+            plugin.getLogger().severe("Failed to save workstation locations: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.bannergenerator;
+
+import org.bukkit.DyeColor;
+import org.bukkit.inventory.ItemStack;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class PhraseCacheTest {
+
+    // Empty phrases keep ItemStack, which needs a running server, out of these tests
+    private static final ItemStack[] BANNERS = new ItemStack[0];
+
+    private static final PhraseCache.Key SHOP = new PhraseCache.Key("SHOP", DyeColor.WHITE, DyeColor.BLACK);
+    private static final PhraseCache.Key SPAWN = new PhraseCache.Key("SPAWN", DyeColor.WHITE, DyeColor.BLACK);
+    private static final PhraseCache.Key ONCE = new PhraseCache.Key("ONCE", DyeColor.WHITE, DyeColor.BLACK);
+
+    @Test
+    void returnsCopiesOfCachedPhrases() {
+        PhraseCache cache = new PhraseCache(4);
+        assertNull(cache.get(SHOP));
+        cache.put(SHOP, BANNERS);
+
+        ItemStack[] cached = cache.get(SHOP);
+        assertNotNull(cached);
+        assertNotSame(BANNERS, cached);
+
+        PhraseCache.Stats stats = cache.stats();
+        assertEquals(1, stats.size());
+        assertEquals(1, stats.hits());
+        assertEquals(1, stats.misses());
+        assertEquals(0.5, stats.hitRate());
+    }
+
+    @Test
+    void keysDifferByPacking() {
+        PhraseCache cache = new PhraseCache(4);
+        cache.put(SHOP, BANNERS);
+        assertNull(cache.get(new PhraseCache.Key("SHOP", DyeColor.WHITE, DyeColor.BLACK, BannerPacking.BUNDLE)));
+    }
+
+    @Test
+    void rejectsOneOffPhrasesWhenFull() {
+        PhraseCache cache = new PhraseCache(2);
+        request(cache, SHOP);
+        request(cache, SPAWN);
+        request(cache, SHOP);
+
+        // Seen as often as the eldest entry, so it does not displace it
+        request(cache, ONCE);
+        PhraseCache.Stats stats = cache.stats();
+        assertEquals(2, stats.size());
+        assertEquals(2, stats.admissions());
+        assertEquals(1, stats.rejections());
+        assertEquals(0, stats.evictions());
+        assertNotNull(cache.get(SPAWN));
+    }
+
+    @Test
+    void admitsPhrasesRequestedMoreOftenThanTheVictim() {
+        PhraseCache cache = new PhraseCache(2);
+        request(cache, SHOP);
+        request(cache, SPAWN);
+        request(cache, ONCE);
+        request(cache, ONCE);
+
+        // SHOP was the least recently used entry and had been requested once
+        PhraseCache.Stats stats = cache.stats();
+        assertEquals(3, stats.admissions());
+        assertEquals(1, stats.rejections());
+        assertEquals(1, stats.evictions());
+        assertNotNull(cache.get(ONCE));
+        assertNotNull(cache.get(SPAWN));
+        assertNull(cache.get(SHOP));
+    }
+
+    @Test
+    void clearDropsEntriesButKeepsCounters() {
+        PhraseCache cache = new PhraseCache(2);
+        request(cache, SHOP);
+        cache.clear();
+        assertEquals(0, cache.stats().size());
+        assertEquals(1, cache.stats().admissions());
+        assertNull(cache.get(SHOP));
+    }
+
+    /**
+     * What the generator does: look the phrase up and offer it to the cache on a miss
+     */
+    private static void request(PhraseCache cache, PhraseCache.Key key) {
+        if (cache.get(key) == null) {
+            cache.put(key, BANNERS);
+        }
+    }
+}
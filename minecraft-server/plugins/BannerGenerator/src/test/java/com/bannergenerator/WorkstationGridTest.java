@@ -0,0 +1,118 @@
+package com.bannergenerator;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class WorkstationGridTest {
+
+    private static final UUID WORLD = new UUID(1, 1);
+    private static final UUID NETHER = new UUID(2, 2);
+
+    @Test
+    void tracksWorkstationsPerChunk() {
+        WorkstationGrid grid = new WorkstationGrid();
+        BlockLocationKey first = new BlockLocationKey(WORLD, 1, 64, 1);
+        BlockLocationKey second = new BlockLocationKey(WORLD, 15, 70, 15);
+        BlockLocationKey negative = new BlockLocationKey(WORLD, -1, 64, -1);
+        grid.add(first);
+        grid.add(second);
+        grid.add(negative);
+
+        assertEquals(Set.of(first, second), grid.inChunk(new ChunkKey(WORLD, 0, 0)));
+        assertEquals(Set.of(negative), grid.inChunk(new ChunkKey(WORLD, -1, -1)));
+        assertFalse(grid.hasChunk(new ChunkKey(NETHER, 0, 0)));
+        assertEquals(2, grid.chunks().size());
+
+        assertFalse(grid.remove(first));
+        assertTrue(grid.remove(second));
+        assertFalse(grid.hasChunk(new ChunkKey(WORLD, 0, 0)));
+
+        assertEquals(Set.of(negative), grid.removeChunk(new ChunkKey(WORLD, -1, -1)));
+        assertNull(grid.removeChunk(new ChunkKey(WORLD, -1, -1)));
+        assertTrue(grid.chunks().isEmpty());
+        assertNull(grid.nearest(WORLD, 0, 64, 0, Double.POSITIVE_INFINITY));
+    }
+
+    @Test
+    void findsTheNearestWorkstationAcrossCellsAndWorlds() {
+        WorkstationGrid grid = new WorkstationGrid();
+        BlockLocationKey near = new BlockLocationKey(WORLD, 300, 64, 0);
+        BlockLocationKey far = new BlockLocationKey(WORLD, -5000, 64, 0);
+        grid.add(near);
+        grid.add(far);
+        grid.add(new BlockLocationKey(NETHER, 0, 64, 0));
+
+        WorkstationGrid.Hit hit = grid.nearest(WORLD, 0.5, 64.5, 0.5, Double.POSITIVE_INFINITY);
+        assertEquals(near, hit.key());
+        assertEquals(300.0 * 300.0, hit.distanceSquared());
+
+        assertEquals(far, grid.nearest(WORLD, -4000, 64, 0, Double.POSITIVE_INFINITY).key());
+        assertNull(grid.nearest(WORLD, 0.5, 64.5, 0.5, 299));
+        assertEquals(near, grid.nearest(WORLD, 0.5, 64.5, 0.5, 300).key());
+
+        grid.remove(near);
+        assertEquals(far, grid.nearest(WORLD, 0.5, 64.5, 0.5, Double.POSITIVE_INFINITY).key());
+    }
+
+    @Test
+    void nearestAgreesWithABruteForceScan() {
+        WorkstationGrid grid = new WorkstationGrid();
+        Random random = new Random(42);
+        List<BlockLocationKey> keys = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            BlockLocationKey key = new BlockLocationKey(WORLD, random.nextInt(20_000) - 10_000, random.nextInt(300) - 64,
+                    random.nextInt(20_000) - 10_000);
+            keys.add(key);
+            grid.add(key);
+        }
+
+        for (int i = 0; i < 200; i++) {
+            double x = random.nextInt(24_000) - 12_000;
+            double y = random.nextInt(300) - 64;
+            double z = random.nextInt(24_000) - 12_000;
+            double best = Double.POSITIVE_INFINITY;
+            for (BlockLocationKey key : keys) {
+                best = Math.min(best, distanceSquared(key, x, y, z));
+            }
+            assertEquals(best, grid.nearest(WORLD, x, y, z, Double.POSITIVE_INFINITY).distanceSquared());
+        }
+    }
+
+    @Test
+    void withinReturnsHitsInRangeNearestFirst() {
+        WorkstationGrid grid = new WorkstationGrid();
+        BlockLocationKey a = new BlockLocationKey(WORLD, 10, 64, 0);
+        BlockLocationKey b = new BlockLocationKey(WORLD, 0, 64, -3);
+        BlockLocationKey c = new BlockLocationKey(WORLD, 255, 64, 0);
+        BlockLocationKey d = new BlockLocationKey(WORLD, 257, 64, 0);
+        grid.add(a);
+        grid.add(b);
+        grid.add(c);
+        grid.add(d);
+
+        List<WorkstationGrid.Hit> hits = grid.within(WORLD, 0.5, 64.5, 0.5, 10);
+        assertEquals(List.of(b, a), hits.stream().map(WorkstationGrid.Hit::key).toList());
+
+        // The two stations straddle a cell border
+        assertEquals(List.of(c, d), grid.within(WORLD, 255.5, 64.5, 0.5, 2).stream().map(WorkstationGrid.Hit::key).toList());
+        assertTrue(grid.within(WORLD, 0.5, 64.5, 0.5, -1).isEmpty());
+        assertTrue(grid.within(NETHER, 0.5, 64.5, 0.5, 1000).isEmpty());
+    }
+
+    private static double distanceSquared(BlockLocationKey key, double x, double y, double z) {
+        double dx = key.x() + 0.5 - x;
+        double dy = key.y() + 0.5 - y;
+        double dz = key.z() + 0.5 - z;
+        return dx * dx + dy * dy + dz * dz;
+    }
+}